@@ -0,0 +1,191 @@
+package com.ainexus.hospital.patient.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing {@code rows} patient_audit_log entries in one transaction against PostgreSQL: IDENTITY
+ * keys vs. the pooled sequence of V16 with JDBC batching.
+ *
+ * identity replays what Hibernate does for an IDENTITY entity — one INSERT ... RETURNING id
+ * per row, executed as soon as the entity is persisted. pooled replays the sequence-generated
+ * entity with hibernate.jdbc.batch_size 50: one nextval per 50 ids (pooled-lo), and one
+ * executeBatch per 50 rows, which reWriteBatchedInserts sends as a multi-row INSERT.
+ * rows = 50 stands for the audit entries of a batch of status changes, 1000 for an
+ * import-sized audit trail (the importer itself COPYs its audit rows).
+ *
+ * The roundTrips counter divided by the primary score is the number of statements sent per
+ * transaction, commit included: rows + 1 for identity, 2 * ceil(rows / 50) + 1 for pooled.
+ *
+ * Needs Docker (Testcontainers).
+ * Run:
+ *   mvn -P benchmark test-compile exec:exec -Djmh.args="AuditLogInsert"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuditLogInsertBenchmark {
+
+    private static final int ALLOCATION_SIZE = 50;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_RETURNING_ID = """
+            INSERT INTO patient_audit_log (timestamp, operation, patient_id, performed_by)
+            VALUES (?, 'DEACTIVATE', ?, 'bench')
+            RETURNING id
+            """;
+
+    private static final String INSERT_WITH_ID = """
+            INSERT INTO patient_audit_log (id, timestamp, operation, patient_id, performed_by)
+            VALUES (?, ?, 'DEACTIVATE', ?, 'bench')
+            """;
+
+    private static final String NEXT_ID = "SELECT nextval('patient_audit_log_id_seq')";
+
+    @Param({"50", "1000"})
+    public int rows;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    /** One writing thread with its own connection, statements and pooled-lo block. */
+    @State(Scope.Thread)
+    public static class Writer {
+        Connection connection;
+        PreparedStatement insertReturningId;
+        PreparedStatement insertWithId;
+        PreparedStatement nextId;
+        long nextFree;
+        long blockEnd;
+
+        @Setup
+        public void setUp(AuditLogInsertBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+            connection.setAutoCommit(false);
+            insertReturningId = connection.prepareStatement(INSERT_RETURNING_ID);
+            insertWithId = connection.prepareStatement(INSERT_WITH_ID);
+            nextId = connection.prepareStatement(NEXT_ID);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /** Statements sent to the database, commits included. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+        }
+    }
+
+    @Benchmark
+    public long identity(Writer writer, RoundTrips counter) throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        long lastId = 0;
+        for (int i = 0; i < rows; i++) {
+            writer.insertReturningId.setTimestamp(1, now);
+            writer.insertReturningId.setString(2, patientId(i));
+            try (ResultSet id = writer.insertReturningId.executeQuery()) {
+                id.next();
+                lastId = id.getLong(1);
+            }
+            counter.roundTrips++;
+        }
+        writer.connection.commit();
+        counter.roundTrips++;
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooled(Writer writer, RoundTrips counter) throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        long lastId = 0;
+        int pending = 0;
+        for (int i = 0; i < rows; i++) {
+            if (writer.nextFree == writer.blockEnd) {
+                try (ResultSet id = writer.nextId.executeQuery()) {
+                    id.next();
+                    writer.nextFree = id.getLong(1);
+                }
+                writer.blockEnd = writer.nextFree + ALLOCATION_SIZE;
+                counter.roundTrips++;
+            }
+            lastId = writer.nextFree++;
+            writer.insertWithId.setLong(1, lastId);
+            writer.insertWithId.setTimestamp(2, now);
+            writer.insertWithId.setString(3, patientId(i));
+            writer.insertWithId.addBatch();
+            if (++pending == BATCH_SIZE) {
+                writer.insertWithId.executeBatch();
+                counter.roundTrips++;
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            writer.insertWithId.executeBatch();
+            counter.roundTrips++;
+        }
+        writer.connection.commit();
+        counter.roundTrips++;
+        return lastId;
+    }
+
+    private static String patientId(int i) {
+        return "P2026" + (1000 + i);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ainexus.hospital.patient.benchmark;
+
+import com.ainexus.hospital.patient.security.BearerToken;
+import com.ainexus.hospital.patient.security.JwtTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token pre-processing cost: legacy vs. BearerToken.
+ *
+ * legacyPipeline reproduces what every authenticated request did before BearerToken —
+ * BlacklistCheckFilter.extractJti (substring, split, pad, decode, payload String, jti
+ * substring) followed by JwtAuthFilter's own substring of the header. singlePass is the
+ * BearerToken path shared by both filters. Signature verification is identical in both
+ * and excluded.
+ *
+ * Run (reports gc.alloc.rate.norm = bytes allocated per operation):
+ *   mvn -P benchmark test-compile exec:exec -Djmh.args="BearerTokenParse -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BearerTokenParseBenchmark {
+
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtTokenService tokenService = new JwtTokenService(
+                "benchmark-secret-key-at-least-32-characters", 16, new SimpleMeterRegistry());
+        long now = System.currentTimeMillis();
+        authorizationHeader = "Bearer " + tokenService.sign(UUID.randomUUID().toString(), "U2026001",
+                Map.of("username", "doctor1", "role", "DOCTOR"),
+                new Date(now), new Date(now + 8 * 3_600_000L));
+    }
+
+    @Benchmark
+    public void legacyPipeline(Blackhole bh) {
+        // BlacklistCheckFilter
+        String rawToken = authorizationHeader.substring(7);
+        bh.consume(legacyExtractJti(rawToken));
+        // JwtAuthFilter
+        bh.consume(authorizationHeader.substring(7));
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        BearerToken token = BearerToken.fromHeader(authorizationHeader);
+        bh.consume(token.jti());
+        bh.consume(token.value());
+    }
+
+    private static String legacyExtractJti(String rawToken) {
+        String[] parts = rawToken.split("\\.");
+        if (parts.length < 2) return null;
+        String segment = parts[1];
+        int padding = (4 - segment.length() % 4) % 4;
+        byte[] decoded = Base64.getUrlDecoder().decode(segment + "=".repeat(padding));
+        String payload = new String(decoded, StandardCharsets.UTF_8);
+        String key = "\"jti\":\"";
+        int idx = payload.indexOf(key);
+        if (idx < 0) return null;
+        int start = idx + key.length();
+        int end = payload.indexOf('"', start);
+        return end < 0 ? null : payload.substring(start, end);
+    }
+}
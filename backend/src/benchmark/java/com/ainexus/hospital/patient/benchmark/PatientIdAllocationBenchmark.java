@@ -0,0 +1,168 @@
+package com.ainexus.hospital.patient.benchmark;
+
+import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Patient registration throughput against PostgreSQL: ID from the row-locked sequence vs.
+ * from hi/lo blocks.
+ *
+ * Each operation is one registration transaction — take a patient ID, insert the patient row
+ * and its REGISTER audit row, commit. rowLocked takes the ID the way PatientIdGeneratorService
+ * used to, by incrementing the year's patient_id_sequences row inside that transaction, so the
+ * row lock is held until commit and registrations serialize. blockAllocated takes it from a
+ * PatientIdGeneratorService; {@code nodes} separate instances (threads assigned round robin)
+ * stand in for application nodes sharing the database.
+ *
+ * Compare thread counts with -t; throughput of blockAllocated should grow with threads and
+ * nodes while rowLocked stays flat.
+ *
+ * Needs Docker (Testcontainers).
+ * Run:
+ *   mvn -P benchmark test-compile exec:exec -Djmh.args="PatientIdAllocation -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PatientIdAllocationBenchmark {
+
+    private static final int YEAR = 2026;
+
+    private static final String LOCKED_INCREMENT = """
+            INSERT INTO patient_id_sequences (year, last_sequence) VALUES (?, 1)
+            ON CONFLICT (year) DO UPDATE SET last_sequence = patient_id_sequences.last_sequence + 1
+            RETURNING last_sequence
+            """;
+
+    private static final String INSERT_PATIENT = """
+            INSERT INTO patients (patient_id, first_name, last_name, date_of_birth, gender, phone,
+                                  status, created_at, created_by, updated_at, updated_by)
+            VALUES (?, 'Bench', 'Patient', DATE '1980-01-01', 'FEMALE', '555-123-4567',
+                    'ACTIVE', NOW(), 'bench', NOW(), 'bench')
+            """;
+
+    private static final String INSERT_AUDIT = """
+            INSERT INTO patient_audit_log (operation, patient_id, performed_by) VALUES ('REGISTER', ?, 'bench')
+            """;
+
+    @Param({"1", "4"})
+    public int nodes;
+
+    @Param({"50"})
+    public int blockSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private final List<PatientIdGeneratorService> generators = new ArrayList<>();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine").withCommand("postgres", "-c", "max_connections=200");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(128);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        for (int i = 0; i < nodes; i++) {
+            generators.add(new PatientIdGeneratorService(jdbcTemplate, transactionManager,
+                    new SimpleMeterRegistry(), blockSize));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    /** One registering thread: its own connection, pinned to one of the nodes. */
+    @State(Scope.Thread)
+    public static class Registrar {
+        Connection connection;
+        PatientIdGeneratorService generator;
+
+        @Setup
+        public void setUp(PatientIdAllocationBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+            connection.setAutoCommit(false);
+            generator = benchmark.generators.get(benchmark.threadCounter.getAndIncrement() % benchmark.nodes);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String rowLocked(Registrar registrar) throws SQLException {
+        Connection connection = registrar.connection;
+        try (PreparedStatement ps = connection.prepareStatement(LOCKED_INCREMENT)) {
+            ps.setInt(1, YEAR);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return register(connection, format(rs.getInt(1)));
+            }
+        }
+    }
+
+    @Benchmark
+    public String blockAllocated(Registrar registrar) throws SQLException {
+        return register(registrar.connection, registrar.generator.generatePatientId(YEAR));
+    }
+
+    private static String register(Connection connection, String patientId) throws SQLException {
+        try (PreparedStatement patient = connection.prepareStatement(INSERT_PATIENT);
+             PreparedStatement audit = connection.prepareStatement(INSERT_AUDIT)) {
+            patient.setString(1, patientId);
+            patient.executeUpdate();
+            audit.setString(1, patientId);
+            audit.executeUpdate();
+        }
+        connection.commit();
+        return patientId;
+    }
+
+    private static String format(int sequence) {
+        return "P" + YEAR + (sequence <= 999 ? String.format("%03d", sequence) : String.valueOf(sequence));
+    }
+}
@@ -0,0 +1,164 @@
+package com.ainexus.hospital.patient.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patient name search against PostgreSQL: LIKE path vs. ranked full-text path.
+ *
+ * likeSurname is what PatientRepository.searchByText issues today for "smithson" — the
+ * trigram-indexed LIKE predicate, page plus COUNT. rankedFullName and rankedPrefixes are
+ * searchIdsByName for "Anna Smithson" and "ann smi" on idx_patients_full_text, page of IDs
+ * plus COUNT (the follow-up summary lookup by primary key is left out); the LIKE path cannot
+ * answer a multi-word query at all. Statements are the SQL Hibernate generates for the
+ * repository queries, with the status filter bound to ACTIVE.
+ *
+ * Needs Docker (Testcontainers). Seeding 1M rows takes a minute or two per fork.
+ * Run:
+ *   mvn -P benchmark test-compile exec:exec -Djmh.args="PatientNameSearch"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PatientNameSearchBenchmark {
+
+    private static final String SUMMARY_COLUMNS =
+            "p.patient_id, p.first_name, p.last_name, p.date_of_birth, p.gender, p.phone, p.status";
+
+    private static final String LIKE_WHERE = """
+            WHERE (LOWER(p.first_name) LIKE ? OR LOWER(p.last_name) LIKE ? OR p.phone LIKE ?
+                   OR LOWER(p.email) LIKE ? OR p.patient_id LIKE ?)
+            AND p.status = 'ACTIVE'
+            """;
+
+    private static final String NAME_WHERE = """
+            WHERE to_tsvector('english', p.first_name || ' ' || p.last_name) @@ to_tsquery('english', ?)
+            AND p.status = 'ACTIVE'
+            """;
+
+    private static final String NAME_ORDER = """
+            ORDER BY ts_rank(to_tsvector('english', p.first_name || ' ' || p.last_name),
+                             to_tsquery('english', ?)) DESC,
+                     p.created_at DESC, p.patient_id DESC
+            """;
+
+    @Param({"100000", "1000000"})
+    public int patients;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement likePage;
+    private PreparedStatement likeCount;
+    private PreparedStatement namePage;
+    private PreparedStatement nameCount;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        seed();
+
+        likePage = connection.prepareStatement(
+                "SELECT " + SUMMARY_COLUMNS + " FROM patients p " + LIKE_WHERE
+                        + " ORDER BY p.created_at DESC, p.patient_id DESC LIMIT 20");
+        likeCount = connection.prepareStatement("SELECT COUNT(*) FROM patients p " + LIKE_WHERE);
+        namePage = connection.prepareStatement(
+                "SELECT p.patient_id FROM patients p " + NAME_WHERE + NAME_ORDER + " LIMIT 20");
+        nameCount = connection.prepareStatement("SELECT COUNT(*) FROM patients p " + NAME_WHERE);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void likeSurname(Blackhole bh) throws SQLException {
+        for (PreparedStatement ps : new PreparedStatement[]{likePage, likeCount}) {
+            ps.setString(1, "%smithson%");
+            ps.setString(2, "%smithson%");
+            ps.setString(3, "%smithson%");
+            ps.setString(4, "%smithson%");
+            ps.setString(5, "smithson%");
+            drain(ps, bh);
+        }
+    }
+
+    @Benchmark
+    public void rankedFullName(Blackhole bh) throws SQLException {
+        ranked("anna:* & smithson:*", bh);
+    }
+
+    @Benchmark
+    public void rankedPrefixes(Blackhole bh) throws SQLException {
+        ranked("ann:* & smi:*", bh);
+    }
+
+    private void ranked(String tsQuery, Blackhole bh) throws SQLException {
+        namePage.setString(1, tsQuery);
+        namePage.setString(2, tsQuery);
+        drain(namePage, bh);
+        nameCount.setString(1, tsQuery);
+        drain(nameCount, bh);
+    }
+
+    private static void drain(PreparedStatement ps, Blackhole bh) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getString(1));
+            }
+        }
+    }
+
+    /** Random names; every 1,000th patient is a Smith, every 2,500th a Smithson, every 5,000th an Anna Smithson. */
+    private void seed() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("""
+                    INSERT INTO patients (patient_id, first_name, last_name, date_of_birth, gender, phone, email,
+                                          status, created_at, created_by, updated_at, updated_by)
+                    SELECT 'P' || lpad(i::text, 11, '0'),
+                           CASE WHEN i % 5000 = 1 THEN 'Anna' ELSE initcap(substr(md5(i::text), 1, 8)) END,
+                           CASE WHEN i % 2500 = 1 THEN 'Smithson' WHEN i % 1000 = 3 THEN 'Smith'
+                                ELSE initcap(substr(md5((i + 7)::text), 1, 10)) END,
+                           DATE '1950-01-01' + (i % 25000),
+                           (ARRAY['MALE', 'FEMALE', 'OTHER'])[1 + i % 3],
+                           '555-' || lpad(i::text, 7, '0'),
+                           'patient' || i || '@example.org',
+                           CASE WHEN i % 10 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                           NOW() - (i || ' seconds')::interval, 'bench', NOW(), 'bench'
+                    FROM generate_series(1, %d) AS i
+                    """.formatted(patients));
+            st.execute("ANALYZE patients");
+        }
+    }
+}
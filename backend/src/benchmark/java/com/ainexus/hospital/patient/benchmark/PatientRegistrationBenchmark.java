@@ -0,0 +1,153 @@
+package com.ainexus.hospital.patient.benchmark;
+
+import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Patient registration latency (p50/p99 from SampleTime) against PostgreSQL: separate patient
+ * and audit inserts vs. the single data-modifying CTE of
+ * PatientRepository.insertWithRegisterAudit.
+ *
+ * Each operation is one registration transaction with its ID from a shared
+ * PatientIdGeneratorService. separateStatements sends the REGISTER audit insert and the
+ * patient insert as their own round trips, as the entity persist plus AuditService did;
+ * pipelined sends the CTE. Plain JDBC on both sides, so the Hibernate flush the old path
+ * also paid is not included and the difference is a lower bound.
+ *
+ * Compare thread counts with -t.
+ *
+ * Needs Docker (Testcontainers).
+ * Run:
+ *   mvn -P benchmark test-compile exec:exec -Djmh.args="PatientRegistration -t 8"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PatientRegistrationBenchmark {
+
+    private static final String PATIENT_COLUMNS = """
+            patient_id, first_name, last_name, date_of_birth, gender, blood_group, phone, email,
+            status, created_at, created_by, updated_at, updated_by, version""";
+
+    private static final String PATIENT_VALUES = """
+            ?, 'Bench', 'Patient', DATE '1980-01-01', 'FEMALE', 'UNKNOWN', '555-123-4567',
+            'bench@example.org', 'ACTIVE', ?, 'bench', ?, 'bench', 0""";
+
+    private static final String INSERT_PATIENT =
+            "INSERT INTO patients (" + PATIENT_COLUMNS + ") VALUES (" + PATIENT_VALUES + ")";
+
+    private static final String INSERT_AUDIT = """
+            INSERT INTO patient_audit_log (timestamp, operation, patient_id, performed_by)
+            VALUES (?, 'REGISTER', ?, 'bench')
+            """;
+
+    private static final String INSERT_WITH_AUDIT = "WITH registered AS (INSERT INTO patients ("
+            + PATIENT_COLUMNS + ") VALUES (" + PATIENT_VALUES + ") RETURNING patient_id, created_at, created_by)"
+            + " INSERT INTO patient_audit_log (timestamp, operation, patient_id, performed_by)"
+            + " SELECT created_at, 'REGISTER', patient_id, created_by FROM registered";
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private PatientIdGeneratorService generator;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine").withCommand("postgres", "-c", "max_connections=200");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        dataSource.setMaximumPoolSize(128);
+
+        generator = new PatientIdGeneratorService(new JdbcTemplate(dataSource),
+                new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(), 50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    /** One registering thread with its own connection and statements. */
+    @State(Scope.Thread)
+    public static class Registrar {
+        Connection connection;
+        PreparedStatement patient;
+        PreparedStatement audit;
+        PreparedStatement pipelined;
+
+        @Setup
+        public void setUp(PatientRegistrationBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+            connection.setAutoCommit(false);
+            patient = connection.prepareStatement(INSERT_PATIENT);
+            audit = connection.prepareStatement(INSERT_AUDIT);
+            pipelined = connection.prepareStatement(INSERT_WITH_AUDIT);
+        }
+
+        @TearDown
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String separateStatements(Registrar registrar) throws SQLException {
+        String patientId = generator.generatePatientId();
+        Timestamp now = Timestamp.from(Instant.now());
+        registrar.audit.setTimestamp(1, now);
+        registrar.audit.setString(2, patientId);
+        registrar.audit.executeUpdate();
+        registrar.patient.setString(1, patientId);
+        registrar.patient.setTimestamp(2, now);
+        registrar.patient.setTimestamp(3, now);
+        registrar.patient.executeUpdate();
+        registrar.connection.commit();
+        return patientId;
+    }
+
+    @Benchmark
+    public String pipelined(Registrar registrar) throws SQLException {
+        String patientId = generator.generatePatientId();
+        Timestamp now = Timestamp.from(Instant.now());
+        registrar.pipelined.setString(1, patientId);
+        registrar.pipelined.setTimestamp(2, now);
+        registrar.pipelined.setTimestamp(3, now);
+        registrar.pipelined.executeUpdate();
+        registrar.connection.commit();
+        return patientId;
+    }
+}
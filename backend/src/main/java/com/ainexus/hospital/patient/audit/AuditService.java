@@ -14,6 +14,12 @@ import java.util.List;
  * scope so the audit log and patient record are committed atomically.
  *
  * PHI restriction: changedFields contains field NAMES only — never field values.
+ *
+ * Entries are inserted when the transaction flushes, in one JDBC batch with any other audit
+ * entries of that transaction — their ids come from a pooled sequence (V16), not IDENTITY.
+ *
+ * REGISTER entries are not written here: PatientRepository.insertWithRegisterAudit inserts
+ * them in the same statement as the new patient row.
  */
 @Service
 public class AuditService {
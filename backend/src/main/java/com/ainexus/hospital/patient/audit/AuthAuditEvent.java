@@ -0,0 +1,62 @@
+package com.ainexus.hospital.patient.audit;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One auth audit event on its way to auth_audit_log (see AuthAuditPipeline).
+ *
+ * {@code count} is 1 for every submitted event; it only grows when a burst of identical
+ * LOGIN_FAILURE events is folded into one row. {@code eventIds} holds one random id per
+ * submitted event (all of them for a folded row) and is stored with the row, so a journal
+ * replay can skip events that are already in the database.
+ */
+public record AuthAuditEvent(long timestampMillis,
+                             String eventType,
+                             String actorUserId,
+                             String targetUserId,
+                             String outcome,
+                             String ipAddress,
+                             String details,
+                             int count,
+                             List<UUID> eventIds) {
+
+    @JsonCreator
+    public AuthAuditEvent {
+        // Journal lines written before event ids existed
+        eventIds = eventIds == null || eventIds.isEmpty() ? List.of(UUID.randomUUID()) : List.copyOf(eventIds);
+    }
+
+    /** A newly submitted event with a fresh id. */
+    public AuthAuditEvent(long timestampMillis, String eventType, String actorUserId, String targetUserId,
+                          String outcome, String ipAddress, String details, int count) {
+        this(timestampMillis, eventType, actorUserId, targetUserId, outcome, ipAddress, details, count, null);
+    }
+
+    static final String LOGIN_FAILURE = "LOGIN_FAILURE";
+
+    /**
+     * Key under which identical events share one row, or null if this kind is never folded.
+     * Only LOGIN_FAILURE folds: every other event type is rare enough to keep one row each.
+     */
+    FoldKey foldKey() {
+        if (!LOGIN_FAILURE.equals(eventType)) return null;
+        return new FoldKey(eventType, actorUserId, targetUserId, outcome, ipAddress, details);
+    }
+
+    /** This event absorbing {@code other}: counts and ids add up, the earlier timestamp is kept. */
+    AuthAuditEvent foldedWith(AuthAuditEvent other) {
+        List<UUID> ids = new ArrayList<>(eventIds.size() + other.eventIds.size());
+        ids.addAll(eventIds);
+        ids.addAll(other.eventIds);
+        return new AuthAuditEvent(Math.min(timestampMillis, other.timestampMillis), eventType,
+                actorUserId, targetUserId, outcome, ipAddress, details, count + other.count, ids);
+    }
+
+    record FoldKey(String eventType, String actorUserId, String targetUserId,
+                   String outcome, String ipAddress, String details) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.ainexus.hospital.patient.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local append-only spill file for auth audit events that are not yet in the database.
+ *
+ * One JSON line per event. Lines are written with a plain write() — they survive a JVM crash
+ * via the page cache; {@link #sync} is called by the writer thread before each database batch
+ * to cover OS crashes as well. A torn last line (crash mid-write) is skipped on read.
+ *
+ * A journal created with a blank path is disabled: every method is a no-op.
+ */
+public final class AuthAuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthAuditJournal.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path path;
+    private final FileChannel channel;
+
+    public AuthAuditJournal(String path) {
+        if (path == null || path.isBlank()) {
+            this.path = null;
+            this.channel = null;
+            return;
+        }
+        try {
+            this.path = Path.of(path).toAbsolutePath();
+            if (this.path.getParent() != null) {
+                Files.createDirectories(this.path.getParent());
+            }
+            this.channel = FileChannel.open(this.path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open auth audit journal " + path, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    public synchronized void append(AuthAuditEvent event) {
+        if (channel == null) return;
+        try {
+            byte[] line = (objectMapper.writeValueAsString(event) + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // The event is still queued in memory; only crash durability is lost
+            log.warn("AuthAuditJournal: append failed: {}", e.getMessage());
+        }
+    }
+
+    /** Flushes appended lines to the storage device. */
+    public void sync() {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            log.warn("AuthAuditJournal: sync failed: {}", e.getMessage());
+        }
+    }
+
+    /** Every event in the journal, in append order. */
+    public synchronized List<AuthAuditEvent> readAll() {
+        List<AuthAuditEvent> events = new ArrayList<>();
+        if (channel == null) return events;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    events.add(objectMapper.readValue(line, AuthAuditEvent.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("AuthAuditJournal: skipping unreadable line");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read auth audit journal " + path, e);
+        }
+        return events;
+    }
+
+    /** Discards the journal contents. Callers guarantee every event in it is in the database. */
+    public synchronized void truncate() {
+        if (channel == null) return;
+        try {
+            if (channel.size() > 0) {
+                channel.truncate(0);
+            }
+        } catch (IOException e) {
+            log.warn("AuthAuditJournal: truncate failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("AuthAuditJournal: close failed: {}", e.getMessage());
+        }
+    }
+}
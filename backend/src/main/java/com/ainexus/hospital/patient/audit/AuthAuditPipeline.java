@@ -0,0 +1,374 @@
+package com.ainexus.hospital.patient.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, batching writer for auth_audit_log.
+ *
+ * {@link #submit} appends the event to the local journal (AuthAuditJournal) and to an
+ * in-memory queue, and returns. A single writer thread drains up to batch-size events at a
+ * time, folds identical LOGIN_FAILURE events (same actor, IP and details) into one row with
+ * event_count = n, and writes the batch as one multi-row INSERT. Once the queue is empty and
+ * every drained event is in the database, the journal is truncated.
+ *
+ * Durability: events in the journal but not yet in the database are replayed on the next
+ * start (retried in the background while the database is down). Each row stores the ids of
+ * its events (V17) and replay skips ids already stored, so a crash between INSERT and
+ * truncate does not duplicate rows. When the queue is full the
+ * event is written on the caller's thread instead of being dropped. A failing database is
+ * retried with backoff. Events whose write failed on any path go to a retry queue that the
+ * writer thread drains first; the journal is kept until that queue is empty again.
+ *
+ * Runs in a phase below the embedded web server: it starts (and replays) before requests are
+ * accepted and stops only after the server has drained in-flight requests.
+ */
+@Component
+public class AuthAuditPipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthAuditPipeline.class);
+
+    private static final String INSERT_PREFIX = "INSERT INTO auth_audit_log "
+            + "(timestamp, event_type, actor_user_id, target_user_id, outcome, ip_address, details, event_count, "
+            + "event_ids) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS uuid[]))";
+    private static final int[] ROW_TYPES = {
+            Types.TIMESTAMP, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR};
+    private static final String WRITTEN_IDS = """
+            SELECT CAST(unnest(event_ids) AS text) FROM auth_audit_log
+            WHERE timestamp >= ? AND event_ids IS NOT NULL
+            """;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthAuditJournal journal;
+    private final BlockingQueue<AuthAuditEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    /** Writes under way outside flush(): the writer thread's batch and queue-full inline writes. */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Journaled events whose write failed; written before the queue, the journal is kept meanwhile. */
+    private final Queue<AuthAuditEvent> retry = new ConcurrentLinkedQueue<>();
+    /** Journal contents found at start and not yet replayed; the journal is kept meanwhile. */
+    private volatile List<AuthAuditEvent> unreplayed = List.of();
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Counter foldedCounter;
+    private final Counter overflowCounter;
+    private final Counter failureCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuthAuditPipeline(JdbcTemplate jdbcTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.audit.auth.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.audit.auth.batch-size:500}") int batchSize,
+                             @Value("${app.audit.auth.flush-interval-ms:200}") long flushIntervalMs,
+                             @Value("${app.audit.auth.journal-path:}") String journalPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.journal = new AuthAuditJournal(journalPath);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("auth.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Auth audit events waiting for the writer thread").register(meterRegistry);
+        Gauge.builder("auth.audit.retry.depth", retry, Queue::size)
+                .description("Auth audit events waiting to be written again after a failed write")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("auth.audit.batch.size")
+                .description("Rows per auth_audit_log INSERT after folding").register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.audit.flush")
+                .description("Latency of one batched auth_audit_log INSERT").register(meterRegistry);
+        this.foldedCounter = Counter.builder("auth.audit.folded.total")
+                .description("LOGIN_FAILURE events folded into an existing row").register(meterRegistry);
+        this.overflowCounter = Counter.builder("auth.audit.overflow.total")
+                .description("Events written on the caller's thread because the queue was full")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("auth.audit.flush.failures.total")
+                .description("Failed auth_audit_log batch writes (retried)").register(meterRegistry);
+    }
+
+    /** Accepts an event for asynchronous persistence. Never blocks on the database unless the queue is full. */
+    public void submit(AuthAuditEvent event) {
+        synchronized (journal) {
+            journal.append(event);
+            if (queue.offer(event)) {
+                return;
+            }
+            inFlight.incrementAndGet();
+        }
+        overflowCounter.increment();
+        try {
+            insert(List.of(event));
+        } catch (RuntimeException e) {
+            // Before inFlight drops, so the journal is never truncated under it
+            retry.add(event);
+            failureCounter.increment();
+            log.error("AuthAuditPipeline: queue full and direct write failed; event queued for retry: {}",
+                    e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes everything currently queued (retries first) on the calling thread, one attempt per
+     * batch. Used on shutdown (after the writer thread has stopped) and by tests that do not
+     * start the writer thread. Events that fail stay queued for retry and in the journal.
+     *
+     * @return number of events written
+     */
+    public int flush() {
+        replay();
+        int written = 0;
+        List<AuthAuditEvent> failed = new ArrayList<>();
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        while (nextBatch(batch) > 0) {
+            try {
+                insert(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                failed.addAll(batch);
+                failureCounter.increment();
+                log.error("AuthAuditPipeline: flush of {} events failed; kept for retry: {}",
+                        batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+        retry.addAll(failed);
+        truncateJournalIfIdle();
+        return written;
+    }
+
+    // ── SmartLifecycle ──────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        unreplayed = journal.readAll();
+        if (replay()) {
+            journal.truncate();
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "auth-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            // Wakes a writer waiting for events or sleeping in a retry backoff; it hands its
+            // batch back to the retry queue and exits before the final flush below
+            writerThread.interrupt();
+            try {
+                writerThread.join(flushIntervalMs + 5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writerThread.isAlive()) {
+                log.warn("AuthAuditPipeline: writer thread did not stop; its last batch is left to journal replay");
+            }
+        }
+        flush();
+        journal.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ── Writer ──────────────────────────────────────────────────────────────────
+
+    private void writeLoop() {
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        long replayBackoffMs = 500;
+        while (running) {
+            try {
+                if (!replay()) {
+                    Thread.sleep(replayBackoffMs);
+                    replayBackoffMs = Math.min(replayBackoffMs * 2, MAX_BACKOFF_MS);
+                    continue;
+                }
+                if (nextBatch(batch) == 0) {
+                    AuthAuditEvent first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                journal.sync();
+                write(batch);
+                batch.clear();
+                if (running) {
+                    truncateJournalIfIdle();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /** The writer thread's batch; on interruption (stop()) it is left to the final flush(). */
+    private void write(List<AuthAuditEvent> batch) throws InterruptedException {
+        inFlight.incrementAndGet();
+        try {
+            writeWithRetry(batch);
+        } catch (InterruptedException e) {
+            // Before inFlight drops, so the journal is never truncated under it
+            retry.addAll(batch);
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /** Fills {@code batch} with retries first, then queued events; returns its size. */
+    private int nextBatch(List<AuthAuditEvent> batch) {
+        AuthAuditEvent event;
+        while (batch.size() < batchSize && (event = retry.poll()) != null) {
+            batch.add(event);
+        }
+        queue.drainTo(batch, batchSize - batch.size());
+        return batch.size();
+    }
+
+    private void writeWithRetry(List<AuthAuditEvent> batch) throws InterruptedException {
+        long backoffMs = 500;
+        while (true) {
+            try {
+                insert(batch);
+                return;
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                if (!running) {
+                    throw new InterruptedException("Stopping with " + batch.size() + " unwritten events");
+                }
+                log.warn("AuthAuditPipeline: write of {} events failed, retrying in {} ms: {}",
+                        batch.size(), backoffMs, e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void truncateJournalIfIdle() {
+        synchronized (journal) {
+            if (queue.isEmpty() && inFlight.get() == 0 && retry.isEmpty() && unreplayed.isEmpty()) {
+                journal.truncate();
+            }
+        }
+    }
+
+    /**
+     * Writes the journal contents found at start that are not in the database yet. Events whose
+     * id is already stored (written, but the journal was not truncated before the process died,
+     * or by an earlier attempt that failed half-way) are skipped, so replay can be retried
+     * freely: the writer thread keeps retrying it, before new events, while the database is down.
+     *
+     * @return true once nothing is left to replay
+     */
+    private boolean replay() {
+        List<AuthAuditEvent> journaled = unreplayed;
+        if (journaled.isEmpty()) return true;
+        try {
+            long since = journaled.stream().mapToLong(AuthAuditEvent::timestampMillis).min().getAsLong();
+            Set<String> written = new HashSet<>(
+                    jdbcTemplate.queryForList(WRITTEN_IDS, String.class, new Timestamp(since)));
+            List<AuthAuditEvent> pending = journaled.stream()
+                    .filter(event -> !written.contains(event.eventIds().get(0).toString()))
+                    .toList();
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                insert(pending.subList(from, Math.min(from + batchSize, pending.size())));
+            }
+            unreplayed = List.of();
+            log.info("AuthAuditPipeline: replayed {} journaled auth audit events ({} were already written)",
+                    pending.size(), journaled.size() - pending.size());
+            return true;
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            log.error("AuthAuditPipeline: journal replay of {} events failed; journal kept, will retry: {}",
+                    journaled.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    // ── SQL ─────────────────────────────────────────────────────────────────────
+
+    private void insert(List<AuthAuditEvent> events) {
+        List<AuthAuditEvent> rows = fold(events);
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW_PLACEHOLDERS.length() + 2))
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * ROW_TYPES.length];
+        int[] types = new int[args.length];
+        int i = 0;
+        for (AuthAuditEvent row : rows) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW_PLACEHOLDERS);
+            System.arraycopy(ROW_TYPES, 0, types, i, ROW_TYPES.length);
+            args[i++] = new Timestamp(row.timestampMillis());
+            args[i++] = row.eventType();
+            args[i++] = row.actorUserId();
+            args[i++] = row.targetUserId();
+            args[i++] = row.outcome();
+            args[i++] = row.ipAddress();
+            args[i++] = row.details();
+            args[i++] = row.count();
+            args[i++] = row.eventIds().stream().map(UUID::toString).collect(Collectors.joining(",", "{", "}"));
+        }
+
+        long start = System.nanoTime();
+        jdbcTemplate.update(sql.toString(), args, types);
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizeSummary.record(rows.size());
+        foldedCounter.increment(events.size() - rows.size());
+    }
+
+    /** Folds identical LOGIN_FAILURE events; all other events keep their own row, in order. */
+    private static List<AuthAuditEvent> fold(List<AuthAuditEvent> events) {
+        Map<Object, AuthAuditEvent> rows = new LinkedHashMap<>(events.size() * 2);
+        for (AuthAuditEvent event : events) {
+            Object key = event.foldKey();
+            rows.merge(key != null ? key : new Object(), event, AuthAuditEvent::foldedWith);
+        }
+        return new ArrayList<>(rows.values());
+    }
+}
@@ -1,35 +1,36 @@
 package com.ainexus.hospital.patient.audit;
 
-import com.ainexus.hospital.patient.entity.AuthAuditLog;
-import com.ainexus.hospital.patient.repository.AuthAuditLogRepository;
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.time.OffsetDateTime;
-
 /**
  * Writes immutable audit log entries for every authentication and staff management event.
  *
  * HIPAA restriction: details field MUST NOT contain passwords, tokens, PHI, or secrets.
- * This service MUST be called within an active @Transactional scope.
+ *
+ * Events are handed to AuthAuditPipeline once the caller's transaction commits (immediately
+ * when there is none) and reach auth_audit_log asynchronously in batches — a rolled-back
+ * operation therefore leaves no audit row, as before, but rows appear a few hundred
+ * milliseconds after the request completes.
  */
 @Service
 public class AuthAuditService {
 
     private static final Logger log = LoggerFactory.getLogger(AuthAuditService.class);
 
-    private final AuthAuditLogRepository auditLogRepository;
+    private final AuthAuditPipeline pipeline;
 
-    public AuthAuditService(AuthAuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public AuthAuditService(AuthAuditPipeline pipeline) {
+        this.pipeline = pipeline;
     }
 
     /**
      * Records an authentication or staff management event.
      *
      * @param eventType     One of: LOGIN_SUCCESS, LOGIN_FAILURE, ACCOUNT_LOCKED, LOGOUT,
-     *                      TOKEN_REFRESH, USER_CREATED, USER_UPDATED, USER_DEACTIVATED
+     *                      LOGOUT_ALL, TOKEN_REFRESH, USER_CREATED, USER_UPDATED, USER_DEACTIVATED
      * @param actorUserId   Staff User ID performing the action (NOT username to avoid PHI risk)
      * @param targetUserId  Affected Staff User ID (null for self-actions like login/logout)
      * @param outcome       SUCCESS or FAILURE
@@ -42,17 +43,10 @@ public class AuthAuditService {
                               String outcome,
                               String ipAddress,
                               String details) {
-        AuthAuditLog entry = AuthAuditLog.builder()
-                .timestamp(OffsetDateTime.now())
-                .eventType(eventType)
-                .actorUserId(actorUserId)
-                .targetUserId(targetUserId)
-                .outcome(outcome)
-                .ipAddress(ipAddress)
-                .details(details)
-                .build();
+        AuthAuditEvent event = new AuthAuditEvent(System.currentTimeMillis(), eventType,
+                actorUserId, targetUserId, outcome, ipAddress, details, 1);
 
-        auditLogRepository.save(entry);
+        ClusterNotificationBus.afterCommit(() -> pipeline.submit(event));
         log.debug("Auth audit: event={} actor={} outcome={}", eventType, actorUserId, outcome);
     }
 }
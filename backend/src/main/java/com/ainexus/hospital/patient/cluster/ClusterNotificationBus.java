@@ -0,0 +1,238 @@
+package com.ainexus.hospital.patient.cluster;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node event bus built on PostgreSQL LISTEN/NOTIFY.
+ *
+ * Publishing: {@link #publish} issues pg_notify() on the caller's connection, so inside a
+ * @Transactional method the notification is delivered only if (and when) that transaction
+ * commits — a rolled-back write never reaches other nodes.
+ *
+ * Listening: one daemon thread holds a dedicated, non-pooled JDBC connection (it never takes
+ * a HikariCP slot) and LISTENs on every subscribed channel. Notifications sent while a node is
+ * disconnected are lost by design, so after every (re)connect each subscriber's resync callback
+ * runs — subscribers reload their state from the source table. Until the first resync completes,
+ * {@link #isConnected()} is false and subscribers must fall back to the database.
+ *
+ * Subscriptions are registered from bean constructors, i.e. before this lifecycle bean starts.
+ */
+@Component
+public class ClusterNotificationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterNotificationBus.class);
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("^[a-z][a-z0-9_]{0,62}$");
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private final List<Runnable> resyncCallbacks = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread listenerThread;
+
+    public ClusterNotificationBus(JdbcTemplate jdbcTemplate,
+                                  DataSourceProperties dataSourceProperties,
+                                  @Value("${app.cluster.notifications.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registers a handler for a channel.
+     *
+     * @param channel   lower-case channel name (e.g. "token_revoked")
+     * @param onMessage called on the listener thread with each notification payload
+     * @param onResync  called on the listener thread after every (re)connect; reload state here
+     */
+    public void subscribe(String channel, Consumer<String> onMessage, Runnable onResync) {
+        requireValidChannel(channel);
+        handlers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(onMessage);
+        if (onResync != null) {
+            resyncCallbacks.add(onResync);
+        }
+    }
+
+    /**
+     * Publishes a notification to every node (including this one).
+     * Joins the caller's transaction when one is active.
+     */
+    public void publish(String channel, String payload) {
+        requireValidChannel(channel);
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    /**
+     * True once LISTEN is active and all subscribers have resynced after the latest connect.
+     * While false, notifications may have been missed and subscribers must not trust local state.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or immediately when no
+     * transaction synchronization is active.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ── SmartLifecycle ──────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("ClusterNotificationBus: disabled — subscribers will read through to the database");
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cluster-notify-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        connected = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        closeQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ── Listener ────────────────────────────────────────────────────────────────
+
+    private void listenLoop() {
+        long backoffMs = 1_000;
+        while (running) {
+            try {
+                PGConnection pgConnection = connectAndListen();
+                backoffMs = 1_000;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification n : notifications) {
+                            dispatch(n.getName(), n.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                connected = false;
+                log.warn("ClusterNotificationBus: listener connection lost, reconnecting in {} ms: {}",
+                        backoffMs, e.getMessage());
+                closeQuietly();
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+        connected = false;
+        closeQuietly();
+    }
+
+    private PGConnection connectAndListen() throws SQLException {
+        Connection conn = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        connection = conn;
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            for (String channel : handlers.keySet()) {
+                stmt.execute("LISTEN " + channel);
+            }
+        }
+
+        // LISTEN is active before the reload, so nothing published from here on is lost.
+        for (Runnable resync : resyncCallbacks) {
+            try {
+                resync.run();
+            } catch (RuntimeException e) {
+                throw new SQLException("Subscriber resync failed", e);
+            }
+        }
+        connected = true;
+        log.info("ClusterNotificationBus: listening on {}", handlers.keySet());
+        return conn.unwrap(PGConnection.class);
+    }
+
+    private void dispatch(String channel, String payload) {
+        List<Consumer<String>> channelHandlers = handlers.get(channel);
+        if (channelHandlers == null) return;
+        for (Consumer<String> handler : channelHandlers) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("ClusterNotificationBus: handler for channel {} failed", channel, e);
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        Connection c = connection;
+        connection = null;
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ignored) {
+                // connection already broken
+            }
+        }
+    }
+
+    private static void requireValidChannel(String channel) {
+        if (channel == null || !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+    }
+}
@@ -1,20 +1,63 @@
 package com.ainexus.hospital.patient.config;
 
+import com.ainexus.hospital.patient.security.AdaptiveBCryptPasswordEncoder;
+import com.ainexus.hospital.patient.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 /**
- * Provides the BCryptPasswordEncoder bean for the Auth Module.
- * Strength 12 balances security (OWASP HIPAA recommendation) and performance
- * (~400ms per hash — within the 2-second login SLA).
+ * Provides the BCrypt PasswordEncoder bean for the Auth Module.
+ *
+ * The work factor is calibrated at startup so one hash takes at most
+ * app.auth.password-hashing.target-millis on the container's CPU budget, bounded by
+ * min-strength and max-strength. Setting app.auth.password-hashing.strength pins the cost
+ * and skips calibration. Startup fails if min-strength or a pinned strength is below the
+ * OWASP floor of 10.
+ * Hashes stored with a lower cost are re-hashed on the user's next successful login.
+ *
+ * Hashing runs on a bounded, CPU-sized executor (BoundedPasswordEncoder) so login bursts
+ * cannot occupy every request thread; excess load is shed with 503 + Retry-After.
  */
 @Configuration
 public class PasswordConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    /** OWASP Password Storage Cheat Sheet: minimum BCrypt work factor. */
+    private static final int OWASP_MIN_STRENGTH = 10;
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.auth.password-hashing.strength:0}") int fixedStrength,
+            @Value("${app.auth.password-hashing.target-millis:300}") long targetMillis,
+            @Value("${app.auth.password-hashing.min-strength:10}") int minStrength,
+            @Value("${app.auth.password-hashing.max-strength:14}") int maxStrength,
+            @Value("${app.auth.password-hashing.threads:0}") int threads,
+            @Value("${app.auth.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${app.auth.password-hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        if (fixedStrength > 0) {
+            requireOwaspFloor("strength", fixedStrength);
+        } else {
+            requireOwaspFloor("min-strength", minStrength);
+        }
+        AdaptiveBCryptPasswordEncoder bcrypt = fixedStrength > 0
+                ? new AdaptiveBCryptPasswordEncoder(fixedStrength)
+                : AdaptiveBCryptPasswordEncoder.calibrated(targetMillis, minStrength, maxStrength);
+        Gauge.builder("auth.password_hash.bcrypt_cost", bcrypt, AdaptiveBCryptPasswordEncoder::getStrength)
+                .description("BCrypt work factor used for new password hashes")
+                .register(meterRegistry);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcrypt, poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+
+    private static void requireOwaspFloor(String property, int strength) {
+        if (strength < OWASP_MIN_STRENGTH) {
+            throw new IllegalArgumentException("app.auth.password-hashing." + property + " must be at least "
+                    + OWASP_MIN_STRENGTH + " (OWASP minimum BCrypt cost), was " + strength);
+        }
     }
 }
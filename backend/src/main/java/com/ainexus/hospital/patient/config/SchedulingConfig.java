@@ -5,7 +5,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Enables Spring's @Scheduled annotation support.
- * Required for BlacklistCleanupService.purgeExpiredBlacklistEntries().
+ * Required for BlacklistCleanupService.purgeExpiredBlacklistEntries()
+ * and LastLoginRecorder.flush().
  */
 @Configuration
 @EnableScheduling
@@ -3,6 +3,8 @@ package com.ainexus.hospital.patient.controller;
 import com.ainexus.hospital.patient.dto.request.LoginRequest;
 import com.ainexus.hospital.patient.dto.response.TokenResponse;
 import com.ainexus.hospital.patient.dto.response.UserProfileResponse;
+import com.ainexus.hospital.patient.security.BearerToken;
+import com.ainexus.hospital.patient.security.ClientIp;
 import com.ainexus.hospital.patient.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
  * POST /api/v1/auth/login   — issue JWT (public)
  * POST /api/v1/auth/refresh — issue fresh JWT (requires valid token)
  * POST /api/v1/auth/logout  — revoke token (requires valid token)
+ * POST /api/v1/auth/logout-all — revoke all of the caller's tokens (requires valid token)
  * GET  /api/v1/auth/me      — current user profile (requires valid token)
  *
  * All endpoints at /api/v1/auth/** are permitAll() in SecurityConfig;
@@ -42,7 +45,7 @@ public class AuthController {
     @Operation(summary = "Staff login", description = "Authenticate with username and password, receive a JWT")
     public ResponseEntity<TokenResponse> login(@Valid @RequestBody LoginRequest request,
                                                HttpServletRequest httpRequest) {
-        String ipAddress = extractClientIp(httpRequest);
+        String ipAddress = ClientIp.resolve(httpRequest);
         TokenResponse response = authService.login(request, ipAddress);
         return ResponseEntity.ok(response);
     }
@@ -55,7 +58,7 @@ public class AuthController {
     @PostMapping("/refresh")
     @Operation(summary = "Token refresh", description = "Issue a new JWT using the current valid token")
     public ResponseEntity<TokenResponse> refresh(HttpServletRequest httpRequest) {
-        String ipAddress = extractClientIp(httpRequest);
+        String ipAddress = ClientIp.resolve(httpRequest);
         TokenResponse response = authService.refresh(ipAddress);
         return ResponseEntity.ok(response);
     }
@@ -69,11 +72,22 @@ public class AuthController {
     @PostMapping("/logout")
     @Operation(summary = "Logout", description = "Revoke the current JWT — returns 204 No Content")
     public ResponseEntity<Void> logout(HttpServletRequest httpRequest) {
-        String authHeader = httpRequest.getHeader("Authorization");
-        String rawToken = (authHeader != null && authHeader.startsWith("Bearer "))
-                ? authHeader.substring(7) : "";
-        String ipAddress = extractClientIp(httpRequest);
-        authService.logout(rawToken, ipAddress);
+        BearerToken token = BearerToken.resolve(httpRequest);
+        String ipAddress = ClientIp.resolve(httpRequest);
+        authService.logout(token, ipAddress);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * POST /api/v1/auth/logout-all
+     * Revokes every token issued to the caller (all devices/sessions), including this one.
+     * Returns 204 No Content on success.
+     * Requires: Authorization: Bearer <valid-token>
+     */
+    @PostMapping("/logout-all")
+    @Operation(summary = "Logout everywhere", description = "Revoke all of the caller's JWTs — returns 204 No Content")
+    public ResponseEntity<Void> logoutAll(HttpServletRequest httpRequest) {
+        authService.logoutAll(ClientIp.resolve(httpRequest));
         return ResponseEntity.noContent().build();
     }
 
@@ -87,17 +101,4 @@ public class AuthController {
     public ResponseEntity<UserProfileResponse> me() {
         return ResponseEntity.ok(authService.getCurrentUser());
     }
-
-    /**
-     * Extracts the client IP address.
-     * Uses X-Forwarded-For if present (set by Nginx), falls back to remoteAddr.
-     */
-    private String extractClientIp(HttpServletRequest request) {
-        String forwarded = request.getHeader("X-Forwarded-For");
-        if (forwarded != null && !forwarded.isBlank()) {
-            // X-Forwarded-For may contain a comma-separated list; take the first
-            return forwarded.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
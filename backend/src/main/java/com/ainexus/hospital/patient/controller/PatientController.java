@@ -4,13 +4,18 @@ import com.ainexus.hospital.patient.dto.request.PatientRegistrationRequest;
 import com.ainexus.hospital.patient.dto.request.PatientStatusChangeRequest;
 import com.ainexus.hospital.patient.dto.request.PatientUpdateRequest;
 import com.ainexus.hospital.patient.dto.response.*;
+import com.ainexus.hospital.patient.importer.PatientImportFormat;
+import com.ainexus.hospital.patient.importer.PatientImportService;
 import com.ainexus.hospital.patient.service.PatientService;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
 import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 /**
@@ -22,9 +27,11 @@ import java.util.UUID;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientImportService importService;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, PatientImportService importService) {
         this.patientService = patientService;
+        this.importService = importService;
     }
 
     // ── US1: Register ─────────────────────────────────────────────────────────
@@ -45,6 +52,25 @@ public class PatientController {
         return ResponseEntity.ok(patientService.checkDuplicatePhone(phone, excludePatientId));
     }
 
+    /**
+     * Bulk import: the raw request body is a CSV or NDJSON file (Content-Type text/csv or
+     * application/x-ndjson). Returns 202 with the job to poll at {@code /import/{jobId}}.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<PatientImportJobResponse> importPatients(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        setTrace("IMPORT_PATIENTS");
+        PatientImportFormat format = PatientImportFormat.forContentType(contentType).orElseThrow();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.startImport(body, format));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<PatientImportJobResponse> getImportJob(@PathVariable UUID jobId) {
+        setTrace("GET_IMPORT_JOB");
+        return ResponseEntity.ok(importService.getJob(jobId));
+    }
+
     // ── US2: Search ────────────────────────────────────────────────────────────
 
     @GetMapping
@@ -54,9 +80,38 @@ public class PatientController {
             @RequestParam(defaultValue = "ALL") String gender,
             @RequestParam(defaultValue = "ALL") String bloodGroup,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "EXACT") String countMode,
+            @RequestParam(defaultValue = "STANDARD") String match) {
         setTrace("SEARCH_PATIENTS");
-        return ResponseEntity.ok(patientService.searchPatients(query, status, gender, bloodGroup, page, size));
+        return ResponseEntity.ok(patientService.searchPatients(
+                query, status, gender, bloodGroup, page, size, countMode, match));
+    }
+
+    /** Status, gender and blood group counts for the same query and filters as {@link #searchPatients}. */
+    @GetMapping("/facets")
+    public ResponseEntity<PatientFacetsResponse> getPatientFacets(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "ACTIVE") String status,
+            @RequestParam(defaultValue = "ALL") String gender,
+            @RequestParam(defaultValue = "ALL") String bloodGroup) {
+        setTrace("GET_PATIENT_FACETS");
+        return ResponseEntity.ok(patientService.getFacets(query, status, gender, bloodGroup));
+    }
+
+    /** Cursor-paginated search: pass the previous response's {@code next} as {@code cursor}. */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<PatientSummaryResponse>> scrollPatients(
+            @RequestParam(required = false) String query,
+            @RequestParam(defaultValue = "ACTIVE") String status,
+            @RequestParam(defaultValue = "ALL") String gender,
+            @RequestParam(defaultValue = "ALL") String bloodGroup,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        setTrace("SCROLL_PATIENTS");
+        return ResponseEntity.ok(patientService.scrollPatients(
+                query, status, gender, bloodGroup, sort, cursor, size));
     }
 
     // ── US3: Profile ───────────────────────────────────────────────────────────
@@ -78,6 +133,16 @@ public class PatientController {
         return ResponseEntity.ok(patientService.updatePatient(patientId, request, version));
     }
 
+    /** JSON Merge Patch (RFC 7386): only the fields present in the body change. */
+    @PatchMapping(value = "/{patientId}", consumes = "application/merge-patch+json")
+    public ResponseEntity<PatientResponse> patchPatient(
+            @PathVariable String patientId,
+            @RequestHeader("If-Match") Integer version,
+            @RequestBody JsonNode patch) {
+        setTrace("PATCH_PATIENT");
+        return ResponseEntity.ok(patientService.patchPatient(patientId, patch, version));
+    }
+
     // ── US5: Status Management ──────────────────────────────────────────────────
 
     @PatchMapping("/{patientId}/status")
@@ -2,6 +2,7 @@ package com.ainexus.hospital.patient.controller;
 
 import com.ainexus.hospital.patient.dto.request.CreateUserRequest;
 import com.ainexus.hospital.patient.dto.request.UpdateUserRequest;
+import com.ainexus.hospital.patient.dto.response.CursorPagedResponse;
 import com.ainexus.hospital.patient.dto.response.UserDetailResponse;
 import com.ainexus.hospital.patient.dto.response.UserSummaryResponse;
 import com.ainexus.hospital.patient.security.AuthContext;
@@ -25,6 +26,7 @@ import java.net.URI;
  *
  * POST   /api/v1/admin/users          — create staff account → 201 + Location
  * GET    /api/v1/admin/users          — list staff (paginated, filterable)
+ * GET    /api/v1/admin/users/scroll   — list staff (cursor-paginated, filterable)
  * GET    /api/v1/admin/users/{userId} — get staff detail
  * PATCH  /api/v1/admin/users/{userId} — update fields (If-Match version required)
  * DELETE /api/v1/admin/users/{userId} — deactivate (soft-delete) → 204
@@ -80,6 +82,26 @@ public class StaffController {
         return ResponseEntity.ok(staffService.listUsers(role, status, pageable));
     }
 
+    /**
+     * GET /api/v1/admin/users/scroll
+     * Cursor-paginated staff list (sort=username or createdAt). Pass the previous
+     * response's {@code next} as {@code cursor} to fetch the following page.
+     */
+    @GetMapping("/scroll")
+    @Operation(summary = "List staff accounts (cursor pagination)")
+    public ResponseEntity<CursorPagedResponse<UserSummaryResponse>> scrollUsers(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "username") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction)
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok(staffService.scrollUsers(role, status, new Sort.Order(dir, sort), cursor, size));
+    }
+
     /**
      * GET /api/v1/admin/users/{userId}
      * Returns the full detail response for a single staff account.
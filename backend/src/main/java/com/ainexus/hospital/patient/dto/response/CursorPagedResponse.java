@@ -0,0 +1,14 @@
+package com.ainexus.hospital.patient.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code next} back as {@code cursor} to fetch
+ * the following page; it is null on the last page.
+ */
+public record CursorPagedResponse<T>(
+        List<T> content,
+        int size,
+        String next,
+        boolean hasNext
+) {}
@@ -1,13 +1,21 @@
 package com.ainexus.hospital.patient.dto.response;
 
+import com.ainexus.hospital.patient.pagination.CountMode;
+
 import java.util.List;
 
+/**
+ * One page of an offset-paginated listing. {@code totalElements} and {@code totalPages} are
+ * exact for CountMode.EXACT, approximate for ESTIMATE and null for NONE; {@code first} and
+ * {@code last} are exact in every mode.
+ */
 public record PagedResponse<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages,
+        Long totalElements,
+        Integer totalPages,
         boolean first,
-        boolean last
+        boolean last,
+        CountMode countMode
 ) {}
@@ -0,0 +1,17 @@
+package com.ainexus.hospital.patient.dto.response;
+
+import java.util.Map;
+
+/**
+ * Per-value patient counts for a search. {@code total} is the number of patients matching the
+ * query and every selected filter. Each facet counts the patients matching the query and the
+ * other facets' filters — not its own — so it shows what selecting each value would return.
+ * Facet keys are the filter parameter values (enum names, e.g. "A_POS"); every value is
+ * listed, zero counts included.
+ */
+public record PatientFacetsResponse(
+        long total,
+        Map<String, Long> status,
+        Map<String, Long> gender,
+        Map<String, Long> bloodGroup
+) {}
@@ -0,0 +1,27 @@
+package com.ainexus.hospital.patient.dto.response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A bulk patient import, for progress polling. {@code rowsRead} grows while the upload is
+ * validated; {@code rowsImported} is set once the load commits. {@code rowErrors} lists the
+ * first rejected rows (field names and messages only); {@code rowsRejected} counts them all.
+ */
+public record PatientImportJobResponse(
+        UUID jobId,
+        String status,            // QUEUED, VALIDATING, LOADING, COMPLETED, FAILED
+        String format,
+        int rowsRead,
+        int rowsImported,
+        int rowsRejected,
+        List<RowError> rowErrors,
+        String failureReason,     // FAILED only
+        OffsetDateTime createdAt,
+        OffsetDateTime updatedAt,
+        OffsetDateTime finishedAt
+) {
+    /** {@code field} is null when the row could not be read at all. */
+    public record RowError(int row, String field, String message) {}
+}
@@ -21,7 +21,9 @@ import java.time.OffsetDateTime;
 public class AuthAuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Same sequence as the pipeline's raw INSERTs, which take one value each (V16)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auth_audit_log_id")
+    @SequenceGenerator(name = "auth_audit_log_id", sequenceName = "auth_audit_log_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -46,4 +48,9 @@ public class AuthAuditLog {
 
     @Column(name = "details", columnDefinition = "TEXT")
     private String details;
+
+    /** Number of identical events folded into this row (LOGIN_FAILURE bursts); otherwise 1. */
+    @Column(name = "event_count", nullable = false)
+    @Builder.Default
+    private Integer eventCount = 1;
 }
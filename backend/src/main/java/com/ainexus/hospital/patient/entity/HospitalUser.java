@@ -2,11 +2,17 @@ package com.ainexus.hospital.patient.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.OffsetDateTime;
 
+/**
+ * Staff account. @DynamicUpdate: UPDATEs list only changed columns, so an entity save never
+ * overwrites last_login_at written in the meantime by LastLoginRecorder's batched flush.
+ */
 @Entity
 @Table(name = "hospital_users")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -48,6 +54,11 @@ public class HospitalUser {
     @Column(name = "last_login_at")
     private OffsetDateTime lastLoginAt;
 
+    /** Token generation — bumping it revokes every JWT issued with a lower "epoch" claim. */
+    @Column(name = "token_epoch", nullable = false)
+    @Builder.Default
+    private Integer tokenEpoch = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private OffsetDateTime createdAt;
 
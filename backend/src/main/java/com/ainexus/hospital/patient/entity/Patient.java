@@ -2,12 +2,18 @@ package com.ainexus.hospital.patient.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
+/**
+ * UPDATEs list only the columns that changed (plus updated_at/updated_by and version), so an
+ * edit to one field does not rewrite the TEXT columns or touch indexes on untouched columns.
+ */
 @Entity
 @Table(name = "patients")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +46,10 @@ public class Patient {
     @Column(name = "phone", length = 20, nullable = false)
     private String phone;
 
+    /** Generated by the database from phone (V14); read in queries only, never written. */
+    @Column(name = "phone_e164", length = 12, insertable = false, updatable = false)
+    private String phoneE164;
+
     @Column(name = "email", length = 100)
     private String email;
 
@@ -15,7 +15,9 @@ import java.time.OffsetDateTime;
 public class PatientAuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (V16), not IDENTITY: ids are known before the INSERT, so inserts batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_audit_log_id")
+    @SequenceGenerator(name = "patient_audit_log_id", sequenceName = "patient_audit_log_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
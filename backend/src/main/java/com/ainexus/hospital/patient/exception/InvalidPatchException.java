@@ -0,0 +1,7 @@
+package com.ainexus.hospital.patient.exception;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
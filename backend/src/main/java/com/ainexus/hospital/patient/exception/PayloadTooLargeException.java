@@ -0,0 +1,12 @@
+package com.ainexus.hospital.patient.exception;
+
+/**
+ * Thrown when an upload exceeds its configured size limit.
+ * Maps to HTTP 413 Payload Too Large.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ainexus.hospital.patient.exception;
+
+/**
+ * Thrown when a bounded resource (e.g. the password-hashing executor) is saturated
+ * and the request is shed instead of queued.
+ * Maps to HTTP 503 Service Unavailable with a Retry-After header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ainexus.hospital.patient.exception;
+
+/**
+ * Thrown when a caller exceeds a rate limit (e.g. repeated failed logins).
+ * Maps to HTTP 429 Too Many Requests with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
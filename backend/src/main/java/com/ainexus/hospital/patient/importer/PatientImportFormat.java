@@ -0,0 +1,37 @@
+package com.ainexus.hospital.patient.importer;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+/** Upload formats accepted by the bulk patient import, by request Content-Type. */
+public enum PatientImportFormat {
+
+    /** Header row of PatientRegistrationRequest property names, then one patient per record. */
+    CSV("text/csv"),
+
+    /** One PatientRegistrationRequest JSON object per line. */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    PatientImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /** The format for a Content-Type header value (parameters such as charset ignored). */
+    public static Optional<PatientImportFormat> forContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) return Optional.empty();
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (PatientImportFormat format : values()) {
+            if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(type)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ainexus.hospital.patient.importer;
+
+import com.ainexus.hospital.patient.dto.response.PatientImportJobResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * patient_import_jobs rows (V15). Each update is its own statement, outside any import
+ * transaction, so progress is visible to polls on every node while a job runs.
+ */
+@Component
+public class PatientImportJobs {
+
+    private static final TypeReference<List<PatientImportJobResponse.RowError>> ROW_ERRORS = new TypeReference<>() {};
+
+    private static final String SELECT_JOB = """
+            SELECT job_id, status, format, rows_read, rows_imported, rows_rejected, row_errors::text,
+                   failure_reason, created_at, updated_at, finished_at
+            FROM patient_import_jobs
+            WHERE job_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<PatientImportJobResponse> rowMapper;
+
+    public PatientImportJobs(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.rowMapper = (rs, n) -> new PatientImportJobResponse(
+                rs.getObject("job_id", UUID.class),
+                rs.getString("status"),
+                rs.getString("format"),
+                rs.getInt("rows_read"),
+                rs.getInt("rows_imported"),
+                rs.getInt("rows_rejected"),
+                fromJson(rs.getString("row_errors")),
+                rs.getString("failure_reason"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                rs.getObject("finished_at", OffsetDateTime.class));
+    }
+
+    public void create(UUID jobId, PatientImportFormat format, String createdBy) {
+        jdbcTemplate.update("""
+                INSERT INTO patient_import_jobs (job_id, status, format, created_by)
+                VALUES (?, 'QUEUED', ?, ?)
+                """, jobId, format.name(), createdBy);
+    }
+
+    public Optional<PatientImportJobResponse> find(UUID jobId) {
+        return jdbcTemplate.query(SELECT_JOB, rowMapper, jobId).stream().findFirst();
+    }
+
+    /** Validation progress; the status moves to VALIDATING on the first call. */
+    public void validating(UUID jobId, int rowsRead, int rowsRejected) {
+        jdbcTemplate.update("""
+                UPDATE patient_import_jobs
+                SET status = 'VALIDATING', rows_read = ?, rows_rejected = ?, updated_at = NOW()
+                WHERE job_id = ?
+                """, rowsRead, rowsRejected, jobId);
+    }
+
+    /** Validation finished: final counts and the reported row errors. */
+    public void loading(UUID jobId, int rowsRead, int rowsRejected, List<PatientImportJobResponse.RowError> rowErrors) {
+        jdbcTemplate.update("""
+                UPDATE patient_import_jobs
+                SET status = 'LOADING', rows_read = ?, rows_rejected = ?, row_errors = CAST(? AS jsonb),
+                    updated_at = NOW()
+                WHERE job_id = ?
+                """, rowsRead, rowsRejected, toJson(rowErrors), jobId);
+    }
+
+    public void completed(UUID jobId, int rowsImported) {
+        jdbcTemplate.update("""
+                UPDATE patient_import_jobs
+                SET status = 'COMPLETED', rows_imported = ?, updated_at = NOW(), finished_at = NOW()
+                WHERE job_id = ?
+                """, rowsImported, jobId);
+    }
+
+    /** Nothing from the upload was loaded; {@code reason} must not contain row values. */
+    public void failed(UUID jobId, String reason) {
+        jdbcTemplate.update("""
+                UPDATE patient_import_jobs
+                SET status = 'FAILED', failure_reason = LEFT(?, 500), updated_at = NOW(), finished_at = NOW()
+                WHERE job_id = ?
+                """, reason, jobId);
+    }
+
+    private String toJson(List<PatientImportJobResponse.RowError> rowErrors) {
+        try {
+            return objectMapper.writeValueAsString(rowErrors);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<PatientImportJobResponse.RowError> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, ROW_ERRORS);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ainexus.hospital.patient.importer;
+
+import com.ainexus.hospital.patient.dto.request.PatientRegistrationRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams an import upload as PatientRegistrationRequests, one row at a time.
+ *
+ * Rows are bound with the application's ObjectMapper, exactly as the body of
+ * POST /api/v1/patients is. A row that cannot be bound (bad JSON, an unknown gender, an
+ * unparseable date) is returned with an error instead of a request and the reader moves on.
+ * Errors name the field, never the offending value — import files carry PHI.
+ *
+ * Row numbers are line numbers for NDJSON (blank lines are skipped but counted) and record
+ * numbers after the header for CSV. In CSV, empty cells are absent values.
+ */
+public final class PatientImportReader implements Closeable {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper().enable(CsvParser.Feature.SKIP_EMPTY_LINES);
+
+    /** One upload row: {@code request} when it could be bound, otherwise {@code field} and {@code error}. */
+    public record Row(int number, PatientRegistrationRequest request, String field, String error) {}
+
+    private final ObjectMapper objectMapper;
+    private final BufferedReader lines;
+    private final MappingIterator<Map<String, String>> records;
+    private int number;
+
+    private PatientImportReader(ObjectMapper objectMapper, BufferedReader lines,
+                                MappingIterator<Map<String, String>> records) {
+        this.objectMapper = objectMapper;
+        this.lines = lines;
+        this.records = records;
+    }
+
+    public static PatientImportReader open(Path upload, PatientImportFormat format, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8);
+        if (format == PatientImportFormat.NDJSON) {
+            return new PatientImportReader(objectMapper, reader, null);
+        }
+        try {
+            MappingIterator<Map<String, String>> records = CSV_MAPPER.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+            return new PatientImportReader(objectMapper, reader, records);
+        } catch (IOException e) {
+            reader.close();
+            throw new IOException("CSV header row could not be read.");
+        }
+    }
+
+    /**
+     * The next row, or null after the last one.
+     *
+     * @throws IOException if the upload cannot be read any further, e.g. a CSV record with
+     *                     an unterminated quote or more cells than the header
+     */
+    public Row next() throws IOException {
+        return records != null ? nextRecord() : nextLine();
+    }
+
+    private Row nextLine() throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) return null;
+            number++;
+        } while (line.isBlank());
+
+        try {
+            return new Row(number, objectMapper.readValue(line, PatientRegistrationRequest.class), null, null);
+        } catch (JsonProcessingException e) {
+            return unreadable(e);
+        }
+    }
+
+    private Row nextRecord() throws IOException {
+        Map<String, String> cells;
+        try {
+            if (!records.hasNextValue()) return null;
+            cells = records.nextValue();
+        } catch (JsonProcessingException e) {
+            throw new IOException("CSV record " + (number + 1) + " is malformed; the upload cannot be read further.");
+        }
+        number++;
+
+        Map<String, String> present = new LinkedHashMap<>();
+        cells.forEach((column, value) -> {
+            if (value != null && !value.isBlank()) present.put(column.trim(), value);
+        });
+        try {
+            return new Row(number, objectMapper.convertValue(present, PatientRegistrationRequest.class), null, null);
+        } catch (IllegalArgumentException e) {
+            return unreadable(e.getCause());
+        }
+    }
+
+    private Row unreadable(Throwable cause) {
+        if (cause instanceof JsonMappingException mapping) {
+            List<JsonMappingException.Reference> path = mapping.getPath();
+            if (!path.isEmpty() && path.get(path.size() - 1).getFieldName() != null) {
+                return new Row(number, null, path.get(path.size() - 1).getFieldName(), "Invalid value.");
+            }
+        }
+        return new Row(number, null, null, "Row could not be read as a patient record.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (records != null) records.close();
+        lines.close();
+    }
+}
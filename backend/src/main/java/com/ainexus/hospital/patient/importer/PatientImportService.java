@@ -0,0 +1,403 @@
+package com.ainexus.hospital.patient.importer;
+
+import com.ainexus.hospital.patient.dto.request.PatientRegistrationRequest;
+import com.ainexus.hospital.patient.dto.response.PatientImportJobResponse;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Patient;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.exception.PayloadTooLargeException;
+import com.ainexus.hospital.patient.exception.ResourceNotFoundException;
+import com.ainexus.hospital.patient.mapper.PatientMapper;
+import com.ainexus.hospital.patient.search.PatientFacetCounters;
+import com.ainexus.hospital.patient.search.PatientSearchIndex;
+import com.ainexus.hospital.patient.security.AuthContext;
+import com.ainexus.hospital.patient.security.RoleGuard;
+import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk patient import: an admin uploads a CSV or NDJSON file of PatientRegistrationRequests
+ * and polls the job until it completes.
+ *
+ * The request thread only spools the upload to a temporary file and records the job; a single
+ * background thread per node then runs jobs in order:
+ *   1. VALIDATING — streams the upload through the same Bean Validation constraints as
+ *      POST /api/v1/patients, writing accepted rows to a staging file and reporting rejected
+ *      ones (the first max-reported-errors of them) on the job.
+ *   2. LOADING — reserves one contiguous ID range for all accepted rows from
+ *      PatientIdGeneratorService, then in a single transaction COPYs the patients and their
+ *      REGISTER audit rows, and asks every node to rebuild its search index and facet counts.
+ *
+ * Accepted rows are imported together or not at all. Rows are not checked for duplicates
+ * (registration only warns about them). A job whose node stops mid-run stays in its last
+ * status; it is not resumed.
+ */
+@Service
+public class PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    /** Rows between progress updates on the job row while validating. */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    /** Characters buffered per COPY write. */
+    private static final int COPY_CHUNK = 64 * 1024;
+
+    private static final String COPY_PATIENTS = """
+            COPY patients (patient_id, first_name, last_name, date_of_birth, gender, blood_group, phone, email,
+                           address, city, state, zip_code, emergency_contact_name, emergency_contact_phone,
+                           emergency_contact_relationship, known_allergies, chronic_conditions, status,
+                           created_at, created_by, updated_at, updated_by)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private static final String COPY_AUDIT = """
+            COPY patient_audit_log (timestamp, operation, patient_id, performed_by) FROM STDIN (FORMAT csv)
+            """;
+
+    private final PatientImportJobs jobs;
+    private final PatientIdGeneratorService idGeneratorService;
+    private final PatientMapper patientMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTx;
+    private final PatientSearchIndex searchIndex;
+    private final PatientFacetCounters facetCounters;
+    private final RoleGuard roleGuard;
+    private final long maxUploadBytes;
+    private final int maxReportedErrors;
+    private final ExecutorService worker;
+
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter importedRowsCounter;
+    private final Counter rejectedRowsCounter;
+    private final Timer loadTimer;
+
+    public PatientImportService(PatientImportJobs jobs,
+                                PatientIdGeneratorService idGeneratorService,
+                                PatientMapper patientMapper,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PatientSearchIndex searchIndex,
+                                PatientFacetCounters facetCounters,
+                                RoleGuard roleGuard,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.patient.import.max-upload-bytes:268435456}") long maxUploadBytes,
+                                @Value("${app.patient.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jobs = jobs;
+        this.idGeneratorService = idGeneratorService;
+        this.patientMapper = patientMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTx = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.facetCounters = facetCounters;
+        this.roleGuard = roleGuard;
+        this.maxUploadBytes = maxUploadBytes;
+        this.maxReportedErrors = maxReportedErrors;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "patient-import");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.completedCounter = Counter.builder("patient.imports.total").tag("result", "completed")
+                .description("Bulk patient imports that committed").register(meterRegistry);
+        this.failedCounter = Counter.builder("patient.imports.total").tag("result", "failed")
+                .description("Bulk patient imports that loaded nothing").register(meterRegistry);
+        this.importedRowsCounter = Counter.builder("patient.import.rows.total").tag("result", "imported")
+                .description("Patients created by bulk import").register(meterRegistry);
+        this.rejectedRowsCounter = Counter.builder("patient.import.rows.total").tag("result", "rejected")
+                .description("Bulk import rows rejected by validation").register(meterRegistry);
+        this.loadTimer = Timer.builder("patient.import.load")
+                .description("ID range reservation plus COPY of one bulk import").register(meterRegistry);
+    }
+
+    /**
+     * Spools {@code body} and queues the import; returns the QUEUED job. The upload is read to
+     * the end before returning, nothing else happens on the request thread.
+     */
+    public PatientImportJobResponse startImport(InputStream body, PatientImportFormat format) {
+        roleGuard.requireRoles("ADMIN");
+        String performedBy = AuthContext.Holder.get().getUsername();
+
+        Path upload = spool(body);
+        UUID jobId = UUID.randomUUID();
+        try {
+            jobs.create(jobId, format, performedBy);
+            worker.execute(() -> run(jobId, upload, format, performedBy));
+        } catch (RuntimeException e) {
+            deleteQuietly(upload);
+            throw e;
+        }
+        log.info("PatientImportService: queued {} import {}", format, jobId);
+        return jobs.find(jobId).orElseThrow();
+    }
+
+    public PatientImportJobResponse getJob(UUID jobId) {
+        roleGuard.requireRoles("ADMIN");
+        return jobs.find(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // ── Background thread ───────────────────────────────────────────────────────
+
+    private void run(UUID jobId, Path upload, PatientImportFormat format, String performedBy) {
+        Path staged = null;
+        try {
+            staged = Files.createTempFile("patient-import-", ".staged");
+            Validated validated = validate(jobId, upload, format, staged, performedBy);
+            jobs.loading(jobId, validated.rowsRead(), validated.rowsRejected(), validated.rowErrors());
+            rejectedRowsCounter.increment(validated.rowsRejected());
+
+            int imported = validated.accepted() > 0 ? load(staged, validated, performedBy) : 0;
+            jobs.completed(jobId, imported);
+            importedRowsCounter.increment(imported);
+            completedCounter.increment();
+            log.info("PatientImportService: import {} completed — {} imported, {} rejected",
+                    jobId, imported, validated.rowsRejected());
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            String reason = isReaderMessage(e) ? e.getMessage()
+                    : e instanceof IOException ? "The upload could not be read; no patients were imported."
+                    : "Loading failed; no patients were imported.";
+            log.warn("PatientImportService: import {} failed: {}", jobId, describe(e));
+            try {
+                jobs.failed(jobId, reason);
+            } catch (RuntimeException recordFailure) {
+                log.error("PatientImportService: could not record failure of import {}: {}",
+                        jobId, describe(recordFailure));
+            }
+        } finally {
+            deleteQuietly(upload);
+            if (staged != null) deleteQuietly(staged);
+        }
+    }
+
+    /** PatientImportReader throws plain IOExceptions whose messages name a row number, never its values. */
+    private static boolean isReaderMessage(Throwable e) {
+        return e.getClass() == IOException.class;
+    }
+
+    /**
+     * Loggable description of a failure: the reader's own message, otherwise only the exception
+     * class and SQLState. Driver messages can quote patient data (a COPY line, or
+     * "Failing row contains (...)") and must not reach the log (constitution: no PHI in logs).
+     */
+    private static String describe(Throwable e) {
+        if (isReaderMessage(e)) return e.getMessage();
+        StringBuilder description = new StringBuilder(e.getClass().getName());
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                description.append(" (SQLState ").append(sql.getSQLState()).append(')');
+                break;
+            }
+        }
+        return description.toString();
+    }
+
+    private Validated validate(UUID jobId, Path upload, PatientImportFormat format, Path staged, String performedBy)
+            throws IOException {
+        jobs.validating(jobId, 0, 0);
+        OffsetDateTime now = OffsetDateTime.now();
+        int rowsRead = 0;
+        int rowsRejected = 0;
+        int accepted = 0;
+        List<PatientImportJobResponse.RowError> rowErrors = new ArrayList<>();
+
+        try (PatientImportReader reader = PatientImportReader.open(upload, format, objectMapper);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(staged)))) {
+            for (PatientImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                rowsRead++;
+                List<PatientImportJobResponse.RowError> errors = errorsOf(row);
+                if (errors.isEmpty()) {
+                    out.writeUTF(stagedRow(row.request(), now, performedBy));
+                    accepted++;
+                } else {
+                    rowsRejected++;
+                    for (PatientImportJobResponse.RowError error : errors) {
+                        if (rowErrors.size() < maxReportedErrors) rowErrors.add(error);
+                    }
+                }
+                if (rowsRead % PROGRESS_INTERVAL == 0) {
+                    jobs.validating(jobId, rowsRead, rowsRejected);
+                }
+            }
+        }
+        return new Validated(rowsRead, rowsRejected, accepted, rowErrors, now);
+    }
+
+    private List<PatientImportJobResponse.RowError> errorsOf(PatientImportReader.Row row) {
+        if (row.request() == null) {
+            return List.of(new PatientImportJobResponse.RowError(row.number(), row.field(), row.error()));
+        }
+        return validator.validate(row.request()).stream()
+                .sorted(Comparator.comparing((ConstraintViolation<?> v) -> v.getPropertyPath().toString()))
+                .map(v -> {
+                    String field = v.getPropertyPath().toString();
+                    return new PatientImportJobResponse.RowError(row.number(), field.isEmpty() ? null : field,
+                            v.getMessage());
+                })
+                .toList();
+    }
+
+    /** The COPY_PATIENTS CSV fields after patient_id; defaults as in PatientService.registerPatient. */
+    private String stagedRow(PatientRegistrationRequest request, OffsetDateTime now, String performedBy) {
+        Patient patient = patientMapper.toEntity(request);
+        BloodGroup bloodGroup = request.bloodGroup() != null ? request.bloodGroup() : BloodGroup.UNKNOWN;
+        return String.join(",",
+                csv(patient.getFirstName()), csv(patient.getLastName()), csv(patient.getDateOfBirth()),
+                csv(patient.getGender().name()), csv(bloodGroup.name()), csv(patient.getPhone()),
+                csv(patient.getEmail()), csv(patient.getAddress()), csv(patient.getCity()), csv(patient.getState()),
+                csv(patient.getZipCode()), csv(patient.getEmergencyContactName()),
+                csv(patient.getEmergencyContactPhone()), csv(patient.getEmergencyContactRelationship()),
+                csv(patient.getKnownAllergies()), csv(patient.getChronicConditions()),
+                csv(PatientStatus.ACTIVE.name()), csv(now), csv(performedBy), csv(now), csv(performedBy));
+    }
+
+    private int load(Path staged, Validated validated, String performedBy) {
+        long start = System.nanoTime();
+        int count = validated.accepted();
+        PatientIdGeneratorService.IdRange ids = idGeneratorService.reserveRange(count);
+        String registeredAt = csv(validated.now());
+        String performer = csv(performedBy);
+
+        loadTx.executeWithoutResult(status -> {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(staged)))) {
+                    copy(copyManager, COPY_PATIENTS, count, i -> csv(ids.patientId(i)) + "," + in.readUTF());
+                    copy(copyManager, COPY_AUDIT, count,
+                            i -> registeredAt + ",REGISTER," + csv(ids.patientId(i)) + "," + performer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+            searchIndex.publishReload();
+            facetCounters.publishReload();
+        });
+        loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return count;
+    }
+
+    private static void copy(CopyManager copyManager, String sql, int count, CopyRow rows)
+            throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            StringBuilder chunk = new StringBuilder(COPY_CHUNK + 4_096);
+            for (int i = 0; i < count; i++) {
+                chunk.append(rows.row(i)).append('\n');
+                if (chunk.length() >= COPY_CHUNK) {
+                    write(copyIn, chunk);
+                }
+            }
+            write(copyIn, chunk);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+    /** A quoted COPY CSV field; null becomes an unquoted empty field, which COPY reads as NULL. */
+    private static String csv(Object value) {
+        if (value == null) return "";
+        return '"' + value.toString().replace("\"", "\"\"") + '"';
+    }
+
+    private Path spool(InputStream body) {
+        Path upload = null;
+        try {
+            upload = Files.createTempFile("patient-import-", ".upload");
+            try (OutputStream out = Files.newOutputStream(upload)) {
+                byte[] buffer = new byte[64 * 1024];
+                long total = 0;
+                for (int n = body.read(buffer); n >= 0; n = body.read(buffer)) {
+                    total += n;
+                    if (total > maxUploadBytes) {
+                        throw new PayloadTooLargeException(
+                                "Import uploads are limited to " + maxUploadBytes / (1024 * 1024) + " MB.");
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            return upload;
+        } catch (IOException e) {
+            if (upload != null) deleteQuietly(upload);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            if (upload != null) deleteQuietly(upload);
+            throw e;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("PatientImportService: could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyRow {
+        String row(int index) throws IOException;
+    }
+
+    private record Validated(int rowsRead, int rowsRejected, int accepted,
+                             List<PatientImportJobResponse.RowError> rowErrors, OffsetDateTime now) {}
+}
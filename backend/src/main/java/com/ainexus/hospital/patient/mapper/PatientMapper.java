@@ -5,6 +5,7 @@ import com.ainexus.hospital.patient.dto.request.PatientUpdateRequest;
 import com.ainexus.hospital.patient.dto.response.PatientResponse;
 import com.ainexus.hospital.patient.dto.response.PatientSummaryResponse;
 import com.ainexus.hospital.patient.entity.Patient;
+import com.ainexus.hospital.patient.repository.PatientSummaryView;
 import org.mapstruct.*;
 
 import java.time.LocalDate;
@@ -21,6 +22,10 @@ public interface PatientMapper {
     @Mapping(target = "age", expression = "java(toAge(patient.getDateOfBirth()))")
     PatientSummaryResponse toSummary(Patient patient);
 
+    /** Map list-query projection → summary row (includes computed age). */
+    @Mapping(target = "age", expression = "java(toAge(view.dateOfBirth()))")
+    PatientSummaryResponse toSummary(PatientSummaryView view);
+
     /**
      * Map registration request → Patient entity.
      * patientId, status, createdAt, createdBy, updatedAt, updatedBy are set in service.
@@ -47,6 +52,9 @@ public interface PatientMapper {
     @Mapping(target = "version", ignore = true)
     void updateEntity(PatientUpdateRequest request, @MappingTarget Patient patient);
 
+    /** The entity's editable fields as an update request — the base a merge patch is applied to. */
+    PatientUpdateRequest toUpdateRequest(Patient patient);
+
     /**
      * Compute age in complete years from date of birth to today.
      * Age for a patient born exactly today counts as 0 (birthday is today).
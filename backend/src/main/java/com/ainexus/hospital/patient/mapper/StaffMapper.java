@@ -4,6 +4,7 @@ import com.ainexus.hospital.patient.dto.response.UserDetailResponse;
 import com.ainexus.hospital.patient.dto.response.UserProfileResponse;
 import com.ainexus.hospital.patient.dto.response.UserSummaryResponse;
 import com.ainexus.hospital.patient.entity.HospitalUser;
+import com.ainexus.hospital.patient.service.StaffDirectory;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -40,4 +41,13 @@ public interface StaffMapper {
     @Mapping(target = "department", source = "department")
     @Mapping(target = "lastLoginAt", source = "lastLoginAt")
     UserProfileResponse toProfileResponse(HospitalUser user);
+
+    /** Detail response from a cached StaffDirectory entry. */
+    UserDetailResponse toDetailResponse(StaffDirectory.Entry entry);
+
+    /** Summary list response from a cached StaffDirectory entry. */
+    UserSummaryResponse toSummaryResponse(StaffDirectory.Entry entry);
+
+    /** Own-profile response from a cached StaffDirectory entry. */
+    UserProfileResponse toProfileResponse(StaffDirectory.Entry entry);
 }
@@ -0,0 +1,25 @@
+package com.ainexus.hospital.patient.pagination;
+
+/**
+ * How a paged search fills {@code totalElements} / {@code totalPages}.
+ *
+ * EXACT runs a COUNT(*) with the search predicate on every request. ESTIMATE returns a
+ * recently computed count for the same query and filters (PatientCountCache), corrected by
+ * what the current page proves. NONE runs no count at all; {@code last} is still exact
+ * because one extra row is fetched.
+ */
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    /** Resolves the {@code countMode} request parameter; unknown or blank values mean EXACT. */
+    public static CountMode fromParam(String param) {
+        if (param == null || param.isBlank()) return EXACT;
+        try {
+            return valueOf(param.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return EXACT;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ainexus.hospital.patient.pagination;
+
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position in a keyset-paginated listing: the sort it belongs to and the sort-key values of
+ * the last row already returned (always ending with the row's unique ID).
+ *
+ * Encoded as base64url JSON, e.g. {@code ["createdAt","2026-03-01T09:30:00.123456Z","P2026001"]}.
+ * The token is opaque to clients but not signed: a forged cursor only moves the caller to
+ * another position in a listing it is already allowed to read.
+ */
+public record KeysetCursor(String sort, List<String> values) {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    public KeysetCursor {
+        values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    public String encode() {
+        List<String> parts = new ArrayList<>(values.size() + 1);
+        parts.add(sort);
+        parts.addAll(values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(JSON.writeValueAsBytes(parts));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode} for the given sort.
+     *
+     * @throws InvalidCursorException if the token is malformed, belongs to another sort or
+     *                                does not carry {@code valueCount} values
+     */
+    public static KeysetCursor decode(String token, String expectedSort, int valueCount) {
+        List<String> parts;
+        try {
+            parts = JSON.readValue(Base64.getUrlDecoder().decode(token), STRING_LIST);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed pagination cursor.");
+        }
+        if (parts == null || parts.contains(null)) {
+            throw new InvalidCursorException("Malformed pagination cursor.");
+        }
+        if (parts.size() != valueCount + 1 || !expectedSort.equals(parts.get(0))) {
+            throw new InvalidCursorException("Pagination cursor does not match the requested sort order.");
+        }
+        return new KeysetCursor(parts.get(0), parts.subList(1, parts.size()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.ainexus.hospital.patient.pagination;
+
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
+import com.ainexus.hospital.patient.repository.PatientScrollRow;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Sort orders available to cursor-paginated patient listing. Each key ends with patient_id so
+ * it is unique, and each has a matching composite B-tree index (V11) that the seek predicate
+ * {@code (k1, ..., patient_id) > (:k1, ..., :id)} and the ORDER BY can both walk.
+ */
+public enum PatientScrollOrder {
+
+    /** Newest first — the default listing order. */
+    CREATED_AT("createdAt", false, List.of("createdAt", "patientId")),
+    /** Alphabetical by last name, then first name. */
+    LAST_NAME("lastName", true, List.of("lastName", "firstName", "patientId")),
+    /** Oldest patient first. */
+    DATE_OF_BIRTH("dateOfBirth", true, List.of("dateOfBirth", "patientId"));
+
+    private final String param;
+    private final boolean ascending;
+    private final List<String> properties;
+
+    PatientScrollOrder(String param, boolean ascending, List<String> properties) {
+        this.param = param;
+        this.ascending = ascending;
+        this.properties = properties;
+    }
+
+    /** Resolves the {@code sort} request parameter; unknown or blank values mean {@link #CREATED_AT}. */
+    public static PatientScrollOrder fromParam(String param) {
+        for (PatientScrollOrder order : values()) {
+            if (order.param.equalsIgnoreCase(param)) return order;
+        }
+        return CREATED_AT;
+    }
+
+    public boolean ascending() {
+        return ascending;
+    }
+
+    /** Patient entity attributes forming the key, most significant first. */
+    public List<String> properties() {
+        return properties;
+    }
+
+    /** Cursor positioned after {@code last}, the final row of the current page. */
+    public KeysetCursor cursorAfter(PatientScrollRow last) {
+        List<String> values = switch (this) {
+            case CREATED_AT -> List.of(last.createdAt().toString(), last.patientId());
+            case LAST_NAME -> List.of(last.lastName(), last.firstName(), last.patientId());
+            case DATE_OF_BIRTH -> List.of(last.dateOfBirth().toString(), last.patientId());
+        };
+        return new KeysetCursor(param, values);
+    }
+
+    /**
+     * Key values to seek past, typed like the entity attributes in {@link #properties()}.
+     *
+     * @throws InvalidCursorException if the token is malformed or was issued for another order
+     */
+    public Object[] seekValues(String token) {
+        List<String> values = KeysetCursor.decode(token, param, properties.size()).values();
+        try {
+            return switch (this) {
+                case CREATED_AT -> new Object[]{OffsetDateTime.parse(values.get(0)), values.get(1)};
+                case LAST_NAME -> values.toArray();
+                case DATE_OF_BIRTH -> new Object[]{LocalDate.parse(values.get(0)), values.get(1)};
+            };
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed pagination cursor.");
+        }
+    }
+}
@@ -4,8 +4,11 @@ import com.ainexus.hospital.patient.entity.HospitalUser;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +23,17 @@ public interface HospitalUserRepository extends JpaRepository<HospitalUser, Stri
     Page<HospitalUser> findByRole(String role, Pageable pageable);
 
     Page<HospitalUser> findByStatusAndRole(String status, String role, Pageable pageable);
+
+    /** All users' token epochs — loaded by TokenEpochRegistry on (re)sync. */
+    @Query("SELECT u.userId AS userId, u.tokenEpoch AS tokenEpoch FROM HospitalUser u")
+    List<TokenEpochView> findAllTokenEpochs();
+
+    @Query("SELECT u.tokenEpoch FROM HospitalUser u WHERE u.userId = :userId")
+    Optional<Integer> findTokenEpochByUserId(@Param("userId") String userId);
+
+    interface TokenEpochView {
+        String getUserId();
+
+        Integer getTokenEpoch();
+    }
 }
@@ -0,0 +1,13 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+
+/** Number of patients with one status/gender/blood group combination (see PatientRepository.facetCounts). */
+public record PatientFacetCount(
+        PatientStatus status,
+        Gender gender,
+        BloodGroup bloodGroup,
+        long count
+) {}
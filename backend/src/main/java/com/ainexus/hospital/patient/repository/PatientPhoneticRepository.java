@@ -0,0 +1,23 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/** Sounds-like name search on the V13 phonetic keys; mixed into {@link PatientRepository}. */
+public interface PatientPhoneticRepository {
+
+    /**
+     * IDs of patients whose name sounds like {@code query}, closest spelling first (ties newest
+     * first), with the total count. One word matches first or last name; with two or more,
+     * the first and last word match first and last name in either order.
+     * Filters as for {@link PatientRepository#search}; the pageable's sort is ignored.
+     */
+    Page<String> searchIdsPhonetic(String query,
+                                   PatientStatus status,
+                                   Gender gender,
+                                   BloodGroup bloodGroup,
+                                   Pageable pageable);
+}
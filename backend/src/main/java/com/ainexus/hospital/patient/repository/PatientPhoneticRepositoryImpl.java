@@ -0,0 +1,111 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the phonetic query for one word or a first/last pair. Each shape gets its own SQL
+ * (rather than one statement with NULL-guarded branches) so that every prepared plan is a
+ * BitmapOr over the V13 indexes. The key of each query word is computed by dmetaphone() in
+ * the statement itself — the same function as the generated columns, so codes always agree.
+ * Only the candidates that share a key are ranked with levenshtein().
+ */
+class PatientPhoneticRepositoryImpl implements PatientPhoneticRepository {
+
+    /** levenshtein() accepts at most 255 characters; names are at most 50. */
+    private static final int MAX_WORD_LENGTH = 50;
+
+    private static final String ONE_WORD_MATCH = """
+            (p.first_name_phonetic = dmetaphone(:first) OR p.last_name_phonetic = dmetaphone(:first))""";
+    private static final String ONE_WORD_DISTANCE = """
+            LEAST(levenshtein(LOWER(p.first_name), :first), levenshtein(LOWER(p.last_name), :first))""";
+
+    private static final String TWO_WORD_MATCH = """
+            ((p.last_name_phonetic = dmetaphone(:last) AND p.first_name_phonetic = dmetaphone(:first))
+             OR (p.last_name_phonetic = dmetaphone(:first) AND p.first_name_phonetic = dmetaphone(:last)))""";
+    private static final String TWO_WORD_DISTANCE = """
+            LEAST(levenshtein(LOWER(p.first_name), :first) + levenshtein(LOWER(p.last_name), :last),
+                  levenshtein(LOWER(p.first_name), :last) + levenshtein(LOWER(p.last_name), :first))""";
+
+    private final EntityManager entityManager;
+
+    PatientPhoneticRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<String> searchIdsPhonetic(String query,
+                                          PatientStatus status,
+                                          Gender gender,
+                                          BloodGroup bloodGroup,
+                                          Pageable pageable) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        boolean oneWord = words.size() == 1;
+
+        StringBuilder where = new StringBuilder(" WHERE ").append(oneWord ? ONE_WORD_MATCH : TWO_WORD_MATCH);
+        Map<String, Object> params = new HashMap<>();
+        params.put("first", words.get(0));
+        if (!oneWord) {
+            params.put("last", words.get(words.size() - 1));
+        }
+        if (status != null) {
+            where.append(" AND p.status = :status");
+            params.put("status", status.name());
+        }
+        if (gender != null) {
+            where.append(" AND p.gender = :gender");
+            params.put("gender", gender.name());
+        }
+        if (bloodGroup != null) {
+            where.append(" AND p.blood_group = :bloodGroup");
+            params.put("bloodGroup", bloodGroup.name());
+        }
+
+        Query page = entityManager.createNativeQuery("SELECT p.patient_id FROM patients p" + where
+                + " ORDER BY " + (oneWord ? ONE_WORD_DISTANCE : TWO_WORD_DISTANCE)
+                + ", p.created_at DESC, p.patient_id DESC");
+        params.forEach(page::setParameter);
+        page.setFirstResult((int) pageable.getOffset());
+        page.setMaxResults(pageable.getPageSize());
+
+        List<String> ids = new ArrayList<>();
+        for (Object id : page.getResultList()) {
+            ids.add((String) id);
+        }
+        // Phonetic matches are few; a short first page is the whole result
+        if (pageable.getOffset() == 0 && ids.size() < pageable.getPageSize()) {
+            return new PageImpl<>(ids, pageable, ids.size());
+        }
+
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*) FROM patients p" + where);
+        params.forEach(count::setParameter);
+        return new PageImpl<>(ids, pageable, ((Number) count.getSingleResult()).longValue());
+    }
+
+    /** Lower-cased words containing at least one letter, each capped at the name column length. */
+    private static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) return words;
+        for (String word : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (word.chars().anyMatch(Character::isLetter)) {
+                words.add(word.length() > MAX_WORD_LENGTH ? word.substring(0, MAX_WORD_LENGTH) : word);
+            }
+        }
+        return words;
+    }
+}
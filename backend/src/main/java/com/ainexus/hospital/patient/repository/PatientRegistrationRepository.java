@@ -0,0 +1,14 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.Patient;
+
+/** Registration write path; mixed into {@link PatientRepository}. */
+public interface PatientRegistrationRepository {
+
+    /**
+     * Inserts a new patient row and its REGISTER audit entry (performed by
+     * {@code createdBy}, at {@code createdAt}) in one statement. Both rows are written or
+     * neither is. The entity is not attached to the persistence context.
+     */
+    void insertWithRegisterAudit(Patient patient);
+}
@@ -0,0 +1,61 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.Patient;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One data-modifying CTE instead of an entity persist plus an AuditService insert: the audit
+ * row is inserted from the patient insert's RETURNING, so registration is a single round trip
+ * with no Hibernate flush, and the audit entry cannot exist without the patient or vice versa.
+ * Runs on the connection of the surrounding transaction.
+ */
+class PatientRegistrationRepositoryImpl implements PatientRegistrationRepository {
+
+    private static final String INSERT_WITH_AUDIT = """
+            WITH registered AS (
+                INSERT INTO patients (patient_id, first_name, last_name, date_of_birth, gender, blood_group,
+                                      phone, email, address, city, state, zip_code,
+                                      emergency_contact_name, emergency_contact_phone,
+                                      emergency_contact_relationship, known_allergies, chronic_conditions,
+                                      status, created_at, created_by, updated_at, updated_by, version)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+                RETURNING patient_id, created_at, created_by
+            )
+            INSERT INTO patient_audit_log (timestamp, operation, patient_id, performed_by)
+            SELECT created_at, 'REGISTER', patient_id, created_by FROM registered
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    PatientRegistrationRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertWithRegisterAudit(Patient patient) {
+        jdbcTemplate.update(INSERT_WITH_AUDIT,
+                patient.getPatientId(),
+                patient.getFirstName(),
+                patient.getLastName(),
+                patient.getDateOfBirth(),
+                patient.getGender().name(),
+                patient.getBloodGroup().name(),
+                patient.getPhone(),
+                patient.getEmail(),
+                patient.getAddress(),
+                patient.getCity(),
+                patient.getState(),
+                patient.getZipCode(),
+                patient.getEmergencyContactName(),
+                patient.getEmergencyContactPhone(),
+                patient.getEmergencyContactRelationship(),
+                patient.getKnownAllergies(),
+                patient.getChronicConditions(),
+                patient.getStatus().name(),
+                patient.getCreatedAt(),
+                patient.getCreatedBy(),
+                patient.getUpdatedAt(),
+                patient.getUpdatedBy());
+        patient.setVersion(0);
+    }
+}
@@ -4,57 +4,440 @@ import com.ainexus.hospital.patient.entity.BloodGroup;
 import com.ainexus.hospital.patient.entity.Gender;
 import com.ainexus.hospital.patient.entity.Patient;
 import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.validation.PhoneNumbers;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, String> {
+public interface PatientRepository extends JpaRepository<Patient, String>, PatientScrollRepository,
+        PatientPhoneticRepository, PatientRegistrationRepository {
 
-    /**
-     * Case-insensitive partial search across firstName, lastName, phone, email,
-     * and patient_id prefix. Optionally filters by status, gender, and bloodGroup.
-     * Null filter values mean "no filter" (show all).
-     */
-    @Query("""
-            SELECT p FROM Patient p
-            WHERE (
-                :query IS NULL OR :query = ''
-                OR LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%'))
-                OR LOWER(p.lastName)  LIKE LOWER(CONCAT('%', :query, '%'))
-                OR p.phone            LIKE CONCAT('%', :query, '%')
-                OR LOWER(p.email)     LIKE LOWER(CONCAT('%', :query, '%'))
-                OR p.patientId        LIKE CONCAT(:query, '%')
+    /** SELECT ... FROM of the list queries: summary columns only, no entity instances. */
+    String SUMMARY_SELECT = """
+            SELECT new com.ainexus.hospital.patient.repository.PatientSummaryView(
+                p.patientId, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.phone, p.status)
+            FROM Patient p
+            """;
+
+    /** SELECT ... FROM of the facet queries: one PatientFacetCount per filter combination present. */
+    String FACET_SELECT = """
+            SELECT new com.ainexus.hospital.patient.repository.PatientFacetCount(
+                p.status, p.gender, p.bloodGroup, COUNT(p))
+            FROM Patient p
+            """;
+
+    String FACET_GROUP_BY = "GROUP BY p.status, p.gender, p.bloodGroup";
+
+    /** Substring predicate of {@link #searchByText}, without the filters. */
+    String TEXT_MATCH = """
+            (
+                LOWER(p.firstName) LIKE :lowerPattern
+                OR LOWER(p.lastName) LIKE :lowerPattern
+                OR p.phone LIKE :pattern
+                OR LOWER(p.email) LIKE :lowerPattern
+                OR p.patientId LIKE :prefix
             )
+            """;
+
+    /** WHERE clause of {@link #searchByText} and its Slice/count variants. */
+    String TEXT_WHERE = "WHERE " + TEXT_MATCH + """
             AND (:status IS NULL OR p.status = :status)
             AND (:gender IS NULL OR p.gender = :gender)
             AND (:bloodGroup IS NULL OR p.bloodGroup = :bloodGroup)
-            """)
-    Page<Patient> search(
-            @Param("query") String query,
+            """;
+
+    /**
+     * WHERE clause of {@link #searchIdsByName} and its Slice/count variants (native SQL). The
+     * to_tsvector expression must stay identical to idx_patients_full_text (V4) for the GIN
+     * index to be used. Filters are bound as enum names.
+     */
+    String NAME_WHERE = """
+            WHERE to_tsvector('english', p.first_name || ' ' || p.last_name) @@ to_tsquery('english', :tsQuery)
+            AND (CAST(:status AS text) IS NULL OR p.status = CAST(:status AS text))
+            AND (CAST(:gender AS text) IS NULL OR p.gender = CAST(:gender AS text))
+            AND (CAST(:bloodGroup AS text) IS NULL OR p.blood_group = CAST(:bloodGroup AS text))
+            """;
+
+    /** Best name matches first; equally ranked patients newest first. */
+    String NAME_ORDER = """
+            ORDER BY ts_rank(to_tsvector('english', p.first_name || ' ' || p.last_name),
+                             to_tsquery('english', :tsQuery)) DESC,
+                     p.created_at DESC, p.patient_id DESC
+            """;
+
+    /** A query of two or more words made only of letters, apostrophes and hyphens. */
+    Pattern MULTI_WORD_NAME = Pattern.compile("^\\s*[\\p{L}'-]+(\\s+[\\p{L}'-]+)+\\s*$");
+
+    /** WHERE clause of {@link #searchByPhone} and its Slice/count variants. */
+    String PHONE_WHERE = """
+            WHERE p.phoneE164 LIKE :e164Pattern
+            AND (:status IS NULL OR p.status = :status)
+            AND (:gender IS NULL OR p.gender = :gender)
+            AND (:bloodGroup IS NULL OR p.bloodGroup = :bloodGroup)
+            """;
+
+    /** WHERE clause of {@link #findByFilters} and its Slice/count variants. */
+    String FILTER_WHERE = """
+            WHERE (:status IS NULL OR p.status = :status)
+            AND (:gender IS NULL OR p.gender = :gender)
+            AND (:bloodGroup IS NULL OR p.bloodGroup = :bloodGroup)
+            """;
+
+    /**
+     * Case-insensitive partial search across firstName, lastName, phone, email,
+     * and patient_id prefix. Optionally filters by status, gender, and bloodGroup.
+     * Null filter values mean "no filter" (show all). Rows are PatientSummaryView
+     * projections, not managed entities.
+     *
+     * Dispatches to separate queries so each gets its own plan: a blank query uses only
+     * the filters, a multi-word name ("anna smi") the full-text index (see searchIdsByName, which
+     * orders by relevance instead of the pageable's sort), a phone number or part of one
+     * ("(555) 123-45", "123-4567") the normalized phone column (see searchByPhone), anything else the
+     * trigram indexes from V10 (see searchByText).
+     */
+    default Page<PatientSummaryView> search(String query,
+                                            PatientStatus status,
+                                            Gender gender,
+                                            BloodGroup bloodGroup,
+                                            Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return findByFilters(status, gender, bloodGroup, pageable);
+        }
+        String tsQuery = nameTsQuery(query);
+        if (tsQuery != null) {
+            Page<String> ids = searchIdsByName(tsQuery, nameOf(status), nameOf(gender), nameOf(bloodGroup),
+                    unsorted(pageable));
+            return ids.map(summariesById(ids.getContent())::get);
+        }
+        String e164Pattern = PhoneNumbers.searchPattern(query);
+        if (e164Pattern != null) {
+            return searchByPhone(e164Pattern, status, gender, bloodGroup, pageable);
+        }
+        String escaped = escapeLike(query);
+        return searchByText("%" + escaped.toLowerCase(Locale.ROOT) + "%", "%" + escaped + "%", escaped + "%",
+                status, gender, bloodGroup, pageable);
+    }
+
+    /**
+     * {@link #search} without the COUNT query: fetches one row more than the page size to
+     * tell whether a next page exists.
+     */
+    default Slice<PatientSummaryView> searchSlice(String query,
+                                                  PatientStatus status,
+                                                  Gender gender,
+                                                  BloodGroup bloodGroup,
+                                                  Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return sliceByFilters(status, gender, bloodGroup, pageable);
+        }
+        String tsQuery = nameTsQuery(query);
+        if (tsQuery != null) {
+            Slice<String> ids = sliceIdsByName(tsQuery, nameOf(status), nameOf(gender), nameOf(bloodGroup),
+                    unsorted(pageable));
+            return ids.map(summariesById(ids.getContent())::get);
+        }
+        String e164Pattern = PhoneNumbers.searchPattern(query);
+        if (e164Pattern != null) {
+            return sliceByPhone(e164Pattern, status, gender, bloodGroup, pageable);
+        }
+        String escaped = escapeLike(query);
+        return sliceByText("%" + escaped.toLowerCase(Locale.ROOT) + "%", "%" + escaped + "%", escaped + "%",
+                status, gender, bloodGroup, pageable);
+    }
+
+    /**
+     * Sounds-like variant of {@link #search}: names whose Double Metaphone keys match the
+     * query's, closest spelling first (see PatientPhoneticRepository). Always counted exactly
+     * — the matches are an index lookup and few.
+     */
+    default Page<PatientSummaryView> searchPhonetic(String query,
+                                                    PatientStatus status,
+                                                    Gender gender,
+                                                    BloodGroup bloodGroup,
+                                                    Pageable pageable) {
+        Page<String> ids = searchIdsPhonetic(query, status, gender, bloodGroup, pageable);
+        return ids.map(summariesById(ids.getContent())::get);
+    }
+
+    /**
+     * Patients matching {@code query} as {@link #search} matches it, ignoring the filters,
+     * counted per status/gender/blood group combination in one grouped pass — at most one
+     * row per combination, so facet counts for any filter selection can be derived from the
+     * result without going back to the database.
+     */
+    default List<PatientFacetCount> facetCounts(String query) {
+        if (query == null || query.isBlank()) {
+            return facetCountsAll();
+        }
+        String tsQuery = nameTsQuery(query);
+        if (tsQuery != null) {
+            return facetCountsByName(tsQuery).stream()
+                    .map(row -> new PatientFacetCount(
+                            PatientStatus.valueOf((String) row[0]),
+                            Gender.valueOf((String) row[1]),
+                            BloodGroup.valueOf((String) row[2]),
+                            ((Number) row[3]).longValue()))
+                    .toList();
+        }
+        String e164Pattern = PhoneNumbers.searchPattern(query);
+        if (e164Pattern != null) {
+            return facetCountsByPhone(e164Pattern);
+        }
+        String escaped = escapeLike(query);
+        return facetCountsByText("%" + escaped.toLowerCase(Locale.ROOT) + "%", "%" + escaped + "%", escaped + "%");
+    }
+
+    /** Number of patients {@link #search} matches in total. */
+    default long countMatches(String query, PatientStatus status, Gender gender, BloodGroup bloodGroup) {
+        if (query == null || query.isBlank()) {
+            return countByFilters(status, gender, bloodGroup);
+        }
+        String tsQuery = nameTsQuery(query);
+        if (tsQuery != null) {
+            return countByName(tsQuery, nameOf(status), nameOf(gender), nameOf(bloodGroup));
+        }
+        String e164Pattern = PhoneNumbers.searchPattern(query);
+        if (e164Pattern != null) {
+            return countByPhone(e164Pattern, status, gender, bloodGroup);
+        }
+        String escaped = escapeLike(query);
+        return countByText("%" + escaped.toLowerCase(Locale.ROOT) + "%", "%" + escaped + "%", escaped + "%",
+                status, gender, bloodGroup);
+    }
+
+    /**
+     * Substring search. Each predicate has the exact shape of a V10 index expression
+     * (LOWER(col) LIKE pattern / phone LIKE pattern / patient_id LIKE prefix), so PostgreSQL
+     * answers it with a BitmapOr of trigram index scans instead of a sequential scan.
+     * Patterns are built by {@link #search}; LIKE wildcards in user input are escaped.
+     *
+     * @param lowerPattern '%query%' lower-cased — for names and email
+     * @param pattern      '%query%' as typed — for phone
+     * @param prefix       'query%' — for patient_id
+     */
+    @Query(value = SUMMARY_SELECT + TEXT_WHERE, countQuery = "SELECT COUNT(p) FROM Patient p " + TEXT_WHERE)
+    Page<PatientSummaryView> searchByText(
+            @Param("lowerPattern") String lowerPattern,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
             @Param("status") PatientStatus status,
             @Param("gender") Gender gender,
             @Param("bloodGroup") BloodGroup bloodGroup,
             Pageable pageable
     );
 
-    /** Find first patient with given phone number (for duplicate check). */
-    Optional<Patient> findFirstByPhone(String phone);
+    /**
+     * Ranked name search on idx_patients_full_text. Every word must match a word of
+     * "first_name last_name" by prefix (after English stemming), in any order, so "smith anna"
+     * and "ann smi" both find Anna Smithson. Built by {@link #search} from {@link #nameTsQuery}.
+     *
+     * Returns patient IDs in rank order; {@link #search} then loads their summaries by primary
+     * key (a native query cannot select into PatientSummaryView).
+     *
+     * @param tsQuery to_tsquery expression, e.g. 'anna:* &amp; smi:*'
+     */
+    @Query(value = "SELECT p.patient_id FROM patients p " + NAME_WHERE + NAME_ORDER,
+            countQuery = "SELECT COUNT(*) FROM patients p " + NAME_WHERE,
+            nativeQuery = true)
+    Page<String> searchIdsByName(
+            @Param("tsQuery") String tsQuery,
+            @Param("status") String status,
+            @Param("gender") String gender,
+            @Param("bloodGroup") String bloodGroup,
+            Pageable pageable
+    );
+
+    @Query(value = "SELECT p.patient_id FROM patients p " + NAME_WHERE + NAME_ORDER, nativeQuery = true)
+    Slice<String> sliceIdsByName(
+            @Param("tsQuery") String tsQuery,
+            @Param("status") String status,
+            @Param("gender") String gender,
+            @Param("bloodGroup") String bloodGroup,
+            Pageable pageable
+    );
+
+    @Query(value = "SELECT COUNT(*) FROM patients p " + NAME_WHERE, nativeQuery = true)
+    long countByName(
+            @Param("tsQuery") String tsQuery,
+            @Param("status") String status,
+            @Param("gender") String gender,
+            @Param("bloodGroup") String bloodGroup
+    );
 
     /**
-     * Find first patient with given phone, excluding a specific patient ID.
-     * Used by the update form to avoid false duplicate warnings.
+     * Match on the normalized phone number, whatever format it was stored or typed in: an
+     * exact number or "+1..." prefix is a B-tree range scan on idx_patients_phone_e164 (V14),
+     * a partial number matched anywhere ('%1234567%') uses idx_patients_phone_e164_trgm (V18).
+     *
+     * @param e164Pattern PhoneNumbers.searchPattern of the query, e.g. '+15551234567' or '%1234567%'
      */
-    @Query("SELECT p FROM Patient p WHERE p.phone = :phone AND p.patientId <> :excludeId")
-    Optional<Patient> findFirstByPhoneAndPatientIdNot(
-            @Param("phone") String phone,
-            @Param("excludeId") String excludePatientId
+    @Query(value = SUMMARY_SELECT + PHONE_WHERE, countQuery = "SELECT COUNT(p) FROM Patient p " + PHONE_WHERE)
+    Page<PatientSummaryView> searchByPhone(
+            @Param("e164Pattern") String e164Pattern,
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup,
+            Pageable pageable
     );
 
+    @Query(SUMMARY_SELECT + PHONE_WHERE)
+    Slice<PatientSummaryView> sliceByPhone(
+            @Param("e164Pattern") String e164Pattern,
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(p) FROM Patient p " + PHONE_WHERE)
+    long countByPhone(
+            @Param("e164Pattern") String e164Pattern,
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup
+    );
+
+    @Query(FACET_SELECT + "WHERE p.phoneE164 LIKE :e164Pattern " + FACET_GROUP_BY)
+    List<PatientFacetCount> facetCountsByPhone(@Param("e164Pattern") String e164Pattern);
+
+    @Query(FACET_SELECT + FACET_GROUP_BY)
+    List<PatientFacetCount> facetCountsAll();
+
+    @Query(FACET_SELECT + "WHERE " + TEXT_MATCH + FACET_GROUP_BY)
+    List<PatientFacetCount> facetCountsByText(
+            @Param("lowerPattern") String lowerPattern,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix
+    );
+
+    /** Rows of (status, gender, blood_group, count); see {@link #facetCounts}. */
+    @Query(value = """
+            SELECT p.status, p.gender, p.blood_group, COUNT(*) FROM patients p
+            WHERE to_tsvector('english', p.first_name || ' ' || p.last_name) @@ to_tsquery('english', :tsQuery)
+            GROUP BY p.status, p.gender, p.blood_group
+            """, nativeQuery = true)
+    List<Object[]> facetCountsByName(@Param("tsQuery") String tsQuery);
+
+    @Query(SUMMARY_SELECT + "WHERE p.patientId IN :ids")
+    List<PatientSummaryView> findSummariesByIdIn(@Param("ids") List<String> ids);
+
+    /** Listing without a text query — filters only. */
+    @Query(value = SUMMARY_SELECT + FILTER_WHERE, countQuery = "SELECT COUNT(p) FROM Patient p " + FILTER_WHERE)
+    Page<PatientSummaryView> findByFilters(
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + TEXT_WHERE)
+    Slice<PatientSummaryView> sliceByText(
+            @Param("lowerPattern") String lowerPattern,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(p) FROM Patient p " + TEXT_WHERE)
+    long countByText(
+            @Param("lowerPattern") String lowerPattern,
+            @Param("pattern") String pattern,
+            @Param("prefix") String prefix,
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup
+    );
+
+    @Query(SUMMARY_SELECT + FILTER_WHERE)
+    Slice<PatientSummaryView> sliceByFilters(
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(p) FROM Patient p " + FILTER_WHERE)
+    long countByFilters(
+            @Param("status") PatientStatus status,
+            @Param("gender") Gender gender,
+            @Param("bloodGroup") BloodGroup bloodGroup
+    );
+
+    /**
+     * The to_tsquery expression for a multi-word name query — each word as a prefix term,
+     * ANDed — or null when {@code query} is not one and goes to the substring search.
+     * Words are split on apostrophes and hyphens as PostgreSQL's parser does ("O'Brien" is
+     * "o" and "brien"), which also keeps tsquery operators out of the expression.
+     */
+    static String nameTsQuery(String query) {
+        if (query == null || !MULTI_WORD_NAME.matcher(query).matches()) {
+            return null;
+        }
+        StringJoiner terms = new StringJoiner(" & ");
+        for (String word : query.toLowerCase(Locale.ROOT).split("[\\s'-]+")) {
+            if (!word.isEmpty()) terms.add(word + ":*");
+        }
+        return terms.length() > 0 ? terms.toString() : null;
+    }
+
+    private Map<String, PatientSummaryView> summariesById(List<String> ids) {
+        if (ids.isEmpty()) return Map.of();
+        return findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PatientSummaryView::patientId, Function.identity()));
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    /** Native queries carry their own ORDER BY; a sorted pageable would append a second one. */
+    private static Pageable unsorted(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /** Escapes LIKE wildcards with PostgreSQL's default escape character (backslash). */
+    static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Find first patient with the given normalized phone number (for duplicate check) —
+     * one probe of idx_patients_phone_e164, matching the number in any accepted format.
+     *
+     * @param phoneE164 PhoneNumbers.toE164 of the number to check
+     */
+    Optional<Patient> findFirstByPhoneE164(String phoneE164);
+
+    /**
+     * Find first patient with the given normalized phone, excluding a specific patient ID.
+     * Used by the update form to avoid false duplicate warnings. Derived (LIMIT 1): several
+     * other patients may share the normalized number.
+     */
+    Optional<Patient> findFirstByPhoneE164AndPatientIdNot(String phoneE164, String excludePatientId);
+
     // NOTE: No delete methods are exposed — hard deletes are FORBIDDEN (spec FR-034).
 }
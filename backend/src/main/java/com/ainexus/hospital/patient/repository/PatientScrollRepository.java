@@ -0,0 +1,33 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.pagination.PatientScrollOrder;
+
+import java.util.List;
+
+/** Keyset (seek) pagination for patient listing; mixed into {@link PatientRepository}. */
+public interface PatientScrollRepository {
+
+    /**
+     * Up to {@code limit} patients (list columns only) matching {@code query} and the filters,
+     * in {@code order}, strictly after {@code after}.
+     *
+     * The query is matched like {@link PatientRepository#search} except for multi-word names:
+     * phone-shaped queries use phone_e164, everything else — "anna smi" included — the
+     * substring predicate of searchByText. The scroll has no full-text (to_tsquery) branch,
+     * whose relevance order could not serve as a seek key, so a multi-word query only finds
+     * patients with the whole string in one column.
+     *
+     * @param after key values of the last row already returned (see
+     *              {@link PatientScrollOrder#seekValues}), or null for the first page
+     */
+    List<PatientScrollRow> scroll(String query,
+                                  PatientStatus status,
+                                  Gender gender,
+                                  BloodGroup bloodGroup,
+                                  PatientScrollOrder order,
+                                  Object[] after,
+                                  int limit);
+}
@@ -0,0 +1,102 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.pagination.PatientScrollOrder;
+import com.ainexus.hospital.patient.validation.PhoneNumbers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds the seek query instead of paging with OFFSET: the page boundary is a row-value
+ * comparison on the sort key, so every page costs the same index range scan no matter how
+ * deep it is. Only filters that are set are added to the WHERE clause, which keeps
+ * {@code ORDER BY ... LIMIT} answerable by walking the V11 composite index. Rows are
+ * PatientScrollRow projections, never entities.
+ */
+class PatientScrollRepositoryImpl implements PatientScrollRepository {
+
+    private static final String SCROLL_SELECT = """
+            SELECT new com.ainexus.hospital.patient.repository.PatientScrollRow(
+                p.patientId, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.phone, p.status, p.createdAt)
+            FROM Patient p
+            """;
+
+    private final EntityManager entityManager;
+
+    PatientScrollRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<PatientScrollRow> scroll(String query,
+                                         PatientStatus status,
+                                         Gender gender,
+                                         BloodGroup bloodGroup,
+                                         PatientScrollOrder order,
+                                         Object[] after,
+                                         int limit) {
+        StringBuilder jpql = new StringBuilder(SCROLL_SELECT).append("WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        String e164Pattern = query != null ? PhoneNumbers.searchPattern(query) : null;
+        if (e164Pattern != null) {
+            // Same predicate as PatientRepository.searchByPhone
+            jpql.append(" AND p.phoneE164 LIKE :e164Pattern");
+            params.put("e164Pattern", e164Pattern);
+        } else if (query != null && !query.isBlank()) {
+            // Same predicate (and V10 trigram indexes) as PatientRepository.searchByText
+            String escaped = PatientRepository.escapeLike(query);
+            jpql.append(" AND ").append(PatientRepository.TEXT_MATCH);
+            params.put("lowerPattern", "%" + escaped.toLowerCase(Locale.ROOT) + "%");
+            params.put("pattern", "%" + escaped + "%");
+            params.put("prefix", escaped + "%");
+        }
+        if (status != null) {
+            jpql.append(" AND p.status = :status");
+            params.put("status", status);
+        }
+        if (gender != null) {
+            jpql.append(" AND p.gender = :gender");
+            params.put("gender", gender);
+        }
+        if (bloodGroup != null) {
+            jpql.append(" AND p.bloodGroup = :bloodGroup");
+            params.put("bloodGroup", bloodGroup);
+        }
+
+        List<String> key = order.properties();
+        if (after != null) {
+            StringBuilder columns = new StringBuilder();
+            StringBuilder values = new StringBuilder();
+            for (int i = 0; i < key.size(); i++) {
+                if (i > 0) {
+                    columns.append(", ");
+                    values.append(", ");
+                }
+                columns.append("p.").append(key.get(i));
+                values.append(":k").append(i);
+                params.put("k" + i, after[i]);
+            }
+            jpql.append(" AND (").append(columns).append(order.ascending() ? ") > (" : ") < (")
+                    .append(values).append(')');
+        }
+
+        String direction = order.ascending() ? " ASC" : " DESC";
+        jpql.append(" ORDER BY ");
+        for (int i = 0; i < key.size(); i++) {
+            if (i > 0) jpql.append(", ");
+            jpql.append("p.").append(key.get(i)).append(direction);
+        }
+
+        TypedQuery<PatientScrollRow> typed = entityManager.createQuery(jpql.toString(), PatientScrollRow.class);
+        params.forEach(typed::setParameter);
+        return typed.setMaxResults(limit).getResultList();
+    }
+}
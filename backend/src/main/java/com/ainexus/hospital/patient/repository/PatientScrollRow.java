@@ -0,0 +1,28 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A row of keyset-paginated patient listing: the PatientSummaryView columns plus created_at,
+ * the only key column the summary does not carry, so the next-page cursor can be built
+ * without loading the entity. Selected by JPQL constructor expression, like PatientSummaryView.
+ */
+public record PatientScrollRow(
+        String patientId,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        Gender gender,
+        String phone,
+        PatientStatus status,
+        OffsetDateTime createdAt
+) {
+
+    public PatientSummaryView summary() {
+        return new PatientSummaryView(patientId, firstName, lastName, dateOfBirth, gender, phone, status);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ainexus.hospital.patient.repository;
+
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+
+import java.time.LocalDate;
+
+/**
+ * The patient-list columns only, selected by JPQL constructor expression (see
+ * PatientRepository.SUMMARY_SELECT). Not an entity: nothing is added to the persistence
+ * context, and the address, medical-history and audit columns are never read.
+ */
+public record PatientSummaryView(
+        String patientId,
+        String firstName,
+        String lastName,
+        LocalDate dateOfBirth,
+        Gender gender,
+        String phone,
+        PatientStatus status
+) {}
@@ -16,7 +16,6 @@ public interface StaffIdSequenceRepository extends JpaRepository<StaffIdSequence
     /**
      * Acquires a pessimistic write lock (SELECT FOR UPDATE) on the row for the
      * given year. Guarantees atomic Staff ID generation under concurrent requests.
-     * Mirrors PatientIdSequenceRepository.findByYearForUpdate().
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM StaffIdSequence s WHERE s.year = :year")
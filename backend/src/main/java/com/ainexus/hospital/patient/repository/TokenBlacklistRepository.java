@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 
 @Repository
 public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, String> {
@@ -14,4 +15,10 @@ public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist,
      * Called by BlacklistCleanupService every 15 minutes.
      */
     void deleteByExpiresAtBefore(OffsetDateTime cutoff);
+
+    /**
+     * Returns all still-effective revocations.
+     * Used by TokenRevocationRegistry to (re)load its in-memory set.
+     */
+    List<TokenBlacklist> findByExpiresAtAfter(OffsetDateTime now);
 }
@@ -0,0 +1,23 @@
+package com.ainexus.hospital.patient.search;
+
+/**
+ * How patient search interprets the {@code query} text.
+ *
+ * STANDARD is substring matching on name, phone, email and patient_id prefix (multi-word
+ * names use the full-text index). PHONETIC matches names that sound alike — "Jon Smyth"
+ * finds John Smith — via the Double Metaphone keys from V13, closest spelling first.
+ */
+public enum MatchMode {
+    STANDARD,
+    PHONETIC;
+
+    /** Resolves the {@code match} request parameter; unknown or blank values mean STANDARD. */
+    public static MatchMode fromParam(String param) {
+        if (param == null || param.isBlank()) return STANDARD;
+        try {
+            return valueOf(param.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return STANDARD;
+        }
+    }
+}
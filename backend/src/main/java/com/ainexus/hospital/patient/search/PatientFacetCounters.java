@@ -0,0 +1,189 @@
+package com.ainexus.hospital.patient.search;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Running per-combination patient counts (a PatientFacetCube over the whole table), so facets
+ * without a text query — the blood bank's blood-group totals — are a memory read.
+ *
+ * Loaded by one grouped query on every ClusterNotificationBus (re)connect. PatientService
+ * calls {@link #publishChange} in each writing transaction whenever a patient's status,
+ * gender or blood group is set or changes; the "patient_facets" notification
+ * ("STATUS,GENDER,BLOOD_GROUP>STATUS,GENDER,BLOOD_GROUP", left side empty for a new patient)
+ * is applied by every node, this one included, on the listener thread. Counts on the writing
+ * node therefore trail the commit by the notification round trip. A bulk import publishes
+ * "*" instead, and every node reloads.
+ *
+ * Reloads also run on the scheduler thread (reconcile). Moves that arrive while a reload's
+ * query runs are applied to the current counts and replayed onto the reloaded ones before
+ * those replace them, so no move is lost to the swap. A write that committed just before the
+ * query's snapshot but is notified after the reload began is counted twice until the next
+ * reconcile. While the listener is disconnected {@link #snapshot} returns empty and callers
+ * count in the database.
+ */
+@Component
+public class PatientFacetCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientFacetCounters.class);
+
+    static final String CHANNEL = "patient_facets";
+
+    /** Payload asking every node to reload its counts. */
+    static final String RELOAD = "*";
+
+    private final PatientRepository patientRepository;
+    private final ClusterNotificationBus notificationBus;
+    private final boolean enabled;
+
+    /** Null until the first load completes. */
+    private volatile PatientFacetCube cube;
+
+    /** Serializes reloads (listener thread and reconcile). */
+    private final Object reloadLock = new Object();
+    /** Guards moves against {@link #cube} being replaced, and {@link #movesDuringReload}. */
+    private final Object moveLock = new Object();
+    /** Moves applied while a reload's query runs, replayed onto its result; null otherwise. */
+    private List<Move> movesDuringReload;
+
+    private final Counter reloadsCounter;
+    private final Counter dbFallbackCounter;
+
+    public PatientFacetCounters(PatientRepository patientRepository,
+                                ClusterNotificationBus notificationBus,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.search.facets.counters-enabled:true}") boolean enabled) {
+        this.patientRepository = patientRepository;
+        this.notificationBus = notificationBus;
+        this.enabled = enabled;
+
+        this.reloadsCounter = Counter.builder("patient.facets.reloads.total")
+                .description("Full reloads of the patient facet counters from patients").register(meterRegistry);
+        this.dbFallbackCounter = Counter.builder("patient.facets.db_fallbacks.total")
+                .description("Unfiltered facet requests counted in the database while the counters were unavailable")
+                .register(meterRegistry);
+
+        if (enabled) {
+            notificationBus.subscribe(CHANNEL, this::onChanged, this::reload);
+        }
+    }
+
+    /** The current counts, or empty when the caller must count in the database. */
+    public Optional<PatientFacetCube> snapshot() {
+        PatientFacetCube current = cube;
+        if (current == null || !notificationBus.isConnected()) {
+            if (enabled) dbFallbackCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    /**
+     * Records a patient moving from {@code before} (null for a new patient) to {@code after}.
+     * Call inside the writing transaction: nodes apply it only if the transaction commits.
+     */
+    public void publishChange(PatientFacetCube.Key before, PatientFacetCube.Key after) {
+        if (!enabled || Objects.equals(before, after)) return;
+        notificationBus.publish(CHANNEL, encode(before) + ">" + encode(after));
+    }
+
+    /**
+     * Records a bulk write (an import) too large to publish row by row. Call inside the
+     * writing transaction: on commit every node reloads its counts from the table.
+     */
+    public void publishReload() {
+        if (!enabled) return;
+        notificationBus.publish(CHANNEL, RELOAD);
+    }
+
+    /** Reconciles with the table, repairing drift from writes that raced a reload. */
+    @Scheduled(fixedDelayString = "${app.search.facets.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.search.facets.reconcile-interval-ms:600000}")
+    void reconcile() {
+        if (!enabled || cube == null) return;
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("PatientFacetCounters: reconcile failed, keeping the running counts: {}", e.getMessage());
+        }
+    }
+
+    private void reload() {
+        synchronized (reloadLock) {
+            synchronized (moveLock) {
+                movesDuringReload = new ArrayList<>();
+            }
+            PatientFacetCube reloaded = null;
+            try {
+                reloaded = PatientFacetCube.of(patientRepository.facetCountsAll());
+            } finally {
+                synchronized (moveLock) {
+                    if (reloaded != null) {
+                        for (Move move : movesDuringReload) {
+                            reloaded.move(move.before(), move.after());
+                        }
+                        cube = reloaded;
+                    }
+                    movesDuringReload = null;
+                }
+            }
+            reloadsCounter.increment();
+        }
+    }
+
+    private void onChanged(String payload) {
+        if (cube == null) return;   // the pending load reads the row
+        if (RELOAD.equals(payload)) {
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("PatientFacetCounters: reload failed, keeping the running counts until reconcile: {}",
+                        e.getMessage());
+            }
+            return;
+        }
+        int separator = payload.indexOf('>');
+        try {
+            if (separator < 0) throw new IllegalArgumentException(payload);
+            PatientFacetCube.Key before = decode(payload.substring(0, separator));
+            PatientFacetCube.Key after = decode(payload.substring(separator + 1));
+            synchronized (moveLock) {
+                cube.move(before, after);
+                if (movesDuringReload != null) {
+                    movesDuringReload.add(new Move(before, after));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("PatientFacetCounters: ignoring malformed notification '{}'", payload);
+        }
+    }
+
+    private record Move(PatientFacetCube.Key before, PatientFacetCube.Key after) {}
+
+    private static String encode(PatientFacetCube.Key key) {
+        return key == null ? "" : key.status().name() + "," + key.gender().name() + "," + key.bloodGroup().name();
+    }
+
+    private static PatientFacetCube.Key decode(String value) {
+        if (value.isEmpty()) return null;
+        String[] parts = value.split(",", -1);
+        if (parts.length != 3) throw new IllegalArgumentException(value);
+        return new PatientFacetCube.Key(PatientStatus.valueOf(parts[0]), Gender.valueOf(parts[1]),
+                BloodGroup.valueOf(parts[2]));
+    }
+}
@@ -0,0 +1,92 @@
+package com.ainexus.hospital.patient.search;
+
+import com.ainexus.hospital.patient.dto.response.PatientFacetsResponse;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.Patient;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.repository.PatientFacetCount;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Patient counts for every status × gender × blood group combination (2 × 3 × 9 cells).
+ * Any facet response can be derived from it, so one grouped query — or the running counters
+ * in PatientFacetCounters — answers facets for every filter selection.
+ *
+ * Cells are updated atomically and may be read while being updated.
+ */
+public final class PatientFacetCube {
+
+    private static final PatientStatus[] STATUSES = PatientStatus.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final BloodGroup[] BLOOD_GROUPS = BloodGroup.values();
+
+    /** One patient's position in the cube. */
+    public record Key(PatientStatus status, Gender gender, BloodGroup bloodGroup) {
+
+        public static Key of(Patient patient) {
+            return new Key(patient.getStatus(), patient.getGender(), patient.getBloodGroup());
+        }
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray(STATUSES.length * GENDERS.length * BLOOD_GROUPS.length);
+
+    /** Cube holding the rows of PatientRepository.facetCounts. */
+    public static PatientFacetCube of(List<PatientFacetCount> rows) {
+        PatientFacetCube cube = new PatientFacetCube();
+        for (PatientFacetCount row : rows) {
+            cube.cells.addAndGet(index(row.status(), row.gender(), row.bloodGroup()), row.count());
+        }
+        return cube;
+    }
+
+    /** Moves one patient from {@code before} to {@code after}; null for a patient not counted before or after. */
+    public void move(Key before, Key after) {
+        if (before != null) cells.decrementAndGet(index(before.status(), before.gender(), before.bloodGroup()));
+        if (after != null) cells.incrementAndGet(index(after.status(), after.gender(), after.bloodGroup()));
+    }
+
+    /**
+     * Facets for a filter selection; a null filter selects every value of its dimension.
+     * See PatientFacetsResponse for what each count means.
+     */
+    public PatientFacetsResponse facets(PatientStatus status, Gender gender, BloodGroup bloodGroup) {
+        long total = 0;
+        long[] byStatus = new long[STATUSES.length];
+        long[] byGender = new long[GENDERS.length];
+        long[] byBloodGroup = new long[BLOOD_GROUPS.length];
+        for (PatientStatus s : STATUSES) {
+            for (Gender g : GENDERS) {
+                for (BloodGroup b : BLOOD_GROUPS) {
+                    long n = cells.get(index(s, g, b));
+                    if (n == 0) continue;
+                    boolean statusOk = status == null || status == s;
+                    boolean genderOk = gender == null || gender == g;
+                    boolean bloodGroupOk = bloodGroup == null || bloodGroup == b;
+                    if (genderOk && bloodGroupOk) byStatus[s.ordinal()] += n;
+                    if (statusOk && bloodGroupOk) byGender[g.ordinal()] += n;
+                    if (statusOk && genderOk) byBloodGroup[b.ordinal()] += n;
+                    if (statusOk && genderOk && bloodGroupOk) total += n;
+                }
+            }
+        }
+        return new PatientFacetsResponse(total, named(STATUSES, byStatus), named(GENDERS, byGender),
+                named(BLOOD_GROUPS, byBloodGroup));
+    }
+
+    private static int index(PatientStatus status, Gender gender, BloodGroup bloodGroup) {
+        return (status.ordinal() * GENDERS.length + gender.ordinal()) * BLOOD_GROUPS.length + bloodGroup.ordinal();
+    }
+
+    private static Map<String, Long> named(Enum<?>[] values, long[] counts) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        for (Enum<?> value : values) {
+            named.put(value.name(), counts[value.ordinal()]);
+        }
+        return named;
+    }
+}
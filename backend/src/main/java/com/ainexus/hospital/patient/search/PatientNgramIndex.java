@@ -0,0 +1,420 @@
+package com.ainexus.hospital.patient.search;
+
+import com.ainexus.hospital.patient.dto.response.PatientSummaryResponse;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.Patient;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-heap substring index over the fields the patient list searches.
+ *
+ * Every patient is a dense document number (doc). Per doc the index keeps the summary row
+ * in parallel arrays, a lower-cased haystack (first name, last name, email), the lower-cased
+ * patient_id and the digits of the phone number. Each of those contributes its trigrams to
+ * an int postings list (sorted doc numbers) keyed by the packed trigram. Status, gender and
+ * blood group are one BitSet per value.
+ *
+ * A query of three or more characters intersects the postings of its trigrams and verifies
+ * the survivors against the haystacks; shorter queries scan the filtered docs. Matching is
+ * that of PatientRepository.search with two deliberate differences: the patient_id prefix is
+ * case-insensitive, and a query made only of phone characters (digits, spaces, + - . ( ))
+ * matches the phone by digits, so "5551234" finds "555-123-4567".
+ *
+ * Docs are never removed (patients are never hard-deleted); an update rewrites its doc in
+ * place. Docs are numbered in load order — created_at ascending for the bulk build, then
+ * arrival order — and results are returned highest doc first, i.e. newest registration
+ * first like the database listing.
+ *
+ * Thread-safe: searches share a read lock, upserts take the write lock.
+ */
+public class PatientNgramIndex {
+
+    private static final Gender[] GENDERS = Gender.values();
+    private static final BloodGroup[] BLOOD_GROUPS = BloodGroup.values();
+    private static final PatientStatus[] STATUSES = PatientStatus.values();
+    private static final char SEPARATOR = '\0';
+
+    /** Search and summary fields of one patient. */
+    public record Row(String patientId,
+                      String firstName,
+                      String lastName,
+                      LocalDate dateOfBirth,
+                      Gender gender,
+                      BloodGroup bloodGroup,
+                      String phone,
+                      String email,
+                      PatientStatus status) {
+
+        public static Row of(Patient patient) {
+            return new Row(patient.getPatientId(), patient.getFirstName(), patient.getLastName(),
+                    patient.getDateOfBirth(), patient.getGender(), patient.getBloodGroup(),
+                    patient.getPhone(), patient.getEmail(), patient.getStatus());
+        }
+    }
+
+    /** One page of matches, newest first, and the total number of matches. */
+    public record Hits(List<PatientSummaryResponse> content, long total) {}
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> docByPatientId = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<PatientStatus, BitSet> byStatus = new EnumMap<>(PatientStatus.class);
+    private final Map<Gender, BitSet> byGender = new EnumMap<>(Gender.class);
+    private final Map<BloodGroup, BitSet> byBloodGroup = new EnumMap<>(BloodGroup.class);
+
+    // Row store, indexed by doc
+    private String[] patientIds;
+    private String[] firstNames;
+    private String[] lastNames;
+    private String[] phones;
+    private int[] birthEpochDays;
+    private byte[] genders;
+    private byte[] bloodGroups;
+    private byte[] statuses;
+    // Match targets, indexed by doc
+    private String[] haystacks;
+    private String[] lowerIds;
+    private String[] phoneDigits;
+
+    private int size;
+
+    public PatientNgramIndex() {
+        this(1024);
+    }
+
+    public PatientNgramIndex(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 1));
+        for (PatientStatus s : STATUSES) byStatus.put(s, new BitSet());
+        for (Gender g : GENDERS) byGender.put(g, new BitSet());
+        for (BloodGroup b : BLOOD_GROUPS) byBloodGroup.put(b, new BitSet());
+    }
+
+    /** Adds the patient, or rewrites its doc if the patient_id is already indexed. */
+    public void upsert(Row row) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docByPatientId.get(row.patientId());
+            if (existing == null) {
+                append(row);
+            } else {
+                replace(existing, row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Releases spare capacity in the postings lists; call once after a bulk load. */
+    public void trimToSize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Postings::trimToSize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matches for {@code query} (null or empty = filters only) under the given filters
+     * (null = any), newest first; returns at most {@code limit} of them after skipping
+     * {@code offset}, together with the total.
+     */
+    public Hits search(String query, PatientStatus status, Gender gender, BloodGroup bloodGroup,
+                       long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet mask = and(and(bitsFor(byStatus, status), bitsFor(byGender, gender)),
+                    bitsFor(byBloodGroup, bloodGroup));
+            LocalDate today = LocalDate.now();
+            List<PatientSummaryResponse> content = new ArrayList<>(Math.min(limit, 64));
+            long total = 0;
+
+            if (query == null || query.isEmpty()) {
+                total = mask == null ? size : mask.cardinality();
+                int doc = previous(mask, size - 1);
+                for (long skipped = 0; doc >= 0 && content.size() < limit; doc = previous(mask, doc - 1)) {
+                    if (skipped++ >= offset) content.add(summary(doc, today));
+                }
+                return new Hits(content, total);
+            }
+
+            String lower = query.toLowerCase(Locale.ROOT);
+            String digits = phoneQueryDigits(query);
+            int[] candidates = candidates(lower, digits);
+            int count = candidates == null ? size : candidates.length;
+            for (int i = count - 1; i >= 0; i--) {
+                int doc = candidates == null ? i : candidates[i];
+                if (mask != null && !mask.get(doc)) continue;
+                if (!matches(doc, lower, digits)) continue;
+                if (total >= offset && content.size() < limit) content.add(summary(doc, today));
+                total++;
+            }
+            return new Hits(content, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── Writes (write lock held) ────────────────────────────────────────────────
+
+    private void append(Row row) {
+        if (size == patientIds.length) {
+            allocate(size * 2);
+        }
+        int doc = size++;
+        store(doc, row);
+        docByPatientId.put(row.patientId(), doc);
+        // Docs only grow, so appending keeps every postings list sorted
+        forEachTrigram(doc, key -> postings.computeIfAbsent(key, k -> new Postings()).append(doc));
+    }
+
+    private void replace(int doc, Row row) {
+        Set<Long> before = trigramsOf(doc);
+        byStatus.get(STATUSES[statuses[doc]]).clear(doc);
+        byGender.get(GENDERS[genders[doc]]).clear(doc);
+        byBloodGroup.get(BLOOD_GROUPS[bloodGroups[doc]]).clear(doc);
+
+        store(doc, row);
+
+        Set<Long> after = trigramsOf(doc);
+        for (Long key : before) {
+            if (after.contains(key)) continue;
+            Postings list = postings.get(key);
+            list.remove(doc);
+            if (list.isEmpty()) postings.remove(key);
+        }
+        for (Long key : after) {
+            if (!before.contains(key)) postings.computeIfAbsent(key, k -> new Postings()).insert(doc);
+        }
+    }
+
+    private void store(int doc, Row row) {
+        patientIds[doc] = row.patientId();
+        firstNames[doc] = row.firstName();
+        lastNames[doc] = row.lastName();
+        phones[doc] = row.phone();
+        birthEpochDays[doc] = (int) row.dateOfBirth().toEpochDay();
+        genders[doc] = (byte) row.gender().ordinal();
+        bloodGroups[doc] = (byte) row.bloodGroup().ordinal();
+        statuses[doc] = (byte) row.status().ordinal();
+        haystacks[doc] = (row.firstName() + SEPARATOR + row.lastName() + SEPARATOR
+                + (row.email() != null ? row.email() : "")).toLowerCase(Locale.ROOT);
+        lowerIds[doc] = row.patientId().toLowerCase(Locale.ROOT);
+        phoneDigits[doc] = digitsOf(row.phone());
+
+        byStatus.get(row.status()).set(doc);
+        byGender.get(row.gender()).set(doc);
+        byBloodGroup.get(row.bloodGroup()).set(doc);
+    }
+
+    private void allocate(int capacity) {
+        patientIds = grow(patientIds, capacity);
+        firstNames = grow(firstNames, capacity);
+        lastNames = grow(lastNames, capacity);
+        phones = grow(phones, capacity);
+        haystacks = grow(haystacks, capacity);
+        lowerIds = grow(lowerIds, capacity);
+        phoneDigits = grow(phoneDigits, capacity);
+        birthEpochDays = birthEpochDays == null ? new int[capacity] : Arrays.copyOf(birthEpochDays, capacity);
+        genders = genders == null ? new byte[capacity] : Arrays.copyOf(genders, capacity);
+        bloodGroups = bloodGroups == null ? new byte[capacity] : Arrays.copyOf(bloodGroups, capacity);
+        statuses = statuses == null ? new byte[capacity] : Arrays.copyOf(statuses, capacity);
+    }
+
+    private static String[] grow(String[] array, int capacity) {
+        return array == null ? new String[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    // ── Reads (read lock held) ──────────────────────────────────────────────────
+
+    /** Candidate docs in ascending order, or null when the query is too short to use trigrams. */
+    private int[] candidates(String lower, String digits) {
+        if (lower.length() < 3 || (digits != null && digits.length() < 3)) return null;
+        int[] text = intersect(lower);
+        return digits == null ? text : union(text, intersect(digits));
+    }
+
+    private int[] intersect(String term) {
+        Set<Long> keys = new HashSet<>();
+        forEachTrigram(term, keys::add);
+        List<Postings> lists = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            Postings list = postings.get(key);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+        int n = result.length;
+        for (int l = 1; l < lists.size() && n > 0; l++) {
+            Postings list = lists.get(l);
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (Arrays.binarySearch(list.docs, 0, list.size, result[i]) >= 0) result[kept++] = result[i];
+            }
+            n = kept;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private boolean matches(int doc, String lower, String digits) {
+        return haystacks[doc].contains(lower)
+                || lowerIds[doc].startsWith(lower)
+                || (digits != null && phoneDigits[doc].contains(digits));
+    }
+
+    private PatientSummaryResponse summary(int doc, LocalDate today) {
+        int age = Period.between(LocalDate.ofEpochDay(birthEpochDays[doc]), today).getYears();
+        return new PatientSummaryResponse(patientIds[doc], firstNames[doc], lastNames[doc], age,
+                GENDERS[genders[doc]], phones[doc], STATUSES[statuses[doc]]);
+    }
+
+    private static int previous(BitSet mask, int from) {
+        if (from < 0) return -1;
+        return mask == null ? from : mask.previousSetBit(from);
+    }
+
+    private static <E extends Enum<E>> BitSet bitsFor(Map<E, BitSet> bits, E value) {
+        return value == null ? null : bits.get(value);
+    }
+
+    /** Intersection of two optional masks (null = every doc). Never mutates the index's own bitsets. */
+    private static BitSet and(BitSet a, BitSet b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both;
+    }
+
+    // ── Trigrams ────────────────────────────────────────────────────────────────
+
+    private interface KeyConsumer {
+        void accept(long key);
+    }
+
+    private void forEachTrigram(int doc, KeyConsumer consumer) {
+        forEachTrigram(haystacks[doc], consumer);
+        forEachTrigram(lowerIds[doc], consumer);
+        forEachTrigram(phoneDigits[doc], consumer);
+    }
+
+    private Set<Long> trigramsOf(int doc) {
+        Set<Long> keys = new HashSet<>();
+        forEachTrigram(doc, keys::add);
+        return keys;
+    }
+
+    /** Packs each window of three chars into one key; windows spanning a field separator are skipped. */
+    private static void forEachTrigram(String s, KeyConsumer consumer) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            char c0 = s.charAt(i), c1 = s.charAt(i + 1), c2 = s.charAt(i + 2);
+            if (c0 == SEPARATOR || c1 == SEPARATOR || c2 == SEPARATOR) continue;
+            consumer.accept(((long) c0 << 32) | ((long) c1 << 16) | c2);
+        }
+    }
+
+    private static String digitsOf(String phone) {
+        StringBuilder sb = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /** The query's digits if it consists only of phone characters and has at least one digit. */
+    static String phoneQueryDigits(String query) {
+        boolean anyDigit = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+            } else if (" +-.()".indexOf(c) < 0) {
+                return null;
+            }
+        }
+        return anyDigit ? digitsOf(query) : null;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i++];
+                j++;
+            }
+            out[n++] = next;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Sorted, growable list of docs for one trigram. */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void append(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;   // trigram repeated within one doc
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+
+        void insert(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i >= 0) return;
+            i = -i - 1;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            System.arraycopy(docs, i, docs, i + 1, size - i);
+            docs[i] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) return;
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void trimToSize() {
+            if (docs.length > size) docs = Arrays.copyOf(docs, Math.max(size, 1));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.ainexus.hospital.patient.search;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.Patient;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local PatientNgramIndex kept in step with the patients table.
+ *
+ * Built by one streaming scan of patients on every ClusterNotificationBus (re)connect, on a
+ * single background thread. Writes reach it two ways: PatientService calls
+ * {@link #publishChange} inside the writing transaction, which applies the row to the local
+ * index on commit (so a patient is searchable on this node as soon as the write returns) and
+ * sends a "patient_changed" NOTIFY. Every node, this one included, re-reads the notified
+ * patient by primary key on the background thread, which also repairs any ordering race
+ * between a local apply and a concurrent write elsewhere.
+ *
+ * While the index is warming, or the listener is down and notifications may have been
+ * missed, {@link #search} returns empty and callers query the database instead.
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    static final String CHANNEL = "patient_changed";
+
+    /** Payload asking every node to rebuild; never a patient ID. */
+    static final String RELOAD = "*";
+
+    private static final int BUILD_FETCH_SIZE = 1_000;
+    private static final String SELECT_ROWS = """
+            SELECT patient_id, first_name, last_name, date_of_birth, gender, blood_group, phone, email, status
+            FROM patients
+            """;
+
+    private static final RowMapper<PatientNgramIndex.Row> ROW_MAPPER = (rs, i) -> new PatientNgramIndex.Row(
+            rs.getString("patient_id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getDate("date_of_birth").toLocalDate(),
+            Gender.valueOf(rs.getString("gender")),
+            BloodGroup.valueOf(rs.getString("blood_group")),
+            rs.getString("phone"),
+            rs.getString("email"),
+            PatientStatus.valueOf(rs.getString("status")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ClusterNotificationBus notificationBus;
+    private final boolean enabled;
+    private final ExecutorService worker;
+
+    /** Null until the first build completes, and while a rebuild is running. */
+    private volatile PatientNgramIndex index;
+
+    private final Counter dbFallbackCounter;
+
+    public PatientSearchIndex(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ClusterNotificationBus notificationBus,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(BUILD_FETCH_SIZE);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.notificationBus = notificationBus;
+        this.enabled = enabled;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "patient-search-index");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.dbFallbackCounter = Counter.builder("patient.search.index.db_fallbacks.total")
+                .description("Patient searches answered by the database while the index was unavailable")
+                .register(meterRegistry);
+        Gauge.builder("patient.search.index.size", this, s -> {
+                    PatientNgramIndex current = s.index;
+                    return current != null ? current.size() : 0;
+                })
+                .description("Patients in the in-memory search index").register(meterRegistry);
+
+        if (enabled) {
+            notificationBus.subscribe(CHANNEL, this::onChanged, this::rebuild);
+        }
+    }
+
+    /**
+     * Answers a patient search from the index, or returns empty when the caller must query
+     * the database. Arguments as for PatientNgramIndex.search.
+     */
+    public Optional<PatientNgramIndex.Hits> search(String query, PatientStatus status, Gender gender,
+                                                   BloodGroup bloodGroup, long offset, int limit) {
+        PatientNgramIndex current = index;
+        if (current == null || !notificationBus.isConnected()) {
+            if (enabled) dbFallbackCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(current.search(query, status, gender, bloodGroup, offset, limit));
+    }
+
+    /**
+     * Records a write to {@code patient}. Call inside the writing transaction: the local index
+     * is updated on commit, and other nodes are notified only if the transaction commits.
+     */
+    public void publishChange(Patient patient) {
+        if (!enabled) return;
+        notificationBus.publish(CHANNEL, patient.getPatientId());
+        PatientNgramIndex.Row row = PatientNgramIndex.Row.of(patient);
+        ClusterNotificationBus.afterCommit(() -> {
+            PatientNgramIndex current = index;
+            if (current != null) current.upsert(row);
+        });
+    }
+
+    /**
+     * Records a bulk write (an import) too large to notify patient by patient. Call inside the
+     * writing transaction: on commit every node, this one included, rebuilds its index.
+     */
+    public void publishReload() {
+        if (!enabled) return;
+        notificationBus.publish(CHANNEL, RELOAD);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // ── Background thread ───────────────────────────────────────────────────────
+
+    /** Listener (re)connected: discard the index and rebuild it from the table. */
+    private void rebuild() {
+        index = null;
+        worker.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                PatientNgramIndex built = readOnlyTx.execute(status -> load());
+                // Notifications received during the build are queued behind this task and replay onto it
+                index = built;
+                log.info("PatientSearchIndex: indexed {} patients in {} ms", built.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                log.error("PatientSearchIndex: build failed, searches stay on the database until the next reconnect: {}",
+                        e.getMessage());
+            }
+        });
+    }
+
+    private PatientNgramIndex load() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients", Integer.class);
+        PatientNgramIndex built = new PatientNgramIndex(count != null ? count + count / 8 : 0);
+        streamingJdbcTemplate.query(SELECT_ROWS + "ORDER BY created_at, patient_id",
+                rs -> { built.upsert(ROW_MAPPER.mapRow(rs, 0)); });
+        built.trimToSize();
+        return built;
+    }
+
+    private void onChanged(String patientId) {
+        if (RELOAD.equals(patientId)) {
+            rebuild();
+            return;
+        }
+        worker.execute(() -> {
+            PatientNgramIndex current = index;
+            if (current == null) return;   // a rebuild is queued and will read the row
+            try {
+                jdbcTemplate.query(SELECT_ROWS + "WHERE patient_id = ?", ROW_MAPPER, patientId)
+                        .forEach(current::upsert);
+            } catch (RuntimeException e) {
+                // Cannot tell whether the index is still accurate — fall back until rebuilt
+                log.warn("PatientSearchIndex: refresh of {} failed, rebuilding: {}", patientId, e.getMessage());
+                rebuild();
+            }
+        });
+    }
+}
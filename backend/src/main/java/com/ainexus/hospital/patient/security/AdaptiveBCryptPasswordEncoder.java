@@ -0,0 +1,91 @@
+package com.ainexus.hospital.patient.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder whose work factor is chosen for the hardware it runs on.
+ *
+ * {@link #calibrated} measures a BCrypt hash on this JVM's CPU budget at startup and picks the
+ * highest cost whose estimated latency stays within the target (each cost step doubles the
+ * work). {@link #upgradeEncoding} reports true when a stored hash was produced with a lower
+ * cost, so AuthService.login can transparently re-hash the password with the current cost
+ * after a successful verification. Hashes with a higher cost are kept: nodes calibrate
+ * independently, and re-hashing in both directions would have a slower and a faster node
+ * rewrite the same users' hashes back and forth on every login.
+ *
+ * Existing hashes of any cost keep verifying: BCrypt stores the cost inside the hash.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Builds an encoder with the highest cost in [minStrength, maxStrength] whose measured
+     * latency on this machine is at most {@code targetMillis}. Never goes below minStrength.
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrated(long targetMillis, int minStrength, int maxStrength) {
+        long targetNanos = targetMillis * 1_000_000L;
+        long probeNanos = measure(minStrength);
+
+        int strength = minStrength;
+        double estimateNanos = probeNanos;
+        while (strength < maxStrength && estimateNanos * 2 <= targetNanos) {
+            strength++;
+            estimateNanos *= 2;
+        }
+        log.info("BCrypt calibration: cost {} measured {} ms; selected cost {} (~{} ms, target {} ms)",
+                minStrength, probeNanos / 1_000_000, strength, (long) estimateNanos / 1_000_000, targetMillis);
+        return new AdaptiveBCryptPasswordEncoder(strength);
+    }
+
+    /** The cost used for new hashes. */
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int storedCost = costOf(encodedPassword);
+        return storedCost > 0 && storedCost < strength;
+    }
+
+    /** Cost parsed from a "$2a$NN$..." hash, or -1 if the value is not a BCrypt hash. */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int second = encodedPassword.indexOf('$', 1);
+        if (second < 0 || second + 3 >= encodedPassword.length() || encodedPassword.charAt(second + 3) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(second + 1);
+        char units = encodedPassword.charAt(second + 2);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) return -1;
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    /** Best-of-N wall time for one hash at the given cost (after one warm-up hash). */
+    private static long measure(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        BCrypt.hashpw("calibration-warmup", salt);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-probe", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
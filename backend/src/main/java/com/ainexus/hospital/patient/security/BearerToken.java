@@ -0,0 +1,208 @@
+package com.ainexus.hospital.patient.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The request's Bearer token, parsed once and shared by every security stage.
+ *
+ * BlacklistCheckFilter, JwtAuthFilter and AuthController all call {@link #resolve}; the first
+ * call parses the Authorization header and stores the result as a request attribute, later
+ * calls reuse it. Parsing is a single pass over the header:
+ *   - segment boundaries found with indexOf (no regex split, no per-segment Strings),
+ *   - the payload segment is base64url-decoded straight from the header chars into one byte[]
+ *     (no padding copy, no intermediate payload String),
+ *   - jti, exp and epoch are read by scanning those bytes.
+ *
+ * Claims read here are UNVERIFIED — they are only used to look up revocation and to build the
+ * blacklist entry on logout. Identity always comes from JwtTokenService.verify(value()).
+ */
+public final class BearerToken {
+
+    static final String REQUEST_ATTRIBUTE = BearerToken.class.getName();
+
+    private static final String PREFIX = "Bearer ";
+    private static final byte[] JTI_KEY = "\"jti\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_KEY = "\"exp\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EPOCH_KEY = "\"epoch\"".getBytes(StandardCharsets.US_ASCII);
+
+    /** Marks "header absent or not a Bearer token" in the request attribute. */
+    private static final BearerToken ABSENT = new BearerToken(null, null, -1, 0);
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final String value;
+    private final String jti;
+    private final long expiresAtEpochSecond;
+    private final long tokenEpoch;
+
+    private BearerToken(String value, String jti, long expiresAtEpochSecond, long tokenEpoch) {
+        this.value = value;
+        this.jti = jti;
+        this.expiresAtEpochSecond = expiresAtEpochSecond;
+        this.tokenEpoch = tokenEpoch;
+    }
+
+    /**
+     * Returns the request's Bearer token, parsing the Authorization header on first use.
+     *
+     * @return the token, or null if the header is missing or not a Bearer credential
+     */
+    public static BearerToken resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (cached instanceof BearerToken token) {
+            return token == ABSENT ? null : token;
+        }
+        BearerToken token = fromHeader(request.getHeader("Authorization"));
+        request.setAttribute(REQUEST_ATTRIBUTE, token == null ? ABSENT : token);
+        return token;
+    }
+
+    /**
+     * Parses an Authorization header value.
+     *
+     * @return the token, or null if the header is null or does not start with "Bearer "
+     */
+    public static BearerToken fromHeader(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(PREFIX)) {
+            return null;
+        }
+        return parse(authorizationHeader, PREFIX.length());
+    }
+
+    /** Parses a compact JWT (no "Bearer " prefix). */
+    public static BearerToken of(String compactToken) {
+        return parse(compactToken, 0);
+    }
+
+    /** The compact JWT string, for signature verification. */
+    public String value() {
+        return value;
+    }
+
+    /** The (unverified) jti claim, or null if absent or the token is malformed. */
+    public String jti() {
+        return jti;
+    }
+
+    /** The (unverified) exp claim in epoch seconds, or -1 if absent or the token is malformed. */
+    public long expiresAtEpochSecond() {
+        return expiresAtEpochSecond;
+    }
+
+    /**
+     * The "epoch" claim (user token generation), or 0 if absent. Only meaningful once the
+     * signature has been verified — JwtAuthFilter checks it after JwtTokenService.verify.
+     */
+    public long tokenEpoch() {
+        return tokenEpoch;
+    }
+
+    private static BearerToken parse(String source, int from) {
+        String value = from == 0 ? source : source.substring(from);
+        int firstDot = source.indexOf('.', from);
+        int secondDot = firstDot < 0 ? -1 : source.indexOf('.', firstDot + 1);
+        if (secondDot < 0) {
+            return new BearerToken(value, null, -1, 0);
+        }
+        byte[] payload = decodeBase64Url(source, firstDot + 1, secondDot);
+        if (payload == null) {
+            return new BearerToken(value, null, -1, 0);
+        }
+        return new BearerToken(value, stringClaim(payload, JTI_KEY), numericClaim(payload, EXP_KEY),
+                Math.max(0, numericClaim(payload, EPOCH_KEY)));
+    }
+
+    /** Base64url (RFC 4648 §5) decode of source[start, end); padding optional. Null if invalid. */
+    static byte[] decodeBase64Url(String source, int start, int end) {
+        while (end > start && source.charAt(end - 1) == '=') {
+            end--;
+        }
+        int length = end - start;
+        if (length % 4 == 1) return null;
+
+        byte[] out = new byte[length * 3 / 4];
+        int acc = 0;
+        int bits = 0;
+        int o = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            int v = c < 128 ? BASE64URL[c] : -1;
+            if (v < 0) return null;
+            acc = (acc << 6) | v;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                out[o++] = (byte) (acc >> bits);
+            }
+        }
+        return out;
+    }
+
+    /** Value of a top-level string claim, or null. Escaped values are not expected for jti. */
+    private static String stringClaim(byte[] json, byte[] key) {
+        int i = valueStart(json, key);
+        if (i < 0 || i >= json.length || json[i] != '"') return null;
+        int start = i + 1;
+        for (int end = start; end < json.length; end++) {
+            byte b = json[end];
+            if (b == '"') return new String(json, start, end - start, StandardCharsets.UTF_8);
+            if (b == '\\') return null;
+        }
+        return null;
+    }
+
+    /** Value of a top-level integer claim, or -1. */
+    private static long numericClaim(byte[] json, byte[] key) {
+        int i = valueStart(json, key);
+        if (i < 0) return -1;
+        long result = 0;
+        int digits = 0;
+        while (i < json.length && json[i] >= '0' && json[i] <= '9' && digits < 18) {
+            result = result * 10 + (json[i] - '0');
+            i++;
+            digits++;
+        }
+        return digits == 0 ? -1 : result;
+    }
+
+    /**
+     * Index of the first non-blank byte after {@code "key":}, or -1 if the key is absent.
+     * Occurrences not followed by ':' are string values (e.g. a username "jti") and are skipped.
+     */
+    private static int valueStart(byte[] json, byte[] key) {
+        int from = 0;
+        while (true) {
+            int i = indexOf(json, key, from);
+            if (i < 0) return -1;
+            from = i + 1;
+            i += key.length;
+            while (i < json.length && json[i] == ' ') i++;
+            if (i >= json.length || json[i] != ':') continue;
+            i++;
+            while (i < json.length && json[i] == ' ') i++;
+            return i;
+        }
+    }
+
+    private static int indexOf(byte[] haystack, byte[] needle, int from) {
+        outer:
+        for (int i = from, last = haystack.length - needle.length; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -1,6 +1,5 @@
 package com.ainexus.hospital.patient.security;
 
-import com.ainexus.hospital.patient.repository.TokenBlacklistRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,16 +9,17 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 
 /**
- * Filter that checks every incoming Bearer token against the token_blacklist table.
+ * Filter that checks every incoming Bearer token against the revoked-token set.
  * Registered BEFORE JwtAuthFilter so revoked tokens are rejected before signature
  * verification runs (AD-002).
  *
- * The jti claim is extracted by Base64-decoding the JWT payload segment —
- * no signature re-verification here; JwtAuthFilter handles that downstream.
+ * The jti claim comes from the request's BearerToken (parsed once, shared with
+ * JwtAuthFilter) — no signature re-verification here; JwtAuthFilter handles that downstream.
+ *
+ * The lookup is served from TokenRevocationRegistry's in-memory set, which mirrors the
+ * token_blacklist table across nodes via LISTEN/NOTIFY (no per-request DB round trip).
  *
  * Skip list (same as JwtAuthFilter):
  *   /actuator/health, /api/v1/auth/login, /swagger-ui, /api-docs
@@ -30,10 +30,10 @@ import java.util.Base64;
 @Component
 public class BlacklistCheckFilter extends OncePerRequestFilter {
 
-    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public BlacklistCheckFilter(TokenBlacklistRepository tokenBlacklistRepository) {
-        this.tokenBlacklistRepository = tokenBlacklistRepository;
+    public BlacklistCheckFilter(TokenRevocationRegistry tokenRevocationRegistry) {
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -48,17 +48,15 @@ public class BlacklistCheckFilter extends OncePerRequestFilter {
             return;
         }
 
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        BearerToken token = BearerToken.resolve(request);
+        if (token == null) {
             // No token present — let JwtAuthFilter handle the 401
             filterChain.doFilter(request, response);
             return;
         }
 
-        String rawToken = authHeader.substring(7);
-        String jti = extractJti(rawToken);
-
-        if (jti != null && tokenBlacklistRepository.existsById(jti)) {
+        String jti = token.jti();
+        if (jti != null && tokenRevocationRegistry.isRevoked(jti)) {
             sendUnauthorized(response, "Token has been revoked.");
             return;
         }
@@ -66,38 +64,6 @@ public class BlacklistCheckFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    /**
-     * Extracts the jti claim from the JWT payload by Base64url-decoding the middle segment.
-     * Returns null if the token is malformed or the jti claim is absent.
-     */
-    private String extractJti(String rawToken) {
-        try {
-            String[] parts = rawToken.split("\\.");
-            if (parts.length < 2) return null;
-
-            byte[] decodedBytes = Base64.getUrlDecoder().decode(
-                    // Pad with '=' if needed
-                    padBase64(parts[1]));
-            String payload = new String(decodedBytes, StandardCharsets.UTF_8);
-
-            // Parse jti from JSON payload
-            String key = "\"jti\":\"";
-            int idx = payload.indexOf(key);
-            if (idx < 0) return null;
-            int start = idx + key.length();
-            int end = payload.indexOf('"', start);
-            if (end < 0) return null;
-            return payload.substring(start, end);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String padBase64(String base64) {
-        int padding = (4 - base64.length() % 4) % 4;
-        return base64 + "=".repeat(padding);
-    }
-
     private boolean isSkippedPath(String path) {
         return path.startsWith("/actuator/health")
                 || path.equals("/api/v1/auth/login")
@@ -0,0 +1,34 @@
+package com.ainexus.hospital.patient.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The client address recorded in the auth audit log and used as the login limiter's per-IP key.
+ *
+ * Only values written by the trusted proxy are used. Nginx sets X-Real-IP to $remote_addr,
+ * replacing anything the client sent, and appends $remote_addr to X-Forwarded-For — so the
+ * rightmost X-Forwarded-For hop is the proxy's, while every hop to its left came from the
+ * client and can be forged (a rotating first hop would give each attempt a fresh limiter key).
+ *
+ * Order: X-Real-IP, then the rightmost X-Forwarded-For hop, then the socket address.
+ */
+public final class ClientIp {
+
+    private ClientIp() {
+    }
+
+    public static String resolve(HttpServletRequest request) {
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank()) {
+            return realIp.trim();
+        }
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded != null && !forwarded.isBlank()) {
+            String lastHop = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -1,15 +1,10 @@
 package com.ainexus.hospital.patient.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.MDC;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,15 +13,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private final JwtTokenService jwtTokenService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+
+    public JwtAuthFilter(JwtTokenService jwtTokenService, TokenEpochRegistry tokenEpochRegistry) {
+        this.jwtTokenService = jwtTokenService;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -44,19 +43,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         MDC.put("traceId", traceId);
 
         try {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            // Parsed once per request — BlacklistCheckFilter has usually resolved it already
+            BearerToken token = BearerToken.resolve(request);
+            if (token == null) {
                 sendUnauthorized(response, traceId);
                 return;
             }
 
-            String token = authHeader.substring(7);
-            AuthContext ctx = parseToken(token);
+            AuthContext ctx = jwtTokenService.verify(token.value());
             if (ctx == null) {
                 sendUnauthorized(response, traceId);
                 return;
             }
 
+            // Bulk revocation: logout-all, deactivation and role change bump the user's epoch
+            if (!tokenEpochRegistry.isCurrent(ctx.getUserId(), token.tokenEpoch())) {
+                sendUnauthorized(response, traceId);
+                return;
+            }
+
             AuthContext.Holder.set(ctx);
             MDC.put("userId", ctx.getUserId());
 
@@ -74,26 +79,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
     }
 
-    private AuthContext parseToken(String token) {
-        try {
-            byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-            Claims claims = Jwts.parser()
-                    .verifyWith(Keys.hmacShaKeyFor(keyBytes))
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            String userId = claims.getSubject();
-            String username = claims.get("username", String.class);
-            String role = claims.get("role", String.class);
-
-            if (userId == null || username == null || role == null) return null;
-            return new AuthContext(userId, username, role);
-        } catch (JwtException e) {
-            return null;
-        }
-    }
-
     private void sendUnauthorized(HttpServletResponse response, String traceId) throws IOException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
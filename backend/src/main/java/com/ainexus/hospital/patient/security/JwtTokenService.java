@@ -0,0 +1,159 @@
+package com.ainexus.hospital.patient.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared JWT engine for the Auth Module (signing) and JwtAuthFilter (verification).
+ *
+ * The HMAC key and the JwtParser are built once at startup — both are immutable and
+ * thread-safe. Successfully verified tokens are cached by their SHA-256 digest so that
+ * repeat requests carrying the same token skip the HMAC check and claims parsing.
+ *
+ * Cache rules:
+ *   - Keyed by digest, never by the raw token (bearer tokens are not retained in heap).
+ *   - An entry is never served past the token's own exp claim.
+ *   - Bounded: when full, expired entries are purged first; if still full, the cache is reset.
+ *   - Only successful verifications are cached — invalid tokens always take the full path.
+ *
+ * Revocation is NOT decided here; BlacklistCheckFilter runs before JwtAuthFilter (AD-002).
+ */
+@Component
+public class JwtTokenService {
+
+    /** Upper bound on how long a token without an exp claim stays cached. */
+    private static final long MAX_CACHE_TTL_MS = 15 * 60 * 1000L;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int cacheMaxEntries;
+    private final Map<ByteBuffer, CachedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public JwtTokenService(@Value("${app.jwt.secret}") String jwtSecret,
+                           @Value("${app.auth.jwt.verify-cache-size:10000}") int cacheMaxEntries,
+                           MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.cacheMaxEntries = cacheMaxEntries;
+
+        this.cacheHits = Counter.builder("auth.token_cache.hits.total")
+                .description("Bearer tokens served from the verified-token cache").register(meterRegistry);
+        this.cacheMisses = Counter.builder("auth.token_cache.misses.total")
+                .description("Bearer tokens that required full signature verification").register(meterRegistry);
+        Gauge.builder("auth.token_cache.size", verifiedTokens, Map::size)
+                .description("Entries currently held in the verified-token cache").register(meterRegistry);
+    }
+
+    /**
+     * Builds and signs a compact JWT with the shared key.
+     *
+     * @param jti        unique token ID (jti claim)
+     * @param subject    staff user ID (sub claim)
+     * @param claims     additional private claims (username, role, ...)
+     * @param issuedAt   iat claim
+     * @param expiration exp claim
+     */
+    public String sign(String jti, String subject, Map<String, ?> claims, Date issuedAt, Date expiration) {
+        return Jwts.builder()
+                .id(jti)
+                .subject(subject)
+                .claims(claims)
+                .issuedAt(issuedAt)
+                .expiration(expiration)
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     * Verifies the token signature and expiry and returns the caller's identity.
+     *
+     * @return the AuthContext carried by the token, or null if the token is invalid,
+     *         expired, or missing any of the required sub/username/role claims
+     */
+    public AuthContext verify(String token) {
+        long nowMs = System.currentTimeMillis();
+        ByteBuffer key = digest(token);
+
+        CachedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMs() > nowMs) {
+                cacheHits.increment();
+                return cached.context();
+            }
+            verifiedTokens.remove(key, cached);
+        }
+        cacheMisses.increment();
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        String userId = claims.getSubject();
+        String username = claims.get("username", String.class);
+        String role = claims.get("role", String.class);
+        if (userId == null || username == null || role == null) return null;
+
+        AuthContext ctx = new AuthContext(userId, username, role);
+        Date exp = claims.getExpiration();
+        long cacheUntil = nowMs + MAX_CACHE_TTL_MS;
+        if (exp != null) {
+            cacheUntil = Math.min(cacheUntil, exp.getTime());
+        }
+        remember(key, new CachedToken(ctx, cacheUntil), nowMs);
+        return ctx;
+    }
+
+    /** Drops every cached verification (used when keys or revocation state change wholesale). */
+    public void clearCache() {
+        verifiedTokens.clear();
+    }
+
+    private void remember(ByteBuffer key, CachedToken entry, long nowMs) {
+        if (verifiedTokens.size() >= cacheMaxEntries) {
+            verifiedTokens.values().removeIf(e -> e.expiresAtMs() <= nowMs);
+            if (verifiedTokens.size() >= cacheMaxEntries) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(key, entry);
+    }
+
+    private static ByteBuffer digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private record CachedToken(AuthContext context, long expiresAtMs) {}
+}
@@ -0,0 +1,163 @@
+package com.ainexus.hospital.patient.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process brute-force limiter for POST /auth/login, consulted before any database
+ * access or password hashing.
+ *
+ * Failed attempts are counted per username and per client IP in a sliding window, estimated
+ * from two fixed buckets (previous + current window, previous weighted by its remaining
+ * overlap). Each key hashes onto one of {@code stripes} slots of an AtomicLongArray; a slot
+ * packs [window index:32 | previous count:16 | current count:16] and is updated with a CAS
+ * loop — no locks, no per-key allocation, constant memory regardless of attack volume.
+ * Keys sharing a slot share a counter, which can only make the limiter stricter.
+ *
+ * This complements (does not replace) the per-account lockout columns on hospital_users:
+ * the limiter sheds credential-stuffing traffic cheaply, the lockout remains the durable,
+ * audited control.
+ *
+ * Metrics: auth.login_limiter.failures.total, auth.login_limiter.rejected.total{key}.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final int usernameMaxFailures;
+    private final int ipMaxFailures;
+    private final long windowMs;
+    private final int stripeMask;
+    private final LongSupplier clock;
+
+    private final AtomicLongArray usernameSlots;
+    private final AtomicLongArray ipSlots;
+
+    private final Counter failuresCounter;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginAttemptLimiter(@Value("${app.auth.login-limiter.username-max-failures:10}") int usernameMaxFailures,
+                               @Value("${app.auth.login-limiter.ip-max-failures:50}") int ipMaxFailures,
+                               @Value("${app.auth.login-limiter.window-seconds:300}") int windowSeconds,
+                               @Value("${app.auth.login-limiter.stripes:4096}") int stripes,
+                               MeterRegistry meterRegistry) {
+        this(usernameMaxFailures, ipMaxFailures, windowSeconds, stripes, meterRegistry,
+                System::currentTimeMillis);
+    }
+
+    public LoginAttemptLimiter(int usernameMaxFailures, int ipMaxFailures, int windowSeconds,
+                               int stripes, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two: " + stripes);
+        }
+        this.usernameMaxFailures = usernameMaxFailures;
+        this.ipMaxFailures = ipMaxFailures;
+        this.windowMs = windowSeconds * 1000L;
+        this.stripeMask = stripes - 1;
+        this.clock = clock;
+        this.usernameSlots = new AtomicLongArray(stripes);
+        this.ipSlots = new AtomicLongArray(stripes);
+
+        this.failuresCounter = Counter.builder("auth.login_limiter.failures.total")
+                .description("Failed login attempts recorded by the limiter").register(meterRegistry);
+        this.usernameRejections = Counter.builder("auth.login_limiter.rejected.total")
+                .description("Login attempts rejected before authentication").tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login_limiter.rejected.total")
+                .description("Login attempts rejected before authentication").tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * True if the username or the client IP has exhausted its failure budget for the
+     * current window. Rejections are counted.
+     */
+    public boolean isBlocked(String username, String ipAddress) {
+        long now = clock.getAsLong();
+        if (username != null && estimate(usernameSlots, usernameSlot(username), now) >= usernameMaxFailures) {
+            usernameRejections.increment();
+            return true;
+        }
+        if (ipAddress != null && estimate(ipSlots, slot(ipAddress.hashCode()), now) >= ipMaxFailures) {
+            ipRejections.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /** Records one failed attempt against both the username and the client IP. */
+    public void recordFailure(String username, String ipAddress) {
+        long now = clock.getAsLong();
+        if (username != null) increment(usernameSlots, usernameSlot(username), now);
+        if (ipAddress != null) increment(ipSlots, slot(ipAddress.hashCode()), now);
+        failuresCounter.increment();
+    }
+
+    /** Seconds until the current window rolls over — a conservative Retry-After hint. */
+    public long retryAfterSeconds() {
+        long remainingMs = windowMs - clock.getAsLong() % windowMs;
+        return Math.max(1, (remainingMs + 999) / 1000);
+    }
+
+    private double estimate(AtomicLongArray slots, int index, long nowMs) {
+        long window = nowMs / windowMs;
+        long packed = slots.get(index);
+        long slotWindow = packed >>> 32;
+        long previous;
+        long current;
+        if (slotWindow == window) {
+            previous = (packed >>> 16) & COUNT_MASK;
+            current = packed & COUNT_MASK;
+        } else if (slotWindow == window - 1) {
+            previous = packed & COUNT_MASK;
+            current = 0;
+        } else {
+            return 0;
+        }
+        double previousWeight = 1.0 - (double) (nowMs % windowMs) / windowMs;
+        return previous * previousWeight + current;
+    }
+
+    private void increment(AtomicLongArray slots, int index, long nowMs) {
+        long window = nowMs / windowMs;
+        while (true) {
+            long packed = slots.get(index);
+            long slotWindow = packed >>> 32;
+            long previous;
+            long current;
+            if (slotWindow == window) {
+                previous = (packed >>> 16) & COUNT_MASK;
+                current = packed & COUNT_MASK;
+            } else if (slotWindow == window - 1) {
+                previous = packed & COUNT_MASK;
+                current = 0;
+            } else {
+                previous = 0;
+                current = 0;
+            }
+            current = Math.min(current + 1, COUNT_MASK);
+            long next = (window << 32) | (previous << 16) | current;
+            if (slots.compareAndSet(index, packed, next)) return;
+        }
+    }
+
+    private int usernameSlot(String username) {
+        // Usernames are case-insensitive (findByUsernameIgnoreCase)
+        return slot(username.toLowerCase(Locale.ROOT).hashCode());
+    }
+
+    private int slot(int hash) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+}
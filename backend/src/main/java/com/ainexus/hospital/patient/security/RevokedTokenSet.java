@@ -0,0 +1,150 @@
+package com.ainexus.hospital.patient.security;
+
+/**
+ * Compact set of revoked token IDs with per-entry expiry.
+ *
+ * Each jti is reduced to a 64-bit hash and stored in an open-addressing (linear probing)
+ * table of primitive longs — no String or boxed objects are retained. At ~2,000 live
+ * revocations (AD-005 steady state) the whole set is about 64 KB.
+ *
+ * Reads are lock-free: the table is copy-on-write and published through a volatile field.
+ * Writes (logouts) are rare and synchronized; every write that would grow the table first
+ * drops expired entries, so the set trims itself without a separate sweep.
+ *
+ * A 64-bit hash collision would make an unrelated token look revoked (fail-closed);
+ * at this set size the probability is negligible (~1e-13).
+ */
+public final class RevokedTokenSet {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+
+    /**
+     * @param jti            the token's jti claim
+     * @param nowEpochSecond current time; entries expiring at or before it are ignored
+     */
+    public boolean contains(String jti, long nowEpochSecond) {
+        return table.contains(hash(jti), nowEpochSecond);
+    }
+
+    /** Adds a revoked jti that stays effective until its token's exp (epoch seconds). */
+    public synchronized void add(String jti, long expiresAtEpochSecond, long nowEpochSecond) {
+        if (expiresAtEpochSecond <= nowEpochSecond) return;
+        Table current = table;
+        Table next = (current.size + 1) * 2 > current.keys.length
+                ? current.rebuild(nowEpochSecond, 1)
+                : current.copy();
+        next.put(hash(jti), expiresAtEpochSecond);
+        table = next;
+    }
+
+    /** Replaces the whole set (used when reconciling against the token_blacklist table). */
+    public synchronized void replaceAll(Iterable<Entry> entries, long nowEpochSecond) {
+        int count = 0;
+        for (Entry ignored : entries) count++;
+        Table next = new Table(capacityFor(count));
+        for (Entry e : entries) {
+            if (e.expiresAtEpochSecond() > nowEpochSecond) {
+                next.put(hash(e.jti()), e.expiresAtEpochSecond());
+            }
+        }
+        table = next;
+    }
+
+    /** Drops expired entries and shrinks the table when possible. */
+    public synchronized void purgeExpired(long nowEpochSecond) {
+        table = table.rebuild(nowEpochSecond, 0);
+    }
+
+    /** Number of entries currently stored (expired entries count until the next purge). */
+    public int size() {
+        return table.size;
+    }
+
+    /** 64-bit FNV-1a over the jti, finished with the MurmurHash3 fmix64 avalanche step. */
+    static long hash(String jti) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < jti.length(); i++) {
+            h ^= jti.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e53ca4a07L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h; // 0 marks an empty slot
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    public record Entry(String jti, long expiresAtEpochSecond) {}
+
+    private static final class Table {
+        final long[] keys;
+        final long[] expiries;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.expiries = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private Table(long[] keys, long[] expiries, int size) {
+            this.keys = keys;
+            this.expiries = expiries;
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        boolean contains(long h, long now) {
+            int i = (int) h & mask;
+            while (true) {
+                long k = keys[i];
+                if (k == 0) return false;
+                if (k == h) return expiries[i] > now;
+                i = (i + 1) & mask;
+            }
+        }
+
+        void put(long h, long expiresAt) {
+            int i = (int) h & mask;
+            while (keys[i] != 0 && keys[i] != h) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = h;
+                size++;
+            }
+            expiries[i] = Math.max(expiries[i], expiresAt);
+        }
+
+        Table copy() {
+            return new Table(keys.clone(), expiries.clone(), size);
+        }
+
+        /** New table holding only live entries, with room for {@code extra} more. */
+        Table rebuild(long now, int extra) {
+            int live = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && expiries[i] > now) live++;
+            }
+            Table next = new Table(capacityFor(live + extra));
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && expiries[i] > now) {
+                    next.put(keys[i], expiries[i]);
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ainexus.hospital.patient.security;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.repository.HospitalUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of every staff user's token epoch (hospital_users.token_epoch).
+ *
+ * A JWT is current only if its "epoch" claim is >= the user's cached epoch; bumping the
+ * column therefore revokes all of that user's tokens in one write, with O(users) state
+ * instead of one blacklist row per token. Tokens without the claim count as epoch 0.
+ *
+ * Consistency mirrors TokenRevocationRegistry: a full load on every listener (re)connect,
+ * "token_epoch" notifications ("userId:epoch") published in the bumping transaction, and a
+ * per-request DB probe only while the listener is disconnected. Epochs only ever increase,
+ * so every update is a max-merge and out-of-order delivery is harmless.
+ */
+@Component
+public class TokenEpochRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenEpochRegistry.class);
+
+    static final String CHANNEL = "token_epoch";
+
+    private final Map<String, Integer> epochs = new ConcurrentHashMap<>();
+    private final HospitalUserRepository userRepository;
+    private final ClusterNotificationBus notificationBus;
+
+    private final Counter reloadsCounter;
+    private final Counter dbFallbackCounter;
+
+    public TokenEpochRegistry(HospitalUserRepository userRepository,
+                              ClusterNotificationBus notificationBus,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.notificationBus = notificationBus;
+
+        this.reloadsCounter = Counter.builder("auth.token_epoch.reloads.total")
+                .description("Full reloads of token epochs from hospital_users").register(meterRegistry);
+        this.dbFallbackCounter = Counter.builder("auth.token_epoch.db_fallbacks.total")
+                .description("Epoch checks answered by hospital_users while the listener was down")
+                .register(meterRegistry);
+        Gauge.builder("auth.token_epoch.users", epochs, Map::size)
+                .description("Users with a cached token epoch").register(meterRegistry);
+
+        notificationBus.subscribe(CHANNEL, this::onEpochChanged, this::reload);
+    }
+
+    /**
+     * True if a token carrying {@code tokenEpoch} is still valid for the user.
+     * Unknown users are treated as epoch 0.
+     */
+    public boolean isCurrent(String userId, long tokenEpoch) {
+        int current;
+        if (!notificationBus.isConnected()) {
+            dbFallbackCounter.increment();
+            current = userRepository.findTokenEpochByUserId(userId).orElse(0);
+        } else {
+            current = epochs.getOrDefault(userId, 0);
+        }
+        return tokenEpoch >= current;
+    }
+
+    /**
+     * Announces a bumped epoch to all nodes. Must be called in the transaction that
+     * persists the new hospital_users.token_epoch value.
+     */
+    public void publishEpoch(String userId, int epoch) {
+        notificationBus.publish(CHANNEL, userId + ":" + epoch);
+        ClusterNotificationBus.afterCommit(() -> observe(userId, epoch));
+    }
+
+    /** Records an epoch read from the database (e.g. at login); never lowers the cached value. */
+    public void observe(String userId, int epoch) {
+        epochs.merge(userId, epoch, Math::max);
+    }
+
+    void reload() {
+        int count = 0;
+        for (HospitalUserRepository.TokenEpochView row : userRepository.findAllTokenEpochs()) {
+            observe(row.getUserId(), row.getTokenEpoch());
+            count++;
+        }
+        reloadsCounter.increment();
+        log.debug("TokenEpochRegistry: loaded epochs for {} users", count);
+    }
+
+    private void onEpochChanged(String payload) {
+        int sep = payload.lastIndexOf(':');
+        if (sep <= 0) return;
+        try {
+            observe(payload.substring(0, sep), Integer.parseInt(payload.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("TokenEpochRegistry: ignoring malformed notification");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ainexus.hospital.patient.security;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.repository.TokenBlacklistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Node-local view of the token_blacklist table, kept in sync across backend replicas.
+ *
+ * - Loaded from token_blacklist (non-expired rows) whenever the notification listener
+ *   (re)connects, so a node that missed notifications reconciles against the table.
+ * - AuthService.logout publishes a "token_revoked" NOTIFY in the same transaction as the
+ *   blacklist insert; every node (including this one) adds the jti on delivery.
+ * - While the listener is disconnected the local set may be stale, so lookups fall back to
+ *   token_blacklist (the previous per-request behaviour) until the next resync.
+ *
+ * The table remains the source of truth; BlacklistCleanupService still purges it.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    static final String CHANNEL = "token_revoked";
+
+    private final RevokedTokenSet revoked = new RevokedTokenSet();
+    private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final ClusterNotificationBus notificationBus;
+
+    private final Counter reloadsCounter;
+    private final Counter dbFallbackCounter;
+
+    public TokenRevocationRegistry(TokenBlacklistRepository tokenBlacklistRepository,
+                                   ClusterNotificationBus notificationBus,
+                                   MeterRegistry meterRegistry) {
+        this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.notificationBus = notificationBus;
+
+        this.reloadsCounter = Counter.builder("auth.revocation.reloads.total")
+                .description("Full reloads of the revocation set from token_blacklist").register(meterRegistry);
+        this.dbFallbackCounter = Counter.builder("auth.revocation.db_fallbacks.total")
+                .description("Revocation checks answered by token_blacklist while the listener was down")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.size", revoked, RevokedTokenSet::size)
+                .description("Revoked token IDs held in memory").register(meterRegistry);
+
+        notificationBus.subscribe(CHANNEL, this::onRevoked, this::reload);
+    }
+
+    /** Per-request check — a memory lookup unless the listener is reconnecting. */
+    public boolean isRevoked(String jti) {
+        if (!notificationBus.isConnected()) {
+            dbFallbackCounter.increment();
+            return tokenBlacklistRepository.existsById(jti);
+        }
+        return revoked.contains(jti, nowEpochSecond());
+    }
+
+    /**
+     * Announces a revocation to all nodes. Must be called in the transaction that inserts
+     * the token_blacklist row so the notification is only delivered if that insert commits.
+     */
+    public void publishRevocation(String jti, OffsetDateTime expiresAt) {
+        long exp = expiresAt.toEpochSecond();
+        notificationBus.publish(CHANNEL, jti + ":" + exp);
+        // Apply locally on commit as well — do not wait for our own notification round trip.
+        ClusterNotificationBus.afterCommit(() -> revoked.add(jti, exp, nowEpochSecond()));
+    }
+
+    /** Drops expired entries; invoked alongside the token_blacklist purge. */
+    public void purgeExpired() {
+        revoked.purgeExpired(nowEpochSecond());
+    }
+
+    void reload() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<RevokedTokenSet.Entry> entries = tokenBlacklistRepository.findByExpiresAtAfter(now).stream()
+                .map(t -> new RevokedTokenSet.Entry(t.getJti(), t.getExpiresAt().toEpochSecond()))
+                .toList();
+        revoked.replaceAll(entries, now.toEpochSecond());
+        reloadsCounter.increment();
+        log.debug("TokenRevocationRegistry: loaded {} revoked tokens", entries.size());
+    }
+
+    private void onRevoked(String payload) {
+        int sep = payload.lastIndexOf(':');
+        if (sep <= 0) return;
+        try {
+            revoked.add(payload.substring(0, sep), Long.parseLong(payload.substring(sep + 1)),
+                    nowEpochSecond());
+        } catch (NumberFormatException e) {
+            log.warn("TokenRevocationRegistry: ignoring malformed notification");
+        }
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
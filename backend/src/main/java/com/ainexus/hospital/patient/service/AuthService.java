@@ -7,31 +7,35 @@ import com.ainexus.hospital.patient.dto.response.UserProfileResponse;
 import com.ainexus.hospital.patient.entity.HospitalUser;
 import com.ainexus.hospital.patient.entity.TokenBlacklist;
 import com.ainexus.hospital.patient.exception.AccountLockedException;
+import com.ainexus.hospital.patient.exception.TooManyRequestsException;
 import com.ainexus.hospital.patient.mapper.StaffMapper;
 import com.ainexus.hospital.patient.repository.HospitalUserRepository;
 import com.ainexus.hospital.patient.repository.TokenBlacklistRepository;
 import com.ainexus.hospital.patient.security.AuthContext;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.ainexus.hospital.patient.security.BearerToken;
+import com.ainexus.hospital.patient.security.JwtTokenService;
+import com.ainexus.hospital.patient.security.LoginAttemptLimiter;
+import com.ainexus.hospital.patient.security.TokenEpochRegistry;
+import com.ainexus.hospital.patient.security.TokenRevocationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Core authentication service.
  *
  * Handles login (BCrypt verify, lockout, JWT issuance, audit),
- * token refresh, logout (blacklist), and current-user profile.
+ * token refresh, logout (blacklist), logout-all (token epoch), and current-user profile.
  *
  * HIPAA: never logs passwords, tokens, or PHI in any code path.
  */
@@ -39,9 +43,6 @@ import java.util.UUID;
 @Transactional
 public class AuthService {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
-
     @Value("${app.auth.jwt.expiration-hours:8}")
     private int expirationHours;
 
@@ -56,17 +57,35 @@ public class AuthService {
     private final TokenBlacklistRepository tokenBlacklistRepository;
     private final AuthAuditService authAuditService;
     private final StaffMapper staffMapper;
+    private final JwtTokenService jwtTokenService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final StaffDirectory staffDirectory;
 
     public AuthService(HospitalUserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        TokenBlacklistRepository tokenBlacklistRepository,
                        AuthAuditService authAuditService,
-                       StaffMapper staffMapper) {
+                       StaffMapper staffMapper,
+                       JwtTokenService jwtTokenService,
+                       TokenRevocationRegistry tokenRevocationRegistry,
+                       LoginAttemptLimiter loginAttemptLimiter,
+                       TokenEpochRegistry tokenEpochRegistry,
+                       LastLoginRecorder lastLoginRecorder,
+                       StaffDirectory staffDirectory) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.tokenBlacklistRepository = tokenBlacklistRepository;
         this.authAuditService = authAuditService;
         this.staffMapper = staffMapper;
+        this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.staffDirectory = staffDirectory;
     }
 
     /**
@@ -77,17 +96,25 @@ public class AuthService {
      * and would otherwise trigger a transaction rollback).
      *
      * @param request   login credentials
-     * @param ipAddress client IP (from X-Forwarded-For or remoteAddr)
+     * @param ipAddress client IP as set by the trusted proxy (see ClientIp)
      * @return TokenResponse with signed JWT and metadata
      */
     @Transactional(noRollbackFor = {BadCredentialsException.class, AccountLockedException.class})
     public TokenResponse login(LoginRequest request, String ipAddress) {
+        // 0. Brute-force guard — rejects before any DB access or password hashing
+        if (loginAttemptLimiter.isBlocked(request.username(), ipAddress)) {
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts. Please try again later.",
+                    loginAttemptLimiter.retryAfterSeconds());
+        }
+
         // 1. Find user — generic message to prevent username enumeration
         HospitalUser user = userRepository
                 .findByUsernameIgnoreCase(request.username())
                 .orElse(null);
 
         if (user == null) {
+            loginAttemptLimiter.recordFailure(request.username(), ipAddress);
             authAuditService.writeAuthLog("LOGIN_FAILURE", "UNKNOWN", null,
                     "FAILURE", ipAddress, null);
             throw new BadCredentialsException("Invalid username or password");
@@ -95,6 +122,7 @@ public class AuthService {
 
         // 2. Check account is active
         if (!user.isActive()) {
+            loginAttemptLimiter.recordFailure(request.username(), ipAddress);
             authAuditService.writeAuthLog("LOGIN_FAILURE", user.getUserId(), null,
                     "FAILURE", ipAddress, "Account inactive");
             throw new BadCredentialsException("Invalid username or password");
@@ -102,6 +130,7 @@ public class AuthService {
 
         // 3. Check account is not locked
         if (user.isLocked()) {
+            loginAttemptLimiter.recordFailure(request.username(), ipAddress);
             authAuditService.writeAuthLog("LOGIN_FAILURE", user.getUserId(), null,
                     "FAILURE", ipAddress, "Account locked");
             throw new AccountLockedException("Account is temporarily locked. Please try again later.");
@@ -109,6 +138,7 @@ public class AuthService {
 
         // 4. Verify password
         if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+            loginAttemptLimiter.recordFailure(request.username(), ipAddress);
             int newAttempts = user.getFailedAttempts() + 1;
             user.setFailedAttempts(newAttempts);
 
@@ -121,17 +151,36 @@ public class AuthService {
                         "FAILURE", ipAddress, null);
             }
             userRepository.save(user);
+            staffDirectory.publishChange(user.getUserId());
             throw new BadCredentialsException("Invalid username or password");
         }
 
-        // 5. Success — reset lockout state, update last login, issue token
-        user.setFailedAttempts(0);
-        user.setLockedUntil(null);
-        user.setLastLoginAt(OffsetDateTime.now());
-        userRepository.save(user);
+        // 5. Success — reset lockout state (only if it changed), record last login, issue token
+        boolean rehashed = false;
+        if (passwordEncoder.upgradeEncoding(user.getPasswordHash())) {
+            // Stored with a lower BCrypt cost than the current calibration — re-hash now
+            // while the plaintext is at hand.
+            user.setPasswordHash(passwordEncoder.encode(request.password()));
+            rehashed = true;
+        }
+        boolean lockoutReset = user.getFailedAttempts() != 0 || user.getLockedUntil() != null;
+        if (lockoutReset) {
+            user.setFailedAttempts(0);
+            user.setLockedUntil(null);
+        }
+        if (rehashed || lockoutReset) {
+            userRepository.save(user);
+        }
+        if (lockoutReset) {
+            staffDirectory.publishChange(user.getUserId());
+        }
+        // Coalesced and flushed in batches — no entity write / @Version bump per login
+        lastLoginRecorder.record(user.getUserId(), OffsetDateTime.now());
 
         authAuditService.writeAuthLog("LOGIN_SUCCESS", user.getUserId(), null,
                 "SUCCESS", ipAddress, null);
+        // Fresh from the DB — lets this node accept the new token even before a resync
+        tokenEpochRegistry.observe(user.getUserId(), user.getTokenEpoch());
 
         return issueToken(user);
     }
@@ -139,39 +188,36 @@ public class AuthService {
     /**
      * Issues a fresh JWT for the currently authenticated user (token refresh).
      * Old token remains valid until its natural expiry (AD-006).
+     * Served from StaffDirectory — no database transaction unless the entry is stale.
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public TokenResponse refresh(String ipAddress) {
         AuthContext ctx = AuthContext.Holder.get();
-        HospitalUser user = userRepository.findById(ctx.getUserId())
+        StaffDirectory.Entry user = staffDirectory.findById(ctx.getUserId())
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
 
         if (!user.isActive()) {
             throw new BadCredentialsException("Account is inactive");
         }
 
-        authAuditService.writeAuthLog("TOKEN_REFRESH", user.getUserId(), null,
+        authAuditService.writeAuthLog("TOKEN_REFRESH", user.userId(), null,
                 "SUCCESS", ipAddress, null);
 
-        return issueToken(user);
+        return issueToken(user.userId(), user.username(), user.role(), user.tokenEpoch());
     }
 
     /**
-     * Revokes the given raw Bearer token by inserting its jti into the blacklist.
-     * The jti and expiry are extracted by Base64-decoding the JWT payload
+     * Revokes the given Bearer token by inserting its jti into the blacklist
+     * and notifying every node's in-memory revocation set.
+     * The jti and expiry come from the request's already-parsed BearerToken
      * (no signature re-verification — JwtAuthFilter already verified it upstream).
      */
-    public void logout(String rawToken, String ipAddress) {
-        String[] parts = rawToken.split("\\.");
-        if (parts.length < 2) return;
-
-        String payload = new String(Base64.getUrlDecoder().decode(parts[1]),
-                StandardCharsets.UTF_8);
+    public void logout(BearerToken token, String ipAddress) {
+        if (token == null) return;
+        String jti = token.jti();
+        long expEpochSeconds = token.expiresAtEpochSecond();
+        if (jti == null || expEpochSeconds < 0) return;
 
-        String jti = extractClaim(payload, "jti");
-        String expStr = extractClaim(payload, "exp");
-        if (jti == null || expStr == null) return;
-
-        long expEpochSeconds = Long.parseLong(expStr);
         OffsetDateTime expiresAt = OffsetDateTime.ofInstant(
                 Instant.ofEpochSecond(expEpochSeconds), ZoneOffset.UTC);
 
@@ -183,19 +229,37 @@ public class AuthService {
                 .revokedAt(OffsetDateTime.now())
                 .build();
         tokenBlacklistRepository.save(entry);
+        tokenRevocationRegistry.publishRevocation(jti, expiresAt);
 
         authAuditService.writeAuthLog("LOGOUT", ctx.getUserId(), null,
                 "SUCCESS", ipAddress, null);
     }
 
     /**
-     * Retrieves the authenticated user's own profile.
+     * Revokes every token the current user holds ("log out everywhere") by bumping
+     * their token epoch; all nodes reject older tokens once the notification arrives.
      */
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
-    public UserProfileResponse getCurrentUser() {
+    public void logoutAll(String ipAddress) {
         AuthContext ctx = AuthContext.Holder.get();
         HospitalUser user = userRepository.findById(ctx.getUserId())
                 .orElseThrow(() -> new BadCredentialsException("User not found"));
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+        userRepository.save(user);
+        tokenEpochRegistry.publishEpoch(user.getUserId(), user.getTokenEpoch());
+        staffDirectory.publishChange(user.getUserId());
+
+        authAuditService.writeAuthLog("LOGOUT_ALL", ctx.getUserId(), null,
+                "SUCCESS", ipAddress, null);
+    }
+
+    /**
+     * Retrieves the authenticated user's own profile (from StaffDirectory).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserProfileResponse getCurrentUser() {
+        AuthContext ctx = AuthContext.Holder.get();
+        StaffDirectory.Entry user = staffDirectory.findById(ctx.getUserId())
+                .orElseThrow(() -> new BadCredentialsException("User not found"));
         return staffMapper.toProfileResponse(user);
     }
 
@@ -204,54 +268,29 @@ public class AuthService {
      * Claims structure matches the frozen JwtAuthFilter contract exactly.
      */
     public TokenResponse issueToken(HospitalUser user) {
+        return issueToken(user.getUserId(), user.getUsername(), user.getRole(), user.getTokenEpoch());
+    }
+
+    private TokenResponse issueToken(String userId, String username, String role, int tokenEpoch) {
         String jti = UUID.randomUUID().toString();
         long nowMs = System.currentTimeMillis();
         long expirationMs = (long) expirationHours * 60 * 60 * 1000L;
         long expiryMs = nowMs + expirationMs;
 
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        String token = Jwts.builder()
-                .id(jti)
-                .subject(user.getUserId())
-                .claim("username", user.getUsername())
-                .claim("role", user.getRole())
-                .issuedAt(new Date(nowMs))
-                .expiration(new Date(expiryMs))
-                .signWith(Keys.hmacShaKeyFor(keyBytes))
-                .compact();
+        String token = jwtTokenService.sign(
+                jti,
+                userId,
+                Map.of("username", username, "role", role,
+                        "epoch", tokenEpoch),
+                new Date(nowMs),
+                new Date(expiryMs));
 
         return new TokenResponse(
                 token,
-                user.getUserId(),
-                user.getUsername(),
-                user.getRole(),
+                userId,
+                username,
+                role,
                 Instant.ofEpochMilli(expiryMs)
         );
     }
-
-    /**
-     * Extracts a single claim value from a raw JSON JWT payload string.
-     * Handles both quoted string values and numeric values.
-     */
-    private String extractClaim(String json, String claim) {
-        String key = "\"" + claim + "\":";
-        int idx = json.indexOf(key);
-        if (idx < 0) return null;
-        int start = idx + key.length();
-        if (start >= json.length()) return null;
-
-        if (json.charAt(start) == '"') {
-            start++;
-            int end = json.indexOf('"', start);
-            if (end < 0) return null;
-            return json.substring(start, end);
-        } else {
-            int end = start;
-            while (end < json.length() && (Character.isDigit(json.charAt(end))
-                    || json.charAt(end) == '.')) {
-                end++;
-            }
-            return json.substring(start, end);
-        }
-    }
 }
@@ -1,6 +1,7 @@
 package com.ainexus.hospital.patient.service;
 
 import com.ainexus.hospital.patient.repository.TokenBlacklistRepository;
+import com.ainexus.hospital.patient.security.TokenRevocationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -24,13 +25,16 @@ public class BlacklistCleanupService {
     private static final Logger log = LoggerFactory.getLogger(BlacklistCleanupService.class);
 
     private final TokenBlacklistRepository tokenBlacklistRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public BlacklistCleanupService(TokenBlacklistRepository tokenBlacklistRepository) {
+    public BlacklistCleanupService(TokenBlacklistRepository tokenBlacklistRepository,
+                                   TokenRevocationRegistry tokenRevocationRegistry) {
         this.tokenBlacklistRepository = tokenBlacklistRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     /**
-     * Purges expired token_blacklist rows every 15 minutes.
+     * Purges expired token_blacklist rows (and the matching in-memory entries) every 15 minutes.
      * Cron: "0 *&#47;15 * * * *" fires at the top of every 15-minute interval.
      */
     @Scheduled(cron = "0 */15 * * * *")
@@ -38,6 +42,7 @@ public class BlacklistCleanupService {
     public void purgeExpiredBlacklistEntries() {
         OffsetDateTime cutoff = OffsetDateTime.now();
         tokenBlacklistRepository.deleteByExpiresAtBefore(cutoff);
+        tokenRevocationRegistry.purgeExpired();
         log.debug("BlacklistCleanupService: purged expired blacklist entries older than {}", cutoff);
     }
 }
@@ -0,0 +1,73 @@
+package com.ainexus.hospital.patient.service;
+
+/**
+ * Approximate access counts for the TinyLFU admission policy of PatientProfileCache: a
+ * count-min sketch of four rows of 4-bit saturating counters (0–15). Counts are halved once
+ * the number of recorded accesses reaches ten times the sketch width, so popularity fades
+ * and yesterday's busy charts do not block today's.
+ *
+ * Not thread-safe; the owner serializes access.
+ */
+public final class FrequencySketch {
+
+    private static final int[] SEEDS = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+    private static final int MAX_COUNT = 15;
+
+    private final byte[][] rows = new byte[SEEDS.length][];
+    private final int shift;
+    private final int sampleSize;
+    private int additions;
+
+    /** @param expectedEntries the cache capacity; the sketch is sized to the next power of two */
+    public FrequencySketch(int expectedEntries) {
+        int width = Math.max(16, Integer.highestOneBit(Math.max(1, expectedEntries - 1)) << 1);
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new byte[width];
+        }
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(width);
+        this.sampleSize = 10 * width;
+    }
+
+    /** Estimated accesses to {@code key} in the current sample period; never an underestimate. */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int i = 0; i < rows.length; i++) {
+            min = Math.min(min, rows[i][index(hash, i)]);
+        }
+        return min;
+    }
+
+    /** Records one access. Only the smallest counters grow (conservative update). */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int min = frequency(key);
+        if (min == MAX_COUNT) return;
+        for (int i = 0; i < rows.length; i++) {
+            int index = index(hash, i);
+            if (rows[i][index] == min) rows[i][index]++;
+        }
+        if (++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    private void halve() {
+        for (byte[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int index(int hash, int row) {
+        return (hash * SEEDS[row]) >>> shift;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45D9F3B;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,104 @@
+package com.ainexus.hospital.patient.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces hospital_users.last_login_at updates off the login path.
+ *
+ * AuthService.login records the timestamp here instead of saving the entity; only the latest
+ * value per user is kept. The pending set is written every few seconds as one batched UPDATE
+ * that touches last_login_at only — it does not increment the @Version column, so it never
+ * causes optimistic-lock conflicts with concurrent admin edits (StaffService.updateUser).
+ * The WHERE guard keeps the column monotonic if flushes from several nodes interleave.
+ *
+ * last_login_at may therefore lag by up to one flush interval; pending values are flushed on
+ * shutdown. Each successful flush publishes one StaffDirectory change for the written users.
+ * @EnableScheduling is in SchedulingConfig.
+ */
+@Service
+public class LastLoginRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE_SQL = """
+            UPDATE hospital_users SET last_login_at = ?
+            WHERE user_id = ? AND (last_login_at IS NULL OR last_login_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StaffDirectory staffDirectory;
+    private final Map<String, OffsetDateTime> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate, StaffDirectory staffDirectory, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.staffDirectory = staffDirectory;
+        this.flushedCounter = Counter.builder("auth.last_login.flushed.total")
+                .description("last_login_at values written by the coalescing flusher").register(meterRegistry);
+        Gauge.builder("auth.last_login.pending", pending, Map::size)
+                .description("Users with an unflushed last_login_at").register(meterRegistry);
+    }
+
+    /** Records a successful login; repeated logins before the next flush collapse into one write. */
+    public void record(String userId, OffsetDateTime loginAt) {
+        pending.merge(userId, loginAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /** Writes all pending timestamps in one JDBC batch. */
+    @Scheduled(fixedDelayString = "${app.auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        List<String> userIds = new ArrayList<>(pending.size());
+        for (Map.Entry<String, OffsetDateTime> entry : pending.entrySet()) {
+            // remove(key, value) — a newer login recorded meanwhile stays pending for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Timestamp at = Timestamp.from(entry.getValue().toInstant());
+                batch.add(new Object[]{at, entry.getKey(), at});
+                userIds.add(entry.getKey());
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            flushedCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Put the values back (newer in-memory values win) and retry on the next tick
+            for (Object[] row : batch) {
+                record((String) row[1], ((Timestamp) row[0]).toInstant().atOffset(ZoneOffset.UTC));
+            }
+            log.warn("LastLoginRecorder: flush of {} rows failed, will retry: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        try {
+            staffDirectory.publishChanges(userIds);
+        } catch (RuntimeException e) {
+            // Cached profiles keep the previous last_login_at until their next reload
+            log.warn("LastLoginRecorder: staff directory notification failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
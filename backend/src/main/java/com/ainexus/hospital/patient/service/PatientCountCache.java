@@ -0,0 +1,80 @@
+package com.ainexus.hospital.patient.service;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.repository.PatientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of patient search totals, keyed by the query and filter combination.
+ * Backs CountMode.ESTIMATE: paging through a result set, or returning to a filter
+ * combination, reuses one COUNT(*) instead of running it on every page.
+ *
+ * Counts may be up to ttl-seconds old; they are estimates by contract and are not
+ * invalidated on writes. Bounded like the JWT verify cache: when full, expired entries are
+ * purged first and the cache is reset if that is not enough.
+ */
+@Component
+public class PatientCountCache {
+
+    private final PatientRepository patientRepository;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<Key, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PatientCountCache(PatientRepository patientRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.search.count-cache.ttl-seconds:60}") long ttlSeconds,
+                             @Value("${app.search.count-cache.max-entries:1000}") int maxEntries) {
+        this.patientRepository = patientRepository;
+        this.ttlMs = ttlSeconds * 1_000;
+        this.maxEntries = maxEntries;
+
+        this.hits = Counter.builder("patient.search.count_cache.total").tag("result", "hit")
+                .description("Estimated search totals served from the count cache").register(meterRegistry);
+        this.misses = Counter.builder("patient.search.count_cache.total").tag("result", "miss")
+                .description("Estimated search totals that ran a COUNT query").register(meterRegistry);
+        Gauge.builder("patient.search.count_cache.size", counts, Map::size)
+                .description("Entries currently held in the search count cache").register(meterRegistry);
+    }
+
+    /** Total for the search, from the cache if a count for the same key is fresh enough. */
+    public long estimate(String query, PatientStatus status, Gender gender, BloodGroup bloodGroup) {
+        Key key = new Key(query == null ? "" : query, status, gender, bloodGroup);
+        long nowMs = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAtMs() > nowMs) {
+            hits.increment();
+            return cached.count();
+        }
+        misses.increment();
+        long count = patientRepository.countMatches(query, status, gender, bloodGroup);
+        remember(key, new CachedCount(count, nowMs + ttlMs), nowMs);
+        return count;
+    }
+
+    private void remember(Key key, CachedCount entry, long nowMs) {
+        if (counts.size() >= maxEntries) {
+            counts.values().removeIf(e -> e.expiresAtMs() <= nowMs);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, entry);
+    }
+
+    private record Key(String query, PatientStatus status, Gender gender, BloodGroup bloodGroup) {}
+
+    private record CachedCount(long count, long expiresAtMs) {}
+}
@@ -1,47 +1,158 @@
 package com.ainexus.hospital.patient.service;
 
-import com.ainexus.hospital.patient.entity.PatientIdSequence;
-import com.ainexus.hospital.patient.repository.PatientIdSequenceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Generates unique Patient IDs atomically using a pessimistic row lock.
+ * Generates unique Patient IDs from blocks of sequence numbers reserved per node (hi/lo).
  *
  * Format: P + YYYY + zero-padded sequence (3 digits, expanding if > 999)
  * Examples: P2026001, P2026012, P2026999, P20261000
  *
  * The sequence resets to 001 at the start of each new calendar year.
- * This service must always be called within an outer @Transactional context.
+ *
+ * Each node reserves {@code app.patient.id-block-size} numbers at a time by advancing the
+ * year's patient_id_sequences row in one upsert, committed in its own short transaction, and
+ * hands them out from an in-memory counter. The row lock is therefore held for one statement
+ * per block rather than for the whole registration transaction, and registrations on
+ * different threads and nodes no longer queue behind each other.
+ *
+ * Call it outside any transaction (PatientService.registerPatient allocates the ID before
+ * opening one): callers waiting for the next block queue on this node's lock, and a waiter
+ * inside a transaction would hold a pooled connection while the reservation needs another.
+ *
+ * IDs are unique but not gap-free or ordered by registration time across nodes: numbers left
+ * in a block when a node stops, or when a registration rolls back, are never issued.
  */
 @Service
 public class PatientIdGeneratorService {
 
-    private final PatientIdSequenceRepository sequenceRepository;
+    private static final String RESERVE_BLOCK = """
+            INSERT INTO patient_id_sequences (year, last_sequence) VALUES (?, ?)
+            ON CONFLICT (year) DO UPDATE
+                SET last_sequence = patient_id_sequences.last_sequence + EXCLUDED.last_sequence
+            RETURNING last_sequence
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reserveTx;
+    private final int blockSize;
 
-    public PatientIdGeneratorService(PatientIdSequenceRepository sequenceRepository) {
-        this.sequenceRepository = sequenceRepository;
+    /** The block being handed out for each year; replaced, never refilled in place. */
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    private final Timer reserveTimer;
+    private final Timer waitTimer;
+
+    public PatientIdGeneratorService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.patient.id-block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("app.patient.id-block-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.reserveTx = new TransactionTemplate(transactionManager);
+        this.reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+
+        this.reserveTimer = Timer.builder("patient.id.block.reserve")
+                .description("Reserving patient ID sequence numbers (a block, or a bulk import's range), "
+                        + "including the wait for the year's sequence row lock")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("patient.id.allocation.wait")
+                .description("Registrations waiting for this node to reserve a new patient ID block")
+                .register(meterRegistry);
     }
 
     /**
-     * Generates the next Patient ID for the given year using a pessimistic write lock.
-     * This method is safe for concurrent use under high load (>100,000 req/hr).
+     * Generates the next Patient ID for the given year. Safe for concurrent use; only the
+     * call that exhausts a block touches the database.
      *
      * @param year The calendar year (e.g., 2026)
      * @return The next Patient ID string (e.g., "P2026001")
      */
-    @Transactional
     public String generatePatientId(Integer year) {
-        PatientIdSequence seq = sequenceRepository.findByYearForUpdate(year)
-                .orElseGet(() -> {
-                    // First registration of the year — create the sequence row
-                    return new PatientIdSequence(year, 0);
-                });
+        while (true) {
+            Block block = blocks.get(year);
+            if (block != null) {
+                int nextSeq = block.next.getAndIncrement();
+                if (nextSeq <= block.last) {
+                    return format(year, nextSeq);
+                }
+            }
+            replaceBlock(year, block);
+        }
+    }
+
+    /**
+     * Convenience method that uses the current calendar year.
+     */
+    public String generatePatientId() {
+        return generatePatientId(java.time.LocalDate.now().getYear());
+    }
+
+    /**
+     * Reserves {@code count} consecutive sequence numbers of the current year in one step, for
+     * a bulk import. The range is disjoint from every node's blocks; nothing is handed out
+     * from it by {@link #generatePatientId}.
+     */
+    public IdRange reserveRange(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
+        }
+        int year = java.time.LocalDate.now().getYear();
+        int last = reserve(year, count);
+        return new IdRange(year, last - count + 1, count);
+    }
+
+    /**
+     * Drops the blocks held by this node; the next call reserves a fresh one. For tests that
+     * reset patient_id_sequences underneath a running node.
+     */
+    public void discardBlocks() {
+        blocks.clear();
+    }
 
-        int nextSeq = seq.getLastSequence() + 1;
-        seq.setLastSequence(nextSeq);
-        sequenceRepository.save(seq);
+    private void replaceBlock(int year, Block exhausted) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            // Another caller may have reserved the next block while this one waited
+            if (blocks.get(year) == exhausted) {
+                blocks.put(year, reserveBlock(year));
+            }
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Block reserveBlock(int year) {
+        int last = reserve(year, blockSize);
+        return new Block(last - blockSize + 1, last);
+    }
+
+    /** Advances the year's sequence row by {@code count}; returns the new last sequence number. */
+    private int reserve(int year, int count) {
+        long start = System.nanoTime();
+        try {
+            return reserveTx.execute(status ->
+                    jdbcTemplate.queryForObject(RESERVE_BLOCK, Integer.class, year, count));
+        } finally {
+            reserveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
+    private static String format(int year, int nextSeq) {
         // Format: up to 999 → 3-digit zero-padded; 1000+ → no padding
         String seqStr = nextSeq <= 999
                 ? String.format("%03d", nextSeq)
@@ -50,11 +161,26 @@ public class PatientIdGeneratorService {
         return "P" + year + seqStr;
     }
 
-    /**
-     * Convenience method that uses the current calendar year.
-     */
-    @Transactional
-    public String generatePatientId() {
-        return generatePatientId(java.time.LocalDate.now().getYear());
+    /** {@code count} consecutive Patient IDs of one year, starting at sequence number {@code first}. */
+    public record IdRange(int year, int first, int count) {
+
+        /** The ID at {@code index} (0-based) within the range. */
+        public String patientId(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return format(year, first + index);
+        }
+    }
+
+    /** Sequence numbers {@code first..last} of one year, handed out from {@code next}. */
+    private static final class Block {
+        final AtomicInteger next;
+        final int last;
+
+        Block(int first, int last) {
+            this.next = new AtomicInteger(first);
+            this.last = last;
+        }
     }
 }
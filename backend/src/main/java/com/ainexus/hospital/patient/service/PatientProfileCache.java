@@ -0,0 +1,196 @@
+package com.ainexus.hospital.patient.service;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.dto.response.PatientResponse;
+import com.ainexus.hospital.patient.mapper.PatientMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Node-local cache of patient profiles (PatientResponse) for GET /patients/{id}, keyed by
+ * patient_id and stamped with the entity version each was read at.
+ *
+ * Bounded at max-entries with LRU eviction behind a TinyLFU admission filter: when full, a
+ * new profile replaces the least recently used one only if FrequencySketch has seen it
+ * requested more often. Charts opened once while browsing the list therefore do not push out
+ * the ones clinicians keep reopening.
+ *
+ * Consistency follows the other registries: PatientService calls {@link #publishChange}
+ * with the version it is replacing, inside the writing transaction; every node, this one
+ * included, drops the entry on commit and refuses that version or older for the patient
+ * afterwards, so a read that raced the write cannot re-insert the stale profile. Every
+ * listener (re)connect clears the cache, and it is bypassed while the listener is down.
+ *
+ * The computed age is refreshed on the first read of each day, so it is right after midnight.
+ */
+@Component
+public class PatientProfileCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientProfileCache.class);
+
+    static final String CHANNEL = "patient_profile_changed";
+
+    private final PatientMapper patientMapper;
+    private final ClusterNotificationBus notificationBus;
+    private final boolean enabled;
+    private final int maxEntries;
+
+    /** Access order: the first entry is the least recently used. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Lowest version each recently changed patient may be cached at again. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Integer> minVersions;
+    private final FrequencySketch sketch;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter evictions;
+    private final Counter rejections;
+
+    public PatientProfileCache(PatientMapper patientMapper,
+                               ClusterNotificationBus notificationBus,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.patient.profile-cache.enabled:true}") boolean enabled,
+                               @Value("${app.patient.profile-cache.max-entries:10000}") int maxEntries) {
+        this.patientMapper = patientMapper;
+        this.notificationBus = notificationBus;
+        this.enabled = enabled && maxEntries > 0;
+        this.maxEntries = maxEntries;
+        this.sketch = new FrequencySketch(maxEntries);
+        this.minVersions = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("patient.profile_cache.total").tag("result", "hit")
+                .description("Patient profiles served from the profile cache").register(meterRegistry);
+        this.misses = Counter.builder("patient.profile_cache.total").tag("result", "miss")
+                .description("Patient profile reads that loaded the patient").register(meterRegistry);
+        this.bypasses = Counter.builder("patient.profile_cache.total").tag("result", "bypass")
+                .description("Patient profile reads that skipped the cache while the listener was down")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("patient.profile_cache.evictions.total")
+                .description("Profiles evicted to admit a more frequently requested one").register(meterRegistry);
+        this.rejections = Counter.builder("patient.profile_cache.rejections.total")
+                .description("Profiles not admitted because the eviction candidate was requested more often")
+                .register(meterRegistry);
+        Gauge.builder("patient.profile_cache.size", this, PatientProfileCache::size)
+                .description("Entries currently held in the patient profile cache").register(meterRegistry);
+
+        if (this.enabled) {
+            notificationBus.subscribe(CHANNEL, this::onChanged, this::invalidateAll);
+        }
+    }
+
+    /** The cached profile, with its age as of today, or empty when the caller must load it. */
+    public Optional<PatientResponse> get(String patientId) {
+        if (!enabled) return Optional.empty();
+        if (!notificationBus.isConnected()) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now();
+        synchronized (this) {
+            sketch.increment(patientId);
+            Entry entry = entries.get(patientId);
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (!entry.ageOn().equals(today)) {
+                entry = new Entry(withCurrentAge(entry.response()), today);
+                entries.put(patientId, entry);
+            }
+            hits.increment();
+            return Optional.of(entry.response());
+        }
+    }
+
+    /** Offers a freshly loaded profile; it may be refused by the admission filter or as stale. */
+    public void put(PatientResponse response) {
+        if (!enabled || !notificationBus.isConnected()) return;
+        String patientId = response.patientId();
+        Entry entry = new Entry(withCurrentAge(response), LocalDate.now());
+        synchronized (this) {
+            Integer minVersion = minVersions.get(patientId);
+            if (minVersion != null && versionOf(response) < minVersion) return;
+            if (!entries.containsKey(patientId) && entries.size() >= maxEntries) {
+                String victim = entries.keySet().iterator().next();
+                if (sketch.frequency(patientId) <= sketch.frequency(victim)) {
+                    rejections.increment();
+                    return;
+                }
+                entries.remove(victim);
+                evictions.increment();
+            }
+            entries.put(patientId, entry);
+        }
+    }
+
+    /**
+     * Records a write replacing version {@code staleVersion} of the patient. Call inside the
+     * writing transaction: caches are invalidated only if it commits.
+     */
+    public void publishChange(String patientId, int staleVersion) {
+        if (!enabled) return;
+        notificationBus.publish(CHANNEL, patientId + ":" + staleVersion);
+        ClusterNotificationBus.afterCommit(() -> invalidate(patientId, staleVersion));
+    }
+
+    /** Drops every cached profile; the next reads reload from patients. */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        minVersions.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void invalidate(String patientId, int staleVersion) {
+        Entry entry = entries.get(patientId);
+        if (entry != null && versionOf(entry.response()) <= staleVersion) {
+            entries.remove(patientId);
+        }
+        minVersions.merge(patientId, staleVersion + 1, Math::max);
+    }
+
+    private void onChanged(String payload) {
+        int separator = payload.lastIndexOf(':');
+        try {
+            invalidate(payload.substring(0, separator), Integer.parseInt(payload.substring(separator + 1)));
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            // Cannot tell which profile changed — drop them all
+            log.warn("PatientProfileCache: malformed notification '{}', clearing the cache", payload);
+            invalidateAll();
+        }
+    }
+
+    private PatientResponse withCurrentAge(PatientResponse r) {
+        int age = patientMapper.toAge(r.dateOfBirth());
+        if (age == r.age()) return r;
+        return new PatientResponse(r.patientId(), r.firstName(), r.lastName(), r.dateOfBirth(), age,
+                r.gender(), r.bloodGroup(), r.phone(), r.email(), r.address(), r.city(), r.state(),
+                r.zipCode(), r.emergencyContactName(), r.emergencyContactPhone(),
+                r.emergencyContactRelationship(), r.knownAllergies(), r.chronicConditions(), r.status(),
+                r.createdAt(), r.createdBy(), r.updatedAt(), r.updatedBy(), r.version());
+    }
+
+    private static int versionOf(PatientResponse response) {
+        return response.version() != null ? response.version() : 0;
+    }
+
+    private record Entry(PatientResponse response, LocalDate ageOn) {}
+}
@@ -7,34 +7,74 @@ import com.ainexus.hospital.patient.dto.request.PatientUpdateRequest;
 import com.ainexus.hospital.patient.dto.response.*;
 import com.ainexus.hospital.patient.entity.*;
 import com.ainexus.hospital.patient.exception.ConflictException;
+import com.ainexus.hospital.patient.exception.InvalidPatchException;
 import com.ainexus.hospital.patient.exception.PatientNotFoundException;
 import com.ainexus.hospital.patient.mapper.PatientMapper;
+import com.ainexus.hospital.patient.pagination.CountMode;
+import com.ainexus.hospital.patient.pagination.PatientScrollOrder;
 import com.ainexus.hospital.patient.repository.PatientRepository;
+import com.ainexus.hospital.patient.repository.PatientScrollRow;
+import com.ainexus.hospital.patient.repository.PatientSummaryView;
+import com.ainexus.hospital.patient.search.MatchMode;
+import com.ainexus.hospital.patient.search.PatientFacetCounters;
+import com.ainexus.hospital.patient.search.PatientFacetCube;
+import com.ainexus.hospital.patient.search.PatientNgramIndex;
+import com.ainexus.hospital.patient.search.PatientSearchIndex;
 import com.ainexus.hospital.patient.security.AuthContext;
 import com.ainexus.hospital.patient.security.RoleGuard;
+import com.ainexus.hospital.patient.validation.PhoneNumbers;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.slf4j.MDC;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.lang.reflect.RecordComponent;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    /** Members a merge patch may set: the editable fields, as in a PUT body. */
+    private static final Set<String> PATCHABLE_FIELDS = Arrays.stream(PatientUpdateRequest.class.getRecordComponents())
+            .map(RecordComponent::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
     private final PatientRepository patientRepository;
     private final PatientIdGeneratorService idGeneratorService;
     private final PatientMapper patientMapper;
     private final AuditService auditService;
     private final RoleGuard roleGuard;
+    private final PatientCountCache countCache;
+    private final PatientSearchIndex searchIndex;
+    private final PatientFacetCounters facetCounters;
+    private final PatientProfileCache profileCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate registerTx;
 
     // Micrometer counters
     private final Counter registrationsCounter;
@@ -47,12 +87,26 @@ public class PatientService {
                           PatientMapper patientMapper,
                           AuditService auditService,
                           RoleGuard roleGuard,
-                          MeterRegistry meterRegistry) {
+                          MeterRegistry meterRegistry,
+                          PatientCountCache countCache,
+                          PatientSearchIndex searchIndex,
+                          PatientFacetCounters facetCounters,
+                          PatientProfileCache profileCache,
+                          ObjectMapper objectMapper,
+                          Validator validator,
+                          PlatformTransactionManager transactionManager) {
         this.patientRepository = patientRepository;
         this.idGeneratorService = idGeneratorService;
         this.patientMapper = patientMapper;
         this.auditService = auditService;
         this.roleGuard = roleGuard;
+        this.countCache = countCache;
+        this.searchIndex = searchIndex;
+        this.facetCounters = facetCounters;
+        this.profileCache = profileCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.registerTx = new TransactionTemplate(transactionManager);
 
         this.registrationsCounter = Counter.builder("patient.registrations.total")
                 .description("Total successful patient registrations").register(meterRegistry);
@@ -66,7 +120,11 @@ public class PatientService {
 
     // ── US1: Register ─────────────────────────────────────────────────────────
 
-    @Transactional
+    /**
+     * Not @Transactional: the Patient ID is allocated before the transaction opens. A call
+     * that has to reserve a new ID block commits its own short transaction, and callers
+     * waiting for that block must not each be holding a pooled connection meanwhile.
+     */
     public PatientRegistrationResponse registerPatient(PatientRegistrationRequest request) {
         roleGuard.requireRoles("RECEPTIONIST", "ADMIN");
         AuthContext auth = AuthContext.Holder.get();
@@ -84,8 +142,12 @@ public class PatientService {
         patient.setUpdatedAt(now);
         patient.setUpdatedBy(auth.getUsername());
 
-        patientRepository.save(patient);
-        auditService.writeAuditLog("REGISTER", patientId, auth.getUsername(), null);
+        registerTx.executeWithoutResult(status -> {
+            // Patient row and REGISTER audit entry in one statement
+            patientRepository.insertWithRegisterAudit(patient);
+            searchIndex.publishChange(patient);
+            facetCounters.publishChange(null, PatientFacetCube.Key.of(patient));
+        });
 
         MDC.put("operation", "REGISTER_PATIENT");
         MDC.put("patientId", patientId);
@@ -97,12 +159,20 @@ public class PatientService {
         );
     }
 
+    /**
+     * Compares normalized numbers, so "(555) 123-4567" finds a patient stored as
+     * "+1-555-123-4567". A number with no E.164 form cannot match a stored one.
+     */
     public DuplicatePhoneResponse checkDuplicatePhone(String phone, String excludePatientId) {
         roleGuard.requireRoles("RECEPTIONIST", "ADMIN");
 
+        String phoneE164 = PhoneNumbers.toE164(phone);
+        if (phoneE164 == null) {
+            return DuplicatePhoneResponse.noDuplicate();
+        }
         Optional<Patient> existing = excludePatientId != null
-                ? patientRepository.findFirstByPhoneAndPatientIdNot(phone, excludePatientId)
-                : patientRepository.findFirstByPhone(phone);
+                ? patientRepository.findFirstByPhoneE164AndPatientIdNot(phoneE164, excludePatientId)
+                : patientRepository.findFirstByPhoneE164(phoneE164);
 
         return existing
                 .map(p -> DuplicatePhoneResponse.found(p.getPatientId(), p.getFirstName(), p.getLastName()))
@@ -111,50 +181,164 @@ public class PatientService {
 
     // ── US2: Search ────────────────────────────────────────────────────────────
 
+    /**
+     * Offset-paginated search. {@code countModeStr} selects how the total is obtained (see
+     * CountMode); EXACT, the default, runs a COUNT with the search predicate every time.
+     * Answered from the in-memory PatientSearchIndex when it is ready — the total is then
+     * exact whatever the requested mode — and from the database otherwise. Multi-word name
+     * queries always go to the database's ranked full-text search, and phone numbers to its
+     * normalized phone index (PatientRepository.search).
+     * {@code matchStr} PHONETIC switches to sounds-like name matching (see MatchMode), which
+     * always counts exactly.
+     */
     public PagedResponse<PatientSummaryResponse> searchPatients(
             String query, String statusStr, String genderStr, String bloodGroupStr,
-            int page, int size) {
+            int page, int size, String countModeStr, String matchStr) {
         roleGuard.requireAuthenticated();
 
         PatientStatus status = resolveStatus(statusStr);
         Gender gender = resolveGender(genderStr);
         BloodGroup bloodGroup = resolveBloodGroup(bloodGroupStr);
+        CountMode countMode = CountMode.fromParam(countModeStr);
+        String text = query != null && !query.isBlank() ? query : null;
+        boolean phonetic = text != null && MatchMode.fromParam(matchStr) == MatchMode.PHONETIC;
+        if (phonetic) {
+            countMode = CountMode.EXACT;
+        }
 
-        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Patient> patientPage = patientRepository.search(
-                query != null && !query.isBlank() ? query : null,
-                status, gender, bloodGroup, pageable
-        );
-
+        // patient_id breaks created_at ties; the order then matches the V12 covering index exactly
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "patientId"));
+        Optional<PatientNgramIndex.Hits> hits = !phonetic && PatientRepository.nameTsQuery(text) == null
+                && PhoneNumbers.searchPattern(text) == null
+                ? searchIndex.search(text, status, gender, bloodGroup, pageable.getOffset(), size)
+                : Optional.empty();
         MDC.put("operation", "SEARCH_PATIENTS");
         searchesCounter.increment();
+        if (hits.isPresent()) {
+            long total = hits.get().total();
+            int totalPages = (int) Math.ceil((double) total / size);
+            return new PagedResponse<>(hits.get().content(), page, size, total, totalPages,
+                    page == 0, page + 1 >= totalPages, CountMode.EXACT);
+        }
+
+        Slice<PatientSummaryView> slice;
+        if (phonetic) {
+            slice = patientRepository.searchPhonetic(text, status, gender, bloodGroup, pageable);
+        } else if (countMode == CountMode.EXACT) {
+            slice = patientRepository.search(text, status, gender, bloodGroup, pageable);
+        } else {
+            slice = patientRepository.searchSlice(text, status, gender, bloodGroup, pageable);
+        }
 
-        List<PatientSummaryResponse> content = patientPage.getContent().stream()
+        List<PatientSummaryResponse> content = slice.getContent().stream()
                 .map(patientMapper::toSummary).toList();
 
+        Long total = switch (countMode) {
+            case EXACT -> ((Page<PatientSummaryView>) slice).getTotalElements();
+            case ESTIMATE -> estimateTotal(slice, text, status, gender, bloodGroup);
+            case NONE -> null;
+        };
         return new PagedResponse<>(
                 content,
-                patientPage.getNumber(),
-                patientPage.getSize(),
-                patientPage.getTotalElements(),
-                patientPage.getTotalPages(),
-                patientPage.isFirst(),
-                patientPage.isLast()
+                slice.getNumber(),
+                slice.getSize(),
+                total,
+                total != null ? (int) Math.ceil((double) total / slice.getSize()) : null,
+                slice.isFirst(),
+                slice.isLast(),
+                countMode
         );
     }
 
+    /**
+     * On the last page the total is known exactly from the page itself. Otherwise the cached
+     * count is used, but never below what the page proves (rows seen so far plus one).
+     */
+    private long estimateTotal(Slice<PatientSummaryView> slice, String text, PatientStatus status,
+                               Gender gender, BloodGroup bloodGroup) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext()) return seen;
+        return Math.max(countCache.estimate(text, status, gender, bloodGroup), seen + 1);
+    }
+
+    /**
+     * Per-value counts of status, gender and blood group for a search (see
+     * PatientFacetsResponse). Without a text query they come from the running
+     * PatientFacetCounters; with one, from a single grouped pass over the matching patients
+     * (PatientRepository.facetCounts). Queries are matched as by a standard-mode search.
+     */
+    public PatientFacetsResponse getFacets(String query, String statusStr, String genderStr,
+                                           String bloodGroupStr) {
+        roleGuard.requireAuthenticated();
+
+        String text = query != null && !query.isBlank() ? query : null;
+        PatientFacetCube cube = text == null
+                ? facetCounters.snapshot().orElseGet(() -> PatientFacetCube.of(patientRepository.facetCounts(null)))
+                : PatientFacetCube.of(patientRepository.facetCounts(text));
+
+        MDC.put("operation", "GET_PATIENT_FACETS");
+        return cube.facets(resolveStatus(statusStr), resolveGender(genderStr), resolveBloodGroup(bloodGroupStr));
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #searchPatients}: same filters, but pages are fetched
+     * by seeking past the previous page's last row instead of with OFFSET, so deep pages cost
+     * the same as the first. No total count is computed. Phone-shaped queries match as in
+     * search; any other query, multi-word names included, uses substring matching only (no
+     * full-text search — see PatientScrollRepository.scroll).
+     *
+     * @param sortStr createdAt (default, newest first), lastName or dateOfBirth
+     * @param cursor  {@code next} from the previous page, or null/blank for the first page
+     */
+    public CursorPagedResponse<PatientSummaryResponse> scrollPatients(
+            String query, String statusStr, String genderStr, String bloodGroupStr,
+            String sortStr, String cursor, int size) {
+        roleGuard.requireAuthenticated();
+
+        PatientStatus status = resolveStatus(statusStr);
+        Gender gender = resolveGender(genderStr);
+        BloodGroup bloodGroup = resolveBloodGroup(bloodGroupStr);
+        PatientScrollOrder order = PatientScrollOrder.fromParam(sortStr);
+        Object[] after = cursor != null && !cursor.isBlank() ? order.seekValues(cursor) : null;
+        int pageSize = Math.max(size, 1);
+
+        // One extra row tells us whether another page exists
+        List<PatientScrollRow> rows = patientRepository.scroll(
+                query != null && !query.isBlank() ? query : null,
+                status, gender, bloodGroup, order, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        MDC.put("operation", "SCROLL_PATIENTS");
+        searchesCounter.increment();
+
+        List<PatientSummaryResponse> content = rows.stream().map(row -> patientMapper.toSummary(row.summary())).toList();
+        String next = hasNext ? order.cursorAfter(rows.get(rows.size() - 1)).encode() : null;
+        return new CursorPagedResponse<>(content, pageSize, next, hasNext);
+    }
+
     // ── US3: Profile ───────────────────────────────────────────────────────────
 
+    /** Served from PatientProfileCache when the profile is cached; loaded and offered to it otherwise. */
     public PatientResponse getPatient(String patientId) {
         roleGuard.requireAuthenticated();
 
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new PatientNotFoundException(patientId));
-
         MDC.put("operation", "GET_PATIENT");
         MDC.put("patientId", patientId);
 
-        return patientMapper.toResponse(patient);
+        Optional<PatientResponse> cached = profileCache.get(patientId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new PatientNotFoundException(patientId));
+
+        PatientResponse response = patientMapper.toResponse(patient);
+        profileCache.put(response);
+        return response;
     }
 
     // ── US4: Update ────────────────────────────────────────────────────────────
@@ -162,37 +346,37 @@ public class PatientService {
     @Transactional
     public PatientResponse updatePatient(String patientId, PatientUpdateRequest request, Integer version) {
         roleGuard.requireRoles("RECEPTIONIST", "ADMIN");
-        AuthContext auth = AuthContext.Holder.get();
 
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new PatientNotFoundException(patientId));
-
-        // Validate client version matches entity version (optimistic concurrency check)
-        if (!patient.getVersion().equals(version)) {
-            throw new ConflictException(
-                    "Patient record was modified by another user. Please reload and try again.");
-        }
-
-        List<String> changedFields = computeChangedFields(patient, request);
-
-        try {
-            patientMapper.updateEntity(request, patient);
-            patient.setBloodGroup(request.bloodGroup() != null ? request.bloodGroup() : BloodGroup.UNKNOWN);
-            patient.setUpdatedAt(OffsetDateTime.now());
-            patient.setUpdatedBy(auth.getUsername());
+        Patient patient = loadForUpdate(patientId, version);
+        PatientResponse response = applyUpdate(patient, request, version);
 
-            Patient saved = patientRepository.save(patient);
-            auditService.writeAuditLog("UPDATE", patientId, auth.getUsername(), changedFields);
+        MDC.put("operation", "UPDATE_PATIENT");
+        MDC.put("patientId", patientId);
+        return response;
+    }
 
-            MDC.put("operation", "UPDATE_PATIENT");
-            MDC.put("patientId", patientId);
-            updatesCounter.increment();
+    /**
+     * JSON Merge Patch (RFC 7386) of the editable fields: members present in {@code patch} replace
+     * the stored values, null members clear them, absent members are left as they are. The merged
+     * record must pass the same validation as a PUT body. Only columns whose value actually changes
+     * are written (Patient is {@code @DynamicUpdate}) and listed in the audit entry; a patch that
+     * changes nothing writes nothing and returns the current record, version unchanged.
+     */
+    @Transactional
+    public PatientResponse patchPatient(String patientId, JsonNode patch, Integer version) {
+        roleGuard.requireRoles("RECEPTIONIST", "ADMIN");
 
-            return patientMapper.toResponse(saved);
-        } catch (ObjectOptimisticLockingFailureException e) {
-            throw new ConflictException(
-                    "Patient record was modified by another user. Please reload and try again.");
+        Patient patient = loadForUpdate(patientId, version);
+        PatientUpdateRequest merged = mergePatch(patientMapper.toUpdateRequest(patient), patch);
+        Set<ConstraintViolation<PatientUpdateRequest>> violations = validator.validate(merged);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
         }
+        PatientResponse response = applyUpdate(patient, merged, version);
+
+        MDC.put("operation", "PATCH_PATIENT");
+        MDC.put("patientId", patientId);
+        return response;
     }
 
     // ── US5: Status Management ──────────────────────────────────────────────────
@@ -220,10 +404,15 @@ public class PatientService {
 
         PatientStatus newStatus = action == PatientStatusChangeRequest.StatusAction.DEACTIVATE
                 ? PatientStatus.INACTIVE : PatientStatus.ACTIVE;
+        PatientFacetCube.Key facetsBefore = PatientFacetCube.Key.of(patient);
+        int staleVersion = patient.getVersion();
         patient.setStatus(newStatus);
         patient.setUpdatedAt(OffsetDateTime.now());
         patient.setUpdatedBy(auth.getUsername());
         patientRepository.save(patient);
+        searchIndex.publishChange(patient);
+        facetCounters.publishChange(facetsBefore, PatientFacetCube.Key.of(patient));
+        profileCache.publishChange(patientId, staleVersion);
 
         String operation = action == PatientStatusChangeRequest.StatusAction.DEACTIVATE
                 ? "DEACTIVATE" : "ACTIVATE";
@@ -261,13 +450,84 @@ public class PatientService {
         catch (IllegalArgumentException e) { return null; }
     }
 
+    private Patient loadForUpdate(String patientId, Integer version) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new PatientNotFoundException(patientId));
+
+        // Validate client version matches entity version (optimistic concurrency check)
+        if (!patient.getVersion().equals(version)) {
+            throw new ConflictException(
+                    "Patient record was modified by another user. Please reload and try again.");
+        }
+        return patient;
+    }
+
+    private PatientResponse applyUpdate(Patient patient, PatientUpdateRequest request, Integer version) {
+        AuthContext auth = AuthContext.Holder.get();
+        String patientId = patient.getPatientId();
+
+        List<String> changedFields = computeChangedFields(patient, request);
+        if (changedFields.isEmpty()) {
+            // Nothing to write: no UPDATE, no version bump, no audit entry
+            return patientMapper.toResponse(patient);
+        }
+        PatientFacetCube.Key facetsBefore = PatientFacetCube.Key.of(patient);
+
+        try {
+            patientMapper.updateEntity(request, patient);
+            patient.setBloodGroup(request.bloodGroup() != null ? request.bloodGroup() : BloodGroup.UNKNOWN);
+            patient.setUpdatedAt(OffsetDateTime.now());
+            patient.setUpdatedBy(auth.getUsername());
+
+            Patient saved = patientRepository.save(patient);
+            searchIndex.publishChange(saved);
+            facetCounters.publishChange(facetsBefore, PatientFacetCube.Key.of(saved));
+            profileCache.publishChange(patientId, version);
+            auditService.writeAuditLog("UPDATE", patientId, auth.getUsername(), changedFields);
+            updatesCounter.increment();
+
+            return patientMapper.toResponse(saved);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ConflictException(
+                    "Patient record was modified by another user. Please reload and try again.");
+        }
+    }
+
+    /** Applies a merge patch to the editable fields; errors name the field, never the value. */
+    private PatientUpdateRequest mergePatch(PatientUpdateRequest current, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("Merge patch must be a JSON object.");
+        }
+        ObjectNode target = objectMapper.valueToTree(current);
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (!PATCHABLE_FIELDS.contains(member.getKey())) {
+                throw new InvalidPatchException("Field '" + member.getKey() + "' cannot be patched.");
+            }
+            // The editable fields are all scalars, so each member simply replaces (or nulls) one
+            target.set(member.getKey(), member.getValue());
+        }
+        try {
+            return objectMapper.treeToValue(target, PatientUpdateRequest.class);
+        } catch (JsonMappingException e) {
+            String field = e.getPath().isEmpty() ? null : e.getPath().get(e.getPath().size() - 1).getFieldName();
+            throw new InvalidPatchException(field != null
+                    ? "Invalid value for field '" + field + "'."
+                    : "Merge patch could not be applied.");
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("Merge patch could not be applied.");
+        }
+    }
+
     private List<String> computeChangedFields(Patient current, PatientUpdateRequest update) {
         List<String> changed = new ArrayList<>();
         if (!eq(current.getFirstName(), update.firstName())) changed.add("firstName");
         if (!eq(current.getLastName(), update.lastName())) changed.add("lastName");
         if (!eq(current.getDateOfBirth(), update.dateOfBirth())) changed.add("dateOfBirth");
         if (!eq(current.getGender(), update.gender())) changed.add("gender");
-        if (!eq(current.getBloodGroup(), update.bloodGroup())) changed.add("bloodGroup");
+        BloodGroup bloodGroup = update.bloodGroup() != null ? update.bloodGroup() : BloodGroup.UNKNOWN;
+        if (!eq(current.getBloodGroup(), bloodGroup)) changed.add("bloodGroup");
         if (!eq(current.getPhone(), update.phone())) changed.add("phone");
         if (!eq(current.getEmail(), update.email())) changed.add("email");
         if (!eq(current.getAddress(), update.address())) changed.add("address");
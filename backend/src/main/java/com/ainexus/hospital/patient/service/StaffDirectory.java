@@ -0,0 +1,390 @@
+package com.ainexus.hospital.patient.service;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.entity.HospitalUser;
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
+import com.ainexus.hospital.patient.pagination.KeysetCursor;
+import com.ainexus.hospital.patient.repository.HospitalUserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Node-local, read-only directory of staff accounts (hospital_users without password hashes).
+ *
+ * Serves /auth/refresh, /auth/me and the admin read endpoints without an entity load per
+ * request. State is one immutable, versioned snapshot indexed by user_id and lower-case
+ * username; every change installs a new snapshot by compare-and-set, so a load that raced
+ * with an invalidation is simply not installed.
+ *
+ * Invalidation is per user: writers call {@link #publishChange} in the transaction that
+ * modifies hospital_users (StaffService writes, the lockout path and logout-all in
+ * AuthService, LastLoginRecorder flushes). A "staff_changed" NOTIFY marks the user stale on
+ * every node; the writing node also marks it locally on commit. Stale or unknown users are
+ * re-read from the table on next access. As with the token registries, everything is cleared
+ * on listener (re)connect and reads go straight to the table while the listener is down.
+ *
+ * Login itself still reads the entity: it needs the password hash and current lockout state.
+ */
+@Component
+public class StaffDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(StaffDirectory.class);
+
+    static final String CHANNEL = "staff_changed";
+
+    /** NOTIFY payloads are capped at 8000 bytes; user IDs are at most 12 characters. */
+    private static final int MAX_IDS_PER_NOTIFICATION = 500;
+
+    /** Properties listUsers may sort by in memory; anything else is sorted by the database. */
+    private static final Map<String, Function<Entry, Comparable<?>>> SORT_KEYS = Map.of(
+            "userId", Entry::userId,
+            "username", Entry::username,
+            "role", Entry::role,
+            "email", Entry::email,
+            "department", Entry::department,
+            "status", Entry::status,
+            "failedAttempts", Entry::failedAttempts,
+            "lastLoginAt", Entry::lastLoginAt,
+            "createdAt", Entry::createdAt);
+
+    /** Properties listAfter may page by: their values round-trip through a cursor string. */
+    private static final Map<String, Function<String, Comparable<?>>> CURSOR_KEYS = Map.of(
+            "username", value -> value,
+            "createdAt", OffsetDateTime::parse);
+
+    /** Immutable view of one staff account. Never carries the password hash. */
+    public record Entry(String userId,
+                        String username,
+                        String role,
+                        String email,
+                        String department,
+                        String status,
+                        Integer failedAttempts,
+                        OffsetDateTime lockedUntil,
+                        OffsetDateTime lastLoginAt,
+                        OffsetDateTime createdAt,
+                        String createdBy,
+                        Integer tokenEpoch) {
+
+        public static Entry of(HospitalUser user) {
+            return new Entry(user.getUserId(), user.getUsername(), user.getRole(), user.getEmail(),
+                    user.getDepartment(), user.getStatus(), user.getFailedAttempts(), user.getLockedUntil(),
+                    user.getLastLoginAt(), user.getCreatedAt(), user.getCreatedBy(), user.getTokenEpoch());
+        }
+
+        public boolean isActive() {
+            return "ACTIVE".equals(status);
+        }
+    }
+
+    /**
+     * One immutable directory version. {@code complete} means every row of hospital_users was
+     * loaded (required by listUsers); {@code stale} holds user IDs that must be re-read.
+     */
+    private record Snapshot(long version,
+                            Map<String, Entry> byId,
+                            Map<String, Entry> byUsername,
+                            Set<String> stale,
+                            boolean complete) {
+
+        static Snapshot empty(long version) {
+            return new Snapshot(version, Map.of(), Map.of(), Set.of(), false);
+        }
+
+        Entry fresh(String userId) {
+            return stale.contains(userId) ? null : byId.get(userId);
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.empty(0));
+    private final HospitalUserRepository userRepository;
+    private final ClusterNotificationBus notificationBus;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter dbFallbackCounter;
+
+    public StaffDirectory(HospitalUserRepository userRepository,
+                          ClusterNotificationBus notificationBus,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.notificationBus = notificationBus;
+
+        this.hitCounter = Counter.builder("staff.directory.lookups.total").tag("result", "hit")
+                .description("Staff directory lookups").register(meterRegistry);
+        this.missCounter = Counter.builder("staff.directory.lookups.total").tag("result", "miss")
+                .description("Staff directory lookups").register(meterRegistry);
+        this.dbFallbackCounter = Counter.builder("staff.directory.db_fallbacks.total")
+                .description("Staff lookups answered by hospital_users while the listener was down")
+                .register(meterRegistry);
+        Gauge.builder("staff.directory.version", snapshot, s -> s.get().version())
+                .description("Current staff directory snapshot version").register(meterRegistry);
+
+        notificationBus.subscribe(CHANNEL, this::onChanged, this::invalidateAll);
+    }
+
+    // ── Reads ───────────────────────────────────────────────────────────────────
+
+    public Optional<Entry> findById(String userId) {
+        if (!notificationBus.isConnected()) {
+            dbFallbackCounter.increment();
+            return userRepository.findById(userId).map(Entry::of);
+        }
+        Snapshot current = snapshot.get();
+        Entry entry = current.fresh(userId);
+        if (entry != null) {
+            hitCounter.increment();
+            return Optional.of(entry);
+        }
+        missCounter.increment();
+        Optional<Entry> loaded = userRepository.findById(userId).map(Entry::of);
+        install(current, withUser(current, userId, loaded.orElse(null)));
+        return loaded;
+    }
+
+    public Optional<Entry> findByUsername(String username) {
+        if (!notificationBus.isConnected()) {
+            dbFallbackCounter.increment();
+            return userRepository.findByUsernameIgnoreCase(username).map(Entry::of);
+        }
+        Snapshot current = snapshot.get();
+        Entry entry = current.byUsername().get(username.toLowerCase(Locale.ROOT));
+        if (entry != null && !current.stale().contains(entry.userId())) {
+            hitCounter.increment();
+            return Optional.of(entry);
+        }
+        missCounter.increment();
+        Optional<Entry> loaded = userRepository.findByUsernameIgnoreCase(username).map(Entry::of);
+        loaded.ifPresent(e -> install(current, withUser(current, e.userId(), e)));
+        return loaded;
+    }
+
+    /**
+     * Filters (null = any) and pages the directory in memory.
+     * Callers must check {@link #canSort} first.
+     */
+    public Page<Entry> list(String role, String status, Pageable pageable) {
+        List<Entry> matches = matching(role, status);
+        matches.sort(comparator(pageable.getSort()));
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(matches, pageable, matches.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(new ArrayList<>(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    /**
+     * Keyset variant of {@link #list}: up to {@code limit} entries in {@code order} (ties
+     * broken by userId) that come strictly after the row {@code cursor} points at, or from
+     * the start when it is null. Unlike an offset, the position survives accounts being
+     * created or deactivated between pages. Callers must check {@link #canScroll} first.
+     *
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another order
+     */
+    public List<Entry> listAfter(String role, String status, Sort.Order order, String cursor, int limit) {
+        List<Entry> matches = matching(role, status);
+        matches.sort(comparator(Sort.by(order)));
+
+        int from = 0;
+        if (cursor != null) {
+            List<String> values = KeysetCursor.decode(cursor, cursorSort(order), 2).values();
+            Comparable<?> afterKey;
+            try {
+                afterKey = CURSOR_KEYS.get(order.getProperty()).apply(values.get(0));
+            } catch (DateTimeParseException e) {
+                throw new InvalidCursorException("Malformed pagination cursor.");
+            }
+            while (from < matches.size() && !isAfter(matches.get(from), order, afterKey, values.get(1))) {
+                from++;
+            }
+        }
+        return new ArrayList<>(matches.subList(from, Math.min(from + limit, matches.size())));
+    }
+
+    /** Cursor positioned after {@code last}, the final entry of a {@link #listAfter} page. */
+    public static KeysetCursor cursorAfter(Entry last, Sort.Order order) {
+        Object key = SORT_KEYS.get(order.getProperty()).apply(last);
+        return new KeysetCursor(cursorSort(order), List.of(String.valueOf(key), last.userId()));
+    }
+
+    /** True if {@link #listAfter} can page by {@code order}. */
+    public static boolean canScroll(Sort.Order order) {
+        return !order.isIgnoreCase() && CURSOR_KEYS.containsKey(order.getProperty());
+    }
+
+    /** True if every order in {@code sort} is on a property {@link #list} can sort by. */
+    public static boolean canSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (order.isIgnoreCase() || !SORT_KEYS.containsKey(order.getProperty())) return false;
+        }
+        return true;
+    }
+
+    // ── Invalidation ────────────────────────────────────────────────────────────
+
+    /**
+     * Announces that a user's row changed. Must be called in the transaction that writes
+     * hospital_users; the local snapshot is marked on commit, other nodes on delivery.
+     */
+    public void publishChange(String userId) {
+        notificationBus.publish(CHANNEL, userId);
+        ClusterNotificationBus.afterCommit(() -> markStale(List.of(userId)));
+    }
+
+    /** Bulk variant of {@link #publishChange} — one notification per chunk of user IDs. */
+    public void publishChanges(Collection<String> userIds) {
+        List<String> ids = List.copyOf(userIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_NOTIFICATION) {
+            List<String> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_NOTIFICATION, ids.size()));
+            notificationBus.publish(CHANNEL, String.join(",", chunk));
+        }
+        ClusterNotificationBus.afterCommit(() -> markStale(ids));
+    }
+
+    /** Drops every cached entry; the next read reloads from hospital_users. */
+    public void invalidateAll() {
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, Snapshot.empty(current.version() + 1)));
+    }
+
+    void markStale(Collection<String> userIds) {
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            Set<String> stale = new HashSet<>(current.stale());
+            stale.addAll(userIds);
+            next = new Snapshot(current.version() + 1, current.byId(), current.byUsername(),
+                    Set.copyOf(stale), current.complete());
+        } while (!snapshot.compareAndSet(current, next));
+    }
+
+    private void onChanged(String payload) {
+        if (payload.isEmpty()) return;
+        markStale(List.of(payload.split(",")));
+    }
+
+    // ── Loading ─────────────────────────────────────────────────────────────────
+
+    /** Every staff account: a full load the first time, then only stale users are re-read. */
+    private Collection<Entry> all() {
+        if (!notificationBus.isConnected()) {
+            dbFallbackCounter.increment();
+            return userRepository.findAll().stream().map(Entry::of).toList();
+        }
+        Snapshot current = snapshot.get();
+        if (!current.complete()) {
+            Map<String, Entry> byId = new HashMap<>();
+            for (HospitalUser user : userRepository.findAll()) {
+                byId.put(user.getUserId(), Entry.of(user));
+            }
+            Snapshot loaded = snapshotOf(current.version() + 1, byId, Set.of(), true);
+            install(current, loaded);
+            log.debug("StaffDirectory: loaded {} staff accounts", byId.size());
+            return loaded.byId().values();
+        }
+        if (!current.stale().isEmpty()) {
+            Map<String, Entry> byId = new HashMap<>(current.byId());
+            current.stale().forEach(byId::remove);
+            for (HospitalUser user : userRepository.findAllById(current.stale())) {
+                byId.put(user.getUserId(), Entry.of(user));
+            }
+            Snapshot refreshed = snapshotOf(current.version() + 1, byId, Set.of(), true);
+            install(current, refreshed);
+            return refreshed.byId().values();
+        }
+        return current.byId().values();
+    }
+
+    private List<Entry> matching(String role, String status) {
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : all()) {
+            if ((role == null || role.equals(entry.role())) && (status == null || status.equals(entry.status()))) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    /** {@code current} with one user replaced (or removed when {@code entry} is null) and no longer stale. */
+    private static Snapshot withUser(Snapshot current, String userId, Entry entry) {
+        Map<String, Entry> byId = new HashMap<>(current.byId());
+        if (entry != null) {
+            byId.put(userId, entry);
+        } else {
+            byId.remove(userId);
+        }
+        Set<String> stale = new HashSet<>(current.stale());
+        stale.remove(userId);
+        return snapshotOf(current.version() + 1, byId, stale, current.complete());
+    }
+
+    private static Snapshot snapshotOf(long version, Map<String, Entry> byId, Set<String> stale, boolean complete) {
+        Map<String, Entry> byUsername = new HashMap<>(byId.size() * 2);
+        for (Entry entry : byId.values()) {
+            byUsername.put(entry.username().toLowerCase(Locale.ROOT), entry);
+        }
+        return new Snapshot(version, Map.copyOf(byId), Map.copyOf(byUsername), Set.copyOf(stale), complete);
+    }
+
+    /** Installs {@code next} only if nothing changed since {@code expected} was read. */
+    private void install(Snapshot expected, Snapshot next) {
+        snapshot.compareAndSet(expected, next);
+    }
+
+    private static String cursorSort(Sort.Order order) {
+        return order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Whether {@code entry} sorts after (afterKey, afterId) under {@link #comparator}. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean isAfter(Entry entry, Sort.Order order, Comparable afterKey, String afterId) {
+        Comparable key = SORT_KEYS.get(order.getProperty()).apply(entry);
+        int cmp = key == null || afterKey == null
+                ? (key == afterKey ? 0 : key == null ? 1 : -1)   // nulls last, as in comparator()
+                : key.compareTo(afterKey);
+        if (order.isDescending()) cmp = -cmp;
+        return cmp > 0 || (cmp == 0 && entry.userId().compareTo(afterId) > 0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Entry> comparator(Sort sort) {
+        Comparator<Entry> result = null;
+        for (Sort.Order order : sort) {
+            Function<Entry, Comparable> key = (Function) SORT_KEYS.get(order.getProperty());
+            // PostgreSQL defaults: NULLS LAST for ASC, NULLS FIRST for DESC
+            Comparator<Entry> next = Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+            if (order.isDescending()) next = next.reversed();
+            result = result == null ? next : result.thenComparing(next);
+        }
+        Comparator<Entry> tieBreak = Comparator.comparing(Entry::userId);
+        return result == null ? tieBreak : result.thenComparing(tieBreak);
+    }
+}
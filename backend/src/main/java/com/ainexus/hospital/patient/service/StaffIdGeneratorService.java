@@ -13,7 +13,8 @@ import java.time.LocalDate;
  * Format: U + YYYY + zero-padded sequence (3 digits minimum, expanding past 999)
  * Examples: U2026001, U2026012, U2026999, U20261000
  *
- * Mirrors PatientIdGeneratorService exactly — same locking pattern, prefix "U" not "P".
+ * Same format as PatientIdGeneratorService, prefix "U" not "P". Staff are created rarely
+ * enough that the row lock is kept rather than reserving hi/lo blocks.
  */
 @Service
 public class StaffIdGeneratorService {
@@ -3,6 +3,7 @@ package com.ainexus.hospital.patient.service;
 import com.ainexus.hospital.patient.audit.AuthAuditService;
 import com.ainexus.hospital.patient.dto.request.CreateUserRequest;
 import com.ainexus.hospital.patient.dto.request.UpdateUserRequest;
+import com.ainexus.hospital.patient.dto.response.CursorPagedResponse;
 import com.ainexus.hospital.patient.dto.response.UserDetailResponse;
 import com.ainexus.hospital.patient.dto.response.UserSummaryResponse;
 import com.ainexus.hospital.patient.entity.HospitalUser;
@@ -14,10 +15,13 @@ import com.ainexus.hospital.patient.mapper.StaffMapper;
 import com.ainexus.hospital.patient.repository.HospitalUserRepository;
 import com.ainexus.hospital.patient.security.AuthContext;
 import com.ainexus.hospital.patient.security.RoleGuard;
+import com.ainexus.hospital.patient.security.TokenEpochRegistry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
@@ -29,6 +33,8 @@ import java.util.List;
  *
  * All methods enforce ADMIN role via RoleGuard.requireRoles("ADMIN").
  * Passwords are hashed before storage; raw passwords are never logged or returned.
+ * Deactivation and role changes bump the user's token epoch, revoking their live JWTs.
+ * Reads are served by StaffDirectory; every write publishes a change for the affected user.
  */
 @Service
 @Transactional
@@ -40,19 +46,25 @@ public class StaffService {
     private final AuthAuditService authAuditService;
     private final StaffMapper staffMapper;
     private final RoleGuard roleGuard;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final StaffDirectory staffDirectory;
 
     public StaffService(HospitalUserRepository userRepository,
                         PasswordEncoder passwordEncoder,
                         StaffIdGeneratorService staffIdGeneratorService,
                         AuthAuditService authAuditService,
                         StaffMapper staffMapper,
-                        RoleGuard roleGuard) {
+                        RoleGuard roleGuard,
+                        TokenEpochRegistry tokenEpochRegistry,
+                        StaffDirectory staffDirectory) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.staffIdGeneratorService = staffIdGeneratorService;
         this.authAuditService = authAuditService;
         this.staffMapper = staffMapper;
         this.roleGuard = roleGuard;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.staffDirectory = staffDirectory;
     }
 
     /**
@@ -65,7 +77,8 @@ public class StaffService {
     public UserDetailResponse createUser(CreateUserRequest req, String createdByUsername) {
         roleGuard.requireRoles("ADMIN");
 
-        if (userRepository.existsByUsernameIgnoreCase(req.username())) {
+        // Usernames are never changed or deleted, so a directory hit is conclusive; a miss reads the table
+        if (staffDirectory.findByUsername(req.username()).isPresent()) {
             throw new UsernameConflictException(req.username());
         }
 
@@ -90,6 +103,7 @@ public class StaffService {
                 .build();
 
         HospitalUser saved = userRepository.save(user);
+        staffDirectory.publishChange(saved.getUserId());
 
         authAuditService.writeAuthLog("USER_CREATED",
                 AuthContext.Holder.get().getUserId(),
@@ -101,11 +115,17 @@ public class StaffService {
 
     /**
      * Lists staff accounts with optional role and status filters.
+     * Filtered, sorted and paged in memory by StaffDirectory unless the sort property is
+     * one it does not know, in which case the database query is used.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Page<UserSummaryResponse> listUsers(String role, String status, Pageable pageable) {
         roleGuard.requireRoles("ADMIN");
 
+        if (StaffDirectory.canSort(pageable.getSort())) {
+            return staffDirectory.list(role, status, pageable).map(staffMapper::toSummaryResponse);
+        }
+
         Page<HospitalUser> page;
         if (role != null && status != null) {
             page = userRepository.findByStatusAndRole(status, role, pageable);
@@ -120,16 +140,41 @@ public class StaffService {
         return page.map(staffMapper::toSummaryResponse);
     }
 
+    /**
+     * Cursor-paginated variant of {@link #listUsers}, served by StaffDirectory. Supports
+     * sorting by username or createdAt; any other sort falls back to username ascending.
+     *
+     * @param cursor {@code next} from the previous page, or null/blank for the first page
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPagedResponse<UserSummaryResponse> scrollUsers(String role, String status, Sort.Order order,
+                                                                String cursor, int size) {
+        roleGuard.requireRoles("ADMIN");
+
+        Sort.Order effective = StaffDirectory.canScroll(order) ? order : Sort.Order.asc("username");
+        int pageSize = Math.max(size, 1);
+        List<StaffDirectory.Entry> rows = staffDirectory.listAfter(role, status, effective,
+                cursor != null && !cursor.isBlank() ? cursor : null, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String next = hasNext ? StaffDirectory.cursorAfter(rows.get(rows.size() - 1), effective).encode() : null;
+        return new CursorPagedResponse<>(rows.stream().map(staffMapper::toSummaryResponse).toList(),
+                pageSize, next, hasNext);
+    }
+
     /**
      * Retrieves a single staff account by userId.
      *
      * @throws ResourceNotFoundException if userId is not found
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetailResponse getUserById(String userId) {
         roleGuard.requireRoles("ADMIN");
 
-        HospitalUser user = userRepository.findById(userId)
+        StaffDirectory.Entry user = staffDirectory.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "User not found: " + userId));
         return staffMapper.toDetailResponse(user);
@@ -171,15 +216,24 @@ public class StaffService {
             user.setDepartment(req.department());
             changedFields.add("department");
         }
+        boolean roleChanged = req.role() != null && !req.role().equals(user.getRole());
         if (req.role() != null) {
             user.setRole(req.role());
             changedFields.add("role");
         }
+        if (roleChanged) {
+            // Outstanding tokens carry the old role claim — revoke them all
+            user.setTokenEpoch(user.getTokenEpoch() + 1);
+        }
 
         user.setUpdatedAt(OffsetDateTime.now());
         user.setUpdatedBy(updatedByUsername);
 
         HospitalUser saved = userRepository.save(user);
+        if (roleChanged) {
+            tokenEpochRegistry.publishEpoch(saved.getUserId(), saved.getTokenEpoch());
+        }
+        staffDirectory.publishChange(saved.getUserId());
 
         authAuditService.writeAuthLog("USER_UPDATED",
                 AuthContext.Holder.get().getUserId(),
@@ -212,9 +266,12 @@ public class StaffService {
         }
 
         user.setStatus("INACTIVE");
+        user.setTokenEpoch(user.getTokenEpoch() + 1); // revoke all live tokens immediately
         user.setUpdatedAt(OffsetDateTime.now());
         user.setUpdatedBy(requestingUserId);
         userRepository.save(user);
+        tokenEpochRegistry.publishEpoch(userId, user.getTokenEpoch());
+        staffDirectory.publishChange(userId);
 
         authAuditService.writeAuthLog("USER_DEACTIVATED",
                 requestingUserId,
@@ -0,0 +1,71 @@
+package com.ainexus.hospital.patient.validation;
+
+/**
+ * Phone number normalization shared by the duplicate check and phone search. Mirrors the
+ * patients.phone_e164 generated column (V14): the accepted formats (see PhoneNumber) all
+ * reduce to "+1" followed by the ten-digit national number.
+ */
+public final class PhoneNumbers {
+
+    /** Digits a search query must contain before it is treated as the start of a phone number. */
+    public static final int MIN_SEARCH_DIGITS = 6;
+
+    private static final int NATIONAL_DIGITS = 10;
+    private static final String COUNTRY_CODE = "+1";
+
+    private PhoneNumbers() {}
+
+    /**
+     * The number as stored in phone_e164 ("+15551234567"), or null if its digits are not a
+     * ten-digit national number optionally preceded by the country code 1.
+     */
+    public static String toE164(String phone) {
+        if (phone == null) return null;
+        String digits = digitsOf(phone);
+        if (digits.length() == NATIONAL_DIGITS) {
+            return COUNTRY_CODE + digits;
+        }
+        if (digits.length() == NATIONAL_DIGITS + 1 && digits.charAt(0) == '1') {
+            return "+" + digits;
+        }
+        return null;
+    }
+
+    /**
+     * LIKE pattern on phone_e164 for a phone-shaped search query — only digits and phone
+     * punctuation (space + - . ( )), at least {@link #MIN_SEARCH_DIGITS} digits — or null for
+     * any other query.
+     *
+     * Only a complete number (ten digits, or eleven with the country code 1) is looked up
+     * exactly ("+15551234567"). A query starting with "+" is typed from the country code on
+     * and becomes a prefix ("+1555123%"). Any other partial number matches anywhere in the
+     * digits ("%1234567%"), so a local number typed without its area code ("123-4567") still
+     * finds the patient. Shorter digit strings (e.g. the last four digits) are not
+     * phone-shaped and keep the substring search on phone.
+     */
+    public static String searchPattern(String query) {
+        if (query == null) return null;
+        String trimmed = query.strip();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if ((c < '0' || c > '9') && " +-.()".indexOf(c) < 0) return null;
+        }
+        String digits = digitsOf(trimmed);
+        boolean fromCountryCode = trimmed.startsWith("+") && digits.startsWith("1");
+        if (fromCountryCode || digits.length() == NATIONAL_DIGITS + 1 && digits.charAt(0) == '1') {
+            digits = digits.substring(1);
+        }
+        if (digits.length() < MIN_SEARCH_DIGITS || digits.length() > NATIONAL_DIGITS) return null;
+        if (digits.length() == NATIONAL_DIGITS) return COUNTRY_CODE + digits;
+        return fromCountryCode ? COUNTRY_CODE + digits + "%" : "%" + digits + "%";
+    }
+
+    private static String digitsOf(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+-- V10: Trigram indexes for patient substring search.
+-- PatientRepository.search matches '%query%' against first_name, last_name, phone and email
+-- (plus a patient_id prefix). Leading-wildcard LIKE cannot use the B-tree indexes from V4,
+-- so every search was a sequential scan of patients (twice: page query + COUNT).
+-- pg_trgm GIN indexes support LIKE '%q%' on any column; the planner combines them with a
+-- BitmapOr across the OR'ed columns. Expressions match the repository query exactly
+-- (LOWER(col) LIKE lower-cased pattern), otherwise the indexes are not considered.
+--
+-- Note: queries shorter than 3 characters produce no trigrams and fall back to scanning
+-- the whole index, which is still cheaper than the heap but not selective.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_patients_first_name_trgm ON patients USING GIN (LOWER(first_name) gin_trgm_ops);
+CREATE INDEX idx_patients_last_name_trgm  ON patients USING GIN (LOWER(last_name) gin_trgm_ops);
+CREATE INDEX idx_patients_email_trgm      ON patients USING GIN (LOWER(email) gin_trgm_ops);
+CREATE INDEX idx_patients_phone_trgm      ON patients USING GIN (phone gin_trgm_ops);
+
+-- patient_id prefix match (LIKE 'P2026%'): the primary key index uses the database collation,
+-- which cannot serve LIKE prefixes unless the collation is C
+CREATE INDEX idx_patients_patient_id_pattern ON patients (patient_id varchar_pattern_ops);
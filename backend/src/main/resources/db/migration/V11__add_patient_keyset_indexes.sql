@@ -0,0 +1,13 @@
+-- V11: Composite indexes for keyset (cursor) pagination of patients.
+-- GET /api/v1/patients/scroll pages with a seek predicate on the full sort key
+-- ((k1, ..., patient_id) < / > (:k1, ..., :id)) instead of OFFSET n, so every page is one
+-- index range scan of `size` entries. Each key ends with patient_id to make it unique;
+-- column order and direction match the ORDER BY in PatientScrollRepositoryImpl.
+
+CREATE INDEX idx_patients_created_at_patient_id ON patients (created_at DESC, patient_id DESC);
+CREATE INDEX idx_patients_last_first_name_patient_id ON patients (last_name, first_name, patient_id);
+CREATE INDEX idx_patients_date_of_birth_patient_id ON patients (date_of_birth, patient_id);
+
+-- Both are leading prefixes of the indexes above and would only add write cost
+DROP INDEX IF EXISTS idx_patients_created_at;
+DROP INDEX IF EXISTS idx_patients_last_name;
@@ -0,0 +1,12 @@
+-- V12: Covering index for the default patient list.
+-- GET /api/v1/patients without a query selects only the summary columns
+-- (PatientRepository.SUMMARY_SELECT) ordered by created_at DESC, patient_id DESC. With those
+-- columns INCLUDEd, the first pages — and the status/gender/blood_group filters — are served
+-- by an index-only scan that never visits the heap or the TOASTed medical-history columns
+-- (on pages the visibility map marks all-visible, i.e. after autovacuum).
+-- Replaces the V11 keyset index on the same key; keyset scrolling uses this one.
+
+CREATE INDEX idx_patients_created_at_patient_id_summary ON patients (created_at DESC, patient_id DESC)
+    INCLUDE (first_name, last_name, date_of_birth, gender, phone, status, blood_group);
+
+DROP INDEX IF EXISTS idx_patients_created_at_patient_id;
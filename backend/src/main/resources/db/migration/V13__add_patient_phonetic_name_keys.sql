@@ -0,0 +1,17 @@
+-- V13: Phonetic keys for typo-tolerant name search (GET /api/v1/patients?match=PHONETIC).
+-- Double Metaphone codes of first and last name ("Jon"/"John" → JN, "Smyth"/"Smith" → SM0)
+-- are stored as generated columns: PostgreSQL computes them on every INSERT and UPDATE,
+-- whichever path writes the row, and ADD COLUMN ... STORED backfills existing rows while
+-- rewriting the table (ACCESS EXCLUSIVE for the duration — run in a maintenance window on
+-- large installations). Searches are equality lookups on these columns; candidates are
+-- then ranked by Levenshtein distance (PatientPhoneticRepositoryImpl).
+
+CREATE EXTENSION IF NOT EXISTS fuzzystrmatch;
+
+ALTER TABLE patients
+    ADD COLUMN first_name_phonetic TEXT GENERATED ALWAYS AS (dmetaphone(first_name)) STORED,
+    ADD COLUMN last_name_phonetic  TEXT GENERATED ALWAYS AS (dmetaphone(last_name)) STORED;
+
+-- Full name (either word order): (last, first) pairs. Single word: BitmapOr of both indexes.
+CREATE INDEX idx_patients_last_first_phonetic ON patients (last_name_phonetic, first_name_phonetic);
+CREATE INDEX idx_patients_first_phonetic      ON patients (first_name_phonetic);
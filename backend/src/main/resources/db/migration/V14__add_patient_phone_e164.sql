@@ -0,0 +1,27 @@
+-- V14: Normalized phone number for exact, format-independent lookup.
+-- PhoneNumberValidator accepts "+1-XXX-XXX-XXXX", "(XXX) XXX-XXXX" and "XXX-XXX-XXXX", so the
+-- same number can be stored three ways. phone_e164 holds it as "+1XXXXXXXXXX" whichever was
+-- typed (NULL if the digits are not a ten-digit national number, with or without the leading
+-- country code 1). The expression must stay in step with PhoneNumbers.toE164.
+--
+-- A generated column is computed by PostgreSQL on every INSERT and UPDATE, and ADD COLUMN ...
+-- STORED backfills existing rows while rewriting the table (ACCESS EXCLUSIVE for the duration
+-- — run in a maintenance window on large installations).
+
+ALTER TABLE patients
+    ADD COLUMN phone_e164 VARCHAR(12) GENERATED ALWAYS AS (
+        CASE
+            WHEN regexp_replace(phone, '[^0-9]', '', 'g') ~ '^[0-9]{10}$'
+                THEN '+1' || regexp_replace(phone, '[^0-9]', '', 'g')
+            WHEN regexp_replace(phone, '[^0-9]', '', 'g') ~ '^1[0-9]{10}$'
+                THEN '+' || regexp_replace(phone, '[^0-9]', '', 'g')
+        END
+    ) STORED;
+
+-- Duplicate check (equality) and phone-shaped search (LIKE '+1555123%'); the pattern operator
+-- class lets LIKE prefixes use the B-tree whatever the database collation.
+CREATE INDEX idx_patients_phone_e164 ON patients (phone_e164 varchar_pattern_ops);
+
+-- Superseded: the duplicate check no longer compares the raw string, and substring search
+-- on phone uses idx_patients_phone_trgm (V10).
+DROP INDEX IF EXISTS idx_patients_phone;
@@ -0,0 +1,28 @@
+-- V15: Bulk patient import jobs (POST /api/v1/patients/import).
+-- One row per upload, updated by the importing node as it validates and loads; any node can
+-- answer progress polls. row_errors holds the first rejected rows as a JSON array of
+-- {"row", "field", "message"} — field names and validation messages only, never row values.
+
+CREATE TABLE patient_import_jobs (
+    job_id          UUID            NOT NULL,
+    status          VARCHAR(12)     NOT NULL,
+    format          VARCHAR(10)     NOT NULL,
+    rows_read       INTEGER         NOT NULL DEFAULT 0,
+    rows_imported   INTEGER         NOT NULL DEFAULT 0,
+    rows_rejected   INTEGER         NOT NULL DEFAULT 0,
+    row_errors      JSONB           NOT NULL DEFAULT '[]',
+    failure_reason  VARCHAR(500),
+    created_at      TIMESTAMPTZ     NOT NULL DEFAULT NOW(),
+    created_by      VARCHAR(100)    NOT NULL,
+    updated_at      TIMESTAMPTZ     NOT NULL DEFAULT NOW(),
+    finished_at     TIMESTAMPTZ,
+
+    CONSTRAINT pk_patient_import_jobs PRIMARY KEY (job_id),
+    CONSTRAINT chk_patient_import_status CHECK (
+        status IN ('QUEUED', 'VALIDATING', 'LOADING', 'COMPLETED', 'FAILED')
+    ),
+    CONSTRAINT chk_patient_import_format CHECK (format IN ('CSV', 'NDJSON'))
+);
+
+COMMENT ON TABLE patient_import_jobs IS 'Progress and per-row error report of bulk patient imports. Patients and their REGISTER audit rows are loaded in one transaction per job.';
+COMMENT ON COLUMN patient_import_jobs.row_errors IS 'First rejected rows (capped), JSON array of {row, field, message}. No PHI values.';
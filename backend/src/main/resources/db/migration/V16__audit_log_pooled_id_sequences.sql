@@ -0,0 +1,12 @@
+-- V16: Audit log ids come from pooled sequences so Hibernate can batch audit inserts.
+-- With IDENTITY keys every persisted PatientAuditLog / AuthAuditLog had to be inserted on the
+-- spot to learn its id, which disables JDBC batching. The entities now take ids from the
+-- BIGSERIAL sequences with allocationSize 50 (pooled-lo): one nextval reserves 50 ids in memory.
+--
+-- The column defaults are unchanged, so raw-SQL writers (registration CTE, import COPY, the
+-- auth audit pipeline's multi-row INSERT) still take one nextval per row. Sequence values are
+-- 50 apart, so none falls inside another caller's reserved block: ids stay unique but are no
+-- longer dense, nor ordered by insert time across nodes — order audit rows by timestamp.
+
+ALTER SEQUENCE patient_audit_log_id_seq INCREMENT BY 50;
+ALTER SEQUENCE auth_audit_log_id_seq INCREMENT BY 50;
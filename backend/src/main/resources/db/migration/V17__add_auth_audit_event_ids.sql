@@ -0,0 +1,11 @@
+-- V17: Idempotent auth audit journal replay.
+-- Every auth audit event carries a random id from submission on; a row stores the ids of all
+-- events it stands for (several for a folded LOGIN_FAILURE burst). On startup the writer skips
+-- journaled events whose id is already stored, so a crash between INSERT and journal
+-- truncation no longer duplicates rows. Rows written before V17 have NULL.
+-- Replay looks ids up by timestamp (idx_auth_audit_timestamp), so no index on this column.
+
+ALTER TABLE auth_audit_log
+    ADD COLUMN event_ids UUID[];
+
+COMMENT ON COLUMN auth_audit_log.event_ids IS 'Ids of the submitted events this row represents; used to make journal replay idempotent.';
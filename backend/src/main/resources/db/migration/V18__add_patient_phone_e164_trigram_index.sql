@@ -0,0 +1,6 @@
+-- V18: Trigram index for partial phone numbers typed without the area code.
+-- PatientRepository.searchByPhone matches a partial number anywhere in phone_e164
+-- (LIKE '%1234567%'), so "123-4567" finds "+15551234567". A leading wildcard cannot use the
+-- varchar_pattern_ops B-tree from V14, which keeps serving exact numbers and "+1..." prefixes.
+
+CREATE INDEX idx_patients_phone_e164_trgm ON patients USING GIN (phone_e164 gin_trgm_ops);
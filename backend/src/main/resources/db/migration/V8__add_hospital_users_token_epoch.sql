@@ -0,0 +1,21 @@
+-- V8: Per-user token epoch for bulk JWT revocation.
+-- Every JWT carries the user's epoch at issue time ("epoch" claim); bumping the column
+-- invalidates all of that user's outstanding tokens at once (logout-all, deactivation,
+-- role change). Single-token logout still uses token_blacklist.
+
+ALTER TABLE hospital_users
+    ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE hospital_users
+    ADD CONSTRAINT chk_hospital_users_token_epoch CHECK (token_epoch >= 0);
+
+ALTER TABLE auth_audit_log DROP CONSTRAINT chk_auth_audit_event_type;
+ALTER TABLE auth_audit_log ADD CONSTRAINT chk_auth_audit_event_type CHECK (
+    event_type IN (
+        'LOGIN_SUCCESS', 'LOGIN_FAILURE', 'ACCOUNT_LOCKED',
+        'LOGOUT', 'LOGOUT_ALL', 'TOKEN_REFRESH',
+        'USER_CREATED', 'USER_UPDATED', 'USER_DEACTIVATED'
+    )
+);
+
+COMMENT ON COLUMN hospital_users.token_epoch IS 'Token generation. JWTs whose epoch claim is lower are rejected. Only ever incremented.';
@@ -0,0 +1,12 @@
+-- V9: Folded LOGIN_FAILURE bursts.
+-- The asynchronous auth audit writer collapses identical LOGIN_FAILURE events (same actor,
+-- IP and details) that arrive within one write batch into a single row; event_count records
+-- how many attempts the row stands for and timestamp is the first of them.
+
+ALTER TABLE auth_audit_log
+    ADD COLUMN event_count INTEGER NOT NULL DEFAULT 1;
+
+ALTER TABLE auth_audit_log
+    ADD CONSTRAINT chk_auth_audit_event_count CHECK (event_count >= 1);
+
+COMMENT ON COLUMN auth_audit_log.event_count IS 'Number of identical events this row represents (> 1 only for folded LOGIN_FAILURE bursts).';
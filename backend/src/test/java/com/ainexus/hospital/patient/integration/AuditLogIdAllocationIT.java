@@ -0,0 +1,68 @@
+package com.ainexus.hospital.patient.integration;
+
+import com.ainexus.hospital.patient.entity.PatientAuditLog;
+import com.ainexus.hospital.patient.repository.PatientAuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for pooled audit log ids (V16): JPA inserts reserve ids 50 at a time and
+ * share the sequence with raw-SQL inserts that use the column default.
+ */
+class AuditLogIdAllocationIT extends BaseIntegrationTest {
+
+    @Autowired private PatientAuditLogRepository auditLogRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private List<PatientAuditLog> entries(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> PatientAuditLog.builder()
+                        .operation("DEACTIVATE")
+                        .patientId(String.format("P2026%03d", i + 1))
+                        .performedBy("admin1")
+                        .build())
+                .toList();
+    }
+
+    private void saveInOneTransaction(List<PatientAuditLog> entries) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> auditLogRepository.saveAll(entries));
+    }
+
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM patient_audit_log_id_seq", Long.class);
+    }
+
+    @Test
+    void saveAll_reservesIdsFiftyAtATime() {
+        long before = sequenceValue();
+
+        saveInOneTransaction(entries(120));
+
+        // Three nextval calls at most, not one per row
+        assertThat(sequenceValue() - before).isLessThanOrEqualTo(150);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM patient_audit_log", Integer.class)).isEqualTo(120);
+    }
+
+    @Test
+    void rawInsertsWhileABlockIsReserved_neverReuseItsIds() {
+        saveInOneTransaction(entries(1));
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO patient_audit_log (operation, patient_id, performed_by)
+                    VALUES ('REGISTER', 'P2026900', 'admin1')
+                    """);
+        }
+        saveInOneTransaction(entries(60));
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT id) FROM patient_audit_log", Integer.class)).isEqualTo(64);
+    }
+}
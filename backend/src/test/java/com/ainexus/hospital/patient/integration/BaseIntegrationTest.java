@@ -1,5 +1,8 @@
 package com.ainexus.hospital.patient.integration;
 
+import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import com.ainexus.hospital.patient.service.PatientProfileCache;
+import com.ainexus.hospital.patient.service.StaffDirectory;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +58,15 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private StaffDirectory staffDirectory;
+
+    @Autowired
+    private PatientProfileCache profileCache;
+
+    @Autowired
+    private PatientIdGeneratorService idGeneratorService;
+
     @BeforeEach
     void setUpBaseTest() {
         // Configure Apache HttpClient so TestRestTemplate supports PATCH (HttpURLConnection lacks it)
@@ -65,6 +77,14 @@ public abstract class BaseIntegrationTest {
         jdbcTemplate.execute("TRUNCATE TABLE patient_audit_log RESTART IDENTITY CASCADE");
         jdbcTemplate.execute("TRUNCATE TABLE patient_id_sequences CASCADE");
         jdbcTemplate.execute("TRUNCATE TABLE patients CASCADE");
+        jdbcTemplate.execute("TRUNCATE TABLE patient_import_jobs");
+
+        // Tests seed and truncate hospital_users directly, bypassing StaffDirectory invalidation
+        staffDirectory.invalidateAll();
+        // ...and patients, reusing patient IDs across tests
+        profileCache.invalidateAll();
+        // ...and patient_id_sequences, under the blocks this node has reserved
+        idGeneratorService.discardBlocks();
     }
 
     protected String baseUrl(String path) {
@@ -0,0 +1,161 @@
+package com.ainexus.hospital.patient.integration;
+
+import com.ainexus.hospital.patient.dto.response.PatientImportJobResponse;
+import com.ainexus.hospital.patient.dto.response.PatientRegistrationResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Integration tests for bulk patient import (POST /api/v1/patients/import).
+ */
+class PatientImportIT extends BaseIntegrationTest {
+
+    private static final String IMPORT_PATH = "/api/v1/patients/import";
+
+    private static final String CSV = """
+            firstName,lastName,dateOfBirth,gender,bloodGroup,phone,email,address
+            Jane,Smith,1985-06-15,FEMALE,A_POS,555-123-4567,jane@example.com,"12 Main St, Apt ""B"""
+            Bob,,1990-01-01,MALE,,555-987-6543,,
+            Carol,Jones,1970-03-03,FEMALE,,(555) 222-3333,,
+            Dave,Brown,1960-04-04,MALE,O_NEG,12345,,
+            Erin,O'Neil,2000-05-05,OTHER,,+1-555-444-5555,,
+            """;
+
+    private HttpEntity<String> upload(String body, String contentType, String role) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.set("Authorization", "Bearer " + buildTestJwt(role));
+        return new HttpEntity<>(body, headers);
+    }
+
+    private HttpEntity<Void> authRequest(String role) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", "Bearer " + buildTestJwt(role));
+        return new HttpEntity<>(headers);
+    }
+
+    private PatientImportJobResponse awaitFinished(UUID jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 300; attempt++) {
+            PatientImportJobResponse job = restTemplate.exchange(baseUrl(IMPORT_PATH + "/" + jobId),
+                    HttpMethod.GET, authRequest("ADMIN"), PatientImportJobResponse.class).getBody();
+            if (job.status().equals("COMPLETED") || job.status().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import " + jobId + " did not finish");
+    }
+
+    @Test
+    void csvImport_asAdmin_loadsValidRowsWithAuditAndReportsRejectedRows() throws Exception {
+        ResponseEntity<PatientImportJobResponse> response = restTemplate.exchange(
+                baseUrl(IMPORT_PATH), HttpMethod.POST, upload(CSV, "text/csv", "ADMIN"),
+                PatientImportJobResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getBody().format()).isEqualTo("CSV");
+
+        PatientImportJobResponse job = awaitFinished(response.getBody().jobId());
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.rowsRead()).isEqualTo(5);
+        assertThat(job.rowsImported()).isEqualTo(3);
+        assertThat(job.rowsRejected()).isEqualTo(2);
+        assertThat(job.rowErrors()).extracting(PatientImportJobResponse.RowError::row,
+                        PatientImportJobResponse.RowError::field)
+                .containsExactly(tuple(2, "lastName"),
+                        tuple(4, "phone"));
+        assertThat(job.finishedAt()).isNotNull();
+
+        // One contiguous range, in upload order
+        String year = String.valueOf(LocalDate.now().getYear());
+        List<Map<String, Object>> patients = jdbcTemplate.queryForList(
+                "SELECT patient_id, first_name, address, blood_group, status, created_by FROM patients ORDER BY patient_id");
+        assertThat(patients).extracting(p -> p.get("patient_id"))
+                .containsExactly("P" + year + "001", "P" + year + "002", "P" + year + "003");
+        assertThat(patients).extracting(p -> p.get("first_name")).containsExactly("Jane", "Carol", "Erin");
+        assertThat(patients.get(0)).containsEntry("address", "12 Main St, Apt \"B\"")
+                .containsEntry("blood_group", "A_POS")
+                .containsEntry("status", "ACTIVE")
+                .containsEntry("created_by", "admin1");
+        assertThat(patients.get(1)).containsEntry("blood_group", "UNKNOWN");
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT patient_id FROM patient_audit_log WHERE operation = 'REGISTER' AND performed_by = 'admin1'",
+                String.class)).containsExactlyInAnyOrder("P" + year + "001", "P" + year + "002", "P" + year + "003");
+
+        // The next registration does not reuse the imported range
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer " + buildTestJwt("RECEPTIONIST"));
+        ResponseEntity<PatientRegistrationResponse> registered = restTemplate.exchange(
+                baseUrl("/api/v1/patients"), HttpMethod.POST,
+                new HttpEntity<>(Map.of("firstName", "Fay", "lastName", "Green", "dateOfBirth", "1995-01-01",
+                        "gender", "FEMALE", "phone", "555-666-7777"), headers),
+                PatientRegistrationResponse.class);
+        assertThat(registered.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(registered.getBody().patientId()).isEqualTo("P" + year + "004");
+    }
+
+    @Test
+    void ndjsonImport_asAdmin_loadsEachLine() throws Exception {
+        String ndjson = """
+                {"firstName":"Jane","lastName":"Smith","dateOfBirth":"1985-06-15","gender":"FEMALE","phone":"555-123-4567"}
+                {"firstName":"Bob","lastName":"Jones","dateOfBirth":"1990-01-01","gender":"ROBOT","phone":"555-987-6543"}
+                """;
+
+        ResponseEntity<PatientImportJobResponse> response = restTemplate.exchange(
+                baseUrl(IMPORT_PATH), HttpMethod.POST, upload(ndjson, "application/x-ndjson", "ADMIN"),
+                PatientImportJobResponse.class);
+        PatientImportJobResponse job = awaitFinished(response.getBody().jobId());
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.rowsImported()).isEqualTo(1);
+        assertThat(job.rowErrors()).singleElement()
+                .satisfies(error -> assertThat(error.field()).isEqualTo("gender"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void malformedCsv_failsJobAndImportsNothing() throws Exception {
+        String csv = """
+                firstName,lastName,dateOfBirth,gender,phone
+                Jane,Smith,1985-06-15,FEMALE,555-123-4567
+                Bob,Jones,1990-01-01,MALE,555-987-6543,unexpected
+                """;
+
+        ResponseEntity<PatientImportJobResponse> response = restTemplate.exchange(
+                baseUrl(IMPORT_PATH), HttpMethod.POST, upload(csv, "text/csv", "ADMIN"),
+                PatientImportJobResponse.class);
+        PatientImportJobResponse job = awaitFinished(response.getBody().jobId());
+
+        assertThat(job.status()).isEqualTo("FAILED");
+        assertThat(job.failureReason()).contains("record 2");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_audit_log", Integer.class)).isZero();
+    }
+
+    @Test
+    void importPatients_asReceptionist_returns403() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl(IMPORT_PATH), HttpMethod.POST, upload(CSV, "text/csv", "RECEPTIONIST"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_import_jobs", Integer.class)).isZero();
+    }
+
+    @Test
+    void getImportJob_unknownId_returns404() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl(IMPORT_PATH + "/" + UUID.randomUUID()), HttpMethod.GET, authRequest("ADMIN"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -1,10 +1,22 @@
 package com.ainexus.hospital.patient.integration;
 
 import com.ainexus.hospital.patient.dto.response.PatientRegistrationResponse;
+import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,6 +33,9 @@ class PatientRegistrationIT extends BaseIntegrationTest {
 
     private static final String REGISTER_PATH = "/api/v1/patients";
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Map<String, Object> validPayload() {
         return Map.of(
                 "firstName", "Jane",
@@ -53,6 +68,25 @@ class PatientRegistrationIT extends BaseIntegrationTest {
         assertThat(response.getBody().message()).contains(response.getBody().patientId());
     }
 
+    @Test
+    void registerPatient_writesPatientAndRegisterAuditEntryTogether() {
+        ResponseEntity<PatientRegistrationResponse> response = restTemplate.exchange(
+                baseUrl(REGISTER_PATH), HttpMethod.POST, requestWithAuth(validPayload(), "RECEPTIONIST"),
+                PatientRegistrationResponse.class);
+        String patientId = response.getBody().patientId();
+
+        Map<String, Object> patient = jdbcTemplate.queryForMap(
+                "SELECT status, blood_group, phone_e164, version FROM patients WHERE patient_id = ?",
+                patientId);
+        assertThat(patient).containsEntry("status", "ACTIVE")
+                .containsEntry("blood_group", "UNKNOWN")
+                .containsEntry("phone_e164", "+15551234567")
+                .containsEntry("version", 0);
+        List<Map<String, Object>> audit = jdbcTemplate.queryForList(
+                "SELECT operation, performed_by FROM patient_audit_log WHERE patient_id = ?", patientId);
+        assertThat(audit).containsExactly(Map.of("operation", "REGISTER", "performed_by", "receptionist1"));
+    }
+
     @Test
     void registerPatient_unauthenticated_returns401() {
         HttpHeaders headers = new HttpHeaders();
@@ -117,4 +151,36 @@ class PatientRegistrationIT extends BaseIntegrationTest {
         assertThat(r2.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(r1.getBody().patientId()).isNotEqualTo(r2.getBody().patientId());
     }
+
+    @Test
+    void generatePatientId_concurrentNodes_neverIssueTheSameId() throws Exception {
+        // Two generators stand in for two nodes sharing the sequence row
+        List<PatientIdGeneratorService> nodes = List.of(
+                new PatientIdGeneratorService(jdbcTemplate, transactionManager, new SimpleMeterRegistry(), 7),
+                new PatientIdGeneratorService(jdbcTemplate, transactionManager, new SimpleMeterRegistry(), 7));
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                PatientIdGeneratorService node = nodes.get(t % 2);
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        ids.add(node.generatePatientId(2030));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(600).allMatch(id -> id.startsWith("P2030"));
+        Integer reserved = jdbcTemplate.queryForObject(
+                "SELECT last_sequence FROM patient_id_sequences WHERE year = 2030", Integer.class);
+        assertThat(reserved).isBetween(600, 600 + 2 * 7);
+    }
 }
@@ -0,0 +1,88 @@
+package com.ainexus.hospital.patient.integration;
+
+import com.ainexus.hospital.patient.dto.response.PatientRegistrationResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent registrations when every one of them has to reserve a Patient ID block
+ * (block size 1) and there are more of them than pooled connections. The waiters for the
+ * next block must not hold a connection, or the reserving call cannot get one and the
+ * registrations fail with a connection timeout.
+ *
+ * Runs in its own application context (small pool, block size 1).
+ */
+@TestPropertySource(properties = {
+        "app.patient.id-block-size=1",
+        "spring.datasource.hikari.maximum-pool-size=" + PatientRegistrationPoolIT.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=1"
+})
+class PatientRegistrationPoolIT extends BaseIntegrationTest {
+
+    static final int POOL_SIZE = 4;
+    private static final int REGISTRATIONS = POOL_SIZE * 6;
+
+    private HttpEntity<Map<String, Object>> registration(int i) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Authorization", "Bearer " + buildTestJwt("RECEPTIONIST"));
+        return new HttpEntity<>(Map.of(
+                "firstName", "Jane",
+                "lastName", "Smith",
+                "dateOfBirth", "1985-06-15",
+                "gender", "FEMALE",
+                "phone", String.format("555-123-%04d", i)), headers);
+    }
+
+    @Test
+    void registerPatient_moreConcurrentCallsThanConnections_allSucceedWithDistinctIds() throws Exception {
+        // The default client allows 5 connections per route; send every registration at once
+        restTemplate.getRestTemplate().setRequestFactory(new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom()
+                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnPerRoute(REGISTRATIONS)
+                                .setMaxConnTotal(REGISTRATIONS)
+                                .build())
+                        .build()));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(REGISTRATIONS);
+        List<ResponseEntity<PatientRegistrationResponse>> responses = new ArrayList<>();
+        try {
+            List<Future<ResponseEntity<PatientRegistrationResponse>>> futures = new ArrayList<>();
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                HttpEntity<Map<String, Object>> request = registration(i);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return restTemplate.exchange(baseUrl("/api/v1/patients"), HttpMethod.POST, request,
+                            PatientRegistrationResponse.class);
+                }));
+            }
+            start.countDown();
+            for (Future<ResponseEntity<PatientRegistrationResponse>> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(responses).allSatisfy(r -> assertThat(r.getStatusCode()).isEqualTo(HttpStatus.CREATED));
+        assertThat(responses.stream().map(r -> r.getBody().patientId()).distinct()).hasSize(REGISTRATIONS);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patients", Integer.class))
+                .isEqualTo(REGISTRATIONS);
+    }
+}
@@ -1,6 +1,8 @@
 package com.ainexus.hospital.patient.integration;
 
 import com.ainexus.hospital.patient.dto.response.PagedResponse;
+import com.ainexus.hospital.patient.dto.response.PatientFacetsResponse;
+import com.ainexus.hospital.patient.pagination.CountMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -116,6 +118,104 @@ class PatientSearchIT extends BaseIntegrationTest {
         assertThat(response.getBody().totalElements()).isEqualTo(20);
     }
 
+    @Test
+    void searchPatients_multiWordName_matchesWordPrefixesInAnyOrder() {
+        ResponseEntity<PagedResponse> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=smi jan&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().totalElements()).isEqualTo(20);
+
+        ResponseEntity<PagedResponse> none = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=jane jones&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+        assertThat(none.getBody().totalElements()).isEqualTo(0);
+    }
+
+    @Test
+    void searchPatients_phoneticMatch_findsMisspelledNames() {
+        ResponseEntity<PagedResponse> fullName = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=Jain Smyth&match=PHONETIC&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+
+        assertThat(fullName.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(fullName.getBody().totalElements()).isEqualTo(20);
+
+        ResponseEntity<PagedResponse> lastName = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=Jonez&match=PHONETIC&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+        assertThat(lastName.getBody().totalElements()).isEqualTo(4);
+
+        // Without PHONETIC the misspelling matches nothing
+        ResponseEntity<PagedResponse> standard = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=Jain Smyth&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+        assertThat(standard.getBody().totalElements()).isEqualTo(0);
+    }
+
+    @Test
+    void searchPatients_phoneInAnotherFormat_matchesNormalizedNumber() {
+        ResponseEntity<PagedResponse> exact = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=(555) 001-0001&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+
+        assertThat(exact.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exact.getBody().totalElements()).isEqualTo(1);
+
+        ResponseEntity<PagedResponse> prefix = restTemplate.exchange(
+                baseUrl("/api/v1/patients?query=555 021 0&status=ACTIVE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"),
+                PagedResponse.class);
+        assertThat(prefix.getBody().totalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void searchPatients_localNumberWithoutAreaCode_matchesStoredNumber() {
+        // P2026021 is stored as "555-021-0002"; the front desk types the seven-digit local number
+        for (String query : List.of("021-0002", "0210002")) {
+            ResponseEntity<PagedResponse> response = restTemplate.exchange(
+                    baseUrl("/api/v1/patients?query=" + query + "&status=ACTIVE"),
+                    HttpMethod.GET, authRequest("RECEPTIONIST"),
+                    PagedResponse.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().totalElements()).as(query).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void checkDuplicatePhone_anotherFormat_findsExistingPatient() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/check-phone?phone=(555) 001-0001"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("duplicate")).isEqualTo(true);
+        assertThat(response.getBody().get("patientId")).isEqualTo("P2026001");
+    }
+
+    @Test
+    void checkDuplicatePhone_severalOtherPatientsShareTheNumber_reportsOne() {
+        // P2026001 is stored as "555-001-0001"; two more patients hold it in other formats
+        jdbcTemplate.update("UPDATE patients SET phone = '(555) 001-0001' WHERE patient_id = 'P2026002'");
+        jdbcTemplate.update("UPDATE patients SET phone = '+1-555-001-0001' WHERE patient_id = 'P2026003'");
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/check-phone?phone=555-001-0001&excludePatientId=P2026003"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("duplicate")).isEqualTo(true);
+        assertThat(response.getBody().get("patientId")).isIn("P2026001", "P2026002");
+    }
+
     @Test
     void searchPatients_statusAll_includesInactiveCount() {
         ResponseEntity<PagedResponse> response = restTemplate.exchange(
@@ -172,6 +272,105 @@ class PatientSearchIT extends BaseIntegrationTest {
         }
     }
 
+    @Test
+    void searchPatients_countModeNone_omitsTotalsButKeepsLastFlag() {
+        ResponseEntity<PagedResponse> first = restTemplate.exchange(
+                baseUrl("/api/v1/patients?status=ACTIVE&countMode=NONE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), PagedResponse.class);
+        ResponseEntity<PagedResponse> second = restTemplate.exchange(
+                baseUrl("/api/v1/patients?status=ACTIVE&countMode=NONE&page=1"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), PagedResponse.class);
+
+        assertThat(first.getBody().totalElements()).isNull();
+        assertThat(first.getBody().content()).hasSize(20);
+        assertThat(first.getBody().last()).isFalse();
+        assertThat(second.getBody().content()).hasSize(4);
+        assertThat(second.getBody().last()).isTrue();
+    }
+
+    @Test
+    void searchPatients_countModeEstimate_returnsTotal() {
+        ResponseEntity<PagedResponse> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients?status=ACTIVE&gender=MALE&countMode=ESTIMATE"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), PagedResponse.class);
+
+        assertThat(response.getBody().totalElements()).isEqualTo(4);
+        assertThat(response.getBody().countMode()).isEqualTo(CountMode.ESTIMATE);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scrollPatients_byLastName_walksEveryActivePatientOnce() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = "/api/v1/patients/scroll?status=ACTIVE&sort=lastName&size=10"
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    baseUrl(url), HttpMethod.GET, authRequest("RECEPTIONIST"), Map.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+            for (Map<String, Object> row : (List<Map<String, Object>>) response.getBody().get("content")) {
+                seen.add((String) row.get("lastName") + "/" + row.get("patientId"));
+            }
+            cursor = (String) response.getBody().get("next");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(24).doesNotHaveDuplicates().isSorted();
+        assertThat(seen.get(0)).isEqualTo("Jones/P2026021");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scrollPatients_phoneInAnotherFormat_matchesLikeSearch() {
+        for (String query : List.of("(555) 021-0002", "021-0002")) {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                    baseUrl("/api/v1/patients/scroll?query=" + query + "&status=ACTIVE"),
+                    HttpMethod.GET, authRequest("RECEPTIONIST"), Map.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat((List<Map<String, Object>>) response.getBody().get("content"))
+                    .as(query).extracting(row -> row.get("patientId")).containsExactly("P2026021");
+        }
+    }
+
+    @Test
+    void scrollPatients_malformedCursor_returns400() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/scroll?cursor=bm90LWEtY3Vyc29y"),
+                HttpMethod.GET, authRequest("RECEPTIONIST"), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void getPatientFacets_countsEachFacetUnderTheOtherFilters() {
+        ResponseEntity<PatientFacetsResponse> all = restTemplate.exchange(
+                baseUrl("/api/v1/patients/facets?status=ACTIVE&gender=MALE"),
+                HttpMethod.GET, authRequest("NURSE"), PatientFacetsResponse.class);
+
+        assertThat(all.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(all.getBody().total()).isEqualTo(4);
+        assertThat(all.getBody().status()).containsEntry("ACTIVE", 4L).containsEntry("INACTIVE", 0L);
+        assertThat(all.getBody().gender()).containsEntry("FEMALE", 20L).containsEntry("MALE", 4L);
+        assertThat(all.getBody().bloodGroup()).containsEntry("B_POS", 4L).containsEntry("A_POS", 0L);
+
+        ResponseEntity<PatientFacetsResponse> text = restTemplate.exchange(
+                baseUrl("/api/v1/patients/facets?query=smith&status=ALL"),
+                HttpMethod.GET, authRequest("NURSE"), PatientFacetsResponse.class);
+        assertThat(text.getBody().total()).isEqualTo(20);
+        assertThat(text.getBody().bloodGroup()).containsEntry("A_POS", 20L).containsEntry("B_POS", 0L);
+
+        ResponseEntity<PatientFacetsResponse> name = restTemplate.exchange(
+                baseUrl("/api/v1/patients/facets?query=bob jones&status=ALL"),
+                HttpMethod.GET, authRequest("NURSE"), PatientFacetsResponse.class);
+        assertThat(name.getBody().total()).isEqualTo(4);
+        assertThat(name.getBody().gender()).containsEntry("MALE", 4L);
+    }
+
     @Test
     void searchPatients_unauthenticated_returns401() {
         ResponseEntity<Map> response = restTemplate.exchange(
@@ -0,0 +1,127 @@
+package com.ainexus.hospital.patient.integration;
+
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.repository.PatientRepository;
+import com.ainexus.hospital.patient.repository.PatientSummaryView;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that patient substring search is answered by the V10 trigram indexes,
+ * multi-word name search by the V4 full-text index, and phone-number search by the
+ * V14/V18 normalized phone indexes, at 1M rows
+ * — ten times the 100,000-record volume the V4 "≤ 2 s" search SLA was written for.
+ *
+ * The EXPLAINed statements are the ones PatientRepository.search and countMatches actually
+ * sent (captured by SqlCapture, bound values inlined), so the plans follow the repository's
+ * queries as they change.
+ *
+ * Seeding takes minutes, so the test is tagged "volume" and excluded from the default
+ * build: mvn -P volume verify -Dit.test=PatientSearchIndexIT
+ */
+@Tag("volume")
+@Import(SqlCapture.class)
+class PatientSearchIndexIT extends BaseIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Test
+    void textNameAndPhoneSearch_millionRows_useTheirIndexesWithinSla() {
+        seedPatients();
+
+        // searchByText (page) and countByText
+        assertThat(searchPlans("Smithson")).hasSize(2).allSatisfy(plan -> {
+            assertThat(plan).doesNotContain("Seq Scan on patients");
+            assertThat(plan).contains("BitmapOr");
+            assertThat(plan).contains("idx_patients_last_name_trgm");
+        });
+
+        // searchIdsByName, the summaries of the page's ids, and countByName
+        List<String> namePlans = searchPlans("Anna Smithson");
+        assertThat(namePlans).allSatisfy(plan -> assertThat(plan).doesNotContain("Seq Scan on patients"));
+        assertThat(namePlans).filteredOn(plan -> plan.contains("idx_patients_full_text")).hasSize(2);
+
+        // searchByPhone and countByPhone: a partial number anywhere in phone_e164 (V18 trigram)...
+        assertThat(searchPlans("(555) 999-000")).hasSize(2).allSatisfy(plan -> {
+            assertThat(plan).doesNotContain("Seq Scan on patients");
+            assertThat(plan).contains("idx_patients_phone_e164_trgm");
+        });
+
+        // ...and a "+1" prefix (V14 varchar_pattern_ops, or V18 if the planner prefers it)
+        assertThat(searchPlans("+1 555 999 000")).hasSize(2).allSatisfy(plan -> {
+            assertThat(plan).doesNotContain("Seq Scan on patients");
+            assertThat(plan).contains("idx_patients_phone_e164");
+        });
+    }
+
+    /**
+     * Runs {@code search} (first page, within the SLA) and {@code countMatches} for ACTIVE patients
+     * matching {@code query}, expecting the 5 seeded Anna Smithsons, and returns the EXPLAIN
+     * of every patients query they sent.
+     */
+    private List<String> searchPlans(String query) {
+        long start = System.nanoTime();
+        SqlCapture.Captured<Page<PatientSummaryView>> page = sqlCapture.capture(() ->
+                patientRepository.search(query, PatientStatus.ACTIVE, null, null,
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(page.result().getTotalElements()).isEqualTo(5);
+        assertThat(elapsedMs).isLessThan(2_000);
+
+        SqlCapture.Captured<Long> count = sqlCapture.capture(() ->
+                patientRepository.countMatches(query, PatientStatus.ACTIVE, null, null));
+        assertThat(count.result()).isEqualTo(5);
+
+        return Stream.concat(page.statements().stream(), count.statements().stream())
+                .filter(statement -> statement.sql().toLowerCase(Locale.ROOT).contains("from patients "))
+                .map(statement -> explain(statement.inlined()))
+                .toList();
+    }
+
+    private void seedPatients() {
+        jdbcTemplate.update("""
+                INSERT INTO patients (patient_id, first_name, last_name, date_of_birth, gender, phone, email,
+                                      status, created_at, created_by, updated_at, updated_by)
+                SELECT 'P' || lpad(i::text, 11, '0'),
+                       initcap(substr(md5(i::text), 1, 8)),
+                       initcap(substr(md5((i + 7)::text), 1, 10)),
+                       DATE '1950-01-01' + (i % 25000),
+                       (ARRAY['MALE', 'FEMALE', 'OTHER'])[1 + i % 3],
+                       '555-' || lpad(i::text, 7, '0'),
+                       'patient' || i || '@example.org',
+                       CASE WHEN i % 10 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                       NOW() - (i || ' seconds')::interval, 'it', NOW(), 'it'
+                FROM generate_series(1, ?) AS i
+                """, ROWS - 5);
+        jdbcTemplate.update("""
+                INSERT INTO patients (patient_id, first_name, last_name, date_of_birth, gender, phone,
+                                      status, created_at, created_by, updated_at, updated_by)
+                SELECT 'P9' || lpad(i::text, 10, '0'), 'Anna', 'Smithson', DATE '1980-01-01', 'FEMALE',
+                       '555-999-000' || i, 'ACTIVE', NOW(), 'it', NOW(), 'it'
+                FROM generate_series(1, 5) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE patients");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
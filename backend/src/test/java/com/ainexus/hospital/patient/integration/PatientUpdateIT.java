@@ -7,10 +7,14 @@ import com.ainexus.hospital.patient.repository.PatientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.*;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -18,12 +22,15 @@ import static org.assertj.core.api.Assertions.assertThat;
 /**
  * Integration tests for US4: Update Patient Record.
  */
+@Import(SqlCapture.class)
 class PatientUpdateIT extends BaseIntegrationTest {
 
     @Autowired
     private PatientRepository patientRepository;
     @Autowired
     private PatientAuditLogRepository auditLogRepository;
+    @Autowired
+    private SqlCapture sqlCapture;
 
     private static final String PATIENT_ID = "P2026001";
 
@@ -58,6 +65,30 @@ class PatientUpdateIT extends BaseIntegrationTest {
         return new HttpEntity<>(body, headers);
     }
 
+    private HttpEntity<Map<String, Object>> patchRequest(Map<String, Object> patch, String role, int version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        headers.set("Authorization", "Bearer " + buildTestJwt(role));
+        headers.set("If-Match", String.valueOf(version));
+        return new HttpEntity<>(patch, headers);
+    }
+
+    private static List<String> patientUpdates(List<SqlCapture.Statement> statements) {
+        return statements.stream()
+                .map(SqlCapture.Statement::sql)
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("update patients "))
+                .toList();
+    }
+
+    /** Column names of an "update patients set a=?,b=? where ..." statement. */
+    private static List<String> assignedColumns(String updateSql) {
+        String lower = updateSql.toLowerCase(Locale.ROOT);
+        String assignments = lower.substring(lower.indexOf(" set ") + 5, lower.indexOf(" where "));
+        return Arrays.stream(assignments.split(","))
+                .map(assignment -> assignment.substring(0, assignment.indexOf('=')).trim())
+                .toList();
+    }
+
     @Test
     void updatePatient_withValidPayloadAndVersion_returns200AllFieldsUpdated() {
         HttpEntity<Map<String, Object>> request = authRequest(
@@ -154,4 +185,130 @@ class PatientUpdateIT extends BaseIntegrationTest {
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
+
+    // ── Merge patch ─────────────────────────────────────────────────────────
+
+    @Test
+    void patchPatient_onlySuppliedFieldChanges() {
+        ResponseEntity<PatientResponse> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("phone", "555-999-0000"), "RECEPTIONIST", 0), PatientResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        PatientResponse body = response.getBody();
+        assertThat(body.phone()).isEqualTo("555-999-0000");
+        assertThat(body.firstName()).isEqualTo("Jane");
+        assertThat(body.bloodGroup()).isEqualTo(BloodGroup.A_POS);
+
+        assertThat(auditLogRepository.findByPatientIdOrderByTimestampDesc(PATIENT_ID))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getOperation()).isEqualTo("UPDATE");
+                    assertThat(entry.getChangedFields()).containsExactly("phone");
+                });
+    }
+
+    @Test
+    void patchPatient_oneField_writesOnlyThatColumnAndTheBookkeeping() {
+        SqlCapture.Captured<ResponseEntity<PatientResponse>> patch = sqlCapture.capture(() -> restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("city", "Springfield"), "RECEPTIONIST", 0), PatientResponse.class));
+
+        assertThat(patch.result().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(patientUpdates(patch.statements()))
+                .singleElement()
+                .satisfies(sql -> assertThat(assignedColumns(sql))
+                        .containsExactlyInAnyOrder("city", "updated_at", "updated_by", "version"));
+    }
+
+    @Test
+    void patchPatient_emptyOrUnchanged_writesNothing() {
+        SqlCapture.Captured<List<ResponseEntity<PatientResponse>>> patches = sqlCapture.capture(() -> List.of(
+                restTemplate.exchange(baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                        patchRequest(Map.of(), "RECEPTIONIST", 0), PatientResponse.class),
+                restTemplate.exchange(baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                        patchRequest(Map.of("phone", "555-123-4567"), "RECEPTIONIST", 0), PatientResponse.class)));
+
+        assertThat(patches.result()).allSatisfy(response -> {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().version()).isZero();
+            assertThat(response.getBody().phone()).isEqualTo("555-123-4567");
+        });
+        assertThat(patientUpdates(patches.statements())).isEmpty();
+        assertThat(patientRepository.findById(PATIENT_ID).orElseThrow().getVersion()).isZero();
+        assertThat(auditLogRepository.findByPatientIdOrderByTimestampDesc(PATIENT_ID)).isEmpty();
+    }
+
+    @Test
+    void patchPatient_nullMember_clearsOptionalField() {
+        restTemplate.exchange(baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("email", "jane@example.com"), "RECEPTIONIST", 0), PatientResponse.class);
+
+        Map<String, Object> patch = new java.util.HashMap<>();
+        patch.put("email", null);
+        ResponseEntity<PatientResponse> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(patch, "RECEPTIONIST", 1), PatientResponse.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().email()).isNull();
+        assertThat(response.getBody().lastName()).isEqualTo("Smith");
+    }
+
+    @Test
+    void patchPatient_nullRequiredField_returns400WithFieldError() {
+        Map<String, Object> patch = new java.util.HashMap<>();
+        patch.put("firstName", null);
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(patch, "RECEPTIONIST", 0), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().get("fieldErrors").toString()).contains("firstName");
+        assertThat(patientRepository.findById(PATIENT_ID).orElseThrow().getFirstName()).isEqualTo("Jane");
+    }
+
+    @Test
+    void patchPatient_nonEditableOrInvalidMember_returns400() {
+        ResponseEntity<Map> status = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("status", "INACTIVE"), "RECEPTIONIST", 0), Map.class);
+        ResponseEntity<Map> gender = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("gender", "ROBOT"), "RECEPTIONIST", 0), Map.class);
+
+        assertThat(status.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(status.getBody().get("message").toString()).contains("status");
+        assertThat(gender.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(gender.getBody().get("message").toString()).contains("gender");
+    }
+
+    @Test
+    void patchPatient_withStaleVersion_returns409() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("city", "Springfield"), "RECEPTIONIST", 999), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void patchPatient_asDoctor_returns403() {
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH,
+                patchRequest(Map.of("city", "Springfield"), "DOCTOR", 0), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void patchPatient_plainJsonBody_returns415() {
+        HttpEntity<Map<String, Object>> request = authRequest(Map.of("city", "Springfield"), "RECEPTIONIST", 0);
+
+        ResponseEntity<Map> response = restTemplate.exchange(
+                baseUrl("/api/v1/patients/" + PATIENT_ID), HttpMethod.PATCH, request, Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
 }
@@ -15,7 +15,8 @@ import java.time.OffsetDateTime;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
- * Integration tests for US4 — Current User Profile (GET /api/v1/auth/me).
+ * Integration tests for US4 — Current User Profile (GET /api/v1/auth/me)
+ * and POST /api/v1/auth/logout-all.
  */
 class SessionIT extends BaseIntegrationTest {
 
@@ -86,6 +87,31 @@ class SessionIT extends BaseIntegrationTest {
         assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
 
+    // ── (d) logout-all revokes every token of the caller ──────────────────────
+
+    @Test
+    void logoutAll_revokesAllTokensOfCaller() {
+        seedUser("meuser3", "Pass@123", "DOCTOR", "ACTIVE");
+        String first = loginAndGetToken("meuser3", "Pass@123");
+        String second = loginAndGetToken("meuser3", "Pass@123");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(first);
+        ResponseEntity<Void> logoutResp = restTemplate.exchange(
+                baseUrl("/api/v1/auth/logout-all"),
+                HttpMethod.POST,
+                new HttpEntity<>(headers),
+                Void.class);
+        assertThat(logoutResp.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(meStatus(first)).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(meStatus(second)).isEqualTo(HttpStatus.UNAUTHORIZED);
+
+        // A fresh login carries the new epoch and is accepted
+        String third = loginAndGetToken("meuser3", "Pass@123");
+        assertThat(meStatus(third)).isEqualTo(HttpStatus.OK);
+    }
+
     // ── Helpers ───────────────────────────────────────────────────────────────
 
     private String loginAndGetToken(String username, String password) {
@@ -98,6 +124,16 @@ class SessionIT extends BaseIntegrationTest {
         return resp.getBody().token();
     }
 
+    private HttpStatusCode meStatus(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(
+                baseUrl("/api/v1/auth/me"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class).getStatusCode();
+    }
+
     private HospitalUser seedUser(String username, String rawPassword, String role, String status) {
         HospitalUser user = HospitalUser.builder()
                 .userId("U2025" + String.format("%03d", (int)(Math.random() * 800) + 100))
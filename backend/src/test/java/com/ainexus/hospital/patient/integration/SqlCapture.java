@@ -0,0 +1,137 @@
+package com.ainexus.hospital.patient.integration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Records the prepared statements the application sends to PostgreSQL, with their bound
+ * parameters, so an IT can assert on (or EXPLAIN) the SQL Hibernate actually generated
+ * instead of a hand-written copy of it.
+ *
+ * Add it with {@code @Import(SqlCapture.class)} — it wraps the DataSource bean — and
+ * autowire it. Only statements executed inside {@link #capture} are recorded, from any thread.
+ */
+public class SqlCapture implements BeanPostProcessor {
+
+    /** One executed (or batched) statement: the SQL with its '?' placeholders and their values. */
+    public record Statement(String sql, List<Object> parameters) {
+
+        /** The SQL with every placeholder replaced by its bound value as a literal, e.g. for EXPLAIN. */
+        public String inlined() {
+            StringBuilder out = new StringBuilder();
+            int next = 0;
+            for (char c : sql.toCharArray()) {
+                if (c == '?') {
+                    out.append(literal(parameters.get(next++)));
+                } else {
+                    out.append(c);
+                }
+            }
+            return out.toString();
+        }
+
+        private static String literal(Object value) {
+            if (value == null) return "NULL";
+            if (value instanceof Number || value instanceof Boolean) return value.toString();
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+    }
+
+    /** What {@link #capture} returns. */
+    public record Captured<T>(T result, List<Statement> statements) {
+    }
+
+    /** Calls that send the current parameters; executeBatch only flushes what addBatch recorded. */
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "addBatch");
+
+    private final List<Statement> recorded = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    /** Runs {@code action} and returns its result with the statements executed while it ran. */
+    public synchronized <T> Captured<T> capture(Supplier<T> action) {
+        recorded.clear();
+        recording = true;
+        try {
+            T result = action.get();
+            return new Captured<>(result, List.copyOf(recorded));
+        } finally {
+            recording = false;
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recording(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return recording(super.getConnection(username, password));
+                }
+            };
+        }
+        return bean;
+    }
+
+    private Connection recording(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                return recording(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement recording(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (recording && args == null && EXECUTE.contains(name)) {
+                recorded.add(new Statement(sql, new ArrayList<>(parameters.values())));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlCapture.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method, args)));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -5,15 +5,21 @@ import com.ainexus.hospital.patient.dto.request.LoginRequest;
 import com.ainexus.hospital.patient.dto.response.TokenResponse;
 import com.ainexus.hospital.patient.entity.HospitalUser;
 import com.ainexus.hospital.patient.exception.AccountLockedException;
+import com.ainexus.hospital.patient.exception.TooManyRequestsException;
 import com.ainexus.hospital.patient.mapper.StaffMapper;
 import com.ainexus.hospital.patient.repository.HospitalUserRepository;
 import com.ainexus.hospital.patient.repository.TokenBlacklistRepository;
 import com.ainexus.hospital.patient.security.AuthContext;
+import com.ainexus.hospital.patient.security.BearerToken;
+import com.ainexus.hospital.patient.security.JwtTokenService;
+import com.ainexus.hospital.patient.security.LoginAttemptLimiter;
+import com.ainexus.hospital.patient.security.TokenEpochRegistry;
+import com.ainexus.hospital.patient.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -34,14 +40,21 @@ class AuthServiceTest {
     @Mock private TokenBlacklistRepository tokenBlacklistRepository;
     @Mock private AuthAuditService authAuditService;
     @Mock private StaffMapper staffMapper;
+    @Mock private TokenRevocationRegistry tokenRevocationRegistry;
+    @Mock private LoginAttemptLimiter loginAttemptLimiter;
+    @Mock private TokenEpochRegistry tokenEpochRegistry;
+    @Mock private LastLoginRecorder lastLoginRecorder;
+    @Mock private StaffDirectory staffDirectory;
 
-    @InjectMocks
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(authService, "jwtSecret",
-                "test-secret-key-must-be-at-least-32-chars");
+        JwtTokenService jwtTokenService = new JwtTokenService(
+                "test-secret-key-must-be-at-least-32-chars", 100, new SimpleMeterRegistry());
+        authService = new AuthService(userRepository, passwordEncoder, tokenBlacklistRepository,
+                authAuditService, staffMapper, jwtTokenService, tokenRevocationRegistry,
+                loginAttemptLimiter, tokenEpochRegistry, lastLoginRecorder, staffDirectory);
         ReflectionTestUtils.setField(authService, "expirationHours", 8);
         ReflectionTestUtils.setField(authService, "lockoutMaxAttempts", 5);
         ReflectionTestUtils.setField(authService, "lockoutDurationMinutes", 15);
@@ -55,7 +68,6 @@ class AuthServiceTest {
         when(userRepository.findByUsernameIgnoreCase("doctor1"))
                 .thenReturn(Optional.of(user));
         when(passwordEncoder.matches("secret", user.getPasswordHash())).thenReturn(true);
-        when(userRepository.save(any())).thenReturn(user);
 
         TokenResponse resp = authService.login(new LoginRequest("doctor1", "secret"), "127.0.0.1");
 
@@ -68,6 +80,10 @@ class AuthServiceTest {
 
         verify(authAuditService).writeAuthLog(eq("LOGIN_SUCCESS"), eq("U2026001"),
                 isNull(), eq("SUCCESS"), eq("127.0.0.1"), isNull());
+        // Counters already clean — no entity write; last login is coalesced
+        verify(userRepository, never()).save(any());
+        verify(lastLoginRecorder).record(eq("U2026001"), any(OffsetDateTime.class));
+        verifyNoInteractions(staffDirectory);
     }
 
     // ── (b) Wrong password increments failedAttempts ──────────────────────────
@@ -88,6 +104,7 @@ class AuthServiceTest {
         verify(userRepository).save(captor.capture());
         assertThat(captor.getValue().getFailedAttempts()).isEqualTo(1);
         assertThat(captor.getValue().getLockedUntil()).isNull();
+        verify(staffDirectory).publishChange("U2026001");
     }
 
     // ── (c) 5th failure sets lockedUntil ──────────────────────────────────────
@@ -170,6 +187,27 @@ class AuthServiceTest {
         verify(userRepository).save(captor.capture());
         assertThat(captor.getValue().getFailedAttempts()).isEqualTo(0);
         assertThat(captor.getValue().getLockedUntil()).isNull();
+        verify(staffDirectory).publishChange("U2026001");
+    }
+
+    // ── Stored hash with a different BCrypt cost is re-hashed on success ─────
+
+    @Test
+    void login_storedCostLower_rehashesPassword() {
+        HospitalUser user = activeUser();
+        String oldHash = user.getPasswordHash();
+        when(userRepository.findByUsernameIgnoreCase("doctor1"))
+                .thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("secret", oldHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(oldHash)).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("$2a$11$rehashed");
+        when(userRepository.save(any())).thenReturn(user);
+
+        authService.login(new LoginRequest("doctor1", "secret"), "127.0.0.1");
+
+        ArgumentCaptor<HospitalUser> captor = ArgumentCaptor.forClass(HospitalUser.class);
+        verify(userRepository).save(captor.capture());
+        assertThat(captor.getValue().getPasswordHash()).isEqualTo("$2a$11$rehashed");
     }
 
     // ── Unknown user returns generic error ────────────────────────────────────
@@ -183,6 +221,23 @@ class AuthServiceTest {
                 new LoginRequest("unknown", "pass"), "127.0.0.1"))
                 .isInstanceOf(BadCredentialsException.class)
                 .hasMessage("Invalid username or password");
+        verify(loginAttemptLimiter).recordFailure("unknown", "127.0.0.1");
+    }
+
+    // ── Login limiter short-circuits before DB and BCrypt ─────────────────────
+
+    @Test
+    void login_limiterBlocked_rejectsWithoutTouchingRepositoryOrEncoder() {
+        when(loginAttemptLimiter.isBlocked("doctor1", "10.0.0.9")).thenReturn(true);
+        when(loginAttemptLimiter.retryAfterSeconds()).thenReturn(42L);
+
+        assertThatThrownBy(() -> authService.login(
+                new LoginRequest("doctor1", "guess"), "10.0.0.9"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .satisfies(ex -> assertThat(((TooManyRequestsException) ex).getRetryAfterSeconds())
+                        .isEqualTo(42L));
+
+        verifyNoInteractions(userRepository, passwordEncoder, authAuditService);
     }
 
     // ── issueToken produces a valid JWT with jti ──────────────────────────────
@@ -203,6 +258,7 @@ class AuthServiceTest {
         assertThat(payload).contains("\"username\":\"doctor1\"");
         assertThat(payload).contains("\"role\":\"DOCTOR\"");
         assertThat(payload).contains("\"jti\":");
+        assertThat(payload).contains("\"epoch\":0");
     }
 
     // ── Helper ────────────────────────────────────────────────────────────────
@@ -234,7 +290,7 @@ class AuthServiceTest {
         com.ainexus.hospital.patient.security.AuthContext.Holder.set(ctx);
 
         HospitalUser user = activeUser();
-        when(userRepository.findById("U2026001")).thenReturn(java.util.Optional.of(user));
+        when(staffDirectory.findById("U2026001")).thenReturn(Optional.of(StaffDirectory.Entry.of(user)));
 
         try {
             TokenResponse resp = authService.refresh("127.0.0.1");
@@ -245,6 +301,7 @@ class AuthServiceTest {
 
             verify(authAuditService).writeAuthLog(eq("TOKEN_REFRESH"), eq("U2026001"),
                     isNull(), eq("SUCCESS"), eq("127.0.0.1"), isNull());
+            verifyNoInteractions(userRepository);
         } finally {
             com.ainexus.hospital.patient.security.AuthContext.Holder.clear();
         }
@@ -266,11 +323,12 @@ class AuthServiceTest {
         com.ainexus.hospital.patient.security.AuthContext.Holder.set(ctx);
 
         try {
-            authService.logout(tokenResp.token(), "192.168.1.1");
+            authService.logout(BearerToken.of(tokenResp.token()), "192.168.1.1");
 
             verify(tokenBlacklistRepository).save(argThat(entry ->
                     entry.getJti() != null && entry.getUserId().equals("U2026001")
                             && entry.getExpiresAt() != null));
+            verify(tokenRevocationRegistry).publishRevocation(anyString(), any());
             verify(authAuditService).writeAuthLog(eq("LOGOUT"), eq("U2026001"),
                     isNull(), eq("SUCCESS"), eq("192.168.1.1"), isNull());
         } finally {
@@ -278,6 +336,28 @@ class AuthServiceTest {
         }
     }
 
+    @Test
+    void logoutAll_bumpsTokenEpochAndPublishes() {
+        HospitalUser user = activeUser();
+        user.setTokenEpoch(3);
+        when(userRepository.findById("U2026001")).thenReturn(Optional.of(user));
+        AuthContext.Holder.set(new AuthContext("U2026001", "doctor1", "DOCTOR"));
+
+        try {
+            authService.logoutAll("192.168.1.1");
+
+            ArgumentCaptor<HospitalUser> captor = ArgumentCaptor.forClass(HospitalUser.class);
+            verify(userRepository).save(captor.capture());
+            assertThat(captor.getValue().getTokenEpoch()).isEqualTo(4);
+            verify(tokenEpochRegistry).publishEpoch("U2026001", 4);
+            verify(staffDirectory).publishChange("U2026001");
+            verify(authAuditService).writeAuthLog(eq("LOGOUT_ALL"), eq("U2026001"),
+                    isNull(), eq("SUCCESS"), eq("192.168.1.1"), isNull());
+        } finally {
+            AuthContext.Holder.clear();
+        }
+    }
+
     // ════════════════════════════════════════════════════════════════════════
     // US4 — getCurrentUser (T044)
     // ════════════════════════════════════════════════════════════════════════
@@ -288,8 +368,8 @@ class AuthServiceTest {
                 new com.ainexus.hospital.patient.security.AuthContext("U2026001", "doctor1", "DOCTOR");
         com.ainexus.hospital.patient.security.AuthContext.Holder.set(ctx);
 
-        HospitalUser user = activeUser();
-        when(userRepository.findById("U2026001")).thenReturn(java.util.Optional.of(user));
+        StaffDirectory.Entry user = StaffDirectory.Entry.of(activeUser());
+        when(staffDirectory.findById("U2026001")).thenReturn(Optional.of(user));
 
         com.ainexus.hospital.patient.dto.response.UserProfileResponse expected =
                 new com.ainexus.hospital.patient.dto.response.UserProfileResponse(
@@ -12,6 +12,7 @@ import com.ainexus.hospital.patient.mapper.StaffMapper;
 import com.ainexus.hospital.patient.repository.HospitalUserRepository;
 import com.ainexus.hospital.patient.security.AuthContext;
 import com.ainexus.hospital.patient.security.RoleGuard;
+import com.ainexus.hospital.patient.security.TokenEpochRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +21,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.OffsetDateTime;
@@ -37,6 +41,8 @@ class StaffServiceTest {
     @Mock private StaffIdGeneratorService staffIdGeneratorService;
     @Mock private AuthAuditService authAuditService;
     @Mock private StaffMapper staffMapper;
+    @Mock private TokenEpochRegistry tokenEpochRegistry;
+    @Mock private StaffDirectory staffDirectory;
 
     @InjectMocks
     private StaffService staffService;
@@ -62,7 +68,7 @@ class StaffServiceTest {
 
     @Test
     void createUser_happyPath_savesAndReturnsDetail() {
-        when(userRepository.existsByUsernameIgnoreCase("newdoc")).thenReturn(false);
+        when(staffDirectory.findByUsername("newdoc")).thenReturn(Optional.empty());
         when(staffIdGeneratorService.generateStaffId()).thenReturn("U2026002");
         when(passwordEncoder.encode("Doctor@123")).thenReturn("$2a$12$hashed");
         when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -70,7 +76,7 @@ class StaffServiceTest {
         UserDetailResponse expected = new UserDetailResponse(
                 "U2026002", "newdoc", "DOCTOR", null, null,
                 "ACTIVE", null, OffsetDateTime.now(), "admin", 0);
-        when(staffMapper.toDetailResponse(any())).thenReturn(expected);
+        when(staffMapper.toDetailResponse(any(HospitalUser.class))).thenReturn(expected);
 
         CreateUserRequest req = new CreateUserRequest("newdoc", "Doctor@123", "DOCTOR", null, null);
         UserDetailResponse result = staffService.createUser(req, "admin");
@@ -84,13 +90,15 @@ class StaffServiceTest {
         assertThat(saved.getPasswordHash()).isEqualTo("$2a$12$hashed");
         assertThat(saved.getUserId()).isEqualTo("U2026002");
         assertThat(saved.getStatus()).isEqualTo("ACTIVE");
+        verify(staffDirectory).publishChange("U2026002");
     }
 
     // ── (b) createUser with duplicate username throws UsernameConflictException ──
 
     @Test
     void createUser_duplicateUsername_throwsUsernameConflictException() {
-        when(userRepository.existsByUsernameIgnoreCase("existing")).thenReturn(true);
+        when(staffDirectory.findByUsername("existing"))
+                .thenReturn(Optional.of(StaffDirectory.Entry.of(activeUser("U2026009", 0))));
 
         CreateUserRequest req = new CreateUserRequest("existing", "Doctor@123", "DOCTOR", null, null);
 
@@ -106,7 +114,7 @@ class StaffServiceTest {
         HospitalUser user = activeUser("U2026003", 5);
         when(userRepository.findById("U2026003")).thenReturn(Optional.of(user));
         when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-        when(staffMapper.toDetailResponse(any())).thenReturn(mockDetailResponse("U2026003"));
+        when(staffMapper.toDetailResponse(any(HospitalUser.class))).thenReturn(mockDetailResponse("U2026003"));
 
         UpdateUserRequest req = new UpdateUserRequest("new@hospital.local", "Cardiology", null);
         staffService.updateUser("U2026003", req, 5, "admin");
@@ -115,6 +123,49 @@ class StaffServiceTest {
         verify(userRepository).save(captor.capture());
         assertThat(captor.getValue().getEmail()).isEqualTo("new@hospital.local");
         assertThat(captor.getValue().getDepartment()).isEqualTo("Cardiology");
+        assertThat(captor.getValue().getTokenEpoch()).isEqualTo(0);
+        verifyNoInteractions(tokenEpochRegistry);
+    }
+
+    @Test
+    void updateUser_roleChange_bumpsTokenEpoch() {
+        HospitalUser user = activeUser("U2026003", 5);
+        when(userRepository.findById("U2026003")).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(staffMapper.toDetailResponse(any(HospitalUser.class))).thenReturn(mockDetailResponse("U2026003"));
+
+        staffService.updateUser("U2026003", new UpdateUserRequest(null, null, "NURSE"), 5, "admin");
+
+        ArgumentCaptor<HospitalUser> captor = ArgumentCaptor.forClass(HospitalUser.class);
+        verify(userRepository).save(captor.capture());
+        assertThat(captor.getValue().getRole()).isEqualTo("NURSE");
+        assertThat(captor.getValue().getTokenEpoch()).isEqualTo(1);
+        verify(tokenEpochRegistry).publishEpoch("U2026003", 1);
+    }
+
+    // ── Reads are served by StaffDirectory ──────────────────────────────────
+
+    @Test
+    void getUserById_servedFromDirectory() {
+        StaffDirectory.Entry entry = StaffDirectory.Entry.of(activeUser("U2026003", 5));
+        when(staffDirectory.findById("U2026003")).thenReturn(Optional.of(entry));
+        when(staffMapper.toDetailResponse(entry)).thenReturn(mockDetailResponse("U2026003"));
+
+        UserDetailResponse result = staffService.getUserById("U2026003");
+
+        assertThat(result.userId()).isEqualTo("U2026003");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listUsers_unknownSortProperty_fallsBackToRepository() {
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("updatedAt"));
+        when(userRepository.findByRole("DOCTOR", pageable)).thenReturn(Page.empty(pageable));
+
+        staffService.listUsers("DOCTOR", null, pageable);
+
+        verify(userRepository).findByRole("DOCTOR", pageable);
+        verifyNoInteractions(staffDirectory);
     }
 
     // ── (d) updateUser with wrong version throws VersionConflictException ────
@@ -142,6 +193,9 @@ class StaffServiceTest {
         ArgumentCaptor<HospitalUser> captor = ArgumentCaptor.forClass(HospitalUser.class);
         verify(userRepository).save(captor.capture());
         assertThat(captor.getValue().getStatus()).isEqualTo("INACTIVE");
+        assertThat(captor.getValue().getTokenEpoch()).isEqualTo(1);
+        verify(tokenEpochRegistry).publishEpoch("U2026004", 1);
+        verify(staffDirectory).publishChange("U2026004");
     }
 
     // ── (f) ADMIN cannot deactivate their own account → ForbiddenException ───
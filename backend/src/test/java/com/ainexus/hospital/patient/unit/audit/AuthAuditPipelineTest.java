@@ -0,0 +1,169 @@
+package com.ainexus.hospital.patient.unit.audit;
+
+import com.ainexus.hospital.patient.audit.AuthAuditEvent;
+import com.ainexus.hospital.patient.audit.AuthAuditPipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthAuditPipelineTest {
+
+    private static final int COLUMNS = 9;
+
+    @Mock private JdbcTemplate jdbcTemplate;
+
+    @TempDir Path tempDir;
+
+    private MeterRegistry meterRegistry;
+    private Path journal;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        journal = tempDir.resolve("auth-audit.journal");
+    }
+
+    @Test
+    void flush_loginFailureBurst_foldedIntoOneRowWithCount() throws Exception {
+        AuthAuditPipeline pipeline = pipeline(100);
+        pipeline.submit(event(1_000, "LOGIN_FAILURE", "U2026001", "10.0.0.1"));
+        pipeline.submit(event(2_000, "LOGIN_FAILURE", "U2026001", "10.0.0.1"));
+        pipeline.submit(event(3_000, "LOGIN_SUCCESS", "U2026001", "10.0.0.1"));
+        pipeline.submit(event(4_000, "LOGIN_FAILURE", "U2026001", "10.0.0.1"));
+        pipeline.submit(event(5_000, "LOGIN_FAILURE", "U2026001", "10.0.0.2"));
+
+        assertThat(pipeline.flush()).isEqualTo(5);
+
+        Object[] args = capturedInsertArgs();
+        assertThat(args).hasSize(3 * COLUMNS);
+        // Row 1: the three failures from 10.0.0.1, stamped with the first of them
+        assertThat(args[0]).isEqualTo(new Timestamp(1_000));
+        assertThat(args[1]).isEqualTo("LOGIN_FAILURE");
+        assertThat(args[5]).isEqualTo("10.0.0.1");
+        assertThat(args[7]).isEqualTo(3);
+        assertThat((String) args[8]).matches("\\{[-0-9a-f]{36}(,[-0-9a-f]{36}){2}}");
+        // Row 2: the success keeps its own row
+        assertThat(args[COLUMNS + 1]).isEqualTo("LOGIN_SUCCESS");
+        assertThat(args[COLUMNS + 7]).isEqualTo(1);
+        // Row 3: different IP — not folded
+        assertThat(args[2 * COLUMNS + 5]).isEqualTo("10.0.0.2");
+        assertThat(args[2 * COLUMNS + 7]).isEqualTo(1);
+
+        assertThat(meterRegistry.counter("auth.audit.folded.total").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.summary("auth.audit.batch.size").totalAmount()).isEqualTo(3.0);
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    @Test
+    void start_replaysEventsLeftInJournal() throws Exception {
+        AuthAuditPipeline crashed = pipeline(100);
+        crashed.submit(event(1_000, "LOGOUT", "U2026001", "10.0.0.1"));
+        crashed.submit(event(2_000, "TOKEN_REFRESH", "U2026002", "10.0.0.2"));
+        assertThat(Files.readAllLines(journal)).hasSize(2);
+
+        AuthAuditPipeline restarted = pipeline(100);
+        restarted.start();
+        restarted.stop();
+
+        Object[] args = capturedInsertArgs();
+        assertThat(args).hasSize(2 * COLUMNS);
+        assertThat(args[1]).isEqualTo("LOGOUT");
+        assertThat(args[COLUMNS + 2]).isEqualTo("U2026002");
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    @Test
+    void flush_databaseDown_keepsJournal() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class), any(int[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        AuthAuditPipeline pipeline = pipeline(100);
+        pipeline.submit(event(1_000, "USER_CREATED", "U2026001", null));
+
+        assertThat(pipeline.flush()).isZero();
+
+        assertThat(Files.readAllLines(journal)).hasSize(1);
+        assertThat(meterRegistry.counter("auth.audit.flush.failures.total").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void flush_afterFailure_retriesEventAndThenTruncatesJournal() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class), any(int[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(1);
+        AuthAuditPipeline pipeline = pipeline(100);
+        pipeline.submit(event(1_000, "USER_CREATED", "U2026001", null));
+        assertThat(pipeline.flush()).isZero();
+
+        pipeline.submit(event(2_000, "LOGOUT", "U2026002", null));
+        assertThat(pipeline.flush()).isEqualTo(2);
+
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    @Test
+    void start_skipsJournaledEventsAlreadyWritten() throws Exception {
+        AuthAuditPipeline crashed = pipeline(100);
+        AuthAuditEvent written = event(1_000, "LOGOUT", "U2026001", "10.0.0.1");
+        crashed.submit(written);
+        crashed.submit(event(2_000, "TOKEN_REFRESH", "U2026002", "10.0.0.2"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Timestamp.class)))
+                .thenReturn(List.of(written.eventIds().get(0).toString()));
+
+        AuthAuditPipeline restarted = pipeline(100);
+        restarted.start();
+        restarted.stop();
+
+        Object[] args = capturedInsertArgs();
+        assertThat(args).hasSize(COLUMNS);
+        assertThat(args[1]).isEqualTo("TOKEN_REFRESH");
+        assertThat(Files.size(journal)).isZero();
+    }
+
+    @Test
+    void submit_queueFull_writesOnCallerThread() {
+        AuthAuditPipeline pipeline = pipeline(1);
+        pipeline.submit(event(1_000, "LOGOUT", "U2026001", null));
+        verifyNoInteractions(jdbcTemplate);
+
+        pipeline.submit(event(2_000, "LOGOUT", "U2026002", null));
+
+        Object[] args = capturedInsertArgs();
+        assertThat(args[2]).isEqualTo("U2026002");
+        assertThat(meterRegistry.counter("auth.audit.overflow.total").count()).isEqualTo(1.0);
+    }
+
+    private AuthAuditPipeline pipeline(int queueCapacity) {
+        return new AuthAuditPipeline(jdbcTemplate, meterRegistry, queueCapacity, 500, 50, journal.toString());
+    }
+
+    private Object[] capturedInsertArgs() {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), args.capture(), any(int[].class));
+        return args.getValue();
+    }
+
+    private static AuthAuditEvent event(long at, String type, String actor, String ip) {
+        return new AuthAuditEvent(at, type, actor, null, "LOGIN_FAILURE".equals(type) ? "FAILURE" : "SUCCESS",
+                ip, null, 1);
+    }
+}
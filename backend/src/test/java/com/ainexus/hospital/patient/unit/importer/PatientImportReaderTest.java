@@ -0,0 +1,112 @@
+package com.ainexus.hospital.patient.unit.importer;
+
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.importer.PatientImportFormat;
+import com.ainexus.hospital.patient.importer.PatientImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientImportReaderTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void csv_bindsRowsByHeaderAndTreatsEmptyCellsAsAbsent() throws IOException {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.CSV, """
+                firstName,lastName,dateOfBirth,gender,bloodGroup,phone,email,address
+                Jane,Smith,1985-06-15,FEMALE,A_POS,555-123-4567,,"12 Main St, Apt ""B"""
+
+                Bob,Jones,1990-01-01,MALE,,(555) 987-6543,bob@example.com,
+                """);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).number()).isEqualTo(1);
+        assertThat(rows.get(0).request().dateOfBirth()).isEqualTo(LocalDate.of(1985, 6, 15));
+        assertThat(rows.get(0).request().bloodGroup()).isEqualTo(BloodGroup.A_POS);
+        assertThat(rows.get(0).request().email()).isNull();
+        assertThat(rows.get(0).request().address()).isEqualTo("12 Main St, Apt \"B\"");
+        assertThat(rows.get(1).number()).isEqualTo(2);
+        assertThat(rows.get(1).request().gender()).isEqualTo(Gender.MALE);
+        assertThat(rows.get(1).request().bloodGroup()).isNull();
+    }
+
+    @Test
+    void csv_unbindableValue_reportsFieldWithoutTheValue() throws IOException {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.CSV, """
+                firstName,lastName,dateOfBirth,gender,phone
+                Jane,Smith,15/06/1985,FEMALE,555-123-4567
+                Bob,Jones,1990-01-01,MALE,555-987-6543
+                """);
+
+        assertThat(rows.get(0).request()).isNull();
+        assertThat(rows.get(0).field()).isEqualTo("dateOfBirth");
+        assertThat(rows.get(0).error()).doesNotContain("15/06/1985");
+        assertThat(rows.get(1).request()).isNotNull();
+    }
+
+    @Test
+    void csv_recordWithMoreCellsThanHeader_stopsTheUpload() throws IOException {
+        Path upload = write("""
+                firstName,lastName
+                Jane,Smith,extra
+                """);
+
+        try (PatientImportReader reader = PatientImportReader.open(upload, PatientImportFormat.CSV, objectMapper)) {
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("record 1");
+        }
+    }
+
+    @Test
+    void ndjson_numbersRowsByLineAndSkipsBlankLines() throws IOException {
+        List<PatientImportReader.Row> rows = read(PatientImportFormat.NDJSON, """
+                {"firstName":"Jane","lastName":"Smith","dateOfBirth":"1985-06-15","gender":"FEMALE","phone":"555-123-4567"}
+
+                {"firstName":"Bob","gender":"ROBOT"}
+                not json
+                """);
+
+        assertThat(rows).extracting(PatientImportReader.Row::number).containsExactly(1, 3, 4);
+        assertThat(rows.get(0).request().lastName()).isEqualTo("Smith");
+        assertThat(rows.get(1).field()).isEqualTo("gender");
+        assertThat(rows.get(2).request()).isNull();
+        assertThat(rows.get(2).field()).isNull();
+    }
+
+    @Test
+    void forContentType_ignoresParameters() {
+        assertThat(PatientImportFormat.forContentType("text/csv; charset=UTF-8")).contains(PatientImportFormat.CSV);
+        assertThat(PatientImportFormat.forContentType("application/x-ndjson")).contains(PatientImportFormat.NDJSON);
+        assertThat(PatientImportFormat.forContentType("application/json")).isEmpty();
+    }
+
+    private List<PatientImportReader.Row> read(PatientImportFormat format, String content) throws IOException {
+        List<PatientImportReader.Row> rows = new ArrayList<>();
+        try (PatientImportReader reader = PatientImportReader.open(write(content), format, objectMapper)) {
+            for (PatientImportReader.Row row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("upload"), content);
+    }
+}
@@ -4,6 +4,7 @@ import com.ainexus.hospital.patient.dto.response.PatientResponse;
 import com.ainexus.hospital.patient.dto.response.PatientSummaryResponse;
 import com.ainexus.hospital.patient.entity.*;
 import com.ainexus.hospital.patient.mapper.PatientMapperImpl;
+import com.ainexus.hospital.patient.repository.PatientSummaryView;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
@@ -74,6 +75,19 @@ class PatientMapperTest {
         assertThat(summary.age()).isGreaterThan(0);
     }
 
+    @Test
+    void toSummary_fromProjection_computesAge() {
+        PatientSummaryView view = new PatientSummaryView("P2026001", "Jane", "Smith",
+                LocalDate.now().minusYears(40), Gender.FEMALE, "555-123-4567", PatientStatus.ACTIVE);
+
+        PatientSummaryResponse summary = mapper.toSummary(view);
+
+        assertThat(summary.patientId()).isEqualTo("P2026001");
+        assertThat(summary.lastName()).isEqualTo("Smith");
+        assertThat(summary.phone()).isEqualTo("555-123-4567");
+        assertThat(summary.age()).isEqualTo(40);
+    }
+
     @Test
     void toAge_forSameDayBirthday_countsAsCompleteYear() {
         LocalDate today = LocalDate.now();
@@ -0,0 +1,59 @@
+package com.ainexus.hospital.patient.unit.pagination;
+
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
+import com.ainexus.hospital.patient.pagination.KeysetCursor;
+import com.ainexus.hospital.patient.pagination.PatientScrollOrder;
+import com.ainexus.hospital.patient.repository.PatientScrollRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode_roundTrips() {
+        KeysetCursor cursor = new KeysetCursor("lastName", List.of("O'Brien", "Séan", "P2026001"));
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(KeysetCursor.decode(token, "lastName", 3)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_otherSortOrWrongArity_rejected() {
+        String token = new KeysetCursor("lastName", List.of("Smith", "Jane", "P2026001")).encode();
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token, "createdAt", 2))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(token, "lastName", 2))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void decode_garbage_rejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", "createdAt", 2))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("e30", "createdAt", 2))   // "{}"
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void patientScrollOrder_seekValuesTypedLikeEntityAttributes() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2026, 3, 1, 9, 30, 0, 123_456_000, ZoneOffset.UTC);
+        PatientScrollRow last = new PatientScrollRow("P2026007", "Jane", "Smith", LocalDate.of(1985, 1, 1),
+                null, null, null, createdAt);
+
+        assertThat(PatientScrollOrder.CREATED_AT.seekValues(PatientScrollOrder.CREATED_AT.cursorAfter(last).encode()))
+                .containsExactly(createdAt, "P2026007");
+        assertThat(PatientScrollOrder.DATE_OF_BIRTH.seekValues(PatientScrollOrder.DATE_OF_BIRTH.cursorAfter(last).encode()))
+                .containsExactly(LocalDate.of(1985, 1, 1), "P2026007");
+        assertThat(PatientScrollOrder.fromParam("bogus")).isEqualTo(PatientScrollOrder.CREATED_AT);
+    }
+}
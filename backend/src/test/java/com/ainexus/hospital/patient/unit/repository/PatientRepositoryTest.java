@@ -0,0 +1,26 @@
+package com.ainexus.hospital.patient.unit.repository;
+
+import com.ainexus.hospital.patient.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientRepositoryTest {
+
+    @Test
+    void nameTsQuery_multiWordName_prefixTermsAnded() {
+        assertThat(PatientRepository.nameTsQuery("Anna Smi")).isEqualTo("anna:* & smi:*");
+        assertThat(PatientRepository.nameTsQuery("  mary-jane  O'Brien ")).isEqualTo("mary:* & jane:* & o:* & brien:*");
+        assertThat(PatientRepository.nameTsQuery("José Núñez")).isEqualTo("josé:* & núñez:*");
+    }
+
+    @Test
+    void nameTsQuery_otherQueries_stayOnSubstringSearch() {
+        assertThat(PatientRepository.nameTsQuery("smith")).isNull();
+        assertThat(PatientRepository.nameTsQuery("555 123")).isNull();
+        assertThat(PatientRepository.nameTsQuery("anna smith@example.com")).isNull();
+        assertThat(PatientRepository.nameTsQuery("anna | !smith")).isNull();
+        assertThat(PatientRepository.nameTsQuery("' -")).isNull();
+        assertThat(PatientRepository.nameTsQuery(null)).isNull();
+    }
+}
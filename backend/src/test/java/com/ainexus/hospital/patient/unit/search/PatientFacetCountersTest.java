@@ -0,0 +1,138 @@
+package com.ainexus.hospital.patient.unit.search;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.repository.PatientFacetCount;
+import com.ainexus.hospital.patient.repository.PatientRepository;
+import com.ainexus.hospital.patient.search.PatientFacetCounters;
+import com.ainexus.hospital.patient.search.PatientFacetCube;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientFacetCountersTest {
+
+    private static final PatientFacetCube.Key ACTIVE_FEMALE_O_NEG =
+            new PatientFacetCube.Key(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.O_NEG);
+    private static final PatientFacetCube.Key INACTIVE_FEMALE_O_NEG =
+            new PatientFacetCube.Key(PatientStatus.INACTIVE, Gender.FEMALE, BloodGroup.O_NEG);
+
+    @Mock private PatientRepository patientRepository;
+    @Mock private ClusterNotificationBus notificationBus;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PatientFacetCounters counters;
+    private Consumer<String> onMessage;
+    private Runnable onResync;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        counters = new PatientFacetCounters(patientRepository, notificationBus, meterRegistry, true);
+        ArgumentCaptor<Consumer<String>> message = ArgumentCaptor.forClass(Consumer.class);
+        ArgumentCaptor<Runnable> resync = ArgumentCaptor.forClass(Runnable.class);
+        verify(notificationBus).subscribe(eq("patient_facets"), message.capture(), resync.capture());
+        onMessage = message.getValue();
+        onResync = resync.getValue();
+    }
+
+    @Test
+    void snapshot_afterResync_servesCountsWithoutQuerying() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(patientRepository.facetCountsAll()).thenReturn(List.of(
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.O_NEG, 6)));
+        onResync.run();
+
+        assertThat(counters.snapshot().orElseThrow().facets(null, null, null).bloodGroup())
+                .containsEntry("O_NEG", 6L);
+        assertThat(counters.snapshot()).isPresent();
+        verify(patientRepository, times(1)).facetCountsAll();
+    }
+
+    @Test
+    void notifications_moveAndAddPatients() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(patientRepository.facetCountsAll()).thenReturn(List.of(
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.O_NEG, 6)));
+        onResync.run();
+
+        onMessage.accept("ACTIVE,FEMALE,O_NEG>INACTIVE,FEMALE,O_NEG");
+        onMessage.accept(">ACTIVE,MALE,A_POS");
+        onMessage.accept("garbage");
+
+        var facets = counters.snapshot().orElseThrow().facets(null, null, null);
+        assertThat(facets.total()).isEqualTo(7);
+        assertThat(facets.status()).containsEntry("ACTIVE", 6L).containsEntry("INACTIVE", 1L);
+        assertThat(facets.gender()).containsEntry("MALE", 1L);
+    }
+
+    @Test
+    void moveArrivingDuringReload_isReplayedOntoReloadedCounts() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        List<PatientFacetCount> sixActive = List.of(
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.O_NEG, 6));
+        when(patientRepository.facetCountsAll())
+                .thenReturn(sixActive)
+                .thenAnswer(inv -> {
+                    // Notified while the query runs; its commit is not in the query's snapshot
+                    onMessage.accept("ACTIVE,FEMALE,O_NEG>INACTIVE,FEMALE,O_NEG");
+                    return sixActive;
+                });
+        onResync.run();
+
+        onMessage.accept("*");
+
+        var facets = counters.snapshot().orElseThrow().facets(null, null, null);
+        assertThat(facets.total()).isEqualTo(6);
+        assertThat(facets.status()).containsEntry("ACTIVE", 5L).containsEntry("INACTIVE", 1L);
+    }
+
+    @Test
+    void publishChange_sendsKeysOnlyWhenTheyChange() {
+        counters.publishChange(ACTIVE_FEMALE_O_NEG, INACTIVE_FEMALE_O_NEG);
+        counters.publishChange(null, ACTIVE_FEMALE_O_NEG);
+        counters.publishChange(ACTIVE_FEMALE_O_NEG, ACTIVE_FEMALE_O_NEG);
+
+        verify(notificationBus).publish("patient_facets", "ACTIVE,FEMALE,O_NEG>INACTIVE,FEMALE,O_NEG");
+        verify(notificationBus).publish("patient_facets", ">ACTIVE,FEMALE,O_NEG");
+        verify(notificationBus, times(2)).publish(anyString(), anyString());
+    }
+
+    @Test
+    void snapshot_listenerDisconnected_fallsBackToDatabase() {
+        when(notificationBus.isConnected()).thenReturn(false);
+        onResync.run();
+
+        assertThat(counters.snapshot()).isEmpty();
+        assertThat(meterRegistry.counter("patient.facets.db_fallbacks.total").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabled_neverSubscribesOrPublishes() {
+        ClusterNotificationBus bus = mock(ClusterNotificationBus.class);
+        PatientFacetCounters disabled = new PatientFacetCounters(patientRepository, bus, meterRegistry, false);
+
+        disabled.publishChange(null, ACTIVE_FEMALE_O_NEG);
+
+        assertThat(disabled.snapshot()).isEmpty();
+        verify(bus, never()).subscribe(anyString(), any(), any());
+        verify(bus, never()).publish(anyString(), anyString());
+    }
+}
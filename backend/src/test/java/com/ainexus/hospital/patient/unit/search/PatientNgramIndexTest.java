@@ -0,0 +1,96 @@
+package com.ainexus.hospital.patient.unit.search;
+
+import com.ainexus.hospital.patient.dto.response.PatientSummaryResponse;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.search.PatientNgramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientNgramIndexTest {
+
+    private PatientNgramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientNgramIndex(2);   // forces the row store to grow
+        index.upsert(row("P2026001", "Anna", "Smithson", Gender.FEMALE, BloodGroup.A_POS,
+                "555-123-4567", "anna@example.com", PatientStatus.ACTIVE));
+        index.upsert(row("P2026002", "Bob", "Smith", Gender.MALE, BloodGroup.O_NEG,
+                "555-987-6543", null, PatientStatus.ACTIVE));
+        index.upsert(row("P2026003", "Carla", "Jones", Gender.FEMALE, BloodGroup.A_POS,
+                "(555) 111-2222", "carla.smith@example.org", PatientStatus.INACTIVE));
+    }
+
+    @Test
+    void search_substringAcrossNameAndEmail_newestFirst() {
+        PatientNgramIndex.Hits hits = index.search("SMITH", null, null, null, 0, 20);
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.content()).extracting(PatientSummaryResponse::patientId)
+                .containsExactly("P2026003", "P2026002", "P2026001");
+    }
+
+    @Test
+    void search_shortQueryAndIdPrefix() {
+        assertThat(ids(index.search("bo", null, null, null, 0, 20))).containsExactly("P2026002");
+        assertThat(ids(index.search("p2026001", null, null, null, 0, 20))).containsExactly("P2026001");
+        // patient_id matches by prefix only
+        assertThat(index.search("2026001", null, null, null, 0, 20).total()).isZero();
+    }
+
+    @Test
+    void search_phoneMatchesByDigitsRegardlessOfFormatting() {
+        assertThat(ids(index.search("5551112222", null, null, null, 0, 20))).containsExactly("P2026003");
+        assertThat(ids(index.search("123-45", null, null, null, 0, 20))).containsExactly("P2026001");
+        assertThat(index.search("555", null, null, null, 0, 20).total()).isEqualTo(3);
+    }
+
+    @Test
+    void search_filtersIntersect() {
+        assertThat(ids(index.search(null, PatientStatus.ACTIVE, Gender.FEMALE, null, 0, 20)))
+                .containsExactly("P2026001");
+        assertThat(ids(index.search("smith", null, null, BloodGroup.A_POS, 0, 20)))
+                .containsExactly("P2026003", "P2026001");
+        assertThat(index.search(null, PatientStatus.INACTIVE, Gender.MALE, null, 0, 20).total()).isZero();
+    }
+
+    @Test
+    void search_pagesByOffsetWithFullTotal() {
+        PatientNgramIndex.Hits second = index.search(null, null, null, null, 1, 1);
+
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(ids(second)).containsExactly("P2026002");
+    }
+
+    @Test
+    void upsert_existingPatient_reindexesChangedFields() {
+        index.upsert(row("P2026002", "Bob", "Miller", Gender.MALE, BloodGroup.O_NEG,
+                "555-987-6543", null, PatientStatus.INACTIVE));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(ids(index.search("smith", null, null, null, 0, 20))).containsExactly("P2026003", "P2026001");
+        assertThat(ids(index.search("mille", PatientStatus.INACTIVE, null, null, 0, 20))).containsExactly("P2026002");
+        assertThat(index.search(null, PatientStatus.ACTIVE, null, null, 0, 20).total()).isEqualTo(1);
+        // Position in the newest-first order is kept
+        assertThat(ids(index.search(null, null, null, null, 0, 20)))
+                .containsExactly("P2026003", "P2026002", "P2026001");
+    }
+
+    private static List<String> ids(PatientNgramIndex.Hits hits) {
+        return hits.content().stream().map(PatientSummaryResponse::patientId).toList();
+    }
+
+    private static PatientNgramIndex.Row row(String id, String first, String last, Gender gender,
+                                             BloodGroup bloodGroup, String phone, String email,
+                                             PatientStatus status) {
+        return new PatientNgramIndex.Row(id, first, last, LocalDate.of(1980, 1, 1), gender, bloodGroup,
+                phone, email, status);
+    }
+}
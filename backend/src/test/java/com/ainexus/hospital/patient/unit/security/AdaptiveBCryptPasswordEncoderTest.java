@@ -0,0 +1,51 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.AdaptiveBCryptPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void upgradeEncoding_trueOnlyWhenStoredCostIsLower() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+        // Hashed by a node calibrated higher — kept, not downgraded
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("pw"))).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("pw"))).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_nonBcryptValue_false() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$x1$abc")).isFalse();
+    }
+
+    @Test
+    void matches_hashFromOtherCost_stillVerifies() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+    }
+
+    @Test
+    void calibrated_zeroTarget_usesMinimumStrength() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(0, 4, 8);
+
+        assertThat(encoder.getStrength()).isEqualTo(4);
+    }
+
+    @Test
+    void calibrated_generousTarget_cappedAtMaximum() {
+        AdaptiveBCryptPasswordEncoder encoder = AdaptiveBCryptPasswordEncoder.calibrated(60_000, 4, 5);
+
+        assertThat(encoder.getStrength()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.BearerToken;
+import com.ainexus.hospital.patient.security.JwtTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BearerTokenTest {
+
+    private final JwtTokenService tokenService = new JwtTokenService(
+            "test-secret-key-must-be-at-least-32-chars", 100, new SimpleMeterRegistry());
+
+    @Test
+    void fromHeader_signedToken_extractsJtiAndExp() {
+        long exp = 1_900_000_000L;
+        String jwt = tokenService.sign("3f1c2a9e-jti", "U2026001",
+                Map.of("username", "doctor1", "role", "DOCTOR"),
+                new Date(), new Date(exp * 1000));
+
+        BearerToken token = BearerToken.fromHeader("Bearer " + jwt);
+
+        assertThat(token).isNotNull();
+        assertThat(token.value()).isEqualTo(jwt);
+        assertThat(token.jti()).isEqualTo("3f1c2a9e-jti");
+        assertThat(token.expiresAtEpochSecond()).isEqualTo(exp);
+    }
+
+    @Test
+    void of_epochClaim_parsedAndDefaultsToZero() {
+        assertThat(BearerToken.of(jwtWithPayload("{\"jti\":\"a\",\"epoch\":7}")).tokenEpoch()).isEqualTo(7);
+        assertThat(BearerToken.of(jwtWithPayload("{\"jti\":\"a\"}")).tokenEpoch()).isZero();
+    }
+
+    @Test
+    void fromHeader_notBearer_returnsNull() {
+        assertThat(BearerToken.fromHeader(null)).isNull();
+        assertThat(BearerToken.fromHeader("Basic dXNlcjpwYXNz")).isNull();
+    }
+
+    @Test
+    void of_payloadWithSpacesAndClaimNamedAsValue_findsRealClaims() {
+        String payload = "{\"username\": \"jti\", \"jti\" : \"abc-123\", \"exp\": 1700000000}";
+
+        BearerToken token = BearerToken.of(jwtWithPayload(payload));
+
+        assertThat(token.jti()).isEqualTo("abc-123");
+        assertThat(token.expiresAtEpochSecond()).isEqualTo(1_700_000_000L);
+    }
+
+    @Test
+    void of_paddedPayload_decodes() {
+        String payload = "{\"jti\":\"x\",\"exp\":1}";
+        String segment = Base64.getUrlEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        BearerToken token = BearerToken.of("e30." + segment + ".sig");
+
+        assertThat(token.jti()).isEqualTo("x");
+        assertThat(token.expiresAtEpochSecond()).isEqualTo(1L);
+    }
+
+    @Test
+    void of_missingClaims_returnsEmptyClaims() {
+        BearerToken token = BearerToken.of(jwtWithPayload("{\"sub\":\"U2026001\"}"));
+
+        assertThat(token.jti()).isNull();
+        assertThat(token.expiresAtEpochSecond()).isEqualTo(-1L);
+    }
+
+    @Test
+    void of_malformedToken_keepsValueWithoutClaims() {
+        assertThat(BearerToken.of("not-a-jwt").jti()).isNull();
+        assertThat(BearerToken.of("a.%%%%.c").jti()).isNull();
+        assertThat(BearerToken.of("a.b.c").value()).isEqualTo("a.b.c");
+    }
+
+    @Test
+    void resolve_parsesOncePerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + jwtWithPayload("{\"jti\":\"j1\"}"));
+
+        BearerToken first = BearerToken.resolve(request);
+        BearerToken second = BearerToken.resolve(request);
+
+        assertThat(first).isNotNull();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void resolve_noHeader_returnsNull() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertThat(BearerToken.resolve(request)).isNull();
+        assertThat(BearerToken.resolve(request)).isNull();
+    }
+
+    private static String jwtWithPayload(String json) {
+        Base64.Encoder enc = Base64.getUrlEncoder().withoutPadding();
+        return enc.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + enc.encodeToString(json.getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+    }
+}
@@ -0,0 +1,114 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.exception.ServiceBusyException;
+import com.ainexus.hospital.patient.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_delegateResultReturned() {
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 2, 4, 2, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).isEqualTo("hash:secret");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("other", hash)).isFalse();
+        assertThat(meterRegistry.timer("auth.password_hash.duration", "operation", "encode").count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.password_hash.duration", "operation", "matches").count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.timer("auth.password_hash.wait").count()).isEqualTo(3);
+    }
+
+    @Test
+    void queueFull_rejectsImmediatelyWithRetryAfter() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 7, meterRegistry);
+
+        // One running (blocked) + one queued saturates the executor
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(ServiceBusyException.class)
+                .satisfies(ex -> assertThat(((ServiceBusyException) ex).getRetryAfterSeconds()).isEqualTo(7));
+        assertThat(meterRegistry.counter("auth.password_hash.rejected.total").count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+    }
+
+    @Test
+    void delegateFailure_propagatesOriginalException() {
+        PasswordEncoder failing = new PrefixEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("boom");
+            }
+        };
+        encoder = new BoundedPasswordEncoder(failing, 1, 1, 2, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.encode("x"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("boom");
+    }
+
+    private void waitForQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password_hash.queue.depth").gauge().value() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PrefixEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class BlockingEncoder extends PrefixEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.ClientIp;
+import com.ainexus.hospital.patient.security.LoginAttemptLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpTest {
+
+    /** A request as nginx forwards it: the client sent {@code clientXff}, nginx appended $remote_addr. */
+    private static MockHttpServletRequest proxied(String clientXff, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("172.18.0.5");
+        request.addHeader("X-Real-IP", remoteAddr);
+        request.addHeader("X-Forwarded-For", clientXff == null ? remoteAddr : clientXff + ", " + remoteAddr);
+        return request;
+    }
+
+    @Test
+    void resolve_forgedForwardedFor_usesAddressSetByProxy() {
+        assertThat(ClientIp.resolve(proxied("1.2.3.4", "203.0.113.7"))).isEqualTo("203.0.113.7");
+        assertThat(ClientIp.resolve(proxied("1.2.3.4, 5.6.7.8", "203.0.113.7"))).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void resolve_noRealIp_usesRightmostForwardedForHop() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7 ");
+
+        assertThat(ClientIp.resolve(request)).isEqualTo("203.0.113.7");
+    }
+
+    @Test
+    void resolve_noProxyHeaders_usesRemoteAddr() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("198.51.100.1");
+
+        assertThat(ClientIp.resolve(request)).isEqualTo("198.51.100.1");
+    }
+
+    @Test
+    void rotatingForgedForwardedFor_stillExhaustsTheIpBudget() {
+        LoginAttemptLimiter limiter = new LoginAttemptLimiter(1000, 5, 60, 1024, new SimpleMeterRegistry(),
+                () -> 1_000 * 60_000L);
+
+        for (int i = 0; i < 5; i++) {
+            String ip = ClientIp.resolve(proxied("10.9.8." + i, "203.0.113.7"));
+            limiter.recordFailure("user" + i, ip);
+        }
+
+        String next = ClientIp.resolve(proxied("10.9.8.99", "203.0.113.7"));
+        assertThat(limiter.isBlocked("someoneElse", next)).isTrue();
+    }
+}
@@ -0,0 +1,112 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.AuthContext;
+import com.ainexus.hospital.patient.security.JwtTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "test-secret-key-must-be-at-least-32-chars";
+
+    private MeterRegistry meterRegistry;
+    private JwtTokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenService = new JwtTokenService(SECRET, 100, meterRegistry);
+    }
+
+    @Test
+    void verify_signedToken_returnsAuthContext() {
+        String token = signValid("U2026001", "doctor1", "DOCTOR");
+
+        AuthContext ctx = tokenService.verify(token);
+
+        assertThat(ctx).isNotNull();
+        assertThat(ctx.getUserId()).isEqualTo("U2026001");
+        assertThat(ctx.getUsername()).isEqualTo("doctor1");
+        assertThat(ctx.getRole()).isEqualTo("DOCTOR");
+    }
+
+    @Test
+    void verify_sameTokenTwice_secondCallIsCacheHit() {
+        String token = signValid("U2026001", "doctor1", "DOCTOR");
+
+        AuthContext first = tokenService.verify(token);
+        AuthContext second = tokenService.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.counter("auth.token_cache.misses.total").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("auth.token_cache.hits.total").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void verify_tamperedSignature_returnsNull() {
+        String token = signValid("U2026001", "doctor1", "DOCTOR");
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(tokenService.verify(tampered)).isNull();
+    }
+
+    @Test
+    void verify_tokenSignedWithOtherKey_returnsNull() {
+        JwtTokenService other = new JwtTokenService(
+                "another-secret-key-that-is-also-32-chars", 100, new SimpleMeterRegistry());
+        String foreign = other.sign("jti-1", "U2026001",
+                Map.of("username", "doctor1", "role", "DOCTOR"),
+                new Date(), new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenService.verify(foreign)).isNull();
+    }
+
+    @Test
+    void verify_expiredToken_returnsNull() {
+        long now = System.currentTimeMillis();
+        String expired = tokenService.sign("jti-1", "U2026001",
+                Map.of("username", "doctor1", "role", "DOCTOR"),
+                new Date(now - 120_000), new Date(now - 60_000));
+
+        assertThat(tokenService.verify(expired)).isNull();
+    }
+
+    @Test
+    void verify_missingRoleClaim_returnsNull() {
+        String token = tokenService.sign("jti-1", "U2026001", Map.of("username", "doctor1"),
+                new Date(), new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenService.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_malformedToken_returnsNull() {
+        assertThat(tokenService.verify("not-a-jwt")).isNull();
+        assertThat(tokenService.verify("")).isNull();
+    }
+
+    @Test
+    void verify_cacheFull_stillVerifiesNewTokens() {
+        JwtTokenService small = new JwtTokenService(SECRET, 2, new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            String token = small.sign("jti-" + i, "U202600" + i,
+                    Map.of("username", "user" + i, "role", "NURSE"),
+                    new Date(), new Date(System.currentTimeMillis() + 60_000));
+            assertThat(small.verify(token)).isNotNull();
+        }
+    }
+
+    private String signValid(String userId, String username, String role) {
+        return tokenService.sign("jti-" + userId, userId,
+                Map.of("username", username, "role", role),
+                new Date(), new Date(System.currentTimeMillis() + 60_000));
+    }
+}
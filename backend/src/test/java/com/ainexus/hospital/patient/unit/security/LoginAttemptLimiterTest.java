@@ -0,0 +1,85 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.LoginAttemptLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptLimiterTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1_000 * WINDOW_MS);
+    private MeterRegistry meterRegistry;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginAttemptLimiter(3, 5, 60, 1024, meterRegistry, now::get);
+    }
+
+    @Test
+    void usernameBudgetExhausted_blocksThatUsernameOnly() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.isBlocked("doctor1", "10.0.0." + i)).isFalse();
+            limiter.recordFailure("doctor1", "10.0.0." + i);
+        }
+
+        assertThat(limiter.isBlocked("doctor1", "10.0.0.99")).isTrue();
+        assertThat(limiter.isBlocked("DOCTOR1", "10.0.0.99")).isTrue();
+        assertThat(limiter.isBlocked("nurse1", "10.0.0.99")).isFalse();
+        assertThat(meterRegistry.counter("auth.login_limiter.rejected.total", "key", "username").count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void ipBudgetExhausted_blocksAllUsernamesFromThatIp() {
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("user" + i, "203.0.113.7");
+        }
+
+        assertThat(limiter.isBlocked("someoneElse", "203.0.113.7")).isTrue();
+        assertThat(limiter.isBlocked("someoneElse", "198.51.100.1")).isFalse();
+        assertThat(meterRegistry.counter("auth.login_limiter.rejected.total", "key", "ip").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void slidingWindow_previousWindowDecaysOverTime() {
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("doctor1", null);
+        }
+
+        // Start of next window: previous bucket still weighs ~100%
+        now.addAndGet(WINDOW_MS);
+        assertThat(limiter.isBlocked("doctor1", null)).isTrue();
+
+        // Half way through: 3 * 0.5 = 1.5 < 3
+        now.addAndGet(WINDOW_MS / 2);
+        assertThat(limiter.isBlocked("doctor1", null)).isFalse();
+
+        // Two windows later everything is forgotten
+        now.addAndGet(2 * WINDOW_MS);
+        assertThat(limiter.isBlocked("doctor1", null)).isFalse();
+    }
+
+    @Test
+    void retryAfterSeconds_isTimeToWindowEnd() {
+        now.addAndGet(45_000);
+
+        assertThat(limiter.retryAfterSeconds()).isEqualTo(15);
+    }
+
+    @Test
+    void stripesNotPowerOfTwo_rejected() {
+        assertThatThrownBy(() -> new LoginAttemptLimiter(3, 5, 60, 1000, meterRegistry, now::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ainexus.hospital.patient.unit.security;
+
+import com.ainexus.hospital.patient.security.RevokedTokenSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenSetTest {
+
+    private static final long NOW = 1_800_000_000L;
+
+    @Test
+    void add_thenContains_untilExpiry() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        set.add("jti-1", NOW + 60, NOW);
+
+        assertThat(set.contains("jti-1", NOW)).isTrue();
+        assertThat(set.contains("jti-1", NOW + 59)).isTrue();
+        assertThat(set.contains("jti-1", NOW + 60)).isFalse();
+        assertThat(set.contains("jti-2", NOW)).isFalse();
+    }
+
+    @Test
+    void add_alreadyExpired_isIgnored() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        set.add("jti-1", NOW, NOW);
+
+        assertThat(set.size()).isZero();
+        assertThat(set.contains("jti-1", NOW - 1)).isFalse();
+    }
+
+    @Test
+    void add_manyEntries_growsAndKeepsAll() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        List<String> jtis = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String jti = UUID.randomUUID().toString();
+            jtis.add(jti);
+            set.add(jti, NOW + 3_600, NOW);
+        }
+
+        assertThat(set.size()).isEqualTo(5_000);
+        assertThat(jtis).allMatch(jti -> set.contains(jti, NOW));
+        assertThat(set.contains(UUID.randomUUID().toString(), NOW)).isFalse();
+    }
+
+    @Test
+    void add_growth_dropsExpiredEntries() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        for (int i = 0; i < 32; i++) {
+            set.add("short-" + i, NOW + 10, NOW);
+        }
+        // Later writes after the first batch expired: the growth rebuild discards it.
+        for (int i = 0; i < 32; i++) {
+            set.add("long-" + i, NOW + 3_600, NOW + 20);
+        }
+
+        assertThat(set.size()).isLessThanOrEqualTo(32 + 31);
+        assertThat(set.contains("long-0", NOW + 20)).isTrue();
+        assertThat(set.contains("short-0", NOW + 20)).isFalse();
+    }
+
+    @Test
+    void replaceAll_discardsPreviousContent() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        set.add("old", NOW + 60, NOW);
+
+        set.replaceAll(List.of(
+                new RevokedTokenSet.Entry("a", NOW + 60),
+                new RevokedTokenSet.Entry("b", NOW - 1)), NOW);
+
+        assertThat(set.contains("old", NOW)).isFalse();
+        assertThat(set.contains("a", NOW)).isTrue();
+        assertThat(set.contains("b", NOW)).isFalse();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpired_removesOnlyExpired() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        set.add("a", NOW + 10, NOW);
+        set.add("b", NOW + 100, NOW);
+
+        set.purgeExpired(NOW + 50);
+
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.contains("b", NOW + 50)).isTrue();
+    }
+}
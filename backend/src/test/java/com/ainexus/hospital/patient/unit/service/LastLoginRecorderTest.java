@@ -0,0 +1,79 @@
+package com.ainexus.hospital.patient.unit.service;
+
+import com.ainexus.hospital.patient.service.LastLoginRecorder;
+import com.ainexus.hospital.patient.service.StaffDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginRecorderTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private StaffDirectory staffDirectory;
+
+    private LastLoginRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new LastLoginRecorder(jdbcTemplate, staffDirectory, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_repeatedLogins_writeOneRowPerUserWithLatestTime() {
+        OffsetDateTime t1 = OffsetDateTime.parse("2026-03-01T08:00:00Z");
+        OffsetDateTime t2 = t1.plusMinutes(5);
+        recorder.record("U2026001", t1);
+        recorder.record("U2026001", t2);
+        recorder.record("U2026001", t1); // out of order — must not win
+        recorder.record("U2026002", t1);
+
+        recorder.flush();
+
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertThat(rows).hasSize(2);
+        Object[] doctor = rows.stream().filter(r -> "U2026001".equals(r[1])).findFirst().orElseThrow();
+        assertThat(doctor[0]).isEqualTo(Timestamp.from(t2.toInstant()));
+        verify(staffDirectory).publishChanges(argThat(ids -> ids.size() == 2));
+    }
+
+    @Test
+    void flush_nothingPending_noDatabaseCall() {
+        recorder.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_failure_keepsValuesForRetry() {
+        recorder.record("U2026001", OffsetDateTime.now());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+
+        recorder.flush();
+        recorder.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        verify(staffDirectory, times(1)).publishChanges(anyCollection());
+    }
+}
@@ -1,87 +1,106 @@
 package com.ainexus.hospital.patient.unit.service;
 
-import com.ainexus.hospital.patient.entity.PatientIdSequence;
-import com.ainexus.hospital.patient.repository.PatientIdSequenceRepository;
 import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.Optional;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PatientIdGeneratorServiceTest {
 
     @Mock
-    private PatientIdSequenceRepository sequenceRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
-    private PatientIdGeneratorService generatorService;
+    private SimpleMeterRegistry meterRegistry;
 
     private final int TEST_YEAR = 2026;
 
     @BeforeEach
     void setUp() {
-        generatorService = new PatientIdGeneratorService(sequenceRepository);
+        meterRegistry = new SimpleMeterRegistry();
     }
 
     @Test
     void firstRegistrationOfYear_generatesP2026001() {
-        // First registration: no row exists for this year
-        when(sequenceRepository.findByYearForUpdate(TEST_YEAR)).thenReturn(Optional.empty());
-        PatientIdSequence savedSeq = new PatientIdSequence(TEST_YEAR, 1);
-        when(sequenceRepository.save(any())).thenReturn(savedSeq);
+        // First block of the year: the upsert creates the row at the block size
+        reserveReturns(TEST_YEAR, 50, 50);
 
-        String patientId = generatorService.generatePatientId(TEST_YEAR);
+        String patientId = generator(50).generatePatientId(TEST_YEAR);
 
         assertThat(patientId).isEqualTo("P2026001");
-        verify(sequenceRepository).findByYearForUpdate(TEST_YEAR);
     }
 
     @Test
-    void secondRegistration_generatesP2026002() {
-        PatientIdSequence existing = new PatientIdSequence(TEST_YEAR, 1);
-        when(sequenceRepository.findByYearForUpdate(TEST_YEAR)).thenReturn(Optional.of(existing));
-        when(sequenceRepository.save(any())).thenReturn(new PatientIdSequence(TEST_YEAR, 2));
+    void secondRegistration_servedFromSameBlock() {
+        reserveReturns(TEST_YEAR, 50, 50);
+        PatientIdGeneratorService generatorService = generator(50);
 
-        String patientId = generatorService.generatePatientId(TEST_YEAR);
+        assertThat(generatorService.generatePatientId(TEST_YEAR)).isEqualTo("P2026001");
+        assertThat(generatorService.generatePatientId(TEST_YEAR)).isEqualTo("P2026002");
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class), eq(TEST_YEAR), eq(50));
+    }
 
-        assertThat(patientId).isEqualTo("P2026002");
+    @Test
+    void exhaustedBlock_reservesNextBlock() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEST_YEAR), eq(2)))
+                .thenReturn(2, 6);   // another node took 3..4 in between
+        PatientIdGeneratorService generatorService = generator(2);
+
+        assertThat(IntStream.range(0, 4).mapToObj(i -> generatorService.generatePatientId(TEST_YEAR)))
+                .containsExactly("P2026001", "P2026002", "P2026005", "P2026006");
+        assertThat(meterRegistry.get("patient.id.block.reserve").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("patient.id.allocation.wait").timer().count()).isEqualTo(2);
     }
 
     @Test
     void yearBoundaryReset_2027StartsAt001() {
-        when(sequenceRepository.findByYearForUpdate(2027)).thenReturn(Optional.empty());
-        when(sequenceRepository.save(any())).thenReturn(new PatientIdSequence(2027, 1));
+        reserveReturns(TEST_YEAR, 50, 50);
+        reserveReturns(2027, 50, 50);
+        PatientIdGeneratorService generatorService = generator(50);
 
-        String patientId = generatorService.generatePatientId(2027);
-
-        assertThat(patientId).isEqualTo("P2027001");
+        assertThat(generatorService.generatePatientId(TEST_YEAR)).isEqualTo("P2026001");
+        assertThat(generatorService.generatePatientId(2027)).isEqualTo("P2027001");
+        assertThat(generatorService.generatePatientId(TEST_YEAR)).isEqualTo("P2026002");
     }
 
     @Test
     void sequenceAt999_generatesP2026999() {
-        PatientIdSequence existing = new PatientIdSequence(TEST_YEAR, 998);
-        when(sequenceRepository.findByYearForUpdate(TEST_YEAR)).thenReturn(Optional.of(existing));
-        when(sequenceRepository.save(any())).thenReturn(new PatientIdSequence(TEST_YEAR, 999));
+        reserveReturns(TEST_YEAR, 2, 1000);
 
-        String patientId = generatorService.generatePatientId(TEST_YEAR);
+        String patientId = generator(2).generatePatientId(TEST_YEAR);
 
         assertThat(patientId).isEqualTo("P2026999");
     }
 
     @Test
     void sequenceExceeds999_expandsToFourDigits() {
-        PatientIdSequence existing = new PatientIdSequence(TEST_YEAR, 999);
-        when(sequenceRepository.findByYearForUpdate(TEST_YEAR)).thenReturn(Optional.of(existing));
-        when(sequenceRepository.save(any())).thenReturn(new PatientIdSequence(TEST_YEAR, 1000));
+        reserveReturns(TEST_YEAR, 2, 1000);
+        PatientIdGeneratorService generatorService = generator(2);
+        generatorService.generatePatientId(TEST_YEAR);
 
         String patientId = generatorService.generatePatientId(TEST_YEAR);
 
@@ -91,12 +110,64 @@ class PatientIdGeneratorServiceTest {
 
     @Test
     void sequenceAt12_generatesZeroPaddedP2026012() {
-        PatientIdSequence existing = new PatientIdSequence(TEST_YEAR, 11);
-        when(sequenceRepository.findByYearForUpdate(TEST_YEAR)).thenReturn(Optional.of(existing));
-        when(sequenceRepository.save(any())).thenReturn(new PatientIdSequence(TEST_YEAR, 12));
+        reserveReturns(TEST_YEAR, 10, 21);
 
-        String patientId = generatorService.generatePatientId(TEST_YEAR);
+        String patientId = generator(10).generatePatientId(TEST_YEAR);
 
         assertThat(patientId).isEqualTo("P2026012");
     }
+
+    @Test
+    void discardBlocks_nextCallReservesFreshBlock() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEST_YEAR), eq(50)))
+                .thenReturn(50, 50);   // the sequence row was reset in between
+        PatientIdGeneratorService generatorService = generator(50);
+        generatorService.generatePatientId(TEST_YEAR);
+
+        generatorService.discardBlocks();
+
+        assertThat(generatorService.generatePatientId(TEST_YEAR)).isEqualTo("P2026001");
+    }
+
+    @Test
+    void concurrentCallers_receiveUniqueIds() throws Exception {
+        AtomicInteger row = new AtomicInteger();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(TEST_YEAR), eq(10)))
+                .thenAnswer(inv -> row.addAndGet(10));
+        PatientIdGeneratorService generatorService = generator(10);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 8)
+                    .mapToObj(t -> pool.submit(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            ids.add(generatorService.generatePatientId(TEST_YEAR));
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(4000);
+        assertThat(row.get()).isEqualTo(4000);
+    }
+
+    @Test
+    void blockSizeBelowOne_rejected() {
+        assertThatThrownBy(() -> generator(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PatientIdGeneratorService generator(int blockSize) {
+        return new PatientIdGeneratorService(jdbcTemplate, transactionManager, meterRegistry, blockSize);
+    }
+
+    private void reserveReturns(int year, int blockSize, int lastSequence) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(year), eq(blockSize)))
+                .thenReturn(lastSequence);
+    }
 }
@@ -0,0 +1,129 @@
+package com.ainexus.hospital.patient.unit.service;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.dto.response.PatientResponse;
+import com.ainexus.hospital.patient.entity.BloodGroup;
+import com.ainexus.hospital.patient.entity.Gender;
+import com.ainexus.hospital.patient.entity.PatientStatus;
+import com.ainexus.hospital.patient.mapper.PatientMapper;
+import com.ainexus.hospital.patient.service.PatientProfileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientProfileCacheTest {
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS) private PatientMapper patientMapper;
+    @Mock private ClusterNotificationBus notificationBus;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PatientProfileCache cache;
+    private Consumer<String> onMessage;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = new PatientProfileCache(patientMapper, notificationBus, meterRegistry, true, 2);
+        ArgumentCaptor<Consumer<String>> message = ArgumentCaptor.forClass(Consumer.class);
+        verify(notificationBus).subscribe(eq("patient_profile_changed"), message.capture(), any(Runnable.class));
+        onMessage = message.getValue();
+        lenient().when(notificationBus.isConnected()).thenReturn(true);
+    }
+
+    @Test
+    void get_afterPut_servesProfileWithTodaysAge() {
+        LocalDate dob = LocalDate.now().minusYears(40);
+        cache.put(profile("P2026001", 0, dob, 39));   // age computed on the day before a birthday
+
+        PatientResponse cached = cache.get("P2026001").orElseThrow();
+
+        assertThat(cached.age()).isEqualTo(40);
+        assertThat(meterRegistry.counter("patient.profile_cache.total", "result", "hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void changeNotification_dropsEntryAndRefusesTheStaleVersion() {
+        cache.put(profile("P2026001", 3));
+
+        onMessage.accept("P2026001:3");
+        assertThat(cache.get("P2026001")).isEmpty();
+
+        // A read that started before the write commits must not re-insert version 3
+        cache.put(profile("P2026001", 3));
+        assertThat(cache.get("P2026001")).isEmpty();
+
+        cache.put(profile("P2026001", 4));
+        assertThat(cache.get("P2026001").orElseThrow().version()).isEqualTo(4);
+    }
+
+    @Test
+    void publishChange_notifiesOtherNodesAndInvalidatesLocally() {
+        cache.put(profile("P2026001", 0));
+
+        cache.publishChange("P2026001", 0);
+
+        verify(notificationBus).publish("patient_profile_changed", "P2026001:0");
+        assertThat(cache.get("P2026001")).isEmpty();
+    }
+
+    @Test
+    void put_whenFull_admitsOnlyMoreFrequentlyRequestedProfiles() {
+        for (int i = 0; i < 3; i++) {
+            cache.get("P2026001");
+            cache.put(profile("P2026001", 0));
+            cache.get("P2026002");
+            cache.put(profile("P2026002", 0));
+        }
+
+        // Opened once while browsing: not admitted over the charts in regular use
+        cache.get("P2026099");
+        cache.put(profile("P2026099", 0));
+        assertThat(cache.get("P2026099")).isEmpty();
+        assertThat(meterRegistry.counter("patient.profile_cache.rejections.total").count()).isEqualTo(1.0);
+
+        // Requested often enough: replaces the least recently used entry
+        for (int i = 0; i < 6; i++) {
+            cache.get("P2026100");
+        }
+        cache.put(profile("P2026100", 0));
+        assertThat(cache.get("P2026100")).isPresent();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(meterRegistry.counter("patient.profile_cache.evictions.total").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void listenerDisconnected_bypassesCache() {
+        cache.put(profile("P2026001", 0));
+        when(notificationBus.isConnected()).thenReturn(false);
+
+        assertThat(cache.get("P2026001")).isEmpty();
+        assertThat(meterRegistry.counter("patient.profile_cache.total", "result", "bypass").count()).isEqualTo(1.0);
+    }
+
+    private static PatientResponse profile(String patientId, int version) {
+        LocalDate dob = LocalDate.of(1985, 6, 15);
+        return profile(patientId, version, dob, java.time.Period.between(dob, LocalDate.now()).getYears());
+    }
+
+    private static PatientResponse profile(String patientId, int version, LocalDate dob, int age) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return new PatientResponse(patientId, "Jane", "Smith", dob, age, Gender.FEMALE, BloodGroup.A_POS,
+                "555-123-4567", null, null, null, null, null, null, null, null, null, null,
+                PatientStatus.ACTIVE, now, "test", now, "test", version);
+    }
+}
@@ -2,27 +2,46 @@ package com.ainexus.hospital.patient.unit.service;
 
 import com.ainexus.hospital.patient.audit.AuditService;
 import com.ainexus.hospital.patient.dto.request.PatientRegistrationRequest;
+import com.ainexus.hospital.patient.dto.response.CursorPagedResponse;
 import com.ainexus.hospital.patient.dto.response.DuplicatePhoneResponse;
+import com.ainexus.hospital.patient.dto.response.PatientFacetsResponse;
 import com.ainexus.hospital.patient.dto.response.PatientRegistrationResponse;
+import com.ainexus.hospital.patient.dto.response.PatientResponse;
 import com.ainexus.hospital.patient.dto.response.PatientSummaryResponse;
 import com.ainexus.hospital.patient.dto.response.PagedResponse;
 import com.ainexus.hospital.patient.entity.*;
 import com.ainexus.hospital.patient.exception.ForbiddenException;
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
 import com.ainexus.hospital.patient.mapper.PatientMapper;
+import com.ainexus.hospital.patient.pagination.CountMode;
+import com.ainexus.hospital.patient.pagination.PatientScrollOrder;
+import com.ainexus.hospital.patient.repository.PatientFacetCount;
 import com.ainexus.hospital.patient.repository.PatientRepository;
+import com.ainexus.hospital.patient.repository.PatientScrollRow;
+import com.ainexus.hospital.patient.repository.PatientSummaryView;
+import com.ainexus.hospital.patient.search.PatientFacetCounters;
+import com.ainexus.hospital.patient.search.PatientFacetCube;
+import com.ainexus.hospital.patient.search.PatientNgramIndex;
+import com.ainexus.hospital.patient.search.PatientSearchIndex;
 import com.ainexus.hospital.patient.security.AuthContext;
 import com.ainexus.hospital.patient.security.RoleGuard;
+import com.ainexus.hospital.patient.service.PatientCountCache;
 import com.ainexus.hospital.patient.service.PatientIdGeneratorService;
+import com.ainexus.hospital.patient.service.PatientProfileCache;
 import com.ainexus.hospital.patient.service.PatientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -43,10 +62,17 @@ class PatientServiceTest {
     @Mock private PatientIdGeneratorService idGeneratorService;
     @Mock private PatientMapper patientMapper;
     @Mock private AuditService auditService;
+    @Mock private PatientCountCache countCache;
+    @Mock private PatientSearchIndex searchIndex;
+    @Mock private PatientFacetCounters facetCounters;
+    @Mock private PatientProfileCache profileCache;
+    @Mock private Validator validator;
+    @Mock private PlatformTransactionManager transactionManager;
 
     // Use real implementations for RoleGuard (reads AuthContext) and MeterRegistry
     private final RoleGuard roleGuard = new RoleGuard();
     private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     private PatientService patientService;
 
@@ -60,7 +86,8 @@ class PatientServiceTest {
     void setUpService() {
         patientService = new PatientService(
                 patientRepository, idGeneratorService, patientMapper,
-                auditService, roleGuard, meterRegistry
+                auditService, roleGuard, meterRegistry, countCache, searchIndex, facetCounters, profileCache,
+                objectMapper, validator, transactionManager
         );
         AuthContext.Holder.set(new AuthContext("user1", "receptionist1", "RECEPTIONIST"));
     }
@@ -84,13 +111,25 @@ class PatientServiceTest {
 
         when(idGeneratorService.generatePatientId()).thenReturn("P2026001");
         when(patientMapper.toEntity(any())).thenReturn(savedPatient);
-        when(patientRepository.save(any())).thenReturn(savedPatient);
 
         PatientRegistrationResponse response = patientService.registerPatient(validRequest);
 
         assertThat(response.patientId()).isEqualTo("P2026001");
         assertThat(response.message()).contains("P2026001");
-        verify(auditService).writeAuditLog(eq("REGISTER"), eq("P2026001"), eq("receptionist1"), isNull());
+        // The REGISTER audit entry is inserted by the same statement as the patient
+        verify(patientRepository).insertWithRegisterAudit(savedPatient);
+        verify(patientRepository, never()).save(any());
+        verifyNoInteractions(auditService);
+        assertThat(savedPatient.getCreatedBy()).isEqualTo("receptionist1");
+        verify(searchIndex).publishChange(savedPatient);
+        verify(facetCounters).publishChange(null,
+                new PatientFacetCube.Key(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.A_POS));
+        // The ID is allocated before the registration transaction takes a connection
+        InOrder inOrder = inOrder(idGeneratorService, transactionManager, patientRepository);
+        inOrder.verify(idGeneratorService).generatePatientId();
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(patientRepository).insertWithRegisterAudit(savedPatient);
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
@@ -104,10 +143,10 @@ class PatientServiceTest {
                 .updatedAt(OffsetDateTime.now()).updatedBy("admin1")
                 .version(0).bloodGroup(BloodGroup.UNKNOWN).build();
         when(patientMapper.toEntity(any())).thenReturn(patient);
-        when(patientRepository.save(any())).thenReturn(patient);
 
         PatientRegistrationResponse response = patientService.registerPatient(validRequest);
         assertThat(response.patientId()).isEqualTo("P2026002");
+        verify(patientRepository).insertWithRegisterAudit(patient);
     }
 
     @Test
@@ -129,7 +168,7 @@ class PatientServiceTest {
 
     @Test
     void checkDuplicatePhone_noDuplicate_returnsFalse() {
-        when(patientRepository.findFirstByPhone("555-123-4567")).thenReturn(Optional.empty());
+        when(patientRepository.findFirstByPhoneE164("+15551234567")).thenReturn(Optional.empty());
 
         DuplicatePhoneResponse result = patientService.checkDuplicatePhone("555-123-4567", null);
 
@@ -142,7 +181,7 @@ class PatientServiceTest {
         Patient existing = Patient.builder()
                 .patientId("P2026001").firstName("John").lastName("Doe")
                 .phone("555-123-4567").build();
-        when(patientRepository.findFirstByPhone("555-123-4567")).thenReturn(Optional.of(existing));
+        when(patientRepository.findFirstByPhoneE164("+15551234567")).thenReturn(Optional.of(existing));
 
         DuplicatePhoneResponse result = patientService.checkDuplicatePhone("555-123-4567", null);
 
@@ -151,6 +190,19 @@ class PatientServiceTest {
         assertThat(result.patientName()).isEqualTo("John Doe");
     }
 
+    @Test
+    void checkDuplicatePhone_otherFormat_matchesNormalizedNumber() {
+        Patient existing = Patient.builder()
+                .patientId("P2026001").firstName("John").lastName("Doe")
+                .phone("555-123-4567").build();
+        when(patientRepository.findFirstByPhoneE164AndPatientIdNot("+15551234567", "P2026009"))
+                .thenReturn(Optional.of(existing));
+
+        assertThat(patientService.checkDuplicatePhone("(555) 123-4567", "P2026009").duplicate()).isTrue();
+        assertThat(patientService.checkDuplicatePhone("12345", null).duplicate()).isFalse();
+        verify(patientRepository, never()).findFirstByPhoneE164(any());
+    }
+
     // ── Search (US2) ────────────────────────────────────────────────────────
 
     private Patient samplePatient(String id, String first, String last,
@@ -168,17 +220,32 @@ class PatientServiceTest {
                 p.getLastName(), 40, p.getGender(), p.getPhone(), p.getStatus());
     }
 
+    private PatientSummaryResponse summaryOf(PatientSummaryView v) {
+        return new PatientSummaryResponse(v.patientId(), v.firstName(), v.lastName(), 40,
+                v.gender(), v.phone(), v.status());
+    }
+
+    private PatientScrollRow sampleScrollRow(String id, String first, String last, Gender gender) {
+        return new PatientScrollRow(id, first, last, LocalDate.of(1985, 1, 1), gender, "555-000-0001",
+                PatientStatus.ACTIVE, OffsetDateTime.now());
+    }
+
+    private PatientSummaryView sampleView(String id, String first, String last,
+                                          PatientStatus status, Gender gender) {
+        return new PatientSummaryView(id, first, last, LocalDate.of(1985, 1, 1), gender, "555-000-0001", status);
+    }
+
     @Test
     void searchPatients_defaultQuery_returnsActivePatientsPage() {
-        Patient active = samplePatient("P2026001", "Jane", "Smith", PatientStatus.ACTIVE, Gender.FEMALE);
-        Page<Patient> page = new PageImpl<>(List.of(active), PageRequest.of(0, 20), 1);
+        PatientSummaryView active = sampleView("P2026001", "Jane", "Smith", PatientStatus.ACTIVE, Gender.FEMALE);
+        Page<PatientSummaryView> page = new PageImpl<>(List.of(active), PageRequest.of(0, 20), 1);
 
         when(patientRepository.search(isNull(), eq(PatientStatus.ACTIVE), isNull(), isNull(), any(Pageable.class)))
                 .thenReturn(page);
         when(patientMapper.toSummary(active)).thenReturn(summaryOf(active));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20);
+                patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20, "EXACT", null);
 
         assertThat(result.content()).hasSize(1);
         assertThat(result.totalElements()).isEqualTo(1);
@@ -188,15 +255,15 @@ class PatientServiceTest {
 
     @Test
     void searchPatients_querySmith_returnsCaseInsensitiveMatch() {
-        Patient smith = samplePatient("P2026002", "Bob", "Smith", PatientStatus.ACTIVE, Gender.MALE);
-        Page<Patient> page = new PageImpl<>(List.of(smith), PageRequest.of(0, 20), 1);
+        PatientSummaryView smith = sampleView("P2026002", "Bob", "Smith", PatientStatus.ACTIVE, Gender.MALE);
+        Page<PatientSummaryView> page = new PageImpl<>(List.of(smith), PageRequest.of(0, 20), 1);
 
         when(patientRepository.search(eq("smith"), eq(PatientStatus.ACTIVE), isNull(), isNull(), any(Pageable.class)))
                 .thenReturn(page);
         when(patientMapper.toSummary(smith)).thenReturn(summaryOf(smith));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients("smith", "ACTIVE", "ALL", "ALL", 0, 20);
+                patientService.searchPatients("smith", "ACTIVE", "ALL", "ALL", 0, 20, "EXACT", null);
 
         assertThat(result.content()).hasSize(1);
         assertThat(result.content().get(0).lastName()).isEqualTo("Smith");
@@ -204,16 +271,17 @@ class PatientServiceTest {
 
     @Test
     void searchPatients_statusAll_includesInactive() {
-        Patient active   = samplePatient("P2026001", "A", "B", PatientStatus.ACTIVE, Gender.MALE);
-        Patient inactive = samplePatient("P2026002", "C", "D", PatientStatus.INACTIVE, Gender.FEMALE);
-        Page<Patient> page = new PageImpl<>(List.of(active, inactive), PageRequest.of(0, 20), 2);
+        PatientSummaryView active   = sampleView("P2026001", "A", "B", PatientStatus.ACTIVE, Gender.MALE);
+        PatientSummaryView inactive = sampleView("P2026002", "C", "D", PatientStatus.INACTIVE, Gender.FEMALE);
+        Page<PatientSummaryView> page = new PageImpl<>(List.of(active, inactive), PageRequest.of(0, 20), 2);
 
         when(patientRepository.search(isNull(), isNull(), isNull(), isNull(), any(Pageable.class)))
                 .thenReturn(page);
-        when(patientMapper.toSummary(any())).thenAnswer(inv -> summaryOf(inv.getArgument(0)));
+        when(patientMapper.toSummary(any(PatientSummaryView.class)))
+                .thenAnswer(inv -> summaryOf(inv.<PatientSummaryView>getArgument(0)));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients(null, "ALL", "ALL", "ALL", 0, 20);
+                patientService.searchPatients(null, "ALL", "ALL", "ALL", 0, 20, "EXACT", null);
 
         assertThat(result.content()).hasSize(2);
         assertThat(result.totalElements()).isEqualTo(2);
@@ -221,15 +289,15 @@ class PatientServiceTest {
 
     @Test
     void searchPatients_genderFemale_filtersCorrectly() {
-        Patient female = samplePatient("P2026003", "Alice", "Jones", PatientStatus.ACTIVE, Gender.FEMALE);
-        Page<Patient> page = new PageImpl<>(List.of(female), PageRequest.of(0, 20), 1);
+        PatientSummaryView female = sampleView("P2026003", "Alice", "Jones", PatientStatus.ACTIVE, Gender.FEMALE);
+        Page<PatientSummaryView> page = new PageImpl<>(List.of(female), PageRequest.of(0, 20), 1);
 
         when(patientRepository.search(isNull(), eq(PatientStatus.ACTIVE), eq(Gender.FEMALE), isNull(), any(Pageable.class)))
                 .thenReturn(page);
         when(patientMapper.toSummary(female)).thenReturn(summaryOf(female));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients(null, "ACTIVE", "FEMALE", "ALL", 0, 20);
+                patientService.searchPatients(null, "ACTIVE", "FEMALE", "ALL", 0, 20, "EXACT", null);
 
         assertThat(result.content()).hasSize(1);
         assertThat(result.content().get(0).gender()).isEqualTo(Gender.FEMALE);
@@ -237,27 +305,27 @@ class PatientServiceTest {
 
     @Test
     void searchPatients_bloodGroupAPos_filtersCorrectly() {
-        Patient p = samplePatient("P2026004", "Bob", "Adams", PatientStatus.ACTIVE, Gender.MALE);
-        Page<Patient> page = new PageImpl<>(List.of(p), PageRequest.of(0, 20), 1);
+        PatientSummaryView p = sampleView("P2026004", "Bob", "Adams", PatientStatus.ACTIVE, Gender.MALE);
+        Page<PatientSummaryView> page = new PageImpl<>(List.of(p), PageRequest.of(0, 20), 1);
 
         when(patientRepository.search(isNull(), eq(PatientStatus.ACTIVE), isNull(), eq(BloodGroup.A_POS), any(Pageable.class)))
                 .thenReturn(page);
         when(patientMapper.toSummary(p)).thenReturn(summaryOf(p));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients(null, "ACTIVE", "ALL", "A_POS", 0, 20);
+                patientService.searchPatients(null, "ACTIVE", "ALL", "A_POS", 0, 20, "EXACT", null);
 
         assertThat(result.content()).hasSize(1);
     }
 
     @Test
     void searchPatients_emptyResults_returnsEmptyPage() {
-        Page<Patient> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
+        Page<PatientSummaryView> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
         when(patientRepository.search(eq("xyz"), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients("xyz", "ACTIVE", "ALL", "ALL", 0, 20);
+                patientService.searchPatients("xyz", "ACTIVE", "ALL", "ALL", 0, 20, "EXACT", null);
 
         assertThat(result.content()).isEmpty();
         assertThat(result.totalElements()).isEqualTo(0);
@@ -265,41 +333,216 @@ class PatientServiceTest {
 
     @Test
     void searchPatients_page2Size20_returnsCorrectSlice() {
-        List<Patient> patients = List.of(
-                samplePatient("P2026021", "X", "Y", PatientStatus.ACTIVE, Gender.MALE)
+        List<PatientSummaryView> patients = List.of(
+                sampleView("P2026021", "X", "Y", PatientStatus.ACTIVE, Gender.MALE)
         );
-        Page<Patient> page = new PageImpl<>(patients, PageRequest.of(1, 20), 21);
+        Page<PatientSummaryView> page = new PageImpl<>(patients, PageRequest.of(1, 20), 21);
 
         when(patientRepository.search(isNull(), eq(PatientStatus.ACTIVE), isNull(), isNull(), any(Pageable.class)))
                 .thenReturn(page);
-        when(patientMapper.toSummary(any())).thenAnswer(inv -> summaryOf(inv.getArgument(0)));
+        when(patientMapper.toSummary(any(PatientSummaryView.class)))
+                .thenAnswer(inv -> summaryOf(inv.<PatientSummaryView>getArgument(0)));
 
         PagedResponse<PatientSummaryResponse> result =
-                patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 1, 20);
+                patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 1, 20, "EXACT", null);
 
         assertThat(result.page()).isEqualTo(1);
         assertThat(result.totalPages()).isEqualTo(2);
         assertThat(result.last()).isTrue();
     }
 
+    @Test
+    void searchPatients_countModeNone_skipsCountQuery() {
+        PatientSummaryView p = sampleView("P2026001", "Jane", "Smith", PatientStatus.ACTIVE, Gender.FEMALE);
+        Slice<PatientSummaryView> slice = new SliceImpl<>(List.of(p), PageRequest.of(0, 20), true);
+        when(patientRepository.searchSlice(isNull(), eq(PatientStatus.ACTIVE), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(slice);
+        when(patientMapper.toSummary(p)).thenReturn(summaryOf(p));
+
+        PagedResponse<PatientSummaryResponse> result =
+                patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20, "NONE", null);
+
+        assertThat(result.countMode()).isEqualTo(CountMode.NONE);
+        assertThat(result.totalElements()).isNull();
+        assertThat(result.totalPages()).isNull();
+        assertThat(result.last()).isFalse();
+        verify(patientRepository, never()).search(any(), any(), any(), any(), any(Pageable.class));
+        verifyNoInteractions(countCache);
+    }
+
+    @Test
+    void searchPatients_countModeEstimate_usesCachedCountUntilLastPage() {
+        List<PatientSummaryView> rows = List.of(
+                sampleView("P2026021", "X", "Y", PatientStatus.ACTIVE, Gender.MALE),
+                sampleView("P2026022", "X", "Z", PatientStatus.ACTIVE, Gender.MALE));
+        when(patientRepository.searchSlice(eq("x"), eq(PatientStatus.ACTIVE), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(rows, PageRequest.of(0, 2), true))
+                .thenReturn(new SliceImpl<>(rows.subList(0, 1), PageRequest.of(1, 2), false));
+        when(countCache.estimate("x", PatientStatus.ACTIVE, null, null)).thenReturn(35L);
+        when(patientMapper.toSummary(any(PatientSummaryView.class)))
+                .thenAnswer(inv -> summaryOf(inv.<PatientSummaryView>getArgument(0)));
+
+        PagedResponse<PatientSummaryResponse> first =
+                patientService.searchPatients("x", "ACTIVE", "ALL", "ALL", 0, 2, "ESTIMATE", null);
+        assertThat(first.totalElements()).isEqualTo(35);
+        assertThat(first.totalPages()).isEqualTo(18);
+        assertThat(first.countMode()).isEqualTo(CountMode.ESTIMATE);
+
+        // Last page: the total is known exactly, the stale cached 35 is not consulted
+        PagedResponse<PatientSummaryResponse> last =
+                patientService.searchPatients("x", "ACTIVE", "ALL", "ALL", 1, 2, "ESTIMATE", null);
+        assertThat(last.totalElements()).isEqualTo(3);
+        assertThat(last.totalPages()).isEqualTo(2);
+        assertThat(last.last()).isTrue();
+        verify(countCache, times(1)).estimate(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchPatients_phoneticMatch_usesPhoneticKeysAndExactCount() {
+        PatientSummaryView smith = sampleView("P2026002", "John", "Smith", PatientStatus.ACTIVE, Gender.MALE);
+        when(patientRepository.searchPhonetic(eq("Jon Smyth"), eq(PatientStatus.ACTIVE), isNull(), isNull(),
+                any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(smith), PageRequest.of(0, 20), 1));
+        when(patientMapper.toSummary(smith)).thenReturn(summaryOf(smith));
+
+        PagedResponse<PatientSummaryResponse> result =
+                patientService.searchPatients("Jon Smyth", "ACTIVE", "ALL", "ALL", 0, 20, "NONE", "phonetic");
+
+        assertThat(result.content()).extracting(PatientSummaryResponse::lastName).containsExactly("Smith");
+        assertThat(result.totalElements()).isEqualTo(1);
+        assertThat(result.countMode()).isEqualTo(CountMode.EXACT);
+        verify(patientRepository, never()).search(any(), any(), any(), any(), any(Pageable.class));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void searchPatients_indexReady_answersWithoutDatabase() {
+        PatientSummaryResponse hit = new PatientSummaryResponse(
+                "P2026001", "Jane", "Smith", 40, Gender.FEMALE, "555-123-4567", PatientStatus.ACTIVE);
+        when(searchIndex.search("smith", PatientStatus.ACTIVE, null, null, 20L, 20))
+                .thenReturn(Optional.of(new PatientNgramIndex.Hits(List.of(hit), 21)));
+
+        PagedResponse<PatientSummaryResponse> result =
+                patientService.searchPatients("smith", "ACTIVE", "ALL", "ALL", 1, 20, "NONE", null);
+
+        assertThat(result.content()).containsExactly(hit);
+        assertThat(result.totalElements()).isEqualTo(21);
+        assertThat(result.totalPages()).isEqualTo(2);
+        assertThat(result.last()).isTrue();
+        assertThat(result.countMode()).isEqualTo(CountMode.EXACT);
+        verifyNoInteractions(patientRepository, countCache);
+    }
+
+    @Test
+    void getFacets_noQuery_readsRunningCounters() {
+        PatientFacetCube cube = PatientFacetCube.of(List.of(
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.O_NEG, 4),
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.MALE, BloodGroup.O_NEG, 3),
+                new PatientFacetCount(PatientStatus.INACTIVE, Gender.MALE, BloodGroup.A_POS, 2)));
+        when(facetCounters.snapshot()).thenReturn(Optional.of(cube));
+
+        PatientFacetsResponse facets = patientService.getFacets(null, "ACTIVE", "ALL", "ALL");
+
+        assertThat(facets.total()).isEqualTo(7);
+        assertThat(facets.bloodGroup()).containsEntry("O_NEG", 7L).containsEntry("A_POS", 0L);
+        assertThat(facets.status()).containsEntry("ACTIVE", 7L).containsEntry("INACTIVE", 2L);
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void getFacets_withQuery_countsMatchesInOneGroupedQuery() {
+        when(patientRepository.facetCounts("smith")).thenReturn(List.of(
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.FEMALE, BloodGroup.A_POS, 5),
+                new PatientFacetCount(PatientStatus.ACTIVE, Gender.MALE, BloodGroup.B_POS, 2)));
+
+        PatientFacetsResponse facets = patientService.getFacets("smith", "ACTIVE", "FEMALE", "ALL");
+
+        assertThat(facets.total()).isEqualTo(5);
+        // The gender facet ignores the gender filter; blood groups respect it
+        assertThat(facets.gender()).containsEntry("FEMALE", 5L).containsEntry("MALE", 2L);
+        assertThat(facets.bloodGroup()).containsEntry("A_POS", 5L).containsEntry("B_POS", 0L);
+        verifyNoInteractions(facetCounters);
+    }
+
+    @Test
+    void getPatient_cached_skipsDatabase() {
+        PatientResponse cached = mock(PatientResponse.class);
+        when(profileCache.get("P2026001")).thenReturn(Optional.of(cached));
+
+        assertThat(patientService.getPatient("P2026001")).isSameAs(cached);
+        verifyNoInteractions(patientRepository, patientMapper);
+    }
+
+    @Test
+    void getPatient_notCached_loadsAndOffersToCache() {
+        Patient patient = samplePatient("P2026001", "Jane", "Smith", PatientStatus.ACTIVE, Gender.FEMALE);
+        PatientResponse response = mock(PatientResponse.class);
+        when(patientRepository.findById("P2026001")).thenReturn(Optional.of(patient));
+        when(patientMapper.toResponse(patient)).thenReturn(response);
+
+        assertThat(patientService.getPatient("P2026001")).isSameAs(response);
+        verify(profileCache).put(response);
+    }
+
+    @Test
+    void scrollPatients_moreRowsThanSize_returnsCursorThatSeeksPastLastRow() {
+        PatientScrollRow first = sampleScrollRow("P2026001", "Anna", "Adams", Gender.FEMALE);
+        PatientScrollRow second = sampleScrollRow("P2026002", "Bob", "Baker", Gender.MALE);
+        PatientScrollRow extra = sampleScrollRow("P2026003", "Cara", "Cole", Gender.FEMALE);
+        when(patientRepository.scroll(isNull(), eq(PatientStatus.ACTIVE), isNull(), isNull(),
+                eq(PatientScrollOrder.LAST_NAME), isNull(), eq(3)))
+                .thenReturn(List.of(first, second, extra));
+        when(patientMapper.toSummary(any(PatientSummaryView.class)))
+                .thenAnswer(inv -> summaryOf(inv.<PatientSummaryView>getArgument(0)));
+
+        CursorPagedResponse<PatientSummaryResponse> result =
+                patientService.scrollPatients(null, "ACTIVE", "ALL", "ALL", "lastName", null, 2);
+
+        assertThat(result.content()).extracting(PatientSummaryResponse::patientId)
+                .containsExactly("P2026001", "P2026002");
+        assertThat(result.hasNext()).isTrue();
+
+        when(patientRepository.scroll(isNull(), eq(PatientStatus.ACTIVE), isNull(), isNull(),
+                eq(PatientScrollOrder.LAST_NAME), eq(new Object[]{"Baker", "Bob", "P2026002"}), eq(3)))
+                .thenReturn(List.of(extra));
+
+        CursorPagedResponse<PatientSummaryResponse> next =
+                patientService.scrollPatients(null, "ACTIVE", "ALL", "ALL", "lastName", result.next(), 2);
+
+        assertThat(next.content()).extracting(PatientSummaryResponse::patientId).containsExactly("P2026003");
+        assertThat(next.hasNext()).isFalse();
+        assertThat(next.next()).isNull();
+    }
+
+    @Test
+    void scrollPatients_cursorFromAnotherSort_throwsInvalidCursor() {
+        PatientScrollRow p = sampleScrollRow("P2026001", "Anna", "Adams", Gender.FEMALE);
+        String byLastName = PatientScrollOrder.LAST_NAME.cursorAfter(p).encode();
+
+        assertThatThrownBy(() ->
+                patientService.scrollPatients(null, "ACTIVE", "ALL", "ALL", "dateOfBirth", byLastName, 20))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(patientRepository);
+    }
+
     @Test
     void searchPatients_asDoctor_allowed() {
         AuthContext.Holder.set(new AuthContext("doc1", "doctor1", "DOCTOR"));
-        Page<Patient> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
+        Page<PatientSummaryView> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
         when(patientRepository.search(any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
         // Should NOT throw — all authenticated roles can search
-        assertThat(patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20)).isNotNull();
+        assertThat(patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20, "EXACT", null)).isNotNull();
     }
 
     @Test
     void searchPatients_asNurse_allowed() {
         AuthContext.Holder.set(new AuthContext("nur1", "nurse1", "NURSE"));
-        Page<Patient> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
+        Page<PatientSummaryView> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
         when(patientRepository.search(any(), any(), any(), any(), any(Pageable.class)))
                 .thenReturn(emptyPage);
 
-        assertThat(patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20)).isNotNull();
+        assertThat(patientService.searchPatients(null, "ACTIVE", "ALL", "ALL", 0, 20, "EXACT", null)).isNotNull();
     }
 }
@@ -0,0 +1,150 @@
+package com.ainexus.hospital.patient.unit.service;
+
+import com.ainexus.hospital.patient.cluster.ClusterNotificationBus;
+import com.ainexus.hospital.patient.entity.HospitalUser;
+import com.ainexus.hospital.patient.exception.InvalidCursorException;
+import com.ainexus.hospital.patient.repository.HospitalUserRepository;
+import com.ainexus.hospital.patient.service.StaffDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StaffDirectoryTest {
+
+    @Mock private HospitalUserRepository userRepository;
+    @Mock private ClusterNotificationBus notificationBus;
+
+    private StaffDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new StaffDirectory(userRepository, notificationBus, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void findById_cachedAfterFirstLoad() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(userRepository.findById("U2026001")).thenReturn(Optional.of(user("U2026001", "Doctor1", "DOCTOR")));
+
+        assertThat(directory.findById("U2026001")).isPresent();
+        assertThat(directory.findById("U2026001").orElseThrow().username()).isEqualTo("Doctor1");
+        assertThat(directory.findByUsername("doctor1")).isPresent();
+
+        verify(userRepository, times(1)).findById("U2026001");
+        verify(userRepository, never()).findByUsernameIgnoreCase(any());
+    }
+
+    @Test
+    void publishChange_marksUserStaleAndNotifiesOtherNodes() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        HospitalUser user = user("U2026001", "doctor1", "DOCTOR");
+        when(userRepository.findById("U2026001")).thenReturn(Optional.of(user));
+        directory.findById("U2026001");
+
+        user.setFailedAttempts(3);
+        directory.publishChange("U2026001");
+
+        assertThat(directory.findById("U2026001").orElseThrow().failedAttempts()).isEqualTo(3);
+        verify(notificationBus).publish("staff_changed", "U2026001");
+        verify(userRepository, times(2)).findById("U2026001");
+    }
+
+    @Test
+    void list_filtersSortsAndPagesInMemory() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(userRepository.findAll()).thenReturn(List.of(
+                user("U2026001", "carol", "DOCTOR"),
+                user("U2026002", "alice", "DOCTOR"),
+                user("U2026003", "bob", "NURSE"),
+                user("U2026004", "dave", "DOCTOR")));
+
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "username"));
+        Page<StaffDirectory.Entry> page = directory.list("DOCTOR", null, firstPage);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(StaffDirectory.Entry::username).containsExactly("alice", "carol");
+        assertThat(directory.list("DOCTOR", null, firstPage.next()).getContent())
+                .extracting(StaffDirectory.Entry::username).containsExactly("dave");
+        verify(userRepository, times(1)).findAll();
+    }
+
+    @Test
+    void listAfter_seeksPastCursorRow() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(userRepository.findAll()).thenReturn(List.of(
+                user("U2026001", "carol", "DOCTOR"),
+                user("U2026002", "alice", "DOCTOR"),
+                user("U2026003", "bob", "NURSE"),
+                user("U2026004", "dave", "DOCTOR")));
+        Sort.Order byUsername = Sort.Order.asc("username");
+
+        List<StaffDirectory.Entry> first = directory.listAfter("DOCTOR", null, byUsername, null, 2);
+        String cursor = StaffDirectory.cursorAfter(first.get(1), byUsername).encode();
+
+        assertThat(first).extracting(StaffDirectory.Entry::username).containsExactly("alice", "carol");
+        assertThat(directory.listAfter("DOCTOR", null, byUsername, cursor, 2))
+                .extracting(StaffDirectory.Entry::username).containsExactly("dave");
+        assertThatThrownBy(() -> directory.listAfter("DOCTOR", null, Sort.Order.desc("username"), cursor, 2))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void list_afterChange_rereadsOnlyStaleUsers() {
+        when(notificationBus.isConnected()).thenReturn(true);
+        when(userRepository.findAll()).thenReturn(List.of(user("U2026001", "alice", "DOCTOR")));
+        directory.list(null, null, PageRequest.of(0, 20, Sort.by("username")));
+
+        when(userRepository.findAllById(any())).thenReturn(List.of(user("U2026002", "bob", "NURSE")));
+        directory.publishChange("U2026002");
+
+        assertThat(directory.list(null, null, PageRequest.of(0, 20, Sort.by("username"))).getContent())
+                .extracting(StaffDirectory.Entry::username).containsExactly("alice", "bob");
+        verify(userRepository, times(1)).findAll();
+    }
+
+    @Test
+    void listenerDisconnected_readsThroughToDatabase() {
+        when(notificationBus.isConnected()).thenReturn(false);
+        when(userRepository.findById("U2026001")).thenReturn(Optional.of(user("U2026001", "doctor1", "DOCTOR")));
+
+        directory.findById("U2026001");
+        directory.findById("U2026001");
+
+        verify(userRepository, times(2)).findById("U2026001");
+    }
+
+    @Test
+    void canSort_onlyKnownProperties() {
+        assertThat(StaffDirectory.canSort(Sort.by("username"))).isTrue();
+        assertThat(StaffDirectory.canSort(Sort.unsorted())).isTrue();
+        assertThat(StaffDirectory.canSort(Sort.by("passwordHash"))).isFalse();
+    }
+
+    private static HospitalUser user(String userId, String username, String role) {
+        return HospitalUser.builder()
+                .userId(userId)
+                .username(username)
+                .passwordHash("$2a$12$hashed")
+                .role(role)
+                .status("ACTIVE")
+                .createdAt(OffsetDateTime.now())
+                .updatedAt(OffsetDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ainexus.hospital.patient.unit.validation;
+
+import com.ainexus.hospital.patient.validation.PhoneNumbers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhoneNumbersTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"+1-555-123-4567", "(555) 123-4567", "555-123-4567", "15551234567"})
+    void toE164_everyAcceptedFormat_normalizesToTheSameNumber(String phone) {
+        assertThat(PhoneNumbers.toE164(phone)).isEqualTo("+15551234567");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"555-1234", "25551234567", "+44 20 7946 0958", ""})
+    void toE164_notANationalNumber_returnsNull(String phone) {
+        assertThat(PhoneNumbers.toE164(phone)).isNull();
+    }
+
+    @Test
+    void searchPattern_completeNumber_isExact() {
+        assertThat(PhoneNumbers.searchPattern("(555) 123-4567")).isEqualTo("+15551234567");
+        assertThat(PhoneNumbers.searchPattern("+1 555 123 4567")).isEqualTo("+15551234567");
+        assertThat(PhoneNumbers.searchPattern("15551234567")).isEqualTo("+15551234567");
+    }
+
+    @Test
+    void searchPattern_partialNumberFromCountryCode_isPrefix() {
+        assertThat(PhoneNumbers.searchPattern("+1-555-123")).isEqualTo("+1555123%");
+        assertThat(PhoneNumbers.searchPattern("+1 (555) 123-4")).isEqualTo("+15551234%");
+    }
+
+    @Test
+    void searchPattern_partialNumber_matchesAnywhereInTheDigits() {
+        assertThat(PhoneNumbers.searchPattern("555-123")).isEqualTo("%555123%");
+        assertThat(PhoneNumbers.searchPattern(" (555) 123-4 ")).isEqualTo("%5551234%");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"123-4567", "1234567", "123.4567"})
+    void searchPattern_localNumberWithoutAreaCode_isNotAnchoredToTheAreaCode(String query) {
+        assertThat(PhoneNumbers.searchPattern(query)).isEqualTo("%1234567%");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"4567", "555-12", "P2026001", "smith", "555-123-4567 x2", "5551234567890"})
+    void searchPattern_notPhoneShaped_returnsNull(String query) {
+        assertThat(PhoneNumbers.searchPattern(query)).isNull();
+    }
+}
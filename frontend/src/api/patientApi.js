@@ -45,9 +45,11 @@ export async function checkDuplicatePhone(phone, excludePatientId = null) {
 
 // ── US2: Search & List ─────────────────────────────────────────────────────
 
+// countMode: 'EXACT' (COUNT on every call), 'ESTIMATE' (cached count) or 'NONE' (no totals)
 export async function searchPatients({ query = '', status = 'ACTIVE', gender = 'ALL',
-                                       bloodGroup = 'ALL', page = 0, size = 20 } = {}) {
-  const params = { page, size, sort: 'createdAt,desc' }
+                                       bloodGroup = 'ALL', page = 0, size = 20,
+                                       countMode = 'EXACT' } = {}) {
+  const params = { page, size, sort: 'createdAt,desc', countMode }
   if (query) params.query = query
   if (status && status !== 'ALL') params.status = status
   if (gender && gender !== 'ALL') params.gender = gender
@@ -56,6 +58,17 @@ export async function searchPatients({ query = '', status = 'ACTIVE', gender = '
   return response.data
 }
 
+// Per-value counts for the status / gender / blood group filters; keys are filter values
+export async function getPatientFacets({ query = '', status = 'ACTIVE', gender = 'ALL',
+                                         bloodGroup = 'ALL' } = {}) {
+  const params = { status }
+  if (query) params.query = query
+  if (gender && gender !== 'ALL') params.gender = gender
+  if (bloodGroup && bloodGroup !== 'ALL') params.bloodGroup = bloodGroup
+  const response = await api.get('/patients/facets', { params })
+  return response.data
+}
+
 // ── US3: Profile View ──────────────────────────────────────────────────────
 
 export async function getPatient(patientId) {
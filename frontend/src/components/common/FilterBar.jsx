@@ -1,7 +1,14 @@
+/** "Male" → "Male (12)" when a count for the value is known. */
+function withCount(label, count) {
+  return count == null ? label : `${label} (${count})`
+}
+
 /**
  * Status / Gender / Blood Group filter bar for the patient list page.
+ * `facets` (optional) is the facets response for the current search; each option then
+ * shows how many patients selecting it would return.
  */
-export default function FilterBar({ status, gender, bloodGroup, onStatusChange, onGenderChange, onBloodGroupChange }) {
+export default function FilterBar({ status, gender, bloodGroup, facets, onStatusChange, onGenderChange, onBloodGroupChange }) {
   return (
     <div className="flex flex-wrap gap-3 items-center">
 
@@ -16,8 +23,8 @@ export default function FilterBar({ status, gender, bloodGroup, onStatusChange,
           onChange={e => onStatusChange(e.target.value)}
           aria-label="Filter by status"
         >
-          <option value="ACTIVE">Active</option>
-          <option value="INACTIVE">Inactive</option>
+          <option value="ACTIVE">{withCount('Active', facets?.status?.ACTIVE)}</option>
+          <option value="INACTIVE">{withCount('Inactive', facets?.status?.INACTIVE)}</option>
           <option value="ALL">All</option>
         </select>
       </div>
@@ -34,9 +41,9 @@ export default function FilterBar({ status, gender, bloodGroup, onStatusChange,
           aria-label="Filter by gender"
         >
           <option value="ALL">All</option>
-          <option value="MALE">Male</option>
-          <option value="FEMALE">Female</option>
-          <option value="OTHER">Other</option>
+          <option value="MALE">{withCount('Male', facets?.gender?.MALE)}</option>
+          <option value="FEMALE">{withCount('Female', facets?.gender?.FEMALE)}</option>
+          <option value="OTHER">{withCount('Other', facets?.gender?.OTHER)}</option>
         </select>
       </div>
 
@@ -52,15 +59,15 @@ export default function FilterBar({ status, gender, bloodGroup, onStatusChange,
           aria-label="Filter by blood group"
         >
           <option value="ALL">All</option>
-          <option value="A_POS">A+</option>
-          <option value="A_NEG">A−</option>
-          <option value="B_POS">B+</option>
-          <option value="B_NEG">B−</option>
-          <option value="AB_POS">AB+</option>
-          <option value="AB_NEG">AB−</option>
-          <option value="O_POS">O+</option>
-          <option value="O_NEG">O−</option>
-          <option value="UNKNOWN">Unknown</option>
+          <option value="A_POS">{withCount('A+', facets?.bloodGroup?.A_POS)}</option>
+          <option value="A_NEG">{withCount('A−', facets?.bloodGroup?.A_NEG)}</option>
+          <option value="B_POS">{withCount('B+', facets?.bloodGroup?.B_POS)}</option>
+          <option value="B_NEG">{withCount('B−', facets?.bloodGroup?.B_NEG)}</option>
+          <option value="AB_POS">{withCount('AB+', facets?.bloodGroup?.AB_POS)}</option>
+          <option value="AB_NEG">{withCount('AB−', facets?.bloodGroup?.AB_NEG)}</option>
+          <option value="O_POS">{withCount('O+', facets?.bloodGroup?.O_POS)}</option>
+          <option value="O_NEG">{withCount('O−', facets?.bloodGroup?.O_NEG)}</option>
+          <option value="UNKNOWN">{withCount('Unknown', facets?.bloodGroup?.UNKNOWN)}</option>
         </select>
       </div>
     </div>
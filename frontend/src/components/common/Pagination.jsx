@@ -1,22 +1,41 @@
 /**
  * Pagination controls for the patient list.
  * Displays "Showing X–Y of Z patients" + Previous/Next buttons.
+ *
+ * countMode follows the search API: EXACT shows the total, ESTIMATE shows it as
+ * "about Z", NONE shows no total and offers a "Count all" button (onRequestCount).
+ * Previous/Next rely on first/last, which the API returns exactly in every mode.
  */
 export default function Pagination({ page, size, totalElements, totalPages,
-                                     first, last, itemsOnPage, onPageChange }) {
-  if (totalElements === 0) return null
+                                     first, last, itemsOnPage, onPageChange,
+                                     countMode = 'EXACT', onRequestCount }) {
+  const hasTotal = totalElements != null
+  if (hasTotal ? totalElements === 0 : itemsOnPage === 0) return null
 
   const from = page * size + 1
   // If itemsOnPage is provided use it; otherwise compute from size
   const to = from + (itemsOnPage != null ? itemsOnPage - 1 : Math.min(size, totalElements - page * size) - 1)
   const isFirst = first != null ? first : page === 0
   const isLast = last != null ? last : page >= totalPages - 1
+  const approximate = countMode === 'ESTIMATE' && !isLast
 
   return (
     <div className="flex items-center justify-between border-t border-gray-200 bg-white px-4 py-3 sm:px-6">
       <div className="text-sm text-gray-600">
-        Showing <span className="font-medium">{from}</span>–<span className="font-medium">{to}</span> of{' '}
-        <span className="font-medium">{totalElements}</span> patients
+        Showing <span className="font-medium">{from}</span>–<span className="font-medium">{to}</span>
+        {hasTotal && (
+          <>
+            {' '}of {approximate && 'about '}<span className="font-medium">{totalElements}</span> patients
+          </>
+        )}
+        {!hasTotal && onRequestCount && (
+          <button
+            onClick={onRequestCount}
+            className="ml-2 text-blue-600 hover:underline"
+          >
+            Count all
+          </button>
+        )}
       </div>
 
       <div className="flex gap-2">
@@ -2,7 +2,7 @@ import { Link } from 'react-router-dom'
 import PatientListRow from './PatientListRow.jsx'
 import Pagination from '../common/Pagination.jsx'
 
-export default function PatientList({ patients, pagination, role, hasQuery, onPageChange }) {
+export default function PatientList({ patients, pagination, role, hasQuery, onPageChange, onRequestCount }) {
   const canRegister = role === 'RECEPTIONIST' || role === 'ADMIN'
 
   // Empty-state content
@@ -62,6 +62,8 @@ export default function PatientList({ patients, pagination, role, hasQuery, onPa
             last={pagination.last}
             onPageChange={onPageChange}
             itemsOnPage={patients.length}
+            countMode={pagination.countMode}
+            onRequestCount={onRequestCount}
           />
         </div>
       )}
@@ -8,6 +8,7 @@ const defaultState = {
   gender: 'ALL',
   bloodGroup: 'ALL',
   page: 0,
+  exactCount: false,
 }
 
 /**
@@ -33,12 +34,14 @@ export function useListState() {
     }
   }, [state])
 
-  const setQuery = useCallback(query => setState(s => ({ ...s, query, page: 0 })), [])
-  const setStatus = useCallback(status => setState(s => ({ ...s, status, page: 0 })), [])
-  const setGender = useCallback(gender => setState(s => ({ ...s, gender, page: 0 })), [])
-  const setBloodGroup = useCallback(bloodGroup => setState(s => ({ ...s, bloodGroup, page: 0 })), [])
+  // A filter change starts a new result set: back to page 0, and an exact total only on request
+  const setQuery = useCallback(query => setState(s => ({ ...s, query, page: 0, exactCount: false })), [])
+  const setStatus = useCallback(status => setState(s => ({ ...s, status, page: 0, exactCount: false })), [])
+  const setGender = useCallback(gender => setState(s => ({ ...s, gender, page: 0, exactCount: false })), [])
+  const setBloodGroup = useCallback(bloodGroup => setState(s => ({ ...s, bloodGroup, page: 0, exactCount: false })), [])
   const setPage = useCallback(page => setState(s => ({ ...s, page })), [])
+  const requestExactCount = useCallback(() => setState(s => ({ ...s, exactCount: true })), [])
   const reset = useCallback(() => setState(defaultState), [])
 
-  return { ...state, setQuery, setStatus, setGender, setBloodGroup, setPage, reset }
+  return { ...state, setQuery, setStatus, setGender, setBloodGroup, setPage, requestExactCount, reset }
 }
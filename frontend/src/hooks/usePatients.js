@@ -1,5 +1,5 @@
 import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query'
-import { registerPatient, searchPatients } from '../api/patientApi.js'
+import { getPatientFacets, registerPatient, searchPatients } from '../api/patientApi.js'
 
 /**
  * US1: Mutation hook to register a new patient.
@@ -28,3 +28,17 @@ export function useSearchPatients(params = {}) {
     placeholderData: previousData => previousData, // replaces keepPreviousData in v5
   })
 }
+
+/**
+ * US2: Filter counts for the current search. Not paged, so a filter change
+ * refetches once; keeps the previous counts while it does.
+ */
+export function usePatientFacets(params = {}) {
+  return useQuery({
+    queryKey: ['patients', 'facets', params],
+    queryFn: () => getPatientFacets(params),
+    staleTime: 30_000,
+    gcTime: 300_000,
+    placeholderData: previousData => previousData,
+  })
+}
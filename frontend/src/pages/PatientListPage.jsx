@@ -1,17 +1,26 @@
 import { Link } from 'react-router-dom'
 import { useAuth } from '../hooks/useAuth.js'
-import { useSearchPatients } from '../hooks/usePatients.js'
+import { usePatientFacets, useSearchPatients } from '../hooks/usePatients.js'
 import { useListState } from '../hooks/useListState.js'
 import SearchBox from '../components/common/SearchBox.jsx'
 import FilterBar from '../components/common/FilterBar.jsx'
 import PatientList from '../components/patient/PatientList.jsx'
 import LoadingSpinner from '../components/common/LoadingSpinner.jsx'
 
+function resultCountHint(data) {
+  if (data.totalElements == null) {
+    return data.content.length === 0 ? 'No patients found' : null
+  }
+  if (data.totalElements === 0) return 'No patients found'
+  const approximate = data.countMode === 'ESTIMATE' && !data.last ? 'About ' : ''
+  return `${approximate}${data.totalElements} patient${data.totalElements !== 1 ? 's' : ''} found`
+}
+
 export default function PatientListPage() {
   const { role } = useAuth()
   const {
-    query, status, gender, bloodGroup, page,
-    setQuery, setStatus, setGender, setBloodGroup, setPage, reset,
+    query, status, gender, bloodGroup, page, exactCount,
+    setQuery, setStatus, setGender, setBloodGroup, setPage, requestExactCount, reset,
   } = useListState()
 
   const canRegister = role === 'RECEPTIONIST' || role === 'ADMIN'
@@ -23,12 +32,17 @@ export default function PatientListPage() {
     bloodGroup,
     page,
     size: 20,
+    // Exact totals cost a COUNT(*) per request — only run one when the user asks.
+    // Filter-only listings reuse a cached count; free-text searches skip it entirely.
+    countMode: exactCount ? 'EXACT' : query ? 'NONE' : 'ESTIMATE',
   })
 
+  const { data: facets } = usePatientFacets({ query: query || undefined, status, gender, bloodGroup })
+
   const patients = data?.content ?? []
   const pagination = data
     ? { number: data.page, size: data.size, totalElements: data.totalElements,
-        totalPages: data.totalPages, first: data.first, last: data.last }
+        totalPages: data.totalPages, first: data.first, last: data.last, countMode: data.countMode }
     : null
   const hasQuery = !!(query || status !== 'ACTIVE' || gender !== 'ALL' || bloodGroup !== 'ALL')
 
@@ -56,6 +70,7 @@ export default function PatientListPage() {
           status={status}
           gender={gender}
           bloodGroup={bloodGroup}
+          facets={facets}
           onStatusChange={v => { setStatus(v); setPage(0) }}
           onGenderChange={v => { setGender(v); setPage(0) }}
           onBloodGroupChange={v => { setBloodGroup(v); setPage(0) }}
@@ -65,9 +80,7 @@ export default function PatientListPage() {
       {/* Result count hint */}
       {data && (
         <p className="text-sm text-gray-500 mb-3" aria-live="polite" aria-atomic="true">
-          {data.totalElements === 0
-            ? 'No patients found'
-            : `${data.totalElements} patient${data.totalElements !== 1 ? 's' : ''} found`}
+          {resultCountHint(data)}
         </p>
       )}
 
@@ -85,6 +98,7 @@ export default function PatientListPage() {
           role={role}
           hasQuery={hasQuery}
           onPageChange={setPage}
+          onRequestCount={requestExactCount}
         />
       )}
     </div>
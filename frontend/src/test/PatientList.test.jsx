@@ -31,7 +31,7 @@ const defaultPagination = {
 }
 
 function renderList({ patients = [], pagination = defaultPagination, role = 'RECEPTIONIST',
-                       hasQuery = false, onPageChange = vi.fn() } = {}) {
+                       hasQuery = false, onPageChange = vi.fn(), onRequestCount } = {}) {
   const qc = new QueryClient({ defaultOptions: { queries: { retry: false } } })
   return render(
     <QueryClientProvider client={qc}>
@@ -42,6 +42,7 @@ function renderList({ patients = [], pagination = defaultPagination, role = 'REC
           role={role}
           hasQuery={hasQuery}
           onPageChange={onPageChange}
+          onRequestCount={onRequestCount}
         />
       </MemoryRouter>
     </QueryClientProvider>
@@ -70,6 +71,27 @@ describe('PatientList', () => {
     expect(container.textContent.replace(/\s+/g, ' ')).toContain('Showing 1–1 of 25 patients')
   })
 
+  it('marks an estimated total as approximate', () => {
+    const patients = [makeSummary('P2026001', 'Jane', 'Smith')]
+    const pagination = { number: 0, size: 20, totalElements: 500, totalPages: 25,
+                         first: true, last: false, countMode: 'ESTIMATE' }
+    const { container } = renderList({ patients, pagination })
+    expect(container.textContent.replace(/\s+/g, ' ')).toContain('Showing 1–1 of about 500 patients')
+  })
+
+  it('offers "Count all" instead of a total when counting is off', async () => {
+    const onRequestCount = vi.fn()
+    const patients = [makeSummary('P2026001', 'Jane', 'Smith')]
+    const pagination = { number: 0, size: 20, totalElements: null, totalPages: null,
+                         first: true, last: false, countMode: 'NONE' }
+    const { container } = renderList({ patients, pagination, onRequestCount })
+
+    expect(container.textContent).not.toMatch(/ of /)
+    expect(screen.getByRole('button', { name: /Next/i })).toBeEnabled()
+    await userEvent.click(screen.getByRole('button', { name: /Count all/i }))
+    expect(onRequestCount).toHaveBeenCalledTimes(1)
+  })
+
   it('shows "No patients found" when no results with active query', () => {
     renderList({ patients: [], hasQuery: true })
     expect(screen.getByText(/No patients found matching your search/i)).toBeInTheDocument()